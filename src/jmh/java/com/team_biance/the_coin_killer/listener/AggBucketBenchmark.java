@@ -0,0 +1,62 @@
+package com.team_biance.the_coin_killer.listener;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.service.AggMinuteBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * aggTrade 1분 집계 (onAggTrade 의 문자열 파싱 + AggMinuteBucket.add)
+ * - 체결 1건당 ns/op (TRADES 건을 한 invocation 에서 처리)
+ * - 분 마감 toRow 는 별도
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AggBucketBenchmark {
+
+    private static final int TRADES = 1024;
+
+    private final String[] prices = new String[TRADES];
+    private final String[] qtys = new String[TRADES];
+    private final boolean[] makers = new boolean[TRADES];
+
+    private AggMinuteBucket bucket;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < TRADES; i++) {
+            prices[i] = String.format(Locale.ROOT, "%.1f", 67000.0 + rnd.nextInt(200) * 0.1);
+            qtys[i] = String.format(Locale.ROOT, "%.3f", 0.001 + rnd.nextInt(5000) * 0.001);
+            makers[i] = rnd.nextBoolean();
+        }
+        bucket = new AggMinuteBucket(1760781600000L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES)
+    public AggMinuteBucket accumulate() {
+        AggMinuteBucket b = bucket;
+        b.reset(1760781600000L);
+        for (int i = 0; i < TRADES; i++)
+            b.add(BinanceDataPersistListener.parseDoubleOrZero(prices[i]),
+                    BinanceDataPersistListener.parseDoubleOrZero(qtys[i]), makers[i]);
+        return b;
+    }
+
+    @Benchmark
+    public FAggTrade1m toRow() {
+        return bucket.toRow("BTCUSDT");
+    }
+}
@@ -0,0 +1,63 @@
+package com.team_biance.the_coin_killer.listener;
+
+import com.team_biance.the_coin_killer.dto.binance.OrderBookSnapshot;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.service.DepthBookCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * onDepth 1초 스냅샷 경로 (파생값 + BLOB 인코딩 -> FDepthSnapshot1s)
+ * - toDepthRow: spread / sumNotionalTopN / imbalance / microprice + codec 2회 (bids, asks)
+ * - encodeLevels: BLOB 인코딩만 (codec 별 비교, GZIP = 기존 JSON+gzip)
+ * - derivedOnly: 파생값 계산에 쓰는 sumNotionalTopN 만
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DepthRowBenchmark {
+
+    @Param({ "GZIP", "BIN1", "BIN1DFL" })
+    public String codec;
+
+    private OrderBookSnapshot book;
+    private DepthBookCodec depthCodec;
+    private DepthBookCodec gzipCodec;
+
+    @Setup
+    public void setUp() {
+        book = new OrderBookSnapshot();
+        for (int i = 0; i < 20; i++) {
+            double qty = 0.002 + (i * 37 % 11) * 0.731;
+            book.addBid(Math.round((67012.3 - i * 0.1) * 10) / 10.0, Math.round(qty * 1000) / 1000.0);
+            book.addAsk(Math.round((67012.4 + i * 0.1) * 10) / 10.0, Math.round(qty * 1000) / 1000.0);
+        }
+        depthCodec = new DepthBookCodec(codec);
+        gzipCodec = new DepthBookCodec(DepthBookCodec.GZIP);
+    }
+
+    @Benchmark
+    public FDepthSnapshot1s toDepthRow() throws Exception {
+        return BinanceDataPersistListener.toDepthRow("BTCUSDT", 1760781600000L, book, depthCodec, gzipCodec);
+    }
+
+    @Benchmark
+    public byte[] encodeLevels() throws Exception {
+        return depthCodec.encode(book.bidPrices(), book.bidQtys(), book.bidCount());
+    }
+
+    @Benchmark
+    public double derivedOnly() {
+        double bidSum = BinanceDataPersistListener.sumNotionalTopN(book.bidPrices(), book.bidQtys(), book.bidCount());
+        double askSum = BinanceDataPersistListener.sumNotionalTopN(book.askPrices(), book.askQtys(), book.askCount());
+        return (bidSum - askSum) / (bidSum + askSum);
+    }
+}
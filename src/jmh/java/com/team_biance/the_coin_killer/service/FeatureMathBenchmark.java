@@ -0,0 +1,93 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FKline1m;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분 feature 수학 (심볼 1개, 분 1개 기준)
+ * - FeatureCalculationService: DB 재조회 / 백필 경로 (LocalDateTime 키 Map 조회 + 배열)
+ * - RollingWindow: 실시간 경로 (O(1) 누적합) -> 같은 값을 얼마나 싸게 내는지 비교용
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FeatureMathBenchmark {
+
+    private static final int HISTORY = 120;
+
+    private final Map<LocalDateTime, FKline1m> kMap = new HashMap<>();
+    private final double[] vols = new double[60];
+    private LocalDateTime minuteStart;
+    private double currentVol;
+
+    private RollingWindow window;
+    private long minute;
+    private double[] stream;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(11);
+        minuteStart = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+        double close = 67000.0;
+        for (int i = HISTORY; i >= 0; i--) {
+            close *= 1.0 + (rnd.nextDouble() - 0.5) * 0.002;
+            FKline1m k = new FKline1m();
+            k.setClose(close);
+            k.setVolume(50.0 + rnd.nextDouble() * 200.0);
+            kMap.put(minuteStart.minusMinutes(i), k);
+        }
+        for (int i = 0; i < vols.length; i++)
+            vols[i] = kMap.get(minuteStart.minusMinutes(60 - i)).getVolume();
+        currentVol = kMap.get(minuteStart).getVolume();
+
+        window = new RollingWindow(60);
+        stream = new double[1024];
+        for (int i = 0; i < stream.length; i++)
+            stream[i] = 50.0 + rnd.nextDouble() * 200.0;
+        for (minute = 0; minute < 60; minute++)
+            window.put(minute, stream[(int) minute], true);
+    }
+
+    @Benchmark
+    public double realizedVol15() {
+        return FeatureCalculationService.realizedVol(kMap, minuteStart, 15);
+    }
+
+    @Benchmark
+    public double realizedVol60() {
+        return FeatureCalculationService.realizedVol(kMap, minuteStart, 60);
+    }
+
+    @Benchmark
+    public double volumeZ60() {
+        return FeatureCalculationService.volumeZ60(kMap, minuteStart, currentVol);
+    }
+
+    @Benchmark
+    public double stdPopulation60() {
+        return FeatureCalculationService.stdPopulation(vols);
+    }
+
+    /**
+     * 실시간 경로: 새 분 1개 put + std
+     */
+    @Benchmark
+    public double rollingPutAndStd() {
+        long m = minute++;
+        window.put(m, stream[(int) (m & 1023)], true);
+        return window.stdPopulation();
+    }
+}
@@ -0,0 +1,138 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.binance.AggTradeEvent;
+import com.team_biance.the_coin_killer.dto.binance.ForceOrderEvent;
+import com.team_biance.the_coin_killer.dto.binance.KlineEvent;
+import com.team_biance.the_coin_killer.dto.binance.MarkPriceEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * combined stream 프레임 1개 디코딩 (소켓 -> shard 스레드 첫 단계)
+ * - stream 종류별 ns/op, gc.alloc.rate.norm = 프레임당 할당 bytes
+ * - depth20 은 재사용 book 에 직접 채우므로 다른 stream 보다 할당이 적어야 정상
+ * - readTreeBaseline: 단일 패스 디코더 이전 경로 (readTree -> JsonNode -> treeToValue, depth 는 문자열 level 리스트)
+ *   같은 프레임의 decode 와 나란히 비교하는 before / after 기준
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StreamDecodeBenchmark {
+
+    @Param({ "depth20", "aggTrade", "kline", "markPrice", "forceOrder" })
+    public String stream;
+
+    private ObjectMapper objectMapper;
+    private BinanceStreamDecoder decoder;
+    private String frame;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        decoder = new BinanceStreamDecoder(objectMapper);
+        frame = switch (stream) {
+            case "depth20" -> depthFrame();
+            case "aggTrade" -> "{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":1760781600123,"
+                    + "\"s\":\"BTCUSDT\",\"a\":2871234567,\"p\":\"67012.30\",\"q\":\"0.015\",\"f\":6001234567,"
+                    + "\"l\":6001234569,\"T\":1760781600120,\"m\":true}}";
+            case "kline" -> "{\"stream\":\"btcusdt@kline_1m\",\"data\":{\"e\":\"kline\",\"E\":1760781600123,"
+                    + "\"s\":\"BTCUSDT\",\"k\":{\"t\":1760781540000,\"T\":1760781599999,\"s\":\"BTCUSDT\",\"i\":\"1m\","
+                    + "\"f\":6001230000,\"L\":6001234567,\"o\":\"67001.10\",\"c\":\"67012.30\",\"h\":\"67020.00\","
+                    + "\"l\":\"66990.50\",\"v\":\"152.347\",\"n\":4567,\"x\":true,\"q\":\"10208765.43\","
+                    + "\"V\":\"80.112\",\"Q\":\"5368123.77\",\"B\":\"0\"}}}";
+            case "markPrice" -> "{\"stream\":\"btcusdt@markPrice@1s\",\"data\":{\"e\":\"markPriceUpdate\","
+                    + "\"E\":1760781600000,\"s\":\"BTCUSDT\",\"p\":\"67010.12345678\",\"i\":\"67015.87654321\","
+                    + "\"P\":\"67020.11\",\"r\":\"0.00010000\",\"T\":1760803200000}}";
+            case "forceOrder" -> "{\"stream\":\"btcusdt@forceOrder\",\"data\":{\"e\":\"forceOrder\",\"E\":1760781600123,"
+                    + "\"o\":{\"s\":\"BTCUSDT\",\"S\":\"SELL\",\"o\":\"LIMIT\",\"f\":\"IOC\",\"q\":\"0.014\","
+                    + "\"p\":\"66950.10\",\"ap\":\"66960.00\",\"X\":\"FILLED\",\"l\":\"0.014\",\"z\":\"0.014\","
+                    + "\"T\":1760781600100}}}";
+            default -> throw new IllegalArgumentException(stream);
+        };
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return decoder.decode(frame);
+    }
+
+    @Benchmark
+    public String peekStream() {
+        return BinanceStreamDecoder.peekStream(frame);
+    }
+
+    @Benchmark
+    public Object readTreeBaseline() throws Exception {
+        JsonNode root = objectMapper.readTree(frame);
+        JsonNode streamNode = root.get("stream");
+        JsonNode dataNode = root.get("data");
+        if (streamNode == null || dataNode == null)
+            return null;
+
+        String name = streamNode.asText();
+        if (name.endsWith(BinanceStreamDecoder.SUFFIX_KLINE_1M))
+            return objectMapper.treeToValue(dataNode, KlineEvent.class);
+        if (name.endsWith(BinanceStreamDecoder.SUFFIX_AGG_TRADE))
+            return objectMapper.treeToValue(dataNode, AggTradeEvent.class);
+        if (name.endsWith(BinanceStreamDecoder.SUFFIX_FORCE_ORDER))
+            return objectMapper.treeToValue(dataNode, ForceOrderEvent.class);
+        if (name.endsWith(BinanceStreamDecoder.SUFFIX_MARK_PRICE))
+            return objectMapper.treeToValue(dataNode, MarkPriceEvent.class);
+        if (name.endsWith(BinanceStreamDecoder.SUFFIX_DEPTH20))
+            return new TreeDepth(dataNode.path("s").asText(null), dataNode.path("E").asLong(),
+                    dataNode.path("T").asLong(), levels(dataNode.get("b")), levels(dataNode.get("a")));
+        return null;
+    }
+
+    /**
+     * 이전 depth 결과 형태 (price / qty 문자열 쌍)
+     */
+    record TreeDepth(String symbol, long eventTime, long transactionTime, List<String[]> bids, List<String[]> asks) {
+    }
+
+    private static List<String[]> levels(JsonNode levelsNode) {
+        List<String[]> out = new ArrayList<>();
+        if (levelsNode == null || !levelsNode.isArray())
+            return out;
+        for (JsonNode lvl : levelsNode) {
+            if (!lvl.isArray() || lvl.size() < 2)
+                continue;
+            out.add(new String[] { lvl.get(0).asText(), lvl.get(1).asText() });
+        }
+        return out;
+    }
+
+    static String depthFrame() {
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append("{\"stream\":\"btcusdt@depth20@100ms\",\"data\":{\"e\":\"depthUpdate\",\"E\":1760781600123,")
+                .append("\"T\":1760781600120,\"s\":\"BTCUSDT\",\"U\":8123456780,\"u\":8123456790,\"pu\":8123456779,");
+        appendLevels(sb, "b", 67012.3, -0.1);
+        sb.append(',');
+        appendLevels(sb, "a", 67012.4, 0.1);
+        return sb.append("}}").toString();
+    }
+
+    private static void appendLevels(StringBuilder sb, String side, double best, double step) {
+        sb.append('"').append(side).append("\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append("[\"").append(String.format(Locale.ROOT, "%.1f", best + i * step)).append("\",\"")
+                    .append(String.format(Locale.ROOT, "%.3f", 0.002 + (i * 37 % 11) * 0.731)).append("\"]");
+        }
+        sb.append(']');
+    }
+}
@@ -0,0 +1,81 @@
+package com.team_biance.the_coin_killer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 수집 대상 심볼 목록
+ * - binance.symbols=BTCUSDT,ETHUSDT,... (없으면 binance.symbol 단일 심볼)
+ * - 심볼당 구독 stream 5개 (kline_1m / depth20@100ms / aggTrade / forceOrder / markPrice@1s)
+ * - 연결 1개당 stream 수는 binance.ws.streams-per-connection 이하로 나눈다 (바이낸스 제한 1024)
+ */
+@Component
+public class BinanceSymbols {
+
+    public static final String[] STREAM_SUFFIXES = {
+            "@kline_1m",
+            "@depth20@100ms",
+            "@aggTrade",
+            "@forceOrder",
+            "@markPrice@1s"
+    };
+
+    private final List<String> symbols;
+    private final int streamsPerConnection;
+
+    public BinanceSymbols(
+            @Value("${binance.symbols:${binance.symbol:BTCUSDT}}") String symbolsCsv,
+            @Value("${binance.ws.streams-per-connection:200}") int streamsPerConnection) {
+        Set<String> set = new LinkedHashSet<>();
+        for (String s : symbolsCsv.split(",")) {
+            String v = s.trim().toUpperCase(Locale.ROOT);
+            if (!v.isEmpty())
+                set.add(v);
+        }
+        if (set.isEmpty())
+            throw new IllegalStateException("binance.symbols is empty");
+
+        this.symbols = Collections.unmodifiableList(new ArrayList<>(set));
+        this.streamsPerConnection = Math.max(STREAM_SUFFIXES.length, streamsPerConnection);
+    }
+
+    /**
+     * 대문자 심볼 목록 (설정 순서 유지)
+     */
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    /**
+     * 연결 단위로 나눈 stream 이름 목록
+     * - 한 심볼의 stream 은 같은 연결에 둔다 (연결 끊김 시 심볼 단위로 일관되게 빠지도록)
+     */
+    public List<List<String>> streamsByConnection() {
+        int symbolsPerConnection = streamsPerConnection / STREAM_SUFFIXES.length;
+
+        List<List<String>> out = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int inCurrent = 0;
+        for (String symbol : symbols) {
+            if (inCurrent == symbolsPerConnection) {
+                out.add(current);
+                current = new ArrayList<>();
+                inCurrent = 0;
+            }
+            String lower = symbol.toLowerCase(Locale.ROOT); // lower-case stream rule
+            for (String suffix : STREAM_SUFFIXES)
+                current.add(lower + suffix);
+            inCurrent++;
+        }
+        if (!current.isEmpty())
+            out.add(current);
+        return out;
+    }
+}
@@ -0,0 +1,53 @@
+package com.team_biance.the_coin_killer.controller;
+
+import com.team_biance.the_coin_killer.dto.BackfillStatusDto;
+import com.team_biance.the_coin_killer.service.FeatureBackfillService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@RestController
+@RequestMapping("/api/backfill")
+public class BackfillApiController {
+
+    private final FeatureBackfillService backfillService;
+
+    public BackfillApiController(FeatureBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    /**
+     * 백필 시작 (비동기)
+     * - from / to : UTC ISO (예: 2026-01-01T00:00), 없으면 최근 24시간
+     * - source : NONE(feature 만 재계산) / REST / FILE(app.backfill.file-dir 아래 녹화 파일)
+     * - mode : MISSING(없는 분만) / ALL(구간 전체)
+     */
+    @PostMapping
+    public ResponseEntity<BackfillStatusDto> start(
+            @RequestParam(defaultValue = "BTCUSDT") String symbol,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "NONE") FeatureBackfillService.Source source,
+            @RequestParam(required = false) String file,
+            @RequestParam(defaultValue = "MISSING") FeatureBackfillService.Mode mode) {
+        LocalDateTime toUtc = (to == null || to.isBlank()) ? LocalDateTime.now(ZoneOffset.UTC) : LocalDateTime.parse(to);
+        LocalDateTime fromUtc = (from == null || from.isBlank()) ? toUtc.minusHours(24) : LocalDateTime.parse(from);
+
+        try {
+            return ResponseEntity.ok(backfillService.start(symbol, fromUtc, toUtc, source, file, mode));
+        } catch (IllegalArgumentException e) {
+            BackfillStatusDto dto = new BackfillStatusDto();
+            dto.setState("FAILED");
+            dto.setSymbol(symbol);
+            dto.setErrorMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(dto);
+        }
+    }
+
+    @GetMapping("/status")
+    public BackfillStatusDto status() {
+        return backfillService.status();
+    }
+}
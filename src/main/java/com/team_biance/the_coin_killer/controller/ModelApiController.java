@@ -2,10 +2,12 @@ package com.team_biance.the_coin_killer.controller;
 
 import com.team_biance.the_coin_killer.dto.ModelStatusDto;
 import com.team_biance.the_coin_killer.dto.PredictResultDto;
-import com.team_biance.the_coin_killer.dto.TrainResultDto;
+import com.team_biance.the_coin_killer.dto.TrainJobDto;
 import com.team_biance.the_coin_killer.model.ModelPred60m;
 import com.team_biance.the_coin_killer.service.ModelPredictService;
+import com.team_biance.the_coin_killer.service.ModelTrainJobService;
 import com.team_biance.the_coin_killer.service.ModelTrainService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,18 +19,39 @@ public class ModelApiController {
 
     private final ModelTrainService modelTrainService;
     private final ModelPredictService modelPredictService;
+    private final ModelTrainJobService trainJobService;
 
-    public ModelApiController(ModelTrainService modelTrainService, ModelPredictService modelPredictService) {
+    public ModelApiController(ModelTrainService modelTrainService, ModelPredictService modelPredictService,
+            ModelTrainJobService trainJobService) {
         this.modelTrainService = modelTrainService;
         this.modelPredictService = modelPredictService;
+        this.trainJobService = trainJobService;
     }
 
+    /**
+     * 학습 job 등록 후 바로 반환 (202). 진행 상황은 /train/jobs/{jobId}
+     * - 같은 심볼이 이미 대기/실행 중이면 그 job (deduplicated=true)
+     * - 대기열이 꽉 차면 429
+     */
     @PostMapping("/train")
-    public ResponseEntity<TrainResultDto> train(
+    public ResponseEntity<TrainJobDto> train(
             @RequestParam(defaultValue = "BTCUSDT") String symbol,
             @RequestParam(defaultValue = "7") int days) {
-        TrainResultDto dto = modelTrainService.train(symbol, days);
-        return ResponseEntity.ok(dto);
+        TrainJobDto dto = trainJobService.submit(symbol, days);
+        if ("REJECTED".equals(dto.getState()))
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(dto);
+        return ResponseEntity.accepted().body(dto);
+    }
+
+    @GetMapping("/train/jobs/{jobId}")
+    public ResponseEntity<TrainJobDto> trainJob(@PathVariable String jobId) {
+        TrainJobDto dto = trainJobService.get(jobId);
+        return (dto == null) ? ResponseEntity.notFound().build() : ResponseEntity.ok(dto);
+    }
+
+    @GetMapping("/train/jobs")
+    public List<TrainJobDto> trainJobs() {
+        return trainJobService.list();
     }
 
     @PostMapping("/predict")
@@ -1,22 +1,150 @@
 package com.team_biance.the_coin_killer.controller;
 
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.service.BinanceWebSocketClient;
+import com.team_biance.the_coin_killer.service.DepthCaptureService;
+import com.team_biance.the_coin_killer.service.FeaturePipelineService;
+import com.team_biance.the_coin_killer.service.FrameRecorder;
+import com.team_biance.the_coin_killer.service.LiveFeedService;
 import com.team_biance.the_coin_killer.service.MonitorService;
+import com.team_biance.the_coin_killer.service.PredictionStage;
+import com.team_biance.the_coin_killer.service.PythonExecutorService;
+import com.team_biance.the_coin_killer.service.RetentionService;
+import com.team_biance.the_coin_killer.service.WriteBehindQueue;
+import com.team_biance.the_coin_killer.service.WriteBehindService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/monitor")
 public class MonitorApiController {
 
     private final MonitorService monitorService;
+    private final WriteBehindService writeBehindService;
+    private final FeaturePipelineService featurePipeline;
+    private final PredictionStage predictionStage;
+    private final PythonExecutorService pythonExecutor;
+    private final DepthCaptureService depthCapture;
+    private final FrameRecorder frameRecorder;
+    private final BinanceWebSocketClient webSocketClient;
+    private final RetentionService retentionService;
+    private final LiveFeedService liveFeed;
+    private final BinanceDataPersistListener persistListener;
 
-    public MonitorApiController(MonitorService monitorService) {
+    public MonitorApiController(
+            MonitorService monitorService,
+            WriteBehindService writeBehindService,
+            FeaturePipelineService featurePipeline,
+            PredictionStage predictionStage,
+            PythonExecutorService pythonExecutor,
+            DepthCaptureService depthCapture,
+            FrameRecorder frameRecorder,
+            BinanceWebSocketClient webSocketClient,
+            RetentionService retentionService,
+            LiveFeedService liveFeed,
+            BinanceDataPersistListener persistListener) {
         this.monitorService = monitorService;
+        this.writeBehindService = writeBehindService;
+        this.featurePipeline = featurePipeline;
+        this.predictionStage = predictionStage;
+        this.pythonExecutor = pythonExecutor;
+        this.depthCapture = depthCapture;
+        this.frameRecorder = frameRecorder;
+        this.webSocketClient = webSocketClient;
+        this.retentionService = retentionService;
+        this.liveFeed = liveFeed;
+        this.persistListener = persistListener;
     }
 
     @GetMapping("/realtime")
     public MonitorService.RealtimeResponse realtime() {
         return monitorService.getRealtimeSnapshot();
     }
+
+    /**
+     * 실시간 push (SSE, event: snapshot / data: LiveFeedService.LiveSnapshot JSON)
+     * - compare/realtime, monitor/dashboard 화면이 EventSource 로 구독
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return liveFeed.subscribe();
+    }
+
+    /**
+     * write-behind 큐 상태 (큐 깊이, 배치 크기, flush 지연, drop 수)
+     */
+    @GetMapping("/write-behind")
+    public List<WriteBehindQueue.Stats> writeBehind() {
+        return writeBehindService.stats();
+    }
+
+    /**
+     * 심볼별 feature 계산 지연 (분 마감 -> 계산 완료, ms)
+     */
+    @GetMapping("/feature-lag")
+    public Map<String, Long> featureLag() {
+        return featurePipeline.lagMsBySymbol();
+    }
+
+    /**
+     * 심볼별 예측 지연 (kline 분 마감 -> 예측 저장 완료, ms)
+     */
+    @GetMapping("/prediction-lag")
+    public Map<String, PredictionStage.Lag> predictionLag() {
+        return predictionStage.lagBySymbol();
+    }
+
+    /**
+     * python 스크립트별 실행 지표 (spawn / stdout 첫 바이트 / 전체 ms)
+     */
+    @GetMapping("/python")
+    public List<PythonExecutorService.ExecStats> python() {
+        return pythonExecutor.stats();
+    }
+
+    /**
+     * depth 원본 캡처 상태 (심볼별 record 수 / 시각 보정 수 / 현재 segment)
+     */
+    @GetMapping("/depth-capture")
+    public Map<String, Object> depthCapture() {
+        return Map.of(
+                "enabled", depthCapture.isEnabled(),
+                "failures", depthCapture.failures(),
+                "clamped", depthCapture.clamped(),
+                "writers", depthCapture.stats());
+    }
+
+    /**
+     * 1분 집계 봉인 후 늦게 와서 버린 샘플 수 / idle 봉인 기준 시계 (wall / event)
+     */
+    @GetMapping("/persist")
+    public Map<String, Object> persist() {
+        return Map.of(
+                "lateSamples", persistListener.lateSamples(),
+                "sealClock", persistListener.usesEventClock() ? "event" : "wall");
+    }
+
+    /**
+     * 원문 프레임 녹화 / replay 진행 상태
+     */
+    @GetMapping("/frames")
+    public Map<String, Object> frames() {
+        return Map.of(
+                "recorder", frameRecorder.stats(),
+                "replay", webSocketClient.replayStatus());
+    }
+
+    /**
+     * 1초 테이블 보관 주기 (마지막 실행 결과: 파티션 추가 / rollup / archive / drop)
+     */
+    @GetMapping("/retention")
+    public Map<String, Object> retention() {
+        return retentionService.status();
+    }
 }
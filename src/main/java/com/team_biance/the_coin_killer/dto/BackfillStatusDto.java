@@ -0,0 +1,177 @@
+package com.team_biance.the_coin_killer.dto;
+
+import java.time.LocalDateTime;
+
+public class BackfillStatusDto {
+    private String state; // IDLE / RUNNING / DONE / FAILED / BUSY
+    private String symbol;
+    private LocalDateTime fromUtc;
+    private LocalDateTime toUtc;
+    private String source; // NONE / REST / FILE:<name>
+    private String mode; // MISSING / ALL
+    private int expectedMinutes;
+    private int missingKlineMinutes;
+    private int missingAggMinutes;
+    private int missingFeatureMinutes;
+    private int filledKlines;
+    private int filledAggs;
+    private int chunks;
+    private int chunksDone;
+    private long minutesProcessed;
+    private long featuresWritten;
+    private long elapsedMs;
+    private double minutesPerSec; // minutesProcessed / 경과초
+    private String errorMessage;
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public LocalDateTime getFromUtc() {
+        return fromUtc;
+    }
+
+    public void setFromUtc(LocalDateTime fromUtc) {
+        this.fromUtc = fromUtc;
+    }
+
+    public LocalDateTime getToUtc() {
+        return toUtc;
+    }
+
+    public void setToUtc(LocalDateTime toUtc) {
+        this.toUtc = toUtc;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getExpectedMinutes() {
+        return expectedMinutes;
+    }
+
+    public void setExpectedMinutes(int expectedMinutes) {
+        this.expectedMinutes = expectedMinutes;
+    }
+
+    public int getMissingKlineMinutes() {
+        return missingKlineMinutes;
+    }
+
+    public void setMissingKlineMinutes(int missingKlineMinutes) {
+        this.missingKlineMinutes = missingKlineMinutes;
+    }
+
+    public int getMissingAggMinutes() {
+        return missingAggMinutes;
+    }
+
+    public void setMissingAggMinutes(int missingAggMinutes) {
+        this.missingAggMinutes = missingAggMinutes;
+    }
+
+    public int getMissingFeatureMinutes() {
+        return missingFeatureMinutes;
+    }
+
+    public void setMissingFeatureMinutes(int missingFeatureMinutes) {
+        this.missingFeatureMinutes = missingFeatureMinutes;
+    }
+
+    public int getFilledKlines() {
+        return filledKlines;
+    }
+
+    public void setFilledKlines(int filledKlines) {
+        this.filledKlines = filledKlines;
+    }
+
+    public int getFilledAggs() {
+        return filledAggs;
+    }
+
+    public void setFilledAggs(int filledAggs) {
+        this.filledAggs = filledAggs;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public int getChunksDone() {
+        return chunksDone;
+    }
+
+    public void setChunksDone(int chunksDone) {
+        this.chunksDone = chunksDone;
+    }
+
+    public long getMinutesProcessed() {
+        return minutesProcessed;
+    }
+
+    public void setMinutesProcessed(long minutesProcessed) {
+        this.minutesProcessed = minutesProcessed;
+    }
+
+    public long getFeaturesWritten() {
+        return featuresWritten;
+    }
+
+    public void setFeaturesWritten(long featuresWritten) {
+        this.featuresWritten = featuresWritten;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public double getMinutesPerSec() {
+        return minutesPerSec;
+    }
+
+    public void setMinutesPerSec(double minutesPerSec) {
+        this.minutesPerSec = minutesPerSec;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,139 @@
+package com.team_biance.the_coin_killer.dto;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FMark1s;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * [from, to) 구간 feature 계산에 필요한 원천 데이터 묶음 (범위 조회 몇 번으로 채움)
+ * - klines : from - 60분 부터 (rv60 / vol_z_60m 용)
+ * - aggs   : from - 14분 부터 (cvd_15m 용)
+ * - depth / mark : 분별 마지막 1개 + from 이전 마지막 1개(carry-in)
+ * - 청산 : 분별 건수
+ *
+ * put* 은 아직 DB 에 flush 되지 않은 in-memory row 를 덮어쓸 때 사용 (RollingFeatureEngine.overlay)
+ */
+public class FeatureSourceBatch {
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    private final Map<LocalDateTime, FKline1m> klines = new HashMap<>();
+    private final Map<LocalDateTime, FAggTrade1m> aggs = new HashMap<>();
+    private final TreeMap<LocalDateTime, FDepthSnapshot1s> depths = new TreeMap<>();
+    private final TreeMap<LocalDateTime, FMark1s> marks = new TreeMap<>();
+    private final Map<LocalDateTime, Integer> forceCounts = new HashMap<>();
+
+    public FeatureSourceBatch(LocalDateTime from, LocalDateTime to,
+            List<FKline1m> klines,
+            List<FAggTrade1m> aggs,
+            List<FDepthSnapshot1s> depthLastPerMinute,
+            List<FMark1s> markLastPerMinute,
+            List<MinuteCount> forceCounts,
+            FDepthSnapshot1s depthCarryIn,
+            FMark1s markCarryIn) {
+        this.from = from;
+        this.to = to;
+
+        for (FKline1m k : klines)
+            this.klines.put(k.getTsUtc(), k);
+        for (FAggTrade1m a : aggs)
+            this.aggs.put(a.getTsUtc(), a);
+
+        if (depthCarryIn != null)
+            this.depths.put(depthCarryIn.getTsUtc(), depthCarryIn);
+        for (FDepthSnapshot1s d : depthLastPerMinute)
+            this.depths.put(d.getTsUtc(), d);
+
+        if (markCarryIn != null)
+            this.marks.put(markCarryIn.getTsUtc(), markCarryIn);
+        for (FMark1s m : markLastPerMinute)
+            this.marks.put(m.getTsUtc(), m);
+
+        for (MinuteCount c : forceCounts)
+            this.forceCounts.put(c.getTsUtc(), c.getCount());
+    }
+
+    // =========================
+    // in-memory row 덮어쓰기
+    // =========================
+    public void putKline(FKline1m k) {
+        klines.put(k.getTsUtc(), k);
+    }
+
+    public void putAgg(FAggTrade1m a) {
+        aggs.put(a.getTsUtc(), a);
+    }
+
+    public void putDepth(FDepthSnapshot1s d) {
+        depths.put(d.getTsUtc(), d);
+    }
+
+    public void putMark(FMark1s m) {
+        marks.put(m.getTsUtc(), m);
+    }
+
+    /**
+     * DB 건수와 메모리 건수 중 큰 값 (한쪽에만 반영된 청산이 있을 수 있음)
+     */
+    public void putForceCount(LocalDateTime minuteStart, int count) {
+        forceCounts.merge(minuteStart, count, Math::max);
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * ts(분 시작) -> kline (from - 60분 이후만)
+     */
+    public Map<LocalDateTime, FKline1m> getKlines() {
+        return klines;
+    }
+
+    public FAggTrade1m aggAt(LocalDateTime minuteStart) {
+        return aggs.get(minuteStart);
+    }
+
+    /**
+     * minuteStart 포함 최근 n분 cvd 합 (없는 분은 0)
+     */
+    public double cvdSum(LocalDateTime minuteStart, int n) {
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            FAggTrade1m a = aggs.get(minuteStart.minusMinutes(i));
+            if (a != null)
+                sum += a.getTakerBuyQty() - a.getTakerSellQty();
+        }
+        return sum;
+    }
+
+    /**
+     * beforeTs 직전 depth (getLatestDepthBefore 와 동일)
+     */
+    public FDepthSnapshot1s latestDepthBefore(LocalDateTime beforeTs) {
+        Map.Entry<LocalDateTime, FDepthSnapshot1s> e = depths.lowerEntry(beforeTs);
+        return (e == null) ? null : e.getValue();
+    }
+
+    public FMark1s latestMarkBefore(LocalDateTime beforeTs) {
+        Map.Entry<LocalDateTime, FMark1s> e = marks.lowerEntry(beforeTs);
+        return (e == null) ? null : e.getValue();
+    }
+
+    public int forceCountAt(LocalDateTime minuteStart) {
+        Integer c = forceCounts.get(minuteStart);
+        return (c == null) ? 0 : c;
+    }
+}
@@ -0,0 +1,27 @@
+package com.team_biance.the_coin_killer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 분 단위 집계 건수 (GROUP BY 분)
+ */
+public class MinuteCount {
+    private LocalDateTime tsUtc;
+    private int count;
+
+    public LocalDateTime getTsUtc() {
+        return tsUtc;
+    }
+
+    public void setTsUtc(LocalDateTime tsUtc) {
+        this.tsUtc = tsUtc;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
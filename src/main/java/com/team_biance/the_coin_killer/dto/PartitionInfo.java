@@ -0,0 +1,36 @@
+package com.team_biance.the_coin_killer.dto;
+
+/**
+ * information_schema.PARTITIONS 1 row (RANGE COLUMNS(ts_utc) 일별 파티션)
+ */
+public class PartitionInfo {
+    private String partitionName;
+    // VALUES LESS THAN 값 ('2026-10-19 00:00:00' / MAXVALUE)
+    private String partitionDescription;
+    // InnoDB 추정치
+    private long tableRows;
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public void setPartitionName(String partitionName) {
+        this.partitionName = partitionName;
+    }
+
+    public String getPartitionDescription() {
+        return partitionDescription;
+    }
+
+    public void setPartitionDescription(String partitionDescription) {
+        this.partitionDescription = partitionDescription;
+    }
+
+    public long getTableRows() {
+        return tableRows;
+    }
+
+    public void setTableRows(long tableRows) {
+        this.tableRows = tableRows;
+    }
+}
@@ -10,6 +10,7 @@ public class TableStatus {
     private String timeAgo; // "2분 전"
     private String status; // "NORMAL", "DELAYED", "STOPPED"
     private String statusColor; // "green", "yellow", "red"
+    private boolean approximate; // totalCount 가 추정치 (TableStatsRegistry)
 
     public String getTableName() {
         return tableName;
@@ -66,4 +67,12 @@ public class TableStatus {
     public void setStatusColor(String statusColor) {
         this.statusColor = statusColor;
     }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
 }
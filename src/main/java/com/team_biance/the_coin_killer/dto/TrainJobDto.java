@@ -0,0 +1,142 @@
+package com.team_biance.the_coin_killer.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TrainJobDto {
+    private String jobId;
+    private String state; // QUEUED / RUNNING / DONE / FAILED / REJECTED
+    private boolean deduplicated; // 같은 심볼 작업이 이미 있어 기존 job 을 돌려준 경우
+    private String symbol;
+    private int days;
+    private int progress; // 0~100 (train.py [TRAIN][PROGRESS])
+    private String stage;
+    private int queuePosition; // QUEUED 일 때 앞에 있는 작업 수
+    private LocalDateTime queuedAtUtc;
+    private LocalDateTime startedAtUtc;
+    private LocalDateTime finishedAtUtc;
+    private long elapsedMs;
+    private List<String> logTail; // stderr 마지막 줄들
+    private TrainResultDto result;
+    private String errorMessage;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
+    public void setDeduplicated(boolean deduplicated) {
+        this.deduplicated = deduplicated;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(int queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    public LocalDateTime getQueuedAtUtc() {
+        return queuedAtUtc;
+    }
+
+    public void setQueuedAtUtc(LocalDateTime queuedAtUtc) {
+        this.queuedAtUtc = queuedAtUtc;
+    }
+
+    public LocalDateTime getStartedAtUtc() {
+        return startedAtUtc;
+    }
+
+    public void setStartedAtUtc(LocalDateTime startedAtUtc) {
+        this.startedAtUtc = startedAtUtc;
+    }
+
+    public LocalDateTime getFinishedAtUtc() {
+        return finishedAtUtc;
+    }
+
+    public void setFinishedAtUtc(LocalDateTime finishedAtUtc) {
+        this.finishedAtUtc = finishedAtUtc;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<String> getLogTail() {
+        return logTail;
+    }
+
+    public void setLogTail(List<String> logTail) {
+        this.logTail = logTail;
+    }
+
+    public TrainResultDto getResult() {
+        return result;
+    }
+
+    public void setResult(TrainResultDto result) {
+        this.result = result;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -1,14 +1,14 @@
 package com.team_biance.the_coin_killer.dto.binance;
 
-import java.util.List;
-
+/**
+ * depth20@100ms 이벤트
+ * - eventTime / transactionTime / lastUpdateId 는 없으면 0
+ * - book 은 디코더가 symbol별로 재사용하는 인스턴스 (리스너 밖으로 보관 금지)
+ */
 public record DepthEvent(
         String symbol,
-        Long eventTime,
-        Long transactionTime,
-        Long lastUpdateId,
-        List<DepthLevel> bids,
-        List<DepthLevel> asks) {
-    public record DepthLevel(String price, String qty) {
-    }
+        long eventTime,
+        long transactionTime,
+        long lastUpdateId,
+        OrderBookSnapshot book) {
 }
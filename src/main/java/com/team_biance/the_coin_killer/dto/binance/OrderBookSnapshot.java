@@ -0,0 +1,116 @@
+package com.team_biance.the_coin_killer.dto.binance;
+
+import java.util.Arrays;
+
+/**
+ * depth20 오더북 스냅샷 (primitive 배열 기반)
+ * - 가격/수량을 bid/ask 별 평행 배열로 보관 (DepthLevel String 쌍 대체)
+ * - 디코더가 symbol(stream)별로 1개 인스턴스를 재사용한다.
+ *
+ * ⚠ 재사용 객체이므로 이벤트 리스너 안에서만 읽고, 밖으로 참조를 넘기거나 보관하면 안 된다.
+ * 보관이 필요하면 copyTo()로 복사해서 쓸 것.
+ */
+public final class OrderBookSnapshot {
+
+    public static final int DEFAULT_LEVELS = 20;
+
+    private double[] bidPrices;
+    private double[] bidQtys;
+    private double[] askPrices;
+    private double[] askQtys;
+
+    private int bidCount;
+    private int askCount;
+
+    public OrderBookSnapshot() {
+        this(DEFAULT_LEVELS);
+    }
+
+    public OrderBookSnapshot(int levels) {
+        this.bidPrices = new double[levels];
+        this.bidQtys = new double[levels];
+        this.askPrices = new double[levels];
+        this.askQtys = new double[levels];
+    }
+
+    public void clear() {
+        bidCount = 0;
+        askCount = 0;
+    }
+
+    public void addBid(double price, double qty) {
+        if (bidCount == bidPrices.length) {
+            bidPrices = Arrays.copyOf(bidPrices, bidCount * 2);
+            bidQtys = Arrays.copyOf(bidQtys, bidCount * 2);
+        }
+        bidPrices[bidCount] = price;
+        bidQtys[bidCount] = qty;
+        bidCount++;
+    }
+
+    public void addAsk(double price, double qty) {
+        if (askCount == askPrices.length) {
+            askPrices = Arrays.copyOf(askPrices, askCount * 2);
+            askQtys = Arrays.copyOf(askQtys, askCount * 2);
+        }
+        askPrices[askCount] = price;
+        askQtys[askCount] = qty;
+        askCount++;
+    }
+
+    public int bidCount() {
+        return bidCount;
+    }
+
+    public int askCount() {
+        return askCount;
+    }
+
+    public double bidPrice(int i) {
+        return bidPrices[i];
+    }
+
+    public double bidQty(int i) {
+        return bidQtys[i];
+    }
+
+    public double askPrice(int i) {
+        return askPrices[i];
+    }
+
+    public double askQty(int i) {
+        return askQtys[i];
+    }
+
+    /**
+     * 배열 직접 접근 (유효 범위는 0 until bidCount/askCount)
+     */
+    public double[] bidPrices() {
+        return bidPrices;
+    }
+
+    public double[] bidQtys() {
+        return bidQtys;
+    }
+
+    public double[] askPrices() {
+        return askPrices;
+    }
+
+    public double[] askQtys() {
+        return askQtys;
+    }
+
+    public boolean isEmpty() {
+        return bidCount == 0 || askCount == 0;
+    }
+
+    public OrderBookSnapshot copyTo(OrderBookSnapshot dst) {
+        dst.clear();
+        for (int i = 0; i < bidCount; i++)
+            dst.addBid(bidPrices[i], bidQtys[i]);
+        for (int i = 0; i < askCount; i++)
+            dst.addAsk(askPrices[i], askQtys[i]);
+        return dst;
+    }
+}
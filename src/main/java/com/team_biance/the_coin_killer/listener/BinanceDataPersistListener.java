@@ -1,57 +1,125 @@
 package com.team_biance.the_coin_killer.listener;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team_biance.the_coin_killer.dto.binance.*;
 import com.team_biance.the_coin_killer.event.*;
-import com.team_biance.the_coin_killer.mapper.*;
 import com.team_biance.the_coin_killer.model.*;
+import com.team_biance.the_coin_killer.service.AggMinuteBucket;
+import com.team_biance.the_coin_killer.service.DepthBookCodec;
+import com.team_biance.the_coin_killer.service.DepthCaptureService;
+import com.team_biance.the_coin_killer.service.DepthMinuteBucket;
+import com.team_biance.the_coin_killer.service.FeaturePipelineService;
+import com.team_biance.the_coin_killer.service.FeatureWindowExporter;
+import com.team_biance.the_coin_killer.service.MarkMinuteBucket;
+import com.team_biance.the_coin_killer.service.MinuteBucket;
+import com.team_biance.the_coin_killer.service.PipelineMetrics;
+import com.team_biance.the_coin_killer.service.RollingFeatureEngine;
+import com.team_biance.the_coin_killer.service.SymbolShardExecutor;
+import com.team_biance.the_coin_killer.service.WriteBehindService;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.*;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
 
 @Component
 public class BinanceDataPersistListener {
 
     private static final Logger log = LoggerFactory.getLogger(BinanceDataPersistListener.class);
 
-    private final KlineMapper klineMapper;
-    private final MarkPriceMapper markPriceMapper;
-    private final ForceOrderMapper forceOrderMapper;
-    private final DepthSnapshotMapper depthSnapshotMapper;
-    private final AggTradeMapper aggTradeMapper;
+    // kline/mark/force/depth/agg 는 WebSocket 스레드에서 DB를 기다리지 않도록 write-behind 큐로 넘긴다
+    private final WriteBehindService writeBehindService;
 
-    private final ObjectMapper objectMapper;
+    // 심볼 이벤트는 항상 같은 shard 스레드 -> agg 집계는 그 스레드가 단일 writer (락 없음)
+    private final SymbolShardExecutor shardExecutor;
+
+    // 저장과 같은 row 로 in-memory feature 엔진도 갱신 (분당 DB 재조회 제거)
+    private final RollingFeatureEngine featureEngine;
+    private final FeaturePipelineService featurePipeline;
+
+    // Depth 원본(100ms) 파일 캡처 (app.depth.capture.enabled=false 면 no-op)
+    private final DepthCaptureService depthCapture;
 
     // Depth: "1초에 한 번만 저장"용 (symbol -> lastSavedEpochSecond)
     private final Map<String, Long> lastDepthSavedSecond = new ConcurrentHashMap<>();
 
-    // AggTrade: 1분 집계용 (symbol -> state)
-    private final Map<String, AggState> aggStates = new ConcurrentHashMap<>();
+    // Depth BLOB 인코더 (버퍼 / Deflater 재사용 -> shard 스레드별 1개)
+    private final ThreadLocal<DepthBookCodec> depthCodecs;
+    private final ThreadLocal<DepthBookCodec> gzipCodecs = ThreadLocal.withInitial(() -> new DepthBookCodec(DepthBookCodec.GZIP));
+
+    // 1분 메모리 집계 (symbol -> bucket), 심볼 shard 스레드에서만 읽고 씀
+    // - aggTrade -> f_aggtrade_1m, depth 1초 스냅샷 -> f_depth_1m, markPrice -> f_mark_1m
+    private final MinuteRollup<FAggTrade1m, AggMinuteBucket> aggMinutes;
+    private final MinuteRollup<FDepth1m, DepthMinuteBucket> depthMinutes;
+    private final MinuteRollup<FMark1m, MarkMinuteBucket> markMinutes;
+    private final List<MinuteRollup<?, ?>> rollups;
+
+    // 분 마감 후 샘플도 final kline 도 없을 때 봉인까지 기다리는 시간
+    private final long aggIdleGraceMs;
+
+    // 종료 시 shard 에서 마지막 분 flush 를 기다리는 상한
+    private final long shutdownTimeoutMs;
+
+    // replay 중에는 idle 봉인을 벽시계 대신 지금까지 본 가장 늦은 이벤트 시각으로 판단
+    private final boolean eventClock;
+    private volatile long lastEventMs;
 
     public BinanceDataPersistListener(
-            KlineMapper klineMapper,
-            MarkPriceMapper markPriceMapper,
-            ForceOrderMapper forceOrderMapper,
-            DepthSnapshotMapper depthSnapshotMapper,
-            AggTradeMapper aggTradeMapper,
-            ObjectMapper objectMapper) {
-        this.klineMapper = klineMapper;
-        this.markPriceMapper = markPriceMapper;
-        this.forceOrderMapper = forceOrderMapper;
-        this.depthSnapshotMapper = depthSnapshotMapper;
-        this.aggTradeMapper = aggTradeMapper;
-        this.objectMapper = objectMapper;
+            WriteBehindService writeBehindService,
+            SymbolShardExecutor shardExecutor,
+            RollingFeatureEngine featureEngine,
+            FeaturePipelineService featurePipeline,
+            DepthCaptureService depthCapture,
+            FeatureWindowExporter featureExporter,
+            PipelineMetrics metrics,
+            @Value("${app.depth.codec:BIN1}") String depthCodec,
+            @Value("${app.persist.agg-idle-grace-ms:2000}") long aggIdleGraceMs,
+            @Value("${app.persist.shutdown-timeout-ms:5000}") long shutdownTimeoutMs,
+            @Value("${binance.ws.replay.files:}") String replayFiles) {
+        this.writeBehindService = writeBehindService;
+        this.shardExecutor = shardExecutor;
+        this.featureEngine = featureEngine;
+        this.featurePipeline = featurePipeline;
+        this.depthCapture = depthCapture;
+        this.aggIdleGraceMs = aggIdleGraceMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.eventClock = replayFiles != null && !replayFiles.isBlank();
+
+        this.aggMinutes = new MinuteRollup<>("AGG", AggMinuteBucket::new, row -> {
+            writeBehindService.enqueueAggMinute(row);
+            featureEngine.onAggMinute(row);
+            featureExporter.onAggMinute(row);
+        });
+        this.depthMinutes = new MinuteRollup<>("DEPTH1M", DepthMinuteBucket::new, row -> {
+            writeBehindService.enqueueDepthMinute(row);
+            featureExporter.onDepthMinute(row);
+        });
+        this.markMinutes = new MinuteRollup<>("MARK1M", MarkMinuteBucket::new, row -> {
+            writeBehindService.enqueueMarkMinute(row);
+            featureExporter.onMarkMinute(row);
+        });
+        this.rollups = List.of(aggMinutes, depthMinutes, markMinutes);
+        for (MinuteRollup<?, ?> r : rollups)
+            metrics.lateSamples(r.tag, r.late);
+
+        String algo = DepthBookCodec.normalize(depthCodec);
+        this.depthCodecs = ThreadLocal.withInitial(() -> new DepthBookCodec(algo));
     }
 
     // =========================
@@ -68,21 +136,15 @@ public class BinanceDataPersistListener {
             if (!k.isFinal())
                 return; // 완성된 캔들만 저장
 
-            FKline1m row = new FKline1m();
-            row.setSymbol(payload.symbol());
-            row.setTsUtc(utcFromMs(k.startTime())); // 캔들 시작 시각
-            row.setOpen(parseDouble(k.open()));
-            row.setHigh(parseDouble(k.high()));
-            row.setLow(parseDouble(k.low()));
-            row.setClose(parseDouble(k.close()));
-            row.setVolume(parseDouble(k.volume()));
-            row.setTradeCount((int) k.numberOfTrades());
+            advanceEventClock(k.closeTime());
+            FKline1m row = toKlineRow(payload);
 
-            row.setQuoteVolume(parseDoubleOrNull(k.quoteAssetVolume()));
-            row.setTakerBuyVol(parseDoubleOrNull(k.takerBuyBaseAssetVolume()));
-            row.setTakerBuyQv(parseDoubleOrNull(k.takerBuyQuoteAssetVolume()));
+            writeBehindService.enqueueKline(row);
+            featureEngine.onKline(row);
 
-            klineMapper.upsert(row);
+            // 같은 분의 aggTrade / depth / mark 집계를 봉인한 뒤 feature 계산 트리거 (크론 대기 없이 분 마감 직후)
+            sealMinute(payload.symbol(), k.startTime());
+            featurePipeline.onMinuteClosed(payload.symbol(), k.startTime());
 
         } catch (Exception e) {
             log.error("[PERSIST][KLINE] failed: {}", e.getMessage(), e);
@@ -90,7 +152,7 @@ public class BinanceDataPersistListener {
     }
 
     // =========================
-    // 2) MARK PRICE (매초 저장)
+    // 2) MARK PRICE (매초 저장 + f_mark_1m 분 집계)
     // =========================
     @EventListener
     public void onMarkPrice(MarkPriceStreamEvent event) {
@@ -115,7 +177,13 @@ public class BinanceDataPersistListener {
                 row.setNextFundingUtc(null);
             }
 
-            markPriceMapper.upsert(row);
+            writeBehindService.enqueueMark(row);
+            featureEngine.onMark(row);
+
+            advanceEventClock(tsMs);
+            MarkMinuteBucket minute = markMinutes.bucket(row.getSymbol(), floorToMinuteMs(tsMs));
+            if (minute != null)
+                minute.add(row.getMarkPrice(), row.getIndexPrice(), row.getFundingRate());
 
         } catch (Exception e) {
             log.error("[PERSIST][MARK] failed: {}", e.getMessage(), e);
@@ -151,7 +219,8 @@ public class BinanceDataPersistListener {
 
             row.setStatus(o.orderStatus());
 
-            forceOrderMapper.insert(row);
+            writeBehindService.enqueueForceOrder(row);
+            featureEngine.onForceOrder(row);
 
         } catch (Exception e) {
             log.error("[PERSIST][FORCE] failed: {}", e.getMessage(), e);
@@ -159,25 +228,30 @@ public class BinanceDataPersistListener {
     }
 
     // =========================
-    // 4) DEPTH (1초 스냅샷)
-    // - 100ms마다 오지만 1초에 1번만 저장
-    // - bids/asks JSON->GZIP->BLOB
+    // 4) DEPTH (1초 스냅샷 + f_depth_1m 분 집계)
+    // - 100ms마다 오지만 1초에 1번만 저장, 분 집계 샘플도 같은 1초 스냅샷
+    // - bids/asks -> DepthBookCodec (compress_algo 로 포맷 구분) -> BLOB
     // - 파생값 계산
+    // - payload.book()은 디코더 재사용 객체 -> 이 메서드 안에서만 사용
     // =========================
     @EventListener
     public void onDepth(DepthStreamEvent event) {
         try {
             DepthEvent payload = event.getPayload();
-            if (payload == null)
+            if (payload == null || payload.book() == null)
                 return;
 
             String symbol = payload.symbol() != null ? payload.symbol() : "BTCUSDT";
 
             // 타임스탬프 선택: transactionTime > eventTime > now
-            long baseMs = firstNonNullLong(payload.transactionTime(), payload.eventTime(), System.currentTimeMillis());
+            long baseMs = firstPositiveLong(payload.transactionTime(), payload.eventTime(), System.currentTimeMillis());
             long tsMs = truncateToSecondMs(baseMs);
             long epochSec = tsMs / 1000L;
 
+            // 원본 캡처는 1초 필터 전에 (업데이트 전부)
+            if (!payload.book().isEmpty())
+                depthCapture.append(symbol, baseMs, payload.book());
+
             // 1초 이내 스킵
             AtomicBoolean shouldStore = new AtomicBoolean(false);
             lastDepthSavedSecond.compute(symbol, (k, prev) -> {
@@ -190,85 +264,131 @@ public class BinanceDataPersistListener {
             if (!shouldStore.get())
                 return;
 
-            List<DepthEvent.DepthLevel> bids = payload.bids();
-            List<DepthEvent.DepthLevel> asks = payload.asks();
-            if (bids == null || bids.isEmpty() || asks == null || asks.isEmpty())
+            FDepthSnapshot1s row = toDepthRow(symbol, tsMs, payload.book(), depthCodecs.get(), gzipCodecs.get());
+            if (row == null)
                 return;
 
-            // best bid/ask
-            double bestBid = parseDoubleOrZero(bids.get(0).price());
-            double bestAsk = parseDoubleOrZero(asks.get(0).price());
-            if (bestBid <= 0 || bestAsk <= 0)
-                return;
+            writeBehindService.enqueueDepth(row);
+            featureEngine.onDepth(row);
 
-            double mid = (bestBid + bestAsk) / 2.0;
-            double spreadBps = (bestAsk - bestBid) / mid * 10000.0;
+            advanceEventClock(tsMs);
+            DepthMinuteBucket minute = depthMinutes.bucket(symbol, floorToMinuteMs(tsMs));
+            if (minute != null)
+                minute.add(row);
 
-            // sum(qty*price)
-            double bidSum = sumNotionalTopN(bids);
-            double askSum = sumNotionalTopN(asks);
+        } catch (Exception e) {
+            log.error("[PERSIST][DEPTH] failed: {}", e.getMessage(), e);
+        }
+    }
 
-            double denom = (bidSum + askSum);
-            double imbalance = (denom == 0.0) ? 0.0 : (bidSum - askSum) / denom;
+    /**
+     * kline 이벤트 -> f_kline_1m row (스트림 / 녹화 파일 리플레이 공통)
+     */
+    public static FKline1m toKlineRow(KlineEvent payload) {
+        KlineEvent.Kline k = payload.kline();
+
+        FKline1m row = new FKline1m();
+        row.setSymbol(payload.symbol());
+        row.setTsUtc(utcFromMs(k.startTime())); // 캔들 시작 시각
+        row.setOpen(parseDouble(k.open()));
+        row.setHigh(parseDouble(k.high()));
+        row.setLow(parseDouble(k.low()));
+        row.setClose(parseDouble(k.close()));
+        row.setVolume(parseDouble(k.volume()));
+        row.setTradeCount((int) k.numberOfTrades());
+
+        row.setQuoteVolume(parseDoubleOrNull(k.quoteAssetVolume()));
+        row.setTakerBuyVol(parseDoubleOrNull(k.takerBuyBaseAssetVolume()));
+        row.setTakerBuyQv(parseDoubleOrNull(k.takerBuyQuoteAssetVolume()));
+        return row;
+    }
 
-            // microprice
-            double bidQty0 = parseDoubleOrZero(bids.get(0).qty());
-            double askQty0 = parseDoubleOrZero(asks.get(0).qty());
-            Double microprice = null;
-            Double micropriceGapBps = null;
+    /**
+     * depth 스냅샷 -> f_depth_snapshot_1s row (파생값 + bids/asks BLOB)
+     * - codec 으로 표현 불가 값이면 이 row 만 fallback(GZIP)
+     * - book 이 비었거나 best 호가가 0 이하면 null
+     */
+    static FDepthSnapshot1s toDepthRow(String symbol, long tsMs, OrderBookSnapshot book,
+            DepthBookCodec codec, DepthBookCodec fallback) throws IOException {
+        if (book.isEmpty())
+            return null;
 
-            double qtyDenom = bidQty0 + askQty0;
-            if (qtyDenom > 0.0) {
-                microprice = (bestBid * askQty0 + bestAsk * bidQty0) / qtyDenom;
-                micropriceGapBps = (microprice - mid) / mid * 10000.0;
-            }
+        // best bid/ask
+        double bestBid = book.bidPrice(0);
+        double bestAsk = book.askPrice(0);
+        if (bestBid <= 0 || bestAsk <= 0)
+            return null;
 
-            // bids/asks -> JSON bytes -> gzip
-            byte[] bidsJson = objectMapper.writeValueAsBytes(bids);
-            byte[] asksJson = objectMapper.writeValueAsBytes(asks);
-            byte[] bidsGz = gzip(bidsJson);
-            byte[] asksGz = gzip(asksJson);
+        double mid = (bestBid + bestAsk) / 2.0;
+        double spreadBps = (bestAsk - bestBid) / mid * 10000.0;
 
-            FDepthSnapshot1s row = new FDepthSnapshot1s();
-            row.setSymbol(symbol);
-            row.setTsUtc(utcFromMs(tsMs));
+        // sum(qty*price)
+        double bidSum = sumNotionalTopN(book.bidPrices(), book.bidQtys(), book.bidCount());
+        double askSum = sumNotionalTopN(book.askPrices(), book.askQtys(), book.askCount());
 
-            row.setBestBid(bestBid);
-            row.setBestAsk(bestAsk);
-            row.setMidPrice(mid);
-            row.setSpreadBps(spreadBps);
+        double denom = (bidSum + askSum);
+        double imbalance = (denom == 0.0) ? 0.0 : (bidSum - askSum) / denom;
 
-            row.setDepthBidSumTop20(bidSum);
-            row.setDepthAskSumTop20(askSum);
-            row.setImbalanceTop20(imbalance);
+        // microprice
+        double bidQty0 = book.bidQty(0);
+        double askQty0 = book.askQty(0);
+        Double microprice = null;
+        Double micropriceGapBps = null;
 
-            row.setMicroprice(microprice);
-            row.setMicropriceGapBps(micropriceGapBps);
+        double qtyDenom = bidQty0 + askQty0;
+        if (qtyDenom > 0.0) {
+            microprice = (bestBid * askQty0 + bestAsk * bidQty0) / qtyDenom;
+            micropriceGapBps = (microprice - mid) / mid * 10000.0;
+        }
 
-            row.setBidsGzip(bidsGz);
-            row.setAsksGzip(asksGz);
-            row.setCompressAlgo("GZIP");
+        // bids/asks -> BLOB (app.depth.codec, 표현 불가 값이면 이 row 만 GZIP)
+        byte[] bidsBlob;
+        byte[] asksBlob;
+        String algo = codec.algo();
+        try {
+            bidsBlob = codec.encode(book.bidPrices(), book.bidQtys(), book.bidCount());
+            asksBlob = codec.encode(book.askPrices(), book.askQtys(), book.askCount());
+        } catch (IllegalArgumentException e) {
+            log.debug("[PERSIST][DEPTH] {} fallback to GZIP: symbol={}, err={}", algo, symbol, e.getMessage());
+            bidsBlob = fallback.encode(book.bidPrices(), book.bidQtys(), book.bidCount());
+            asksBlob = fallback.encode(book.askPrices(), book.askQtys(), book.askCount());
+            algo = DepthBookCodec.GZIP;
+        }
 
-            depthSnapshotMapper.upsert(row);
+        FDepthSnapshot1s row = new FDepthSnapshot1s();
+        row.setSymbol(symbol);
+        row.setTsUtc(utcFromMs(tsMs));
 
-        } catch (Exception e) {
-            log.error("[PERSIST][DEPTH] failed: {}", e.getMessage(), e);
-        }
+        row.setBestBid(bestBid);
+        row.setBestAsk(bestAsk);
+        row.setMidPrice(mid);
+        row.setSpreadBps(spreadBps);
+
+        row.setDepthBidSumTop20(bidSum);
+        row.setDepthAskSumTop20(askSum);
+        row.setImbalanceTop20(imbalance);
+
+        row.setMicroprice(microprice);
+        row.setMicropriceGapBps(micropriceGapBps);
+
+        row.setBidsGzip(bidsBlob);
+        row.setAsksGzip(asksBlob);
+        row.setCompressAlgo(algo);
+        return row;
     }
 
-    private double sumNotionalTopN(List<DepthEvent.DepthLevel> levels) {
+    static double sumNotionalTopN(double[] prices, double[] qtys, int n) {
         double sum = 0.0;
-        for (DepthEvent.DepthLevel lv : levels) {
-            double p = parseDoubleOrZero(lv.price());
-            double q = parseDoubleOrZero(lv.qty());
-            sum += (p * q);
+        for (int i = 0; i < n; i++) {
+            sum += (prices[i] * qtys[i]);
         }
         return sum;
     }
 
     // =========================
     // 5) AGG TRADE (1분 메모리 집계)
-    // - 분이 바뀌면 이전 분 DB 저장 후 리셋
+    // - 심볼 shard 스레드 단일 writer -> 락 없이 누적
+    // - 분이 바뀌면 이전 분을 row 로 봉인해 write-behind 로 넘기고 리셋 (DB 대기 없음, depth/mark 분 집계도 같은 방식)
     // - isBuyerMaker(false)=taker buy, true=taker sell
     // - vwap = sum(price*qty)/sum(qty)
     // =========================
@@ -282,99 +402,192 @@ public class BinanceDataPersistListener {
             String symbol = payload.symbol();
             long tradeMs = payload.tradeTime(); // aggTrade의 T
 
-            long minuteStartMs = floorToMinuteMs(tradeMs);
-
-            AggState state = aggStates.computeIfAbsent(symbol, s -> new AggState(minuteStartMs));
-
-            synchronized (state) {
-                // 분이 바뀌면 flush 후 리셋
-                if (state.minuteStartMs != minuteStartMs) {
-                    flushAggState(symbol, state);
-                    state.reset(minuteStartMs);
-                }
-
-                double qty = parseDoubleOrZero(payload.quantity());
-                double price = parseDoubleOrZero(payload.price());
-
-                if (!payload.buyerIsMaker()) {
-                    // buyerIsMaker=false => taker BUY
-                    state.takerBuyQty += qty;
-                } else {
-                    // buyerIsMaker=true => taker SELL
-                    state.takerSellQty += qty;
-                }
-
-                state.tradeCount += 1;
+            // 분이 바뀌면 이전 분 봉인 후 리셋, 이미 봉인된 분의 늦은 체결은 null (bucket 에서 집계 / WARN)
+            advanceEventClock(tradeMs);
+            AggMinuteBucket state = aggMinutes.bucket(symbol, floorToMinuteMs(tradeMs));
+            if (state == null)
+                return;
 
-                double notional = price * qty;
-                state.sumNotional += notional;
-                state.sumQty += qty;
-            }
+            state.add(parseDoubleOrZero(payload.price()), parseDoubleOrZero(payload.quantity()),
+                    payload.buyerIsMaker());
 
         } catch (Exception e) {
             log.error("[PERSIST][AGG] failed: {}", e.getMessage(), e);
         }
     }
 
-    private void flushAggState(String symbol, AggState state) {
-        // synchronized(state) 안에서 호출되는 용도
-        try {
-            if (state.tradeCount <= 0)
-                return;
-
-            Double vwap = (state.sumQty > 0.0) ? (state.sumNotional / state.sumQty) : null;
-
-            FAggTrade1m row = new FAggTrade1m();
-            row.setSymbol(symbol);
-            row.setTsUtc(utcFromMs(state.minuteStartMs)); // 분 시작 시각
-            row.setTakerBuyQty(state.takerBuyQty);
-            row.setTakerSellQty(state.takerSellQty);
-            row.setTradeCount(state.tradeCount);
-            row.setVwapPrice(vwap);
-
-            aggTradeMapper.upsert(row);
+    /**
+     * final kline 도착 시 해당 분까지의 aggTrade / depth / mark 집계를 flush 하고 다음 분으로 넘긴다
+     * - 다음 분 첫 샘플을 기다리지 않으므로 거래가 뜸한 심볼도 분 마감 직후 봉인됨
+     */
+    private void sealMinute(String symbol, long minuteStartMs) {
+        for (MinuteRollup<?, ?> r : rollups)
+            r.seal(symbol, minuteStartMs);
+    }
 
-        } catch (Exception e) {
-            log.error("[PERSIST][AGG][FLUSH] failed: {}", e.getMessage(), e);
+    /**
+     * 샘플도 final kline 도 오지 않는 심볼의 지난 분 봉인 (idle timer)
+     * - 버킷은 건드리지 않고 심볼 shard 로 작업만 넘김 (단일 writer 유지)
+     * - replay 면 기준 시각 = 지금까지 흘러온 가장 늦은 이벤트 시각 (배속 / 최대 속도에서도 분 경계가 녹화와 같음)
+     */
+    @Scheduled(fixedDelayString = "${app.persist.agg-idle-check-ms:1000}")
+    public void sealIdleAggMinutes() {
+        long nowMs = eventClock ? lastEventMs : System.currentTimeMillis();
+        if (nowMs <= 0L)
+            return;
+        for (String symbol : rollupSymbols()) {
+            shardExecutor.execute(symbol, () -> {
+                for (MinuteRollup<?, ?> r : rollups)
+                    r.sealIfIdle(symbol, nowMs, aggIdleGraceMs);
+            });
         }
     }
 
+    /**
+     * 종료 시 집계중인 분도 저장
+     * - 심볼 shard 로 flush 를 넘겨 이미 큐에 들어간 샘플까지 반영한 뒤 봉인 (단일 writer 유지)
+     * - shard / write-behind 큐는 이 빈에 주입된 의존성이라 이 메서드가 끝난 뒤에 닫힘
+     */
     @PreDestroy
     public void onShutdownFlushAgg() {
-        // 종료 시점에 현재 집계중인 분도 한번 저장
-        for (Map.Entry<String, AggState> e : aggStates.entrySet()) {
-            String symbol = e.getKey();
-            AggState st = e.getValue();
-            synchronized (st) {
-                flushAggState(symbol, st);
-            }
+        Set<String> symbols = rollupSymbols();
+        CountDownLatch done = new CountDownLatch(symbols.size());
+        for (String symbol : symbols) {
+            shardExecutor.execute(symbol, () -> {
+                try {
+                    for (MinuteRollup<?, ?> r : rollups)
+                        r.flushSymbol(symbol);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            if (!done.await(shutdownTimeoutMs, TimeUnit.MILLISECONDS))
+                log.warn("[PERSIST][SHUTDOWN] minute flush timed out: pending={}/{} symbols",
+                        done.getCount(), symbols.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[PERSIST][SHUTDOWN] minute flush interrupted: pending={}/{} symbols",
+                    done.getCount(), symbols.size());
         }
     }
 
+    /**
+     * replay 중 이벤트 시각 시계 (shard 스레드 여러 개가 쓰지만 뒤로만 안 가면 됨)
+     */
+    private void advanceEventClock(long eventMs) {
+        if (eventClock && eventMs > lastEventMs)
+            lastEventMs = eventMs;
+    }
+
+    /**
+     * 집계별 봉인 후 늦게 와서 버린 샘플 수 (AGG / DEPTH1M / MARK1M)
+     */
+    public Map<String, Long> lateSamples() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (MinuteRollup<?, ?> r : rollups)
+            out.put(r.tag, r.late.get());
+        return out;
+    }
+
+    public boolean usesEventClock() {
+        return eventClock;
+    }
+
+    private Set<String> rollupSymbols() {
+        Set<String> symbols = new HashSet<>();
+        for (MinuteRollup<?, ?> r : rollups)
+            symbols.addAll(r.states.keySet());
+        return symbols;
+    }
+
     // =========================
-    // 내부 집계 상태
+    // 1분 집계 공통 (분 전환 / 봉인 / idle 봉인)
+    // - 버킷별 상태는 심볼 shard 스레드에서만 변경 (종료 시 flush 도 shard 에서)
+    // - 봉인된 row 는 새 객체라 리셋 후에도 writer 가 안전하게 씀
     // =========================
-    private static class AggState {
-        volatile long minuteStartMs;
+    private static final class MinuteRollup<R, B extends MinuteBucket<R>> {
+
+        final String tag;
+        final LongFunction<B> factory;
+        final Consumer<R> sink;
+        final Map<String, B> states = new ConcurrentHashMap<>();
+        final AtomicLong late = new AtomicLong();
+
+        MinuteRollup(String tag, LongFunction<B> factory, Consumer<R> sink) {
+            this.tag = tag;
+            this.factory = factory;
+            this.sink = sink;
+        }
 
-        double takerBuyQty = 0.0;
-        double takerSellQty = 0.0;
-        int tradeCount = 0;
+        /**
+         * minuteStartMs 샘플을 넣을 버킷 (분이 바뀌었으면 이전 분 봉인 후 리셋)
+         *
+         * @return 이미 봉인된 분의 늦은 샘플이면 null (저장된 분 row 를 되돌리지 않도록 버림, late 로 집계)
+         */
+        B bucket(String symbol, long minuteStartMs) {
+            B state = states.computeIfAbsent(symbol, s -> factory.apply(minuteStartMs));
+            if (minuteStartMs < state.minuteStartMs()) {
+                long n = late.incrementAndGet();
+                if (n == 1 || n % 1000 == 0)
+                    log.warn("[PERSIST][{}] late sample dropped (minute already sealed): symbol={}, minute={}, open={}, total={}",
+                            tag, symbol, minuteStartMs, state.minuteStartMs(), n);
+                return null;
+            }
+            if (state.minuteStartMs() != minuteStartMs) {
+                flush(symbol, state);
+                state.reset(minuteStartMs);
+            }
+            return state;
+        }
 
-        double sumNotional = 0.0;
-        double sumQty = 0.0;
+        void seal(String symbol, long minuteStartMs) {
+            B state = states.get(symbol);
+            if (state == null)
+                return;
+            if (state.minuteStartMs() > minuteStartMs)
+                return; // 이미 다음 분으로 넘어감
 
-        AggState(long minuteStartMs) {
-            this.minuteStartMs = minuteStartMs;
+            flush(symbol, state);
+            state.reset(minuteStartMs + 60_000L);
         }
 
-        void reset(long newMinuteStartMs) {
-            this.minuteStartMs = newMinuteStartMs;
-            this.takerBuyQty = 0.0;
-            this.takerSellQty = 0.0;
-            this.tradeCount = 0;
-            this.sumNotional = 0.0;
-            this.sumQty = 0.0;
+        /**
+         * 분 마감 + grace 가 지났고, 직전 점검 이후 샘플이 없었을 때만 봉인
+         * (replay 처럼 벽시계와 이벤트 시각이 다른 경우에도 흐르는 동안은 봉인하지 않음)
+         */
+        void sealIfIdle(String symbol, long nowMs, long graceMs) {
+            B state = states.get(symbol);
+            if (state == null || state.isEmpty())
+                return;
+            if (state.clearTouched())
+                return;
+            if (nowMs < state.minuteStartMs() + 60_000L + graceMs)
+                return;
+
+            log.debug("[PERSIST][{}] idle minute sealed: symbol={}, minute={}", tag, symbol, state.minuteStartMs());
+            seal(symbol, state.minuteStartMs());
+        }
+
+        /**
+         * 종료 시 심볼의 현재 분 저장 (비어 있으면 toRow 가 null -> no-op)
+         */
+        void flushSymbol(String symbol) {
+            B state = states.get(symbol);
+            if (state != null)
+                seal(symbol, state.minuteStartMs());
+        }
+
+        private void flush(String symbol, B state) {
+            try {
+                R row = state.toRow(symbol);
+                if (row != null)
+                    sink.accept(row);
+            } catch (Exception e) {
+                log.error("[PERSIST][{}][FLUSH] failed: {}", tag, e.getMessage(), e);
+            }
         }
     }
 
@@ -397,25 +610,14 @@ public class BinanceDataPersistListener {
         return (epochMs / 60_000L) * 60_000L;
     }
 
-    private static long firstNonNullLong(Long a, Long b, long c) {
-        if (a != null)
+    private static long firstPositiveLong(long a, long b, long c) {
+        if (a > 0)
             return a;
-        if (b != null)
+        if (b > 0)
             return b;
         return c;
     }
 
-    // =========================
-    // JSON -> GZIP
-    // =========================
-    public static byte[] gzip(byte[] input) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gos = new GZIPOutputStream(baos)) {
-            gos.write(input);
-        }
-        return baos.toByteArray();
-    }
-
     // =========================
     // parse helpers
     // =========================
@@ -425,7 +627,7 @@ public class BinanceDataPersistListener {
         return Double.parseDouble(s);
     }
 
-    private static double parseDoubleOrZero(String s) {
+    static double parseDoubleOrZero(String s) {
         if (s == null || s.isBlank())
             return 0.0;
         try {
@@ -2,8 +2,13 @@ package com.team_biance.the_coin_killer.mapper;
 
 import com.team_biance.the_coin_killer.model.FeatureMinute;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface FeatureMinuteMapper {
     int upsert(FeatureMinute row);
+
+    int upsertBatch(@Param("rows") List<FeatureMinute> rows);
 }
@@ -1,5 +1,7 @@
 package com.team_biance.the_coin_killer.mapper;
 
+import com.team_biance.the_coin_killer.dto.FeatureSourceBatch;
+import com.team_biance.the_coin_killer.dto.MinuteCount;
 import com.team_biance.the_coin_killer.model.FAggTrade1m;
 import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
 import com.team_biance.the_coin_killer.model.FKline1m;
@@ -13,25 +15,61 @@ import java.util.List;
 @Mapper
 public interface FeatureSourceMapper {
 
-    FKline1m getKlineAt(@Param("symbol") String symbol, @Param("tsUtc") LocalDateTime tsUtc);
+    /**
+     * [from, to) 분 feature 계산에 필요한 원천 데이터 전부 (범위 조회 7번, 분 수와 무관)
+     * - 1분이든 하루치든 같은 쿼리 수
+     */
+    default FeatureSourceBatch loadBatch(String symbol, LocalDateTime from, LocalDateTime to) {
+        return new FeatureSourceBatch(from, to,
+                getKlineRange(symbol, from.minusMinutes(60), to),
+                getAggTradeRange(symbol, from.minusMinutes(14), to),
+                getDepthLastPerMinute(symbol, from, to),
+                getMarkLastPerMinute(symbol, from, to),
+                countForceOrdersPerMinute(symbol, from, to),
+                getLatestDepthBefore(symbol, from),
+                getLatestMarkBefore(symbol, from));
+    }
 
     List<FKline1m> getKlineRange(@Param("symbol") String symbol,
             @Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to);
 
+    // from 이전 마지막 1개 (batch carry-in)
     FDepthSnapshot1s getLatestDepthBefore(@Param("symbol") String symbol,
             @Param("beforeTs") LocalDateTime beforeTs);
 
     FMark1s getLatestMarkBefore(@Param("symbol") String symbol,
             @Param("beforeTs") LocalDateTime beforeTs);
 
-    FAggTrade1m getAggTradeAt(@Param("symbol") String symbol, @Param("tsUtc") LocalDateTime tsUtc);
-
     List<FAggTrade1m> getAggTradeRange(@Param("symbol") String symbol,
             @Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to);
 
-    int countForceOrders(@Param("symbol") String symbol,
+    // ===== 범위 조회 (백필 / 배치 계산) =====
+
+    List<FDepthSnapshot1s> getDepthLastPerMinute(@Param("symbol") String symbol,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    List<FMark1s> getMarkLastPerMinute(@Param("symbol") String symbol,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    List<MinuteCount> countForceOrdersPerMinute(@Param("symbol") String symbol,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // ===== gap 탐지 =====
+
+    List<LocalDateTime> getKlineMinutes(@Param("symbol") String symbol,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    List<LocalDateTime> getAggTradeMinutes(@Param("symbol") String symbol,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    List<LocalDateTime> getFeatureMinutes(@Param("symbol") String symbol,
             @Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to);
 }
@@ -2,8 +2,13 @@ package com.team_biance.the_coin_killer.mapper;
 
 import com.team_biance.the_coin_killer.model.FForceOrder;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface ForceOrderMapper {
     int insert(FForceOrder row);
+
+    int insertBatch(@Param("rows") List<FForceOrder> rows);
 }
@@ -2,8 +2,13 @@ package com.team_biance.the_coin_killer.mapper;
 
 import com.team_biance.the_coin_killer.model.FKline1m;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface KlineMapper {
     int upsert(FKline1m row);
+
+    int upsertBatch(@Param("rows") List<FKline1m> rows);
 }
@@ -0,0 +1,14 @@
+package com.team_biance.the_coin_killer.mapper;
+
+import com.team_biance.the_coin_killer.model.FMark1m;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface MarkMinuteMapper {
+    int upsert(FMark1m row);
+
+    int upsertBatch(@Param("rows") List<FMark1m> rows);
+}
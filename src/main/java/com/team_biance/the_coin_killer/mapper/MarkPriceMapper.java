@@ -2,8 +2,13 @@ package com.team_biance.the_coin_killer.mapper;
 
 import com.team_biance.the_coin_killer.model.FMark1s;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface MarkPriceMapper {
     int upsert(FMark1s row);
+
+    int upsertBatch(@Param("rows") List<FMark1s> rows);
 }
@@ -10,5 +10,7 @@ import java.util.List;
 public interface ModelPredMapper {
     void insertPrediction(ModelPred60m pred);
 
+    int insertPredictionBatch(@Param("rows") List<ModelPred60m> rows);
+
     List<ModelPred60m> recentPredictions(@Param("symbol") String symbol, @Param("limit") int limit);
 }
@@ -1,5 +1,6 @@
 package com.team_biance.the_coin_killer.mapper;
 
+import com.team_biance.the_coin_killer.dto.TableStatus;
 import com.team_biance.the_coin_killer.model.*;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -10,17 +11,8 @@ import java.util.List;
 @Mapper
 public interface MonitorMapper {
 
-    long countKline();
-
-    long countMark();
-
-    long countDepth();
-
-    long countForceOrder();
-
-    long countAggTrade();
-
-    long countFeatureMinute();
+    // information_schema 추정 row 수 (tableName / totalCount 만 채움, TableStatsRegistry seed 용)
+    List<TableStatus> tableRowEstimates();
 
     LocalDateTime latestKlineTime();
 
@@ -32,6 +24,10 @@ public interface MonitorMapper {
 
     LocalDateTime latestAggTradeTime();
 
+    LocalDateTime latestDepthMinuteTime();
+
+    LocalDateTime latestMarkMinuteTime();
+
     LocalDateTime latestFeatureMinuteTime();
 
     List<FKline1m> recentKlines(@Param("limit") int limit);
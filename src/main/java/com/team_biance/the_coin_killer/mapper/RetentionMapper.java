@@ -0,0 +1,45 @@
+package com.team_biance.the_coin_killer.mapper;
+
+import com.team_biance.the_coin_killer.dto.PartitionInfo;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 1초 테이블 보관 주기 관리 (RetentionService 전용)
+ * - table / partition 이름은 ${} 치환 -> 호출 측에서 고정 목록 / p yyyyMMdd 형식만 넘김
+ */
+@Mapper
+public interface RetentionMapper {
+
+    List<PartitionInfo> listPartitions(@Param("table") String table);
+
+    void addPartition(@Param("table") String table, @Param("name") String name,
+            @Param("lessThan") String lessThan, @Param("maxName") String maxName);
+
+    void dropPartition(@Param("table") String table, @Param("name") String name);
+
+    LocalDateTime oldestTime(@Param("table") String table);
+
+    List<String> listSymbols(@Param("table") String table);
+
+    int deleteBefore(@Param("table") String table, @Param("symbol") String symbol,
+            @Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // 분 rollup 이 없는 분만 채움 (실시간으로 봉인된 row 는 유지)
+    int rollupDepth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    int rollupMark(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 하루치 원본 스트리밍 (fetchSize=MIN_VALUE -> MySQL 행 단위 전송, 메모리에 모으지 않음)
+    void streamDepth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            ResultHandler<FDepthSnapshot1s> handler);
+
+    void streamMark(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            ResultHandler<FMark1s> handler);
+}
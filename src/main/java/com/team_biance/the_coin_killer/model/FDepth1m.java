@@ -0,0 +1,100 @@
+package com.team_biance.the_coin_killer.model;
+
+import java.time.LocalDateTime;
+
+public class FDepth1m {
+    private String symbol;
+    private LocalDateTime tsUtc;
+
+    private int sampleCount;
+
+    private double spreadBpsAvg;
+    private double spreadBpsMin;
+    private double spreadBpsMax;
+
+    private double imbalanceTop20Avg;
+    private Double micropriceGapBpsAvg;
+
+    private double midPriceAvg;
+    private double midPriceLast;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public LocalDateTime getTsUtc() {
+        return tsUtc;
+    }
+
+    public void setTsUtc(LocalDateTime tsUtc) {
+        this.tsUtc = tsUtc;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getSpreadBpsAvg() {
+        return spreadBpsAvg;
+    }
+
+    public void setSpreadBpsAvg(double spreadBpsAvg) {
+        this.spreadBpsAvg = spreadBpsAvg;
+    }
+
+    public double getSpreadBpsMin() {
+        return spreadBpsMin;
+    }
+
+    public void setSpreadBpsMin(double spreadBpsMin) {
+        this.spreadBpsMin = spreadBpsMin;
+    }
+
+    public double getSpreadBpsMax() {
+        return spreadBpsMax;
+    }
+
+    public void setSpreadBpsMax(double spreadBpsMax) {
+        this.spreadBpsMax = spreadBpsMax;
+    }
+
+    public double getImbalanceTop20Avg() {
+        return imbalanceTop20Avg;
+    }
+
+    public void setImbalanceTop20Avg(double imbalanceTop20Avg) {
+        this.imbalanceTop20Avg = imbalanceTop20Avg;
+    }
+
+    public Double getMicropriceGapBpsAvg() {
+        return micropriceGapBpsAvg;
+    }
+
+    public void setMicropriceGapBpsAvg(Double micropriceGapBpsAvg) {
+        this.micropriceGapBpsAvg = micropriceGapBpsAvg;
+    }
+
+    public double getMidPriceAvg() {
+        return midPriceAvg;
+    }
+
+    public void setMidPriceAvg(double midPriceAvg) {
+        this.midPriceAvg = midPriceAvg;
+    }
+
+    public double getMidPriceLast() {
+        return midPriceLast;
+    }
+
+    public void setMidPriceLast(double midPriceLast) {
+        this.midPriceLast = midPriceLast;
+    }
+}
@@ -0,0 +1,91 @@
+package com.team_biance.the_coin_killer.model;
+
+import java.time.LocalDateTime;
+
+public class FMark1m {
+    private String symbol;
+    private LocalDateTime tsUtc;
+
+    private int sampleCount;
+
+    private double markPriceLast;
+    private double markPriceAvg;
+
+    private Double indexPriceLast;
+    private Double basisBpsAvg;
+
+    private Double fundingRateLast;
+    private Double fundingRateAvg;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public LocalDateTime getTsUtc() {
+        return tsUtc;
+    }
+
+    public void setTsUtc(LocalDateTime tsUtc) {
+        this.tsUtc = tsUtc;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMarkPriceLast() {
+        return markPriceLast;
+    }
+
+    public void setMarkPriceLast(double markPriceLast) {
+        this.markPriceLast = markPriceLast;
+    }
+
+    public double getMarkPriceAvg() {
+        return markPriceAvg;
+    }
+
+    public void setMarkPriceAvg(double markPriceAvg) {
+        this.markPriceAvg = markPriceAvg;
+    }
+
+    public Double getIndexPriceLast() {
+        return indexPriceLast;
+    }
+
+    public void setIndexPriceLast(Double indexPriceLast) {
+        this.indexPriceLast = indexPriceLast;
+    }
+
+    public Double getBasisBpsAvg() {
+        return basisBpsAvg;
+    }
+
+    public void setBasisBpsAvg(Double basisBpsAvg) {
+        this.basisBpsAvg = basisBpsAvg;
+    }
+
+    public Double getFundingRateLast() {
+        return fundingRateLast;
+    }
+
+    public void setFundingRateLast(Double fundingRateLast) {
+        this.fundingRateLast = fundingRateLast;
+    }
+
+    public Double getFundingRateAvg() {
+        return fundingRateAvg;
+    }
+
+    public void setFundingRateAvg(Double fundingRateAvg) {
+        this.fundingRateAvg = fundingRateAvg;
+    }
+}
@@ -1,9 +1,9 @@
 package com.team_biance.the_coin_killer.scheduler;
 
-import com.team_biance.the_coin_killer.service.FeatureCalculationService;
+import com.team_biance.the_coin_killer.config.BinanceSymbols;
+import com.team_biance.the_coin_killer.service.FeaturePipelineService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -14,32 +14,37 @@ public class FeatureScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(FeatureScheduler.class);
 
-    private final FeatureCalculationService service;
-    private final String symbol;
+    private final FeaturePipelineService pipeline;
+    private final BinanceSymbols binanceSymbols;
 
     public FeatureScheduler(
-            FeatureCalculationService service,
-            @Value("${binance.symbol:BTCUSDT}") String symbol) {
-        this.service = service;
-        this.symbol = symbol;
+            FeaturePipelineService pipeline,
+            BinanceSymbols binanceSymbols) {
+        this.pipeline = pipeline;
+        this.binanceSymbols = binanceSymbols;
     }
 
     /**
-     * 매 1분마다 실행.
-     * - zone=UTC 기준
-     * - "직전 완성된 1분" (예: 10:05:00 실행이면 10:04:00 계산)
+     * 매 1분마다 실행 (fallback).
+     * - 정상 경로는 final kline 이벤트 -> FeaturePipelineService.onMinuteClosed
+     * - 여기서는 kline 이 오지 않아 watermark 가 멈춘 심볼만 catch-up
+     * - zone=UTC 기준, 경계 타이밍에 아직 안 들어온 캔들을 놓치지 않도록 "2분 전" 까지만
+     *   (예: 10:05:00 실행이면 10:03:00 까지)
+     * - binance.symbols 의 모든 심볼 (한 심볼 실패가 나머지를 막지 않도록 심볼별 try)
      */
     @Scheduled(cron = "0 * * * * *", zone = "UTC")
     public void runEveryMinute() {
-        try {
-            LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC)
-                    .withSecond(0).withNano(0);
+        LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC)
+                .withSecond(0).withNano(0);
 
-            LocalDateTime targetMinute = nowUtc.minusMinutes(1); // 직전 1분 시작
-            service.calculateFeatureMinute(symbol, targetMinute);
+        LocalDateTime throughMinute = nowUtc.minusMinutes(2);
 
-        } catch (Exception e) {
-            log.error("[FEATURE][SCHED] failed: {}", e.getMessage(), e);
+        for (String symbol : binanceSymbols.symbols()) {
+            try {
+                pipeline.catchUp(symbol, throughMinute);
+            } catch (Exception e) {
+                log.error("[FEATURE][SCHED] failed: symbol={}, err={}", symbol, e.getMessage(), e);
+            }
         }
     }
 }
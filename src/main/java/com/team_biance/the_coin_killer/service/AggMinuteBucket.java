@@ -0,0 +1,90 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+
+/**
+ * aggTrade 1분 집계 (f_aggtrade_1m row 1개)
+ * - isBuyerMaker(false)=taker buy, true=taker sell
+ * - vwap = sum(price*qty)/sum(qty)
+ *
+ * 스레드 안전하지 않음. 한 스레드(또는 호출 측 락) 안에서만 사용
+ * (실시간 경로는 심볼 shard 스레드가 단일 writer)
+ */
+public final class AggMinuteBucket implements MinuteBucket<FAggTrade1m> {
+
+    private long minuteStartMs;
+
+    private double takerBuyQty;
+    private double takerSellQty;
+    private int tradeCount;
+
+    private double sumNotional;
+    private double sumQty;
+
+    // 마지막 clearTouched() 이후 add 가 있었는지 (idle 봉인 판단용)
+    private boolean touched;
+
+    public AggMinuteBucket(long minuteStartMs) {
+        this.minuteStartMs = minuteStartMs;
+    }
+
+    @Override
+    public long minuteStartMs() {
+        return minuteStartMs;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tradeCount <= 0;
+    }
+
+    public void add(double price, double qty, boolean buyerIsMaker) {
+        if (!buyerIsMaker) {
+            // buyerIsMaker=false => taker BUY
+            takerBuyQty += qty;
+        } else {
+            // buyerIsMaker=true => taker SELL
+            takerSellQty += qty;
+        }
+
+        tradeCount += 1;
+        sumNotional += price * qty;
+        sumQty += qty;
+        touched = true;
+    }
+
+    @Override
+    public boolean clearTouched() {
+        boolean t = touched;
+        touched = false;
+        return t;
+    }
+
+    @Override
+    public void reset(long newMinuteStartMs) {
+        this.minuteStartMs = newMinuteStartMs;
+        this.takerBuyQty = 0.0;
+        this.takerSellQty = 0.0;
+        this.tradeCount = 0;
+        this.sumNotional = 0.0;
+        this.sumQty = 0.0;
+    }
+
+    @Override
+    public FAggTrade1m toRow(String symbol) {
+        if (isEmpty())
+            return null;
+
+        Double vwap = (sumQty > 0.0) ? (sumNotional / sumQty) : null;
+
+        FAggTrade1m row = new FAggTrade1m();
+        row.setSymbol(symbol);
+        row.setTsUtc(BinanceDataPersistListener.utcFromMs(minuteStartMs)); // 분 시작 시각
+        row.setTakerBuyQty(takerBuyQty);
+        row.setTakerSellQty(takerSellQty);
+        row.setTradeCount(tradeCount);
+        row.setVwapPrice(vwap);
+        return row;
+    }
+}
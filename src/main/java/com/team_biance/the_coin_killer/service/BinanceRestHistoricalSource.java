@@ -0,0 +1,187 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.binance.AggTradeEvent;
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 바이낸스 선물 REST 로 과거 kline / aggTrade 를 받아오는 백필 source
+ * - GET /fapi/v1/klines   (interval=1m, limit 1500)
+ * - GET /fapi/v1/aggTrades (startTime~endTime 최대 1시간, limit 1000, fromId 로 페이지 이어받기)
+ *
+ * binance.futures.rest-base 를 로컬 stand-in 서버로 바꾸면 같은 코드로 테스트 가능
+ */
+@Component
+public class BinanceRestHistoricalSource implements HistoricalMarketSource {
+
+    private static final int KLINE_LIMIT = 1500;
+    private static final int AGG_LIMIT = 1000;
+    private static final long AGG_WINDOW_MS = 60 * 60_000L;
+
+    private final OkHttpClient okHttpClient;
+    private final ObjectMapper objectMapper;
+    private final String restBase;
+    private final long pauseMs;
+
+    public BinanceRestHistoricalSource(
+            OkHttpClient okHttpClient,
+            ObjectMapper objectMapper,
+            @Value("${binance.futures.rest-base:https://fapi.binance.com}") String restBase,
+            @Value("${app.backfill.rest-pause-ms:100}") long pauseMs) {
+        this.okHttpClient = okHttpClient;
+        this.objectMapper = objectMapper;
+        this.restBase = restBase;
+        this.pauseMs = pauseMs;
+    }
+
+    @Override
+    public String name() {
+        return "REST";
+    }
+
+    @Override
+    public List<FKline1m> fetchKlines(String symbol, long fromMs, long toMs) throws IOException {
+        List<FKline1m> out = new ArrayList<>();
+        long nowMs = System.currentTimeMillis();
+        long start = fromMs;
+
+        while (start < toMs) {
+            String url = restBase + "/fapi/v1/klines?symbol=" + symbol + "&interval=1m"
+                    + "&startTime=" + start + "&endTime=" + (toMs - 1) + "&limit=" + KLINE_LIMIT;
+            JsonNode arr = getJson(url);
+            if (arr == null || !arr.isArray() || arr.size() == 0)
+                break;
+
+            long lastOpen = start;
+            for (JsonNode k : arr) {
+                // [openTime, open, high, low, close, volume, closeTime, quoteVolume, trades, takerBuyBase, takerBuyQuote, ignore]
+                long openTime = k.get(0).asLong();
+                long closeTime = k.get(6).asLong();
+                lastOpen = openTime;
+                if (closeTime >= nowMs)
+                    continue; // 아직 진행중인 캔들
+
+                FKline1m row = new FKline1m();
+                row.setSymbol(symbol);
+                row.setTsUtc(BinanceDataPersistListener.utcFromMs(openTime));
+                row.setOpen(k.get(1).asDouble());
+                row.setHigh(k.get(2).asDouble());
+                row.setLow(k.get(3).asDouble());
+                row.setClose(k.get(4).asDouble());
+                row.setVolume(k.get(5).asDouble());
+                row.setQuoteVolume(k.get(7).asDouble());
+                row.setTradeCount(k.get(8).asInt());
+                row.setTakerBuyVol(k.get(9).asDouble());
+                row.setTakerBuyQv(k.get(10).asDouble());
+                out.add(row);
+            }
+
+            if (arr.size() < KLINE_LIMIT)
+                break;
+            start = lastOpen + 60_000L;
+            pause();
+        }
+        return out;
+    }
+
+    @Override
+    public List<FAggTrade1m> fetchAggMinutes(String symbol, long fromMs, long toMs) throws IOException {
+        List<FAggTrade1m> out = new ArrayList<>();
+        AggMinuteBucket bucket = null;
+
+        // startTime/endTime 는 1시간 이내여야 하므로 창 단위로
+        for (long winStart = fromMs; winStart < toMs; winStart += AGG_WINDOW_MS) {
+            long winEnd = Math.min(toMs, winStart + AGG_WINDOW_MS);
+            String url = restBase + "/fapi/v1/aggTrades?symbol=" + symbol
+                    + "&startTime=" + winStart + "&endTime=" + (winEnd - 1) + "&limit=" + AGG_LIMIT;
+
+            while (url != null) {
+                AggTradeEvent[] page = objectMapper.readValue(getBody(url), AggTradeEvent[].class);
+                if (page == null || page.length == 0)
+                    break;
+
+                long lastId = -1L;
+                boolean passedWindow = false;
+                for (AggTradeEvent t : page) {
+                    lastId = t.aggTradeId();
+                    if (t.tradeTime() >= winEnd) {
+                        passedWindow = true;
+                        break;
+                    }
+                    if (t.tradeTime() < winStart)
+                        continue;
+
+                    long minute = BinanceDataPersistListener.floorToMinuteMs(t.tradeTime());
+                    if (bucket == null) {
+                        bucket = new AggMinuteBucket(minute);
+                    } else if (bucket.minuteStartMs() != minute) {
+                        addIfPresent(out, bucket, symbol);
+                        bucket.reset(minute);
+                    }
+                    bucket.add(parseOrZero(t.price()), parseOrZero(t.quantity()), t.buyerIsMaker());
+                }
+
+                // 페이지가 꽉 찼고 아직 창 안이면 fromId 로 이어받기
+                url = (!passedWindow && page.length == AGG_LIMIT)
+                        ? restBase + "/fapi/v1/aggTrades?symbol=" + symbol + "&fromId=" + (lastId + 1) + "&limit=" + AGG_LIMIT
+                        : null;
+                pause();
+            }
+        }
+
+        if (bucket != null)
+            addIfPresent(out, bucket, symbol);
+        return out;
+    }
+
+    private static void addIfPresent(List<FAggTrade1m> out, AggMinuteBucket bucket, String symbol) {
+        FAggTrade1m row = bucket.toRow(symbol);
+        if (row != null)
+            out.add(row);
+    }
+
+    private JsonNode getJson(String url) throws IOException {
+        return objectMapper.readTree(getBody(url));
+    }
+
+    private String getBody(String url) throws IOException {
+        Request request = new Request.Builder().url(url).get().build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null)
+                throw new IOException("REST " + response.code() + " " + response.message() + " url=" + url);
+            return response.body().string();
+        }
+    }
+
+    private void pause() {
+        if (pauseMs <= 0)
+            return;
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double parseOrZero(String s) {
+        if (s == null || s.isBlank())
+            return 0.0;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.team_biance.the_coin_killer.dto.binance.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combined Stream 프레임 단일 패스 디코더
+ * - { "stream": "...", "data": {...} } 를 JsonNode 트리 없이 JsonParser로 읽는다.
+ * - "stream" 을 먼저 읽고, "data" 객체는 스트림별 디코더로 바로 넘긴다.
+ * - depth20 의 b/a 레벨은 토큰 단위로 직접 읽어 stream별로 재사용하는 OrderBookSnapshot에 채운다.
+ *
+ * 소켓 reader 스레드에서 호출되므로 프레임당 할당을 최소화하는 것이 목적.
+ */
+public class BinanceStreamDecoder {
+
+    private static final Logger log = LoggerFactory.getLogger(BinanceStreamDecoder.class);
+
+    // stream 이름 suffix (symbol 부분은 제외)
+    static final String SUFFIX_KLINE_1M = "@kline_1m";
+    static final String SUFFIX_DEPTH20 = "@depth20@100ms";
+    static final String SUFFIX_AGG_TRADE = "@aggTrade";
+    static final String SUFFIX_FORCE_ORDER = "@forceOrder";
+    static final String SUFFIX_MARK_PRICE = "@markPrice@1s";
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    // ObjectReader는 root deserializer를 캐시하므로 매번 treeToValue 하는 것보다 싸다
+    private final ObjectReader klineReader;
+    private final ObjectReader aggTradeReader;
+    private final ObjectReader forceOrderReader;
+    private final ObjectReader markPriceReader;
+
+    // depth book 재사용 풀 (stream -> book). 같은 stream은 항상 같은 shard 스레드에서 디코딩된다 (SymbolShardExecutor)
+    private final Map<String, OrderBookSnapshot> bookPool = new ConcurrentHashMap<>();
+
+    public BinanceStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.klineReader = objectMapper.readerFor(KlineEvent.class);
+        this.aggTradeReader = objectMapper.readerFor(AggTradeEvent.class);
+        this.forceOrderReader = objectMapper.readerFor(ForceOrderEvent.class);
+        this.markPriceReader = objectMapper.readerFor(MarkPriceEvent.class);
+    }
+
+    /**
+     * @return KlineEvent / AggTradeEvent / ForceOrderEvent / MarkPriceEvent / DepthEvent 중 하나.
+     *         combined stream 형태가 아니거나 처리하지 않는 stream이면 null
+     */
+    public Object decode(String raw) throws IOException {
+        try (JsonParser p = jsonFactory.createParser(raw)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                log.debug("[BINANCE-WS] unknown payload: {}", raw);
+                return null;
+            }
+
+            String stream = null;
+            TreeNode deferredData = null;
+            Object out = null;
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+
+                if ("stream".equals(field)) {
+                    stream = p.getValueAsString();
+                } else if ("data".equals(field) && t == JsonToken.START_OBJECT) {
+                    if (stream != null) {
+                        out = decodeData(stream, p);
+                    } else {
+                        // 바이낸스는 항상 stream이 먼저 오지만, 순서가 바뀐 경우만 트리로 보관
+                        deferredData = objectMapper.readTree(p);
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+
+            if (out == null && deferredData != null && stream != null) {
+                try (JsonParser dp = objectMapper.treeAsTokens(deferredData)) {
+                    dp.nextToken();
+                    out = decodeData(stream, dp);
+                }
+            }
+
+            if (stream == null) {
+                // 가끔 ping/기타 메시지 형태가 다를 수 있어서 로그만
+                log.debug("[BINANCE-WS] unknown payload: {}", raw);
+            }
+            return out;
+        }
+    }
+
+    /**
+     * parser는 data 의 START_OBJECT 에 위치해 있어야 하며, 끝나면 END_OBJECT 에 위치한다.
+     */
+    private Object decodeData(String stream, JsonParser p) throws IOException {
+        if (stream.endsWith(SUFFIX_DEPTH20))
+            return decodeDepth(stream, p);
+        if (stream.endsWith(SUFFIX_AGG_TRADE))
+            return aggTradeReader.readValue(p);
+        if (stream.endsWith(SUFFIX_MARK_PRICE))
+            return markPriceReader.readValue(p);
+        if (stream.endsWith(SUFFIX_KLINE_1M))
+            return klineReader.readValue(p);
+        if (stream.endsWith(SUFFIX_FORCE_ORDER))
+            return forceOrderReader.readValue(p);
+
+        log.debug("[BINANCE-WS] unhandled stream={}", stream);
+        p.skipChildren();
+        return null;
+    }
+
+    /**
+     * depth20@100ms 는 스펙 변형 가능성이 있어 필드를 직접 읽는다
+     * - bids: "b" : [[price, qty], ...]
+     * - asks: "a" : [[price, qty], ...]
+     * - event time: "E" (optional)
+     * - transaction time: "T" (optional)
+     * - lastUpdateId: "lastUpdateId" 또는 선물 스트림의 "u" (optional)
+     * - symbol: "s" (optional, 없으면 stream 이름에서 추출)
+     *
+     * 레벨은 String을 만들지 않고 parser 버퍼에서 바로 double로 읽어 재사용 book에 채운다.
+     */
+    private DepthEvent decodeDepth(String stream, JsonParser p) throws IOException {
+        OrderBookSnapshot book = bookPool.computeIfAbsent(stream, k -> new OrderBookSnapshot());
+        book.clear();
+
+        String symbol = null;
+        long eventTime = 0L;
+        long transactionTime = 0L;
+        long lastUpdateId = 0L;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+
+            switch (field) {
+                case "s" -> symbol = p.getValueAsString();
+                case "E" -> eventTime = longOrZero(p);
+                case "T" -> transactionTime = longOrZero(p);
+                case "lastUpdateId" -> lastUpdateId = longOrZero(p);
+                case "u" -> {
+                    long u = longOrZero(p);
+                    if (lastUpdateId == 0L)
+                        lastUpdateId = u;
+                }
+                case "b" -> readLevels(p, book, true);
+                case "a" -> readLevels(p, book, false);
+                default -> p.skipChildren();
+            }
+        }
+
+        if (symbol == null)
+            symbol = symbolOf(stream);
+
+        return new DepthEvent(symbol, eventTime, transactionTime, lastUpdateId, book);
+    }
+
+    private static void readLevels(JsonParser p, OrderBookSnapshot book, boolean bid) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+
+            double price = Double.NaN;
+            double qty = Double.NaN;
+            int idx = 0;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+                if (idx == 0)
+                    price = numberValue(p);
+                else if (idx == 1)
+                    qty = numberValue(p);
+                else
+                    p.skipChildren();
+                idx++;
+            }
+
+            // 파싱 실패 레벨은 버림 (기존 parseDoubleOrZero 대신)
+            if (Double.isNaN(price) || Double.isNaN(qty))
+                continue;
+
+            if (bid)
+                book.addBid(price, qty);
+            else
+                book.addAsk(price, qty);
+        }
+    }
+
+    /**
+     * "87123.40" 같은 문자열 숫자를 String 생성 없이 읽는다.
+     * 숫자 토큰이면 그대로, 해석 불가면 NaN
+     */
+    private static double numberValue(JsonParser p) throws IOException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_STRING)
+            return parseDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        if (t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT)
+            return p.getDoubleValue();
+        p.skipChildren();
+        return Double.NaN;
+    }
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /**
+     * 부호/정수부/소수부만 있는 십진수 전용 fast path.
+     * - 가수(mantissa)가 2^53 미만이면 mantissa / 10^scale 은 두 피연산자가 모두 정확한 double 이므로
+     *   IEEE 나눗셈 결과가 Double.parseDouble 과 동일하게 올바르게 반올림된다.
+     * - 지수 표기, 긴 가수 등은 Double.parseDouble 로 fallback
+     */
+    static double parseDecimal(char[] buf, int off, int len) {
+        if (len <= 0)
+            return Double.NaN;
+
+        int i = off;
+        int end = off + len;
+        boolean negative = false;
+        if (buf[i] == '-') {
+            negative = true;
+            i++;
+        } else if (buf[i] == '+') {
+            i++;
+        }
+
+        long mantissa = 0L;
+        int scale = 0;
+        int digits = 0;
+        boolean sawDigit = false;
+        boolean dot = false;
+
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (digits > 0 || c != '0')
+                    digits++;
+                if (digits > 15)
+                    return slowParse(buf, off, len);
+                mantissa = mantissa * 10 + (c - '0');
+                if (dot)
+                    scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return slowParse(buf, off, len);
+            }
+        }
+
+        if (!sawDigit)
+            return Double.NaN;
+        if (scale >= POW10.length)
+            return slowParse(buf, off, len);
+
+        double v = (scale == 0) ? (double) mantissa : mantissa / POW10[scale];
+        return negative ? -v : v;
+    }
+
+    private static double slowParse(char[] buf, int off, int len) {
+        try {
+            return Double.parseDouble(new String(buf, off, len));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static long longOrZero(JsonParser p) throws IOException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT)
+            return p.getLongValue();
+        if (t == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(p.getText());
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+        p.skipChildren();
+        return 0L;
+    }
+
+    /**
+     * 파싱 없이 프레임 앞부분에서 "stream" 값만 꺼낸다 (소켓 스레드에서 shard 라우팅용)
+     * - 바이낸스 combined stream 은 항상 {"stream":"...","data":...} 순서
+     * - 형태가 다르면 null
+     */
+    public static String peekStream(String raw) {
+        int key = raw.indexOf("\"stream\"");
+        if (key < 0)
+            return null;
+        int colon = raw.indexOf(':', key + 8);
+        if (colon < 0)
+            return null;
+        int open = raw.indexOf('"', colon + 1);
+        if (open < 0)
+            return null;
+        int close = raw.indexOf('"', open + 1);
+        if (close < 0)
+            return null;
+        return raw.substring(open + 1, close);
+    }
+
+    /**
+     * "btcusdt@depth20@100ms" -> "BTCUSDT"
+     */
+    public static String symbolOf(String stream) {
+        int at = stream.indexOf('@');
+        String s = (at > 0) ? stream.substring(0, at) : stream;
+        return s.toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,22 +1,25 @@
 package com.team_biance.the_coin_killer.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.config.BinanceSymbols;
 import com.team_biance.the_coin_killer.dto.binance.*;
 import com.team_biance.the_coin_killer.event.*;
 import okhttp3.*;
 import okio.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -25,25 +28,21 @@ public class BinanceWebSocketClient implements ApplicationRunner {
 
     private static final Logger log = LoggerFactory.getLogger(BinanceWebSocketClient.class);
 
-    private static final String BASE_URL = "wss://fstream.binance.com";
-    private static final String SYMBOL = "btcusdt"; // lower-case stream rule
-
-    private static final String STREAM_KLINE_1M = SYMBOL + "@kline_1m";
-    private static final String STREAM_DEPTH20 = SYMBOL + "@depth20@100ms";
-    private static final String STREAM_AGG_TRADE = SYMBOL + "@aggTrade";
-    private static final String STREAM_FORCE_ORDER = SYMBOL + "@forceOrder";
-    private static final String STREAM_MARK_PRICE = SYMBOL + "@markPrice@1s";
-
-    private static final String COMBINED_URL = BASE_URL + "/stream?streams=" +
-            STREAM_KLINE_1M + "/" +
-            STREAM_DEPTH20 + "/" +
-            STREAM_AGG_TRADE + "/" +
-            STREAM_FORCE_ORDER + "/" +
-            STREAM_MARK_PRICE;
-
     private final OkHttpClient okHttpClient;
-    private final ObjectMapper objectMapper;
+    private final BinanceStreamDecoder decoder;
     private final ApplicationEventPublisher publisher;
+    private final BinanceSymbols binanceSymbols;
+    private final SymbolShardExecutor shardExecutor;
+    private final FrameRecorder frameRecorder;
+    private final PipelineMetrics metrics;
+    private final String wsBase;
+
+    // replay 모드: 파일이 지정되면 소켓 대신 녹화 프레임을 같은 dispatch 경로로 흘림
+    private final String replayFiles;
+    private final double replaySpeed;
+    private final int replayMaxQueued;
+    private volatile FrameReplayer replayer;
+    private volatile String replayState = "OFF";
 
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "binance-ws-reconnect");
@@ -51,80 +50,142 @@ public class BinanceWebSocketClient implements ApplicationRunner {
         return t;
     });
 
-    private volatile WebSocket webSocket;
+    private final List<StreamConnection> connections = new ArrayList<>();
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
-    private final AtomicBoolean reconnectScheduled = new AtomicBoolean(false);
 
     public BinanceWebSocketClient(
             OkHttpClient okHttpClient,
             ObjectMapper objectMapper,
-            ApplicationEventPublisher publisher) {
+            ApplicationEventPublisher publisher,
+            BinanceSymbols binanceSymbols,
+            SymbolShardExecutor shardExecutor,
+            FrameRecorder frameRecorder,
+            PipelineMetrics metrics,
+            @Value("${binance.futures.ws-base:wss://fstream.binance.com}") String wsBase,
+            @Value("${binance.ws.replay.files:}") String replayFiles,
+            @Value("${binance.ws.replay.speed:1}") double replaySpeed,
+            @Value("${binance.ws.replay.max-queued:10000}") int replayMaxQueued) {
         this.okHttpClient = okHttpClient;
-        this.objectMapper = objectMapper;
+        this.decoder = new BinanceStreamDecoder(objectMapper);
         this.publisher = publisher;
+        this.binanceSymbols = binanceSymbols;
+        this.shardExecutor = shardExecutor;
+        this.frameRecorder = frameRecorder;
+        this.metrics = metrics;
+        this.wsBase = wsBase;
+        this.replayFiles = replayFiles;
+        this.replaySpeed = replaySpeed;
+        this.replayMaxQueued = Math.max(1, replayMaxQueued);
     }
 
     @Override
     public void run(ApplicationArguments args) {
-        connect();
-    }
-
-    private synchronized void connect() {
-        if (shuttingDown.get())
+        if (replayFiles != null && !replayFiles.isBlank()) {
+            startReplay();
             return;
+        }
 
-        // 이미 열려있으면 중복 연결 방지
-        if (webSocket != null) {
-            return;
+        // 심볼 목록을 streams-per-connection 단위로 나눠 연결 여러 개 생성
+        List<List<String>> groups = binanceSymbols.streamsByConnection();
+        for (int i = 0; i < groups.size(); i++) {
+            String url = wsBase + "/stream?streams=" + String.join("/", groups.get(i));
+            connections.add(new StreamConnection(i, url, groups.get(i).size()));
         }
+        log.info("[BINANCE-WS] symbols={}, connections={}", binanceSymbols.symbols().size(), connections.size());
 
-        log.info("[BINANCE-WS] connecting: {}", COMBINED_URL);
+        for (StreamConnection c : connections)
+            c.connect();
+    }
 
-        Request request = new Request.Builder()
-                .url(COMBINED_URL)
-                .build();
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown.set(true);
+        log.info("[BINANCE-WS] shutting down...");
+
+        for (StreamConnection c : connections)
+            c.close();
+
+        FrameReplayer r = replayer;
+        if (r != null)
+            r.stop();
 
-        webSocket = okHttpClient.newWebSocket(request, new BinanceListener());
+        scheduler.shutdownNow();
     }
 
-    private void scheduleReconnect() {
-        if (shuttingDown.get())
-            return;
+    // =========================
+    // 연결 1개 (stream 묶음 1개)
+    // =========================
+    private class StreamConnection {
 
-        // 중복 스케줄 방지
-        if (!reconnectScheduled.compareAndSet(false, true)) {
-            return;
+        private final int index;
+        private final String url;
+        private final int streamCount;
+
+        private volatile WebSocket webSocket;
+        private final AtomicBoolean reconnectScheduled = new AtomicBoolean(false);
+
+        StreamConnection(int index, String url, int streamCount) {
+            this.index = index;
+            this.url = url;
+            this.streamCount = streamCount;
         }
 
-        log.warn("[BINANCE-WS] reconnect scheduled in 3s...");
-        scheduler.schedule(() -> {
-            try {
-                synchronized (this) {
-                    webSocket = null; // 재연결을 위해 null로
-                }
-                connect();
-            } finally {
-                reconnectScheduled.set(false);
+        synchronized void connect() {
+            if (shuttingDown.get())
+                return;
+
+            // 이미 열려있으면 중복 연결 방지
+            if (webSocket != null) {
+                return;
             }
-        }, 3, TimeUnit.SECONDS);
-    }
 
-    @PreDestroy
-    public void shutdown() {
-        shuttingDown.set(true);
-        log.info("[BINANCE-WS] shutting down...");
+            log.info("[BINANCE-WS][{}] connecting: streams={}, url={}", index, streamCount, url);
 
-        WebSocket ws = this.webSocket;
-        this.webSocket = null;
+            Request request = new Request.Builder()
+                    .url(url)
+                    .build();
 
-        if (ws != null) {
-            try {
-                ws.close(1000, "shutdown");
-            } catch (Exception ignored) {
+            webSocket = okHttpClient.newWebSocket(request, new BinanceListener(this));
+        }
+
+        void scheduleReconnect() {
+            if (shuttingDown.get())
+                return;
+
+            // 중복 스케줄 방지
+            if (!reconnectScheduled.compareAndSet(false, true)) {
+                return;
             }
+
+            log.warn("[BINANCE-WS][{}] reconnect scheduled in 3s...", index);
+            metrics.onReconnect(index);
+            scheduler.schedule(() -> {
+                try {
+                    synchronized (this) {
+                        webSocket = null; // 재연결을 위해 null로
+                    }
+                    connect();
+                } finally {
+                    reconnectScheduled.set(false);
+                }
+            }, 3, TimeUnit.SECONDS);
         }
 
-        scheduler.shutdownNow();
+        synchronized void clear() {
+            webSocket = null;
+        }
+
+        void close() {
+            WebSocket ws = this.webSocket;
+            this.webSocket = null;
+
+            if (ws != null) {
+                try {
+                    ws.close(1000, "shutdown");
+                } catch (Exception ignored) {
+                }
+            }
+        }
     }
 
     // =========================
@@ -132,19 +193,23 @@ public class BinanceWebSocketClient implements ApplicationRunner {
     // =========================
     private class BinanceListener extends WebSocketListener {
 
+        private final StreamConnection connection;
+
+        BinanceListener(StreamConnection connection) {
+            this.connection = connection;
+        }
+
         @Override
         public void onOpen(WebSocket webSocket, Response response) {
-            log.info("[BINANCE-WS] connected. code={}, message={}",
-                    response.code(), response.message());
+            log.info("[BINANCE-WS][{}] connected. code={}, message={}",
+                    connection.index, response.code(), response.message());
         }
 
         @Override
         public void onMessage(WebSocket webSocket, String text) {
-            try {
-                handleMessage(text);
-            } catch (Exception e) {
-                log.error("[BINANCE-WS] message handling error: {}", e.getMessage(), e);
-            }
+            long receivedMs = System.currentTimeMillis();
+            frameRecorder.record(receivedMs, text);
+            dispatch(text, receivedMs);
         }
 
         @Override
@@ -155,138 +220,157 @@ public class BinanceWebSocketClient implements ApplicationRunner {
 
         @Override
         public void onClosing(WebSocket webSocket, int code, String reason) {
-            log.warn("[BINANCE-WS] closing. code={}, reason={}", code, reason);
+            log.warn("[BINANCE-WS][{}] closing. code={}, reason={}", connection.index, code, reason);
             webSocket.close(code, reason);
         }
 
         @Override
         public void onClosed(WebSocket webSocket, int code, String reason) {
-            log.warn("[BINANCE-WS] closed. code={}, reason={}", code, reason);
-            synchronized (BinanceWebSocketClient.this) {
-                BinanceWebSocketClient.this.webSocket = null;
-            }
-            scheduleReconnect();
+            log.warn("[BINANCE-WS][{}] closed. code={}, reason={}", connection.index, code, reason);
+            connection.clear();
+            connection.scheduleReconnect();
         }
 
         @Override
         public void onFailure(WebSocket webSocket, Throwable t, Response response) {
             String resp = (response == null) ? "null" : (response.code() + " " + response.message());
-            log.error("[BINANCE-WS] failure. response={}, err={}", resp, t.getMessage(), t);
+            log.error("[BINANCE-WS][{}] failure. response={}, err={}", connection.index, resp, t.getMessage(), t);
 
-            synchronized (BinanceWebSocketClient.this) {
-                BinanceWebSocketClient.this.webSocket = null;
-            }
-            scheduleReconnect();
+            connection.clear();
+            connection.scheduleReconnect();
         }
     }
 
     // =========================
-    // Message Router
+    // Replay (녹화 프레임 -> dispatch)
+    // - 1x / Nx / 0 이하 = 최대 속도
+    // - 최대 속도에서는 shard 큐가 max-queued 를 넘으면 잠깐 멈춤 (무한 큐 메모리 보호)
     // =========================
-    private void handleMessage(String raw) throws Exception {
-        JsonNode root = objectMapper.readTree(raw);
-
-        // Combined Stream: { "stream": "...", "data": {...} }
-        JsonNode streamNode = root.get("stream");
-        JsonNode dataNode = root.get("data");
-
-        if (streamNode == null || dataNode == null) {
-            // 가끔 ping/기타 메시지 형태가 다를 수 있어서 로그만
-            log.debug("[BINANCE-WS] unknown payload: {}", raw);
+    private void startReplay() {
+        List<Path> files;
+        try {
+            files = FrameReplayer.resolve(replayFiles);
+        } catch (Exception e) {
+            log.error("[BINANCE-WS][REPLAY] cannot list files: spec={}, err={}", replayFiles, e.getMessage(), e);
+            replayState = "FAILED";
+            return;
+        }
+        if (files.isEmpty()) {
+            log.error("[BINANCE-WS][REPLAY] no frame files: spec={}", replayFiles);
+            replayState = "FAILED";
             return;
         }
 
-        String stream = streamNode.asText();
+        FrameReplayer r = new FrameReplayer(files, replaySpeed);
+        this.replayer = r;
+        this.replayState = "RUNNING";
+        log.info("[BINANCE-WS][REPLAY] start: files={}, speed={}", files.size(), (replaySpeed > 0) ? replaySpeed + "x" : "max");
 
-        switch (stream) {
-            case STREAM_KLINE_1M -> handleKline(dataNode);
-            case STREAM_DEPTH20 -> handleDepth(dataNode);
-            case STREAM_AGG_TRADE -> handleAggTrade(dataNode);
-            case STREAM_FORCE_ORDER -> handleForceOrder(dataNode);
-            case STREAM_MARK_PRICE -> handleMarkPrice(dataNode);
-            default -> log.debug("[BINANCE-WS] unhandled stream={}", stream);
+        Thread t = new Thread(() -> {
+            long t0 = System.nanoTime();
+            try {
+                long n = r.run((recvMs, raw) -> {
+                    if (replaySpeed <= 0) {
+                        while (shardExecutor.maxQueueDepth() > replayMaxQueued && !shuttingDown.get())
+                            Thread.sleep(1);
+                    }
+                    // 녹화 시각 기준 거래소 지연은 의미 없음 -> 0 (지표 생략)
+                    dispatch(raw, 0L);
+                });
+                long ms = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+                replayState = shuttingDown.get() ? "STOPPED" : "DONE";
+                log.info("[BINANCE-WS][REPLAY] {}: frames={}, recordedSpanMs={}, elapsedMs={}, framesPerSec={}",
+                        replayState, n, r.recordedSpanMs(), ms, n * 1000L / ms);
+            } catch (Exception e) {
+                replayState = "FAILED";
+                log.error("[BINANCE-WS][REPLAY] failed after {} frames: {}", r.frames(), e.getMessage(), e);
+            }
+        }, "frame-replay");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public Map<String, Object> replayStatus() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("state", replayState);
+        FrameReplayer r = replayer;
+        if (r != null) {
+            m.put("speed", r.speed());
+            m.put("frames", r.frames());
+            m.put("recordedSpanMs", r.recordedSpanMs());
+            m.put("behindMs", r.behindMs());
         }
+        return m;
     }
 
     // =========================
-    // Stream Handlers
+    // Shard Dispatch
+    // - 소켓 스레드는 stream 이름만 보고 심볼 shard 로 넘긴다 (디코딩/리스너는 shard 스레드)
+    // - receivedMs: 소켓 수신 시각 (replay 는 0 -> 거래소 지연 지표 생략)
     // =========================
-    private void handleKline(JsonNode dataNode) throws Exception {
-        KlineEvent dto = objectMapper.treeToValue(dataNode, KlineEvent.class);
-        publisher.publishEvent(new KlineStreamEvent(this, dto));
-    }
+    private void dispatch(String raw, long receivedMs) {
+        String stream = BinanceStreamDecoder.peekStream(raw);
+        if (stream == null) {
+            log.debug("[BINANCE-WS] unknown payload: {}", raw);
+            return;
+        }
 
-    private void handleAggTrade(JsonNode dataNode) throws Exception {
-        AggTradeEvent dto = objectMapper.treeToValue(dataNode, AggTradeEvent.class);
-        publisher.publishEvent(new AggTradeStreamEvent(this, dto));
-    }
+        PipelineMetrics.Stream type = PipelineMetrics.Stream.of(stream);
+        metrics.onMessage(type);
 
-    private void handleForceOrder(JsonNode dataNode) throws Exception {
-        ForceOrderEvent dto = objectMapper.treeToValue(dataNode, ForceOrderEvent.class);
-        publisher.publishEvent(new ForceOrderStreamEvent(this, dto));
+        shardExecutor.execute(BinanceStreamDecoder.symbolOf(stream), () -> {
+            try {
+                handleMessage(raw, type, receivedMs);
+            } catch (Exception e) {
+                log.error("[BINANCE-WS] message handling error: {}", e.getMessage(), e);
+            }
+        });
     }
 
-    private void handleMarkPrice(JsonNode dataNode) throws Exception {
-        MarkPriceEvent dto = objectMapper.treeToValue(dataNode, MarkPriceEvent.class);
-        publisher.publishEvent(new MarkPriceStreamEvent(this, dto));
-    }
+    // =========================
+    // Message Router
+    // =========================
+    private void handleMessage(String raw, PipelineMetrics.Stream type, long receivedMs) throws Exception {
+        // Combined Stream: { "stream": "...", "data": {...} } -> 단일 패스 디코딩
+        long t0 = System.nanoTime();
+        Object dto = decoder.decode(raw);
+        long t1 = System.nanoTime();
+        metrics.recordDecode(type, t1 - t0);
+        if (dto == null)
+            return;
 
-    /**
-     * depth20@100ms 는 스펙 변형 가능성이 있어 안전하게 JsonNode로 파싱
-     * - bids: "b" : [[price, qty], ...]
-     * - asks: "a" : [[price, qty], ...]
-     * - event time: "E" (optional)
-     * - transaction time: "T" (optional)
-     * - lastUpdateId: "lastUpdateId" (optional)
-     * - symbol: "s" (optional)
-     */
-    private void handleDepth(JsonNode dataNode) {
-        String symbol = textOrNull(dataNode.get("s"));
-        if (symbol == null)
-            symbol = "BTCUSDT";
-
-        Long eventTime = longOrNull(dataNode.get("E"));
-        Long transactionTime = longOrNull(dataNode.get("T"));
-        Long lastUpdateId = longOrNull(dataNode.get("lastUpdateId"));
-
-        List<DepthEvent.DepthLevel> bids = parseLevels(dataNode.get("b"));
-        List<DepthEvent.DepthLevel> asks = parseLevels(dataNode.get("a"));
-
-        DepthEvent dto = new DepthEvent(symbol, eventTime, transactionTime, lastUpdateId, bids, asks);
-        publisher.publishEvent(new DepthStreamEvent(this, dto));
-    }
+        if (receivedMs > 0)
+            metrics.recordExchangeLag(type, eventTimeOf(dto), receivedMs);
 
-    private List<DepthEvent.DepthLevel> parseLevels(JsonNode levelsNode) {
-        List<DepthEvent.DepthLevel> out = new ArrayList<>();
-        if (levelsNode == null || !levelsNode.isArray())
-            return out;
-
-        for (JsonNode lvl : levelsNode) {
-            if (!lvl.isArray() || lvl.size() < 2)
-                continue;
-            String price = lvl.get(0).asText();
-            String qty = lvl.get(1).asText();
-            out.add(new DepthEvent.DepthLevel(price, qty));
-        }
-        return out;
+        publish(dto);
+        metrics.recordListener(type, System.nanoTime() - t1);
     }
 
-    private static String textOrNull(JsonNode node) {
-        return (node == null || node.isNull()) ? null : node.asText(null);
+    private void publish(Object dto) {
+        if (dto instanceof DepthEvent depth) {
+            publisher.publishEvent(new DepthStreamEvent(this, depth));
+        } else if (dto instanceof AggTradeEvent aggTrade) {
+            publisher.publishEvent(new AggTradeStreamEvent(this, aggTrade));
+        } else if (dto instanceof MarkPriceEvent mark) {
+            publisher.publishEvent(new MarkPriceStreamEvent(this, mark));
+        } else if (dto instanceof KlineEvent kline) {
+            publisher.publishEvent(new KlineStreamEvent(this, kline));
+        } else if (dto instanceof ForceOrderEvent forceOrder) {
+            publisher.publishEvent(new ForceOrderStreamEvent(this, forceOrder));
+        }
     }
 
-    private static Long longOrNull(JsonNode node) {
-        if (node == null || node.isNull())
-            return null;
-        if (node.isNumber())
-            return node.asLong();
-        String t = node.asText(null);
-        if (t == null)
-            return null;
-        try {
-            return Long.parseLong(t);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static long eventTimeOf(Object dto) {
+        if (dto instanceof DepthEvent e)
+            return e.eventTime();
+        if (dto instanceof AggTradeEvent e)
+            return e.eventTime();
+        if (dto instanceof MarkPriceEvent e)
+            return e.eventTime();
+        if (dto instanceof KlineEvent e)
+            return e.eventTime();
+        if (dto instanceof ForceOrderEvent e)
+            return e.eventTime();
+        return 0L;
     }
 }
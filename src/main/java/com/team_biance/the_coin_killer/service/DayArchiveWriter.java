@@ -0,0 +1,97 @@
+package com.team_biance.the_coin_killer.service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 보관 기간이 지난 1초 테이블 하루치 -> gzip TSV 파일 1개
+ *
+ * - 첫 줄은 컬럼 이름, 값은 탭 구분 (NULL = \N, BLOB = base64, 시각 = ISO-8601)
+ * - "<file>.tmp" 에 쓰고 commit 에서 rename -> 파일이 있으면 완결된 하루치
+ * - commit 전에 close 되면 (예외 등) tmp 삭제
+ *
+ * 스레드 안전하지 않음 (RetentionService 가 한 번에 하나만 씀)
+ */
+final class DayArchiveWriter implements Closeable {
+
+    static final String NULL = "\\N";
+
+    private final Path file;
+    private final Path tmp;
+    private final BufferedWriter out;
+    private final int columns;
+    private long rows;
+    private boolean committed;
+
+    DayArchiveWriter(Path file, String... header) throws IOException {
+        this.file = file;
+        this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.columns = header.length;
+        Files.createDirectories(file.getParent());
+        this.out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024);
+        line(header);
+    }
+
+    void row(Object... values) throws IOException {
+        if (values.length != columns)
+            throw new IllegalArgumentException("column count " + values.length + " != " + columns);
+        line(values);
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void line(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                out.write('\t');
+            out.write(format(values[i]));
+        }
+        out.write('\n');
+    }
+
+    static String format(Object v) {
+        if (v == null)
+            return NULL;
+        if (v instanceof byte[] b)
+            return Base64.getEncoder().encodeToString(b);
+        if (v instanceof LocalDateTime t)
+            return t.toString();
+        if (v instanceof String s)
+            return s.replace('\t', ' ').replace('\n', ' ');
+        return v.toString();
+    }
+
+    /**
+     * gzip 마무리 후 최종 이름으로 이동
+     */
+    Path commit() throws IOException {
+        out.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed)
+            return;
+        try {
+            out.close();
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
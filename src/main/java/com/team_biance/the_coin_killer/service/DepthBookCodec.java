@@ -0,0 +1,355 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * f_depth_snapshot_1s 의 bids / asks BLOB 인코딩 (compress_algo 컬럼 값으로 구분)
+ *
+ * - GZIP    : 기존 포맷. [{"price":"...","qty":"..."}, ...] JSON 을 gzip
+ * - BIN1    : 가격은 최우선 호가 기준 tick 단위 delta, 수량은 lot 단위 varint
+ * - BIN1DFL : BIN1 을 raw deflate (Deflater 재사용)
+ *
+ * BIN1 레이아웃 (little-endian varint, 가격 delta 는 zigzag)
+ *   [version=1][priceScale][qtyScale][n][tick][price0 ticks][delta_1 / tick] ... [delta_n-1 / tick][qty_0 lots] ... [qty_n-1 lots]
+ *   - priceScale / qtyScale : 값을 정수로 만드는 10진 자릿수 (스냅샷마다 최소값)
+ *   - tick : 인접 호가 간격의 최대공약수 (priceScale 단위)
+ *   디코딩은 ticks / 10^scale 이라 Double.parseDouble(원문) 과 같은 값이 나옴 (손실 없음)
+ *
+ * encode 는 내부 버퍼 / Deflater 를 재사용하므로 인스턴스를 스레드끼리 공유하면 안 됨 (ThreadLocal 로 사용)
+ * decode 는 static, 스레드 안전
+ */
+public final class DepthBookCodec {
+
+    public static final String GZIP = "GZIP";
+    public static final String BIN1 = "BIN1";
+    public static final String BIN1_DEFLATE = "BIN1DFL";
+
+    private static final int VERSION = 1;
+    private static final int MAX_SCALE = 12;
+    // 한쪽 level 수 상한 (Binance depth 최대 1000). 깨진 blob 의 level 수로 큰 배열을 잡지 않도록
+    static final int MAX_LEVELS = 1000;
+    private static final long MAX_EXACT = 1L << 53;
+    private static final double[] POW10 = new double[MAX_SCALE + 1];
+
+    static {
+        double p = 1.0;
+        for (int i = 0; i <= MAX_SCALE; i++) {
+            POW10[i] = p;
+            p *= 10.0;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String algo;
+    private byte[] buf = new byte[256];
+    private int pos;
+    private long[] ticks = new long[32];
+    private Deflater deflater;
+    private byte[] deflated;
+
+    public DepthBookCodec(String algo) {
+        this.algo = normalize(algo);
+    }
+
+    public String algo() {
+        return algo;
+    }
+
+    /**
+     * 알 수 없는 값은 예외 (설정 오타를 기동 시 잡기 위해)
+     */
+    public static String normalize(String algo) {
+        String a = (algo == null) ? GZIP : algo.trim().toUpperCase(Locale.ROOT);
+        if (!GZIP.equals(a) && !BIN1.equals(a) && !BIN1_DEFLATE.equals(a))
+            throw new IllegalArgumentException("unknown depth codec: " + algo);
+        return a;
+    }
+
+    /**
+     * 한쪽 호가 (prices / qtys 앞 n 개) 인코딩
+     *
+     * @throws IllegalArgumentException 10^12 이하 자릿수로 정확히 표현되지 않는 값 / MAX_LEVELS 초과 (호출 측에서 GZIP 으로 대체)
+     */
+    public byte[] encode(double[] prices, double[] qtys, int n) throws IOException {
+        switch (algo) {
+            case BIN1:
+                writeBinary(prices, qtys, n);
+                return Arrays.copyOf(buf, pos);
+            case BIN1_DEFLATE:
+                writeBinary(prices, qtys, n);
+                return deflate();
+            default:
+                return gzip(levelsJson(prices, qtys, n));
+        }
+    }
+
+    // =========================
+    // decode
+    // =========================
+    public record Levels(double[] prices, double[] qtys) {
+        public int size() {
+            return prices.length;
+        }
+    }
+
+    public static Levels decode(byte[] blob, String algo) throws IOException {
+        if (blob == null)
+            return new Levels(new double[0], new double[0]);
+
+        switch (normalize(algo)) {
+            case BIN1:
+                return readBinary(blob, blob.length);
+            case BIN1_DEFLATE:
+                return readBinary(inflate(blob), -1);
+            default:
+                return readJson(blob);
+        }
+    }
+
+    // =========================
+    // BIN1
+    // =========================
+    private void writeBinary(double[] prices, double[] qtys, int n) {
+        // readBinary 가 거부하는 blob 은 쓰지 않음
+        if (n > MAX_LEVELS)
+            throw new IllegalArgumentException("too many levels: " + n);
+        int priceScale = scaleOf(prices, n);
+        int qtyScale = scaleOf(qtys, n);
+
+        if (ticks.length < n)
+            ticks = new long[Math.max(n, ticks.length * 2)];
+        long tick = 0;
+        for (int i = 0; i < n; i++) {
+            ticks[i] = toUnits(prices[i], priceScale);
+            if (i > 0)
+                tick = gcd(tick, Math.abs(ticks[i] - ticks[i - 1]));
+        }
+        if (tick == 0)
+            tick = 1;
+
+        pos = 0;
+        ensure(4 + 10 * (2 * n + 2));
+        buf[pos++] = (byte) VERSION;
+        buf[pos++] = (byte) priceScale;
+        buf[pos++] = (byte) qtyScale;
+        writeVarLong(n);
+        writeVarLong(tick);
+        if (n > 0)
+            writeVarLong(zigzag(ticks[0]));
+        for (int i = 1; i < n; i++)
+            writeVarLong(zigzag((ticks[i] - ticks[i - 1]) / tick));
+        for (int i = 0; i < n; i++) {
+            long lots = toUnits(qtys[i], qtyScale);
+            if (lots < 0)
+                throw new IllegalArgumentException("negative qty: " + qtys[i]);
+            writeVarLong(lots);
+        }
+    }
+
+    private static Levels readBinary(byte[] b, int len) throws IOException {
+        Reader r = new Reader(b, len < 0 ? b.length : len);
+        int version = r.readByte();
+        if (version != VERSION)
+            throw new IOException("unsupported depth blob version: " + version);
+        int priceScale = r.readByte();
+        int qtyScale = r.readByte();
+        if (priceScale > MAX_SCALE || qtyScale > MAX_SCALE)
+            throw new IOException("corrupt depth blob: scale");
+
+        long levels = r.readVarLong();
+        if (levels < 0 || levels > MAX_LEVELS)
+            throw new IOException("corrupt depth blob: levels " + levels);
+        int n = (int) levels;
+        long tick = r.readVarLong();
+        double[] prices = new double[n];
+        double[] qtys = new double[n];
+
+        long t = 0;
+        for (int i = 0; i < n; i++) {
+            t = (i == 0) ? unzigzag(r.readVarLong()) : t + unzigzag(r.readVarLong()) * tick;
+            prices[i] = t / POW10[priceScale];
+        }
+        for (int i = 0; i < n; i++)
+            qtys[i] = r.readVarLong() / POW10[qtyScale];
+        return new Levels(prices, qtys);
+    }
+
+    /**
+     * 모든 값을 정수로 만드는 최소 10진 자릿수
+     */
+    private static int scaleOf(double[] values, int n) {
+        int scale = 0;
+        for (int i = 0; i < n; i++) {
+            double v = values[i];
+            while (!exactAt(v, scale)) {
+                if (++scale > MAX_SCALE)
+                    throw new IllegalArgumentException("value not representable in " + MAX_SCALE + " decimals: " + v);
+            }
+        }
+        return scale;
+    }
+
+    private static boolean exactAt(double v, int scale) {
+        double scaled = v * POW10[scale];
+        if (!(Math.abs(scaled) < MAX_EXACT))
+            return false;
+        return Math.round(scaled) / POW10[scale] == v;
+    }
+
+    private static long toUnits(double v, int scale) {
+        return Math.round(v * POW10[scale]);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private void writeVarLong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private void ensure(int extra) {
+        if (pos + extra > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+    }
+
+    private static final class Reader {
+        private final byte[] b;
+        private final int len;
+        private int p;
+
+        Reader(byte[] b, int len) {
+            this.b = b;
+            this.len = len;
+        }
+
+        int readByte() throws IOException {
+            if (p >= len)
+                throw new IOException("truncated depth blob");
+            return b[p++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int x = readByte();
+                v |= (long) (x & 0x7F) << shift;
+                if ((x & 0x80) == 0)
+                    return v;
+            }
+            throw new IOException("corrupt depth blob: varint");
+        }
+    }
+
+    // =========================
+    // deflate (BIN1DFL)
+    // =========================
+    private byte[] deflate() {
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED, true);
+            deflated = new byte[512];
+        }
+        deflater.reset();
+        deflater.setInput(buf, 0, pos);
+        deflater.finish();
+
+        int len = 0;
+        while (!deflater.finished()) {
+            if (len == deflated.length)
+                deflated = Arrays.copyOf(deflated, deflated.length * 2);
+            len += deflater.deflate(deflated, len, deflated.length - len);
+        }
+        return Arrays.copyOf(deflated, len);
+    }
+
+    private static byte[] inflate(byte[] blob) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(blob);
+            byte[] out = new byte[Math.max(64, blob.length * 4)];
+            int len = 0;
+            while (!inflater.finished()) {
+                if (len == out.length)
+                    out = Arrays.copyOf(out, out.length * 2);
+                int n = inflater.inflate(out, len, out.length - len);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IOException("truncated depth blob (deflate)");
+                len += n;
+            }
+            return Arrays.copyOf(out, len);
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt depth blob (deflate): " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // =========================
+    // GZIP (기존 JSON 포맷)
+    // =========================
+    static byte[] levelsJson(double[] prices, double[] qtys, int n) {
+        StringBuilder sb = new StringBuilder(n * 40 + 2);
+        sb.append('[');
+        for (int i = 0; i < n; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append("{\"price\":\"").append(prices[i]).append("\",\"qty\":\"").append(qtys[i]).append("\"}");
+        }
+        sb.append(']');
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[] gzip(byte[] input) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gos = new GZIPOutputStream(baos)) {
+            gos.write(input);
+        }
+        return baos.toByteArray();
+    }
+
+    private static Levels readJson(byte[] blob) throws IOException {
+        JsonNode arr;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(blob))) {
+            arr = JSON.readTree(in);
+        }
+        int n = (arr == null) ? 0 : arr.size();
+        double[] prices = new double[n];
+        double[] qtys = new double[n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = Double.parseDouble(arr.get(i).path("price").asText());
+            qtys[i] = Double.parseDouble(arr.get(i).path("qty").asText());
+        }
+        return new Levels(prices, qtys);
+    }
+}
@@ -0,0 +1,133 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.binance.OrderBookSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.team_biance.the_coin_killer.service.DepthSegment.*;
+
+/**
+ * depth 원본 캡처 replay (DepthSegmentWriter 가 쓴 segment 를 read-only map 으로 순회)
+ *
+ * - [fromMs, toMs) 구간의 날짜 디렉터리 -> segment 순서대로
+ * - segment 안에서는 tsMs 이진 탐색으로 시작 record 를 찾음
+ * - 쓰는 중인 segment 도 읽을 수 있음 (header count 까지만)
+ *
+ * visitor 에 넘기는 OrderBookSnapshot 은 재사용 객체 (보관하려면 copyTo)
+ */
+public final class DepthCaptureReader {
+
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * @return false 면 replay 중단
+         */
+        boolean onBook(long tsMs, OrderBookSnapshot book);
+    }
+
+    private DepthCaptureReader() {
+    }
+
+    /**
+     * @return visitor 에 넘긴 record 수
+     */
+    public static long replay(Path root, String symbol, long fromMs, long toMs, Visitor visitor) throws IOException {
+        if (toMs <= fromMs)
+            return 0;
+
+        OrderBookSnapshot book = null;
+        long visited = 0;
+
+        long lastDay = Math.floorDiv(toMs - 1, 86_400_000L);
+        for (long day = Math.floorDiv(fromMs, 86_400_000L); day <= lastDay; day++) {
+            for (Path seg : segments(dayDir(root, symbol, day))) {
+                try (FileChannel ch = FileChannel.open(seg, StandardOpenOption.READ)) {
+                    if (ch.size() < HEADER_BYTES)
+                        continue;
+                    MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                    b.order(ByteOrder.LITTLE_ENDIAN);
+                    if (!validHeader(b))
+                        continue;
+
+                    int levels = b.getInt(OFF_LEVELS);
+                    int recordSize = b.getInt(OFF_RECORD_SIZE);
+                    long count = Math.min(b.getLong(OFF_COUNT), (ch.size() - HEADER_BYTES) / recordSize);
+                    if (count == 0 || b.getLong(OFF_LAST_TS) < fromMs)
+                        continue;
+                    if (b.getLong(OFF_FIRST_TS) >= toMs)
+                        return visited;
+
+                    if (book == null)
+                        book = new OrderBookSnapshot(levels);
+
+                    for (long i = lowerBound(b, recordSize, count, fromMs); i < count; i++) {
+                        int off = (int) (HEADER_BYTES + i * recordSize);
+                        long ts = b.getLong(off + REC_TS);
+                        if (ts >= toMs)
+                            return visited;
+
+                        read(b, off, levels, book);
+                        visited++;
+                        if (!visitor.onBook(ts, book))
+                            return visited;
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static void read(MappedByteBuffer b, int off, int levels, OrderBookSnapshot book) {
+        int nb = b.get(off + REC_BID_COUNT) & 0xFF;
+        int na = b.get(off + REC_ASK_COUNT) & 0xFF;
+
+        book.clear();
+        int p = off + REC_LEVELS;
+        for (int i = 0; i < nb; i++)
+            book.addBid(b.getDouble(p + i * 16), b.getDouble(p + i * 16 + 8));
+        p += levels * 16;
+        for (int i = 0; i < na; i++)
+            book.addAsk(b.getDouble(p + i * 16), b.getDouble(p + i * 16 + 8));
+    }
+
+    /**
+     * tsMs >= fromMs 인 첫 record
+     */
+    private static long lowerBound(MappedByteBuffer b, int recordSize, long count, long fromMs) {
+        long lo = 0;
+        long hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            long ts = b.getLong((int) (HEADER_BYTES + mid * recordSize) + REC_TS);
+            if (ts < fromMs)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private static List<Path> segments(Path dayDir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (!Files.isDirectory(dayDir))
+            return out;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dayDir, "seg-*" + SUFFIX)) {
+            for (Path p : ds) {
+                if (segmentIndex(p) > 0)
+                    out.add(p);
+            }
+        }
+        out.sort(Comparator.comparingInt(DepthSegment::segmentIndex));
+        return out;
+    }
+}
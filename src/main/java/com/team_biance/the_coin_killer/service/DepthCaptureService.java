@@ -0,0 +1,127 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.binance.OrderBookSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * depth20@100ms 원본 캡처 (연구용, DB 미사용)
+ *
+ * - 리스너가 1초 필터 전에 모든 업데이트를 넘김 -> 심볼 / UTC 날짜별 memory-mapped segment 에 고정 폭 record 로 append
+ * - MySQL f_depth_snapshot_1s 는 그대로 (1초 파생본)
+ * - 읽기는 replay() / DepthCaptureReader
+ *
+ * 용량: depth20 기준 record 656 bytes, 10건/초 -> 심볼당 하루 약 570MB
+ */
+@Service
+public class DepthCaptureService {
+
+    private static final Logger log = LoggerFactory.getLogger(DepthCaptureService.class);
+
+    @Value("${app.depth.capture.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.depth.capture.dir:./data/depth}")
+    private String dir;
+
+    @Value("${app.depth.capture.segment-mb:64}")
+    private int segmentMb;
+
+    @Value("${app.depth.capture.levels:20}")
+    private int levels;
+
+    private final Map<String, DepthSegmentWriter> writers = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong clamped = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 업데이트 1건 기록 (book 은 디코더 재사용 객체 -> 여기서 바로 복사해 씀)
+     * 실패해도 예외를 던지지 않음 (수집 경로를 막지 않도록)
+     */
+    public void append(String symbol, long tsMs, OrderBookSnapshot book) {
+        if (!enabled || closed)
+            return;
+
+        DepthSegmentWriter w = writers.computeIfAbsent(symbol,
+                s -> new DepthSegmentWriter(root(), s, levels, (long) segmentMb << 20));
+        synchronized (w) {
+            try {
+                long backMs = w.append(tsMs, book);
+                if (backMs > 0) {
+                    long n = clamped.incrementAndGet();
+                    if (n == 1 || n % 1000 == 0)
+                        log.warn("[DEPTH][CAPTURE] ts went backwards, clamped to previous: symbol={}, backMs={}, clamped={}",
+                                symbol, backMs, n);
+                }
+            } catch (IOException | RuntimeException e) {
+                long n = failures.incrementAndGet();
+                if (n == 1 || n % 1000 == 0)
+                    log.error("[DEPTH][CAPTURE] append failed: symbol={}, failures={}, err={}", symbol, n, e.getMessage(), e);
+            }
+        }
+    }
+
+    public long replay(String symbol, long fromMs, long toMs, DepthCaptureReader.Visitor visitor) throws IOException {
+        return DepthCaptureReader.replay(root(), symbol, fromMs, toMs, visitor);
+    }
+
+    public List<CaptureStats> stats() {
+        List<CaptureStats> out = new ArrayList<>();
+        writers.forEach((symbol, w) -> {
+            synchronized (w) {
+                out.add(new CaptureStats(symbol, w.records(), w.clamped(), w.segmentsOpened(), w.currentSegment()));
+            }
+        });
+        return out;
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * 시각이 거꾸로 와서 직전 시각으로 맞춘 record 수 (전 심볼 합)
+     */
+    public long clamped() {
+        return clamped.get();
+    }
+
+    private Path root() {
+        return Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        writers.forEach((symbol, w) -> {
+            synchronized (w) {
+                try {
+                    w.close();
+                } catch (IOException e) {
+                    log.warn("[DEPTH][CAPTURE] close failed: symbol={}, err={}", symbol, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public record CaptureStats(String symbol, long records, long clamped, int segmentsOpened, String currentSegment) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+
+/**
+ * depth 1분 집계 (f_depth_1m row 1개)
+ * - 샘플 = f_depth_snapshot_1s 에 저장되는 1초 스냅샷 (분당 최대 60개)
+ *   -> avg 는 f_depth_snapshot_1s 를 분 단위 GROUP BY AVG 한 값과 같음
+ * - spread avg/min/max, imbalance avg, microprice gap avg (microprice 없는 샘플 제외), mid avg / last
+ *
+ * 스레드 안전하지 않음. 심볼 shard 스레드(단일 writer) 안에서만 사용
+ */
+public final class DepthMinuteBucket implements MinuteBucket<FDepth1m> {
+
+    private long minuteStartMs;
+
+    private int samples;
+    private double spreadSum;
+    private double spreadMin;
+    private double spreadMax;
+    private double imbalanceSum;
+
+    private int microSamples;
+    private double microGapSum;
+
+    private double midSum;
+    private double midLast;
+
+    private boolean touched;
+
+    public DepthMinuteBucket(long minuteStartMs) {
+        reset(minuteStartMs);
+    }
+
+    @Override
+    public long minuteStartMs() {
+        return minuteStartMs;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return samples <= 0;
+    }
+
+    public void add(FDepthSnapshot1s s) {
+        double spread = s.getSpreadBps();
+        if (samples == 0) {
+            spreadMin = spread;
+            spreadMax = spread;
+        } else {
+            spreadMin = Math.min(spreadMin, spread);
+            spreadMax = Math.max(spreadMax, spread);
+        }
+        spreadSum += spread;
+        imbalanceSum += s.getImbalanceTop20();
+
+        if (s.getMicropriceGapBps() != null) {
+            microGapSum += s.getMicropriceGapBps();
+            microSamples++;
+        }
+
+        midSum += s.getMidPrice();
+        midLast = s.getMidPrice();
+        samples++;
+        touched = true;
+    }
+
+    @Override
+    public boolean clearTouched() {
+        boolean t = touched;
+        touched = false;
+        return t;
+    }
+
+    @Override
+    public void reset(long newMinuteStartMs) {
+        this.minuteStartMs = newMinuteStartMs;
+        this.samples = 0;
+        this.spreadSum = 0.0;
+        this.spreadMin = 0.0;
+        this.spreadMax = 0.0;
+        this.imbalanceSum = 0.0;
+        this.microSamples = 0;
+        this.microGapSum = 0.0;
+        this.midSum = 0.0;
+        this.midLast = 0.0;
+    }
+
+    @Override
+    public FDepth1m toRow(String symbol) {
+        if (isEmpty())
+            return null;
+
+        FDepth1m row = new FDepth1m();
+        row.setSymbol(symbol);
+        row.setTsUtc(BinanceDataPersistListener.utcFromMs(minuteStartMs)); // 분 시작 시각
+        row.setSampleCount(samples);
+        row.setSpreadBpsAvg(spreadSum / samples);
+        row.setSpreadBpsMin(spreadMin);
+        row.setSpreadBpsMax(spreadMax);
+        row.setImbalanceTop20Avg(imbalanceSum / samples);
+        row.setMicropriceGapBpsAvg(microSamples > 0 ? microGapSum / microSamples : null);
+        row.setMidPriceAvg(midSum / samples);
+        row.setMidPriceLast(midLast);
+        return row;
+    }
+}
@@ -0,0 +1,82 @@
+package com.team_biance.the_coin_killer.service;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * 오더북 원본 캡처 segment 파일 포맷 (DepthSegmentWriter / DepthCaptureReader 공통)
+ *
+ * 경로: {dir}/{SYMBOL}/{yyyy-MM-dd}/seg-000001.dbk (UTC 날짜, 번호는 하루 안에서 증가)
+ *
+ * header (64 bytes, little-endian)
+ *   0  int  magic "DBK1"
+ *   4  int  version
+ *   8  int  levels       (side 당 기록 호가 수)
+ *   12 int  recordSize
+ *   16 long epochDay
+ *   24 long count        (기록 완료 record 수, record 를 다 쓴 뒤 갱신)
+ *   32 long firstTsMs
+ *   40 long lastTsMs
+ *
+ * record (고정 폭 16 + levels * 32)
+ *   0  long tsMs         (segment 안에서 단조 증가 -> 이진 탐색 = 시간 index)
+ *   8  byte bidCount
+ *   9  byte askCount
+ *   16 bids [price double, qty double] * levels, 이어서 asks 동일 (빈 칸은 0)
+ */
+public final class DepthSegment {
+
+    public static final int MAGIC = 0x44424B31; // "DBK1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_LEVELS = 8;
+    static final int OFF_RECORD_SIZE = 12;
+    static final int OFF_EPOCH_DAY = 16;
+    static final int OFF_COUNT = 24;
+    static final int OFF_FIRST_TS = 32;
+    static final int OFF_LAST_TS = 40;
+
+    static final int REC_TS = 0;
+    static final int REC_BID_COUNT = 8;
+    static final int REC_ASK_COUNT = 9;
+    static final int REC_LEVELS = 16;
+
+    static final String SUFFIX = ".dbk";
+
+    private DepthSegment() {
+    }
+
+    public static int recordSize(int levels) {
+        return REC_LEVELS + levels * 32;
+    }
+
+    static Path dayDir(Path root, String symbol, long epochDay) {
+        return root.resolve(symbol).resolve(LocalDate.ofEpochDay(epochDay).toString());
+    }
+
+    static Path segmentPath(Path dayDir, int index) {
+        return dayDir.resolve(String.format("seg-%06d%s", index, SUFFIX));
+    }
+
+    static int segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("seg-") || !name.endsWith(SUFFIX))
+            return -1;
+        try {
+            return Integer.parseInt(name.substring(4, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static boolean validHeader(ByteBuffer b) {
+        return b.capacity() >= HEADER_BYTES
+                && b.getInt(OFF_MAGIC) == MAGIC
+                && b.getInt(OFF_VERSION) == VERSION
+                && b.getInt(OFF_RECORD_SIZE) == recordSize(b.getInt(OFF_LEVELS));
+    }
+}
@@ -0,0 +1,193 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.binance.OrderBookSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.team_biance.the_coin_killer.service.DepthSegment.*;
+
+/**
+ * 심볼 1개의 depth 원본 캡처 writer (append-only, memory-mapped)
+ *
+ * - segment 를 미리 segmentBytes 크기로 map 해 두고 record 를 이어 씀 (write syscall 없음)
+ * - UTC 날짜가 바뀌거나 segment 가 차면 다음 segment 로 roll
+ * - 재시작 시 오늘 마지막 segment 에 자리가 남았으면 이어서 씀
+ * - 시각이 거꾸로 오면 직전 시각으로 맞춰 segment 안 단조 증가 유지 (건수는 clamped(), 로그는 DepthCaptureService)
+ *
+ * 스레드 안전하지 않음 (DepthCaptureService 가 심볼별로 직렬화)
+ */
+final class DepthSegmentWriter implements Closeable {
+
+    private final Path root;
+    private final String symbol;
+    private final int levels;
+    private final int recordSize;
+    private final long capacity;
+
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private long epochDay = Long.MIN_VALUE;
+    private int segmentIndex;
+    private long count;
+    private long lastTsMs = Long.MIN_VALUE;
+
+    private long records;
+    private long clamped;
+    private int segmentsOpened;
+
+    DepthSegmentWriter(Path root, String symbol, int levels, long segmentBytes) {
+        this.root = root;
+        this.symbol = symbol;
+        this.levels = levels;
+        this.recordSize = recordSize(levels);
+        this.capacity = Math.max(1, (Math.min(segmentBytes, Integer.MAX_VALUE) - HEADER_BYTES) / recordSize);
+    }
+
+    /**
+     * @return 시각이 거꾸로 와서 직전 시각으로 맞춘 경우 뒤로 간 ms, 아니면 0
+     */
+    long append(long tsMs, OrderBookSnapshot book) throws IOException {
+        long day = Math.floorDiv(tsMs, 86_400_000L);
+        if (buf == null || day != epochDay || count >= capacity)
+            roll(day);
+
+        long backMs = 0;
+        if (tsMs < lastTsMs) {
+            backMs = lastTsMs - tsMs;
+            tsMs = lastTsMs;
+            clamped++;
+        }
+
+        int off = (int) (HEADER_BYTES + count * recordSize);
+        int nb = Math.min(book.bidCount(), levels);
+        int na = Math.min(book.askCount(), levels);
+
+        buf.putLong(off + REC_TS, tsMs);
+        buf.put(off + REC_BID_COUNT, (byte) nb);
+        buf.put(off + REC_ASK_COUNT, (byte) na);
+
+        int p = off + REC_LEVELS;
+        for (int i = 0; i < levels; i++, p += 16) {
+            buf.putDouble(p, i < nb ? book.bidPrice(i) : 0.0);
+            buf.putDouble(p + 8, i < nb ? book.bidQty(i) : 0.0);
+        }
+        for (int i = 0; i < levels; i++, p += 16) {
+            buf.putDouble(p, i < na ? book.askPrice(i) : 0.0);
+            buf.putDouble(p + 8, i < na ? book.askQty(i) : 0.0);
+        }
+
+        // record 를 다 쓴 뒤 count 갱신 (reader 는 count 까지만 읽음)
+        if (count == 0)
+            buf.putLong(OFF_FIRST_TS, tsMs);
+        buf.putLong(OFF_LAST_TS, tsMs);
+        buf.putLong(OFF_COUNT, ++count);
+
+        lastTsMs = tsMs;
+        records++;
+        return backMs;
+    }
+
+    long records() {
+        return records;
+    }
+
+    long clamped() {
+        return clamped;
+    }
+
+    int segmentsOpened() {
+        return segmentsOpened;
+    }
+
+    String currentSegment() {
+        return (buf == null) ? null : segmentPath(dayDir(root, symbol, epochDay), segmentIndex).toString();
+    }
+
+    private void roll(long day) throws IOException {
+        closeSegment();
+
+        Path dayDir = dayDir(root, symbol, day);
+        Files.createDirectories(dayDir);
+
+        int index;
+        if (day != epochDay) {
+            // 날짜가 바뀜 (또는 첫 open): 그날 마지막 segment 에 이어 쓸 수 있는지 확인
+            epochDay = day;
+            lastTsMs = Long.MIN_VALUE;
+            int last = lastSegmentIndex(dayDir);
+            if (last > 0 && tryResume(segmentPath(dayDir, last), last))
+                return;
+            index = last + 1;
+        } else {
+            index = segmentIndex + 1;
+        }
+
+        open(segmentPath(dayDir, index), index, true);
+    }
+
+    private boolean tryResume(Path file, int index) throws IOException {
+        long size = Files.size(file);
+        if (size != HEADER_BYTES + capacity * recordSize)
+            return false;
+
+        open(file, index, false);
+        if (!validHeader(buf) || buf.getInt(OFF_LEVELS) != levels || buf.getLong(OFF_COUNT) >= capacity) {
+            closeSegment();
+            return false;
+        }
+        count = buf.getLong(OFF_COUNT);
+        lastTsMs = (count > 0) ? buf.getLong(OFF_LAST_TS) : Long.MIN_VALUE;
+        return true;
+    }
+
+    private void open(Path file, int index, boolean create) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + capacity * recordSize);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        segmentIndex = index;
+        segmentsOpened++;
+
+        if (create) {
+            buf.putInt(OFF_MAGIC, MAGIC);
+            buf.putInt(OFF_VERSION, VERSION);
+            buf.putInt(OFF_LEVELS, levels);
+            buf.putInt(OFF_RECORD_SIZE, recordSize);
+            buf.putLong(OFF_EPOCH_DAY, epochDay);
+            buf.putLong(OFF_COUNT, 0L);
+            count = 0;
+        }
+    }
+
+    private static int lastSegmentIndex(Path dayDir) throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dayDir, "seg-*" + SUFFIX)) {
+            for (Path p : ds)
+                last = Math.max(last, segmentIndex(p));
+        }
+        return last;
+    }
+
+    private void closeSegment() throws IOException {
+        if (buf != null) {
+            buf.force();
+            buf = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+}
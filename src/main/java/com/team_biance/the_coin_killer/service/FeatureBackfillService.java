@@ -0,0 +1,414 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.BackfillStatusDto;
+import com.team_biance.the_coin_killer.mapper.AggTradeMapper;
+import com.team_biance.the_coin_killer.mapper.FeatureMinuteMapper;
+import com.team_biance.the_coin_killer.mapper.FeatureSourceMapper;
+import com.team_biance.the_coin_killer.mapper.KlineMapper;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * feature_minute / 원천 f_* 테이블 구멍 탐지 + 백필
+ *
+ * 1) gap 탐지 : [from, to) 기대 분 - 실제 존재 분 (kline / aggTrade / feature 각각, 범위 조회 1번씩)
+ * 2) 원천 채우기 (선택) : 빠진 kline / aggTrade 를 REST 또는 녹화 파일에서 받아 upsertBatch
+ * 3) feature 재계산 : 빠진 분을 연속 구간으로 묶고 chunk-minutes 단위로 잘라
+ *    ForkJoinPool 에서 병렬로 calculateFeatureRange (chunk 마다 범위 조회 몇 번) -> upsertBatch
+ *
+ * 작업은 한 번에 하나만 (단일 슬롯). 진행 상황/처리량은 status() 로 조회
+ */
+@Service
+public class FeatureBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeatureBackfillService.class);
+
+    public enum Source {
+        NONE,
+        REST,
+        FILE
+    }
+
+    public enum Mode {
+        MISSING, // feature_minute 에 없는 분만
+        ALL      // 구간 전체 재계산 (upsert)
+    }
+
+    private final FeatureSourceMapper sourceMapper;
+    private final FeatureMinuteMapper featureMinuteMapper;
+    private final KlineMapper klineMapper;
+    private final AggTradeMapper aggTradeMapper;
+    private final FeatureCalculationService featureCalculationService;
+    private final BinanceRestHistoricalSource restSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.backfill.chunk-minutes:360}")
+    private int chunkMinutes;
+
+    // 0 이하면 min(코어 수, 4)
+    @Value("${app.backfill.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.backfill.batch-size:500}")
+    private int batchSize;
+
+    // FILE source 는 이 디렉터리 아래 파일만 허용
+    @Value("${app.backfill.file-dir:./data/frames}")
+    private String fileDir;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "feature-backfill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile Job current;
+
+    public FeatureBackfillService(
+            FeatureSourceMapper sourceMapper,
+            FeatureMinuteMapper featureMinuteMapper,
+            KlineMapper klineMapper,
+            AggTradeMapper aggTradeMapper,
+            FeatureCalculationService featureCalculationService,
+            BinanceRestHistoricalSource restSource,
+            ObjectMapper objectMapper) {
+        this.sourceMapper = sourceMapper;
+        this.featureMinuteMapper = featureMinuteMapper;
+        this.klineMapper = klineMapper;
+        this.aggTradeMapper = aggTradeMapper;
+        this.featureCalculationService = featureCalculationService;
+        this.restSource = restSource;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 비동기로 백필 시작. 이미 실행 중이면 state=BUSY 로 현재 작업 상태를 돌려준다
+     */
+    public synchronized BackfillStatusDto start(String symbol, LocalDateTime from, LocalDateTime to,
+            Source source, String file, Mode mode) {
+        Job running = current;
+        if (running != null && !running.finished) {
+            BackfillStatusDto busy = running.snapshot();
+            busy.setState("BUSY");
+            return busy;
+        }
+
+        // 분 경계로 맞추고, 아직 안 닫힌 분은 제외 ([f, t) 이므로 t = 진행 중인 분 시작이면 마지막 닫힌 분까지 포함)
+        LocalDateTime openMinute = LocalDateTime.now(ZoneOffset.UTC).withSecond(0).withNano(0);
+        LocalDateTime f = from.withSecond(0).withNano(0);
+        LocalDateTime t = to.withSecond(0).withNano(0);
+        if (t.isAfter(openMinute))
+            t = openMinute;
+
+        HistoricalMarketSource historical = resolveSource(source, file);
+        Job job = new Job(symbol, f, t, historical, mode);
+        current = job;
+
+        if (!f.isBefore(t)) {
+            job.fail("empty range: from=" + f + ", to=" + t);
+            return job.snapshot();
+        }
+
+        jobExecutor.execute(() -> run(job));
+        return job.snapshot();
+    }
+
+    public BackfillStatusDto status() {
+        Job job = current;
+        if (job == null) {
+            BackfillStatusDto idle = new BackfillStatusDto();
+            idle.setState("IDLE");
+            return idle;
+        }
+        return job.snapshot();
+    }
+
+    private HistoricalMarketSource resolveSource(Source source, String file) {
+        if (source == Source.REST)
+            return restSource;
+        if (source == Source.FILE) {
+            if (file == null || file.isBlank())
+                throw new IllegalArgumentException("file is required for source=FILE");
+            Path base = Paths.get(fileDir).toAbsolutePath().normalize();
+            Path p = base.resolve(file).normalize();
+            if (!p.startsWith(base) || !Files.isRegularFile(p))
+                throw new IllegalArgumentException("frame file not found under " + base + ": " + file);
+            return new FrameFileHistoricalSource(p, objectMapper);
+        }
+        return null;
+    }
+
+    // =========================
+    // 작업 본체
+    // =========================
+    private void run(Job job) {
+        try {
+            log.info("[BACKFILL] start: symbol={}, from={}, to={}, source={}, mode={}",
+                    job.symbol, job.from, job.to, job.sourceName(), job.mode);
+
+            long fromMin = RollingFeatureEngine.epochMinute(job.from);
+            long toMin = RollingFeatureEngine.epochMinute(job.to);
+            job.expectedMinutes = (int) (toMin - fromMin);
+
+            // 1) 원천 gap
+            List<long[]> klineGaps = gaps(fromMin, toMin,
+                    sourceMapper.getKlineMinutes(job.symbol, job.from, job.to));
+            List<long[]> aggGaps = gaps(fromMin, toMin,
+                    sourceMapper.getAggTradeMinutes(job.symbol, job.from, job.to));
+            job.missingKlineMinutes = totalMinutes(klineGaps);
+            job.missingAggMinutes = totalMinutes(aggGaps);
+
+            // 2) 원천 채우기 (rv60 / cvd 계산용 선행 구간은 이미 있다고 가정)
+            if (job.historical != null) {
+                fillKlines(job, klineGaps);
+                fillAggs(job, aggGaps);
+            }
+
+            // 3) feature gap -> chunk
+            Set<Long> existing = new HashSet<>();
+            if (job.mode == Mode.MISSING) {
+                for (LocalDateTime ts : sourceMapper.getFeatureMinutes(job.symbol, job.from, job.to))
+                    existing.add(RollingFeatureEngine.epochMinute(ts));
+            }
+            List<long[]> featureGaps = gaps(fromMin, toMin, existing);
+            job.missingFeatureMinutes = totalMinutes(featureGaps);
+
+            List<long[]> chunks = split(featureGaps, Math.max(1, chunkMinutes));
+            job.chunks = chunks.size();
+
+            if (!chunks.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(effectiveParallelism());
+                try {
+                    pool.invoke(new ChunkTask(job, chunks, 0, chunks.size()));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            job.finish();
+            BackfillStatusDto s = job.snapshot();
+            log.info("[BACKFILL] done: symbol={}, minutes={}, features={}, chunks={}, elapsedMs={}, minutesPerSec={}",
+                    s.getSymbol(), s.getMinutesProcessed(), s.getFeaturesWritten(), s.getChunks(),
+                    s.getElapsedMs(), String.format("%.1f", s.getMinutesPerSec()));
+        } catch (Exception e) {
+            job.fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+            log.error("[BACKFILL] failed: symbol={}, from={}, to={}", job.symbol, job.from, job.to, e);
+        }
+    }
+
+    private void fillKlines(Job job, List<long[]> gaps) throws Exception {
+        for (long[] g : gaps) {
+            List<FKline1m> rows = job.historical.fetchKlines(job.symbol, g[0] * 60_000L, g[1] * 60_000L);
+            MapperBatchExecutor.multiValues(rows, batchSize, klineMapper::upsertBatch);
+            job.filledKlines += rows.size();
+        }
+        log.info("[BACKFILL] klines filled: symbol={}, gaps={}, rows={}", job.symbol, gaps.size(), job.filledKlines);
+    }
+
+    private void fillAggs(Job job, List<long[]> gaps) throws Exception {
+        // 체결이 없는 분도 gap 으로 잡히므로 결과가 비어도 정상
+        for (long[] g : gaps) {
+            List<FAggTrade1m> rows = job.historical.fetchAggMinutes(job.symbol, g[0] * 60_000L, g[1] * 60_000L);
+            MapperBatchExecutor.multiValues(rows, batchSize, aggTradeMapper::upsertBatch);
+            job.filledAggs += rows.size();
+        }
+        log.info("[BACKFILL] aggTrades filled: symbol={}, gaps={}, rows={}", job.symbol, gaps.size(), job.filledAggs);
+    }
+
+    /**
+     * chunk 1개: 범위 조회로 [from, to) 계산 -> 대상 분만 골라 upsertBatch
+     * (chunk 는 feature gap 안에서만 만들어지므로 MISSING 모드여도 전부 대상)
+     */
+    private void processChunk(Job job, long[] chunk) {
+        LocalDateTime from = RollingFeatureEngine.minuteStart(chunk[0]);
+        LocalDateTime to = RollingFeatureEngine.minuteStart(chunk[1]);
+
+        List<FeatureMinute> rows = featureCalculationService.calculateFeatureRange(job.symbol, from, to);
+        MapperBatchExecutor.multiValues(rows, batchSize, featureMinuteMapper::upsertBatch);
+
+        job.minutesProcessed.addAndGet(chunk[1] - chunk[0]);
+        job.featuresWritten.addAndGet(rows.size());
+        job.chunksDone.incrementAndGet();
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private final Job job;
+        private final List<long[]> chunks;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(Job job, List<long[]> chunks, int lo, int hi) {
+            this.job = job;
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                processChunk(job, chunks.get(lo));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(job, chunks, lo, mid), new ChunkTask(job, chunks, mid, hi));
+        }
+    }
+
+    private int effectiveParallelism() {
+        if (parallelism > 0)
+            return parallelism;
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+    }
+
+    // =========================
+    // gap 계산 (epoch minute, 구간은 [start, end))
+    // =========================
+    static List<long[]> gaps(long fromMin, long toMin, List<LocalDateTime> present) {
+        Set<Long> set = new HashSet<>(present.size() * 2);
+        for (LocalDateTime ts : present)
+            set.add(RollingFeatureEngine.epochMinute(ts));
+        return gaps(fromMin, toMin, set);
+    }
+
+    static List<long[]> gaps(long fromMin, long toMin, Set<Long> present) {
+        List<long[]> out = new ArrayList<>();
+        long start = -1L;
+        for (long t = fromMin; t < toMin; t++) {
+            boolean missing = !present.contains(t);
+            if (missing && start < 0) {
+                start = t;
+            } else if (!missing && start >= 0) {
+                out.add(new long[] { start, t });
+                start = -1L;
+            }
+        }
+        if (start >= 0)
+            out.add(new long[] { start, toMin });
+        return out;
+    }
+
+    static List<long[]> split(List<long[]> ranges, int maxMinutes) {
+        List<long[]> out = new ArrayList<>();
+        for (long[] r : ranges) {
+            for (long s = r[0]; s < r[1]; s += maxMinutes)
+                out.add(new long[] { s, Math.min(r[1], s + maxMinutes) });
+        }
+        return out;
+    }
+
+    private static int totalMinutes(List<long[]> ranges) {
+        long n = 0;
+        for (long[] r : ranges)
+            n += r[1] - r[0];
+        return (int) n;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    // =========================
+    // 작업 상태
+    // =========================
+    private static final class Job {
+        final String symbol;
+        final LocalDateTime from;
+        final LocalDateTime to;
+        final HistoricalMarketSource historical;
+        final Mode mode;
+        final long startedNs = System.nanoTime();
+
+        volatile int expectedMinutes;
+        volatile int missingKlineMinutes;
+        volatile int missingAggMinutes;
+        volatile int missingFeatureMinutes;
+        volatile int filledKlines;
+        volatile int filledAggs;
+        volatile int chunks;
+        final AtomicInteger chunksDone = new AtomicInteger();
+        final AtomicLong minutesProcessed = new AtomicLong();
+        final AtomicLong featuresWritten = new AtomicLong();
+
+        volatile boolean finished;
+        volatile String state = "RUNNING";
+        volatile String errorMessage;
+        volatile long endedNs;
+
+        Job(String symbol, LocalDateTime from, LocalDateTime to, HistoricalMarketSource historical, Mode mode) {
+            this.symbol = symbol;
+            this.from = from;
+            this.to = to;
+            this.historical = historical;
+            this.mode = mode;
+        }
+
+        String sourceName() {
+            return (historical == null) ? "NONE" : historical.name();
+        }
+
+        void finish() {
+            endedNs = System.nanoTime();
+            state = "DONE";
+            finished = true;
+        }
+
+        void fail(String message) {
+            endedNs = System.nanoTime();
+            errorMessage = message;
+            state = "FAILED";
+            finished = true;
+        }
+
+        BackfillStatusDto snapshot() {
+            long elapsedMs = ((finished ? endedNs : System.nanoTime()) - startedNs) / 1_000_000L;
+            long minutes = minutesProcessed.get();
+
+            BackfillStatusDto s = new BackfillStatusDto();
+            s.setState(state);
+            s.setSymbol(symbol);
+            s.setFromUtc(from);
+            s.setToUtc(to);
+            s.setSource(sourceName());
+            s.setMode(mode.name());
+            s.setExpectedMinutes(expectedMinutes);
+            s.setMissingKlineMinutes(missingKlineMinutes);
+            s.setMissingAggMinutes(missingAggMinutes);
+            s.setMissingFeatureMinutes(missingFeatureMinutes);
+            s.setFilledKlines(filledKlines);
+            s.setFilledAggs(filledAggs);
+            s.setChunks(chunks);
+            s.setChunksDone(chunksDone.get());
+            s.setMinutesProcessed(minutes);
+            s.setFeaturesWritten(featuresWritten.get());
+            s.setElapsedMs(elapsedMs);
+            s.setMinutesPerSec(elapsedMs > 0 ? minutes * 1000.0 / elapsedMs : 0.0);
+            s.setErrorMessage(errorMessage);
+            return s;
+        }
+    }
+}
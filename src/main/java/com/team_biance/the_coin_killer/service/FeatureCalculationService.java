@@ -1,5 +1,6 @@
 package com.team_biance.the_coin_killer.service;
 
+import com.team_biance.the_coin_killer.dto.FeatureSourceBatch;
 import com.team_biance.the_coin_killer.mapper.FeatureMinuteMapper;
 import com.team_biance.the_coin_killer.mapper.FeatureSourceMapper;
 import com.team_biance.the_coin_killer.model.*;
@@ -8,182 +9,284 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class FeatureCalculationService {
 
     private static final Logger log = LoggerFactory.getLogger(FeatureCalculationService.class);
 
+    private static final int UPSERT_CHUNK = 500;
+
     private final FeatureSourceMapper sourceMapper;
     private final FeatureMinuteMapper featureMinuteMapper;
+    private final RollingFeatureEngine featureEngine;
 
     public FeatureCalculationService(
             FeatureSourceMapper sourceMapper,
-            FeatureMinuteMapper featureMinuteMapper) {
+            FeatureMinuteMapper featureMinuteMapper,
+            RollingFeatureEngine featureEngine) {
         this.sourceMapper = sourceMapper;
         this.featureMinuteMapper = featureMinuteMapper;
+        this.featureEngine = featureEngine;
+    }
+
+    /**
+     * 1분 feature 계산 + 즉시 upsert
+     *
+     * @return 저장했으면 true
+     */
+    public boolean calculateFeatureMinute(String symbol, LocalDateTime minuteStartUtc) {
+        return calculateFeatureMinutes(symbol, List.of(minuteStartUtc)) > 0;
     }
 
-    public void calculateFeatureMinute(String symbol, LocalDateTime minuteStartUtc) {
+    /**
+     * 여러 분 feature 계산 + upsertBatch (스케줄러 catch-up / 파이프라인 fallback 용)
+     *
+     * @return 저장한 row 수
+     */
+    public int calculateFeatureMinutes(String symbol, List<LocalDateTime> minuteStartsUtc) {
+        return saveFeatureMinutes(symbol, minuteStartsUtc).size();
+    }
+
+    /**
+     * 여러 분 feature 계산 + upsertBatch
+     * - 엔진으로 계산되는 분은 엔진 결과 사용
+     * - 나머지는 [첫 분, 마지막 분+1) 을 loadBatch 한 번으로 읽고, 아직 flush 안 된 엔진 ring row 를 덮어 한 번에 계산
+     *
+     * @return 실제로 저장한 분 (kline 이 없거나 저장 실패한 분은 빠짐)
+     */
+    public List<LocalDateTime> saveFeatureMinutes(String symbol, List<LocalDateTime> minuteStartsUtc) {
+        if (minuteStartsUtc.isEmpty())
+            return List.of();
+
         try {
-            // minuteStartUtc는 "해당 1분 시작"
-            LocalDateTime minuteEndExclusive = minuteStartUtc.plusMinutes(1);
-
-            // 1) 기준 캔들 (해당 분)
-            FKline1m k0 = sourceMapper.getKlineAt(symbol, minuteStartUtc);
-            if (k0 == null) {
-                // 아직 캔들이 DB에 안 들어온 경우가 있음(경계 타이밍). 다음 분에 backfill 안 되므로 로그는 남김.
-                log.warn("[FEATURE][1m] missing kline: symbol={}, ts={}", symbol, minuteStartUtc);
-                return;
+            List<FeatureMinute> rows = new ArrayList<>(minuteStartsUtc.size());
+            List<LocalDateTime> misses = new ArrayList<>();
+            for (LocalDateTime t : minuteStartsUtc) {
+                FeatureMinute row = featureEngine.compute(symbol, t);
+                if (row != null)
+                    rows.add(row);
+                else
+                    misses.add(t);
+            }
+
+            if (!misses.isEmpty()) {
+                LocalDateTime from = Collections.min(misses);
+                LocalDateTime to = Collections.max(misses).plusMinutes(1);
+                FeatureSourceBatch batch = loadBatch(symbol, from, to);
+
+                for (LocalDateTime t : misses) {
+                    FeatureMinute row = computeFromBatch(symbol, t, batch);
+                    if (row != null) {
+                        rows.add(row);
+                    } else {
+                        // DB 에도 메모리에도 캔들이 없음 -> 호출 측이 다시 시도 (pending 유지)
+                        log.debug("[FEATURE][1m] missing kline: symbol={}, ts={}", symbol, t);
+                    }
+                }
             }
 
-            // 2) 최근 60분 kline 범위 (close/volume 계산용)
-            // - from: minuteStartUtc - 60m ~ to: minuteEndExclusive
-            LocalDateTime kFrom = minuteStartUtc.minusMinutes(60);
-            LocalDateTime kTo = minuteEndExclusive;
-            List<FKline1m> kline60 = sourceMapper.getKlineRange(symbol, kFrom, kTo);
+            if (rows.isEmpty())
+                return List.of();
 
-            Map<LocalDateTime, FKline1m> kMap = kline60.stream()
-                    .collect(Collectors.toMap(FKline1m::getTsUtc, x -> x, (a, b) -> b));
+            // upsert (긴 공백 뒤 fallback 이면 row 가 많을 수 있어 chunk 로)
+            MapperBatchExecutor.multiValues(rows, UPSERT_CHUNK, featureMinuteMapper::upsertBatch);
 
-            double closeNow = nz(k0.getClose());
+            log.debug("[FEATURE][1m] saved: symbol={}, rows={}, fromDb={}", symbol, rows.size(), misses.size());
+            List<LocalDateTime> saved = new ArrayList<>(rows.size());
+            for (FeatureMinute r : rows)
+                saved.add(r.getTsUtc());
+            return saved;
+
+        } catch (Exception e) {
+            // 실패한 분은 저장 안 된 것으로 리턴 -> 다음 catch-up 에서 재시도
+            log.error("[FEATURE][1m] failed: symbol={}, minutes={}, err={}",
+                    symbol, minuteStartsUtc.size(), e.getMessage(), e);
+            return List.of();
+        }
+    }
 
-            // 3) 과거 close 조회 (없으면 0)
-            double close1 = closeAtOrZero(kMap, minuteStartUtc.minusMinutes(1));
-            double close5 = closeAtOrZero(kMap, minuteStartUtc.minusMinutes(5));
-            double close15 = closeAtOrZero(kMap, minuteStartUtc.minusMinutes(15));
+    /**
+     * 1분 feature 계산만 (저장 X)
+     * - 스트림으로 채워진 in-memory 엔진 우선 (DB 조회 없음)
+     * - 엔진이 못 채우는 분(기동 직후, ring 밖의 과거 분 등)만 DB 재조회
+     */
+    public FeatureMinute computeFeatureMinute(String symbol, LocalDateTime minuteStartUtc) {
+        FeatureMinute out = featureEngine.compute(symbol, minuteStartUtc);
+        if (out == null)
+            out = calculateFromDb(symbol, minuteStartUtc);
+        return out;
+    }
 
-            double ret1m = logRet(closeNow, close1);
-            double ret5m = logRet(closeNow, close5);
-            double ret15m = logRet(closeNow, close15);
+    /**
+     * 원천 테이블 재조회 방식 (엔진 fallback, 1분짜리 batch)
+     */
+    FeatureMinute calculateFromDb(String symbol, LocalDateTime minuteStartUtc) {
+        FeatureSourceBatch batch = loadBatch(symbol, minuteStartUtc, minuteStartUtc.plusMinutes(1));
+        return computeFromBatch(symbol, minuteStartUtc, batch);
+    }
 
-            double rangeBps = (closeNow > 0)
-                    ? ((nz(k0.getHigh()) - nz(k0.getLow())) / closeNow * 10000.0)
-                    : 0.0;
+    /**
+     * DB 범위 조회 + 엔진 ring 덮어쓰기 (write-behind 로 아직 저장 전인 최근 분 포함)
+     */
+    private FeatureSourceBatch loadBatch(String symbol, LocalDateTime from, LocalDateTime to) {
+        FeatureSourceBatch batch = sourceMapper.loadBatch(symbol, from, to);
+        featureEngine.overlay(symbol, batch);
+        return batch;
+    }
 
-            // 4) rv15m, rv60m
-            double rv15 = realizedVol(kMap, minuteStartUtc, 15);
-            double rv60 = realizedVol(kMap, minuteStartUtc, 60);
+    /**
+     * [from, to) 구간을 loadBatch 한 번으로 읽어 한 번에 계산 (백필용)
+     * - kline 없는 분은 건너뜀
+     */
+    public List<FeatureMinute> calculateFeatureRange(String symbol, LocalDateTime from, LocalDateTime to) {
+        FeatureSourceBatch batch = sourceMapper.loadBatch(symbol, from, to);
+
+        List<FeatureMinute> out = new ArrayList<>();
+        for (LocalDateTime t = from; t.isBefore(to); t = t.plusMinutes(1)) {
+            FeatureMinute row = computeFromBatch(symbol, t, batch);
+            if (row != null)
+                out.add(row);
+        }
+        return out;
+    }
 
-            // 5) vol_z_60m: "이전 60분(현재 분 제외)" 기준 평균/표준편차
-            double volZ60 = volumeZ60(kMap, minuteStartUtc, nz(k0.getVolume()));
+    /**
+     * batch 안에서 1분 계산
+     * - close1/5/15, rv, volZ : kline map (from - 60분 부터)
+     * - cvd_15m : 최근 15분(현재 포함) 합
+     * - depth / mark : 해당 분 마지막 (없으면 이전)
+     * - liq_count_1m : 해당 1분간 청산 횟수
+     */
+    static FeatureMinute computeFromBatch(String symbol, LocalDateTime minuteStartUtc, FeatureSourceBatch batch) {
+        Map<LocalDateTime, FKline1m> kMap = batch.getKlines();
+        FKline1m k0 = kMap.get(minuteStartUtc);
+        if (k0 == null)
+            return null;
+
+        LocalDateTime minuteEndExclusive = minuteStartUtc.plusMinutes(1);
+
+        return buildRow(symbol, minuteStartUtc, k0,
+                closeAtOrZero(kMap, minuteStartUtc.minusMinutes(1)),
+                closeAtOrZero(kMap, minuteStartUtc.minusMinutes(5)),
+                closeAtOrZero(kMap, minuteStartUtc.minusMinutes(15)),
+                realizedVol(kMap, minuteStartUtc, 15),
+                realizedVol(kMap, minuteStartUtc, 60),
+                volumeZ60(kMap, minuteStartUtc, nz(k0.getVolume())),
+                batch.aggAt(minuteStartUtc),
+                batch.cvdSum(minuteStartUtc, 15),
+                batch.latestDepthBefore(minuteEndExclusive),
+                batch.latestMarkBefore(minuteEndExclusive),
+                batch.forceCountAt(minuteStartUtc));
+    }
 
-            // 6) rvol_tod: 일단 1.0 고정
-            double rvolTod = 1.0;
+    /**
+     * 입력값 -> feature_minute row (DB 경로 / 엔진 경로 공통)
+     * - close1/5/15: 해당 분 close 없으면 0
+     * - rv/volZ 는 이미 계산된 값 (데이터 부족이면 0)
+     * - a0/d/m 은 null 가능
+     */
+    static FeatureMinute buildRow(String symbol, LocalDateTime minuteStartUtc, FKline1m k0,
+            double close1, double close5, double close15,
+            double rv15, double rv60, double volZ60,
+            FAggTrade1m a0, double cvd15m,
+            FDepthSnapshot1s d, FMark1s m, int liqCount) {
 
-            // 7) avg_trade_size_1m
-            double avgTradeSize = (k0.getTradeCount() > 0) ? (nz(k0.getVolume()) / k0.getTradeCount()) : 0.0;
+        double closeNow = nz(k0.getClose());
 
-            // 8) aggtrade (현재 분) + 15분 범위
-            FAggTrade1m a0 = sourceMapper.getAggTradeAt(symbol, minuteStartUtc);
+        double ret1m = logRet(closeNow, close1);
+        double ret5m = logRet(closeNow, close5);
+        double ret15m = logRet(closeNow, close15);
 
-            double takerBuy = (a0 != null) ? nz(a0.getTakerBuyQty()) : 0.0;
-            double takerSell = (a0 != null) ? nz(a0.getTakerSellQty()) : 0.0;
+        double rangeBps = (closeNow > 0)
+                ? ((nz(k0.getHigh()) - nz(k0.getLow())) / closeNow * 10000.0)
+                : 0.0;
 
-            double buyRatio = (takerBuy + takerSell > 0.0) ? (takerBuy / (takerBuy + takerSell)) : 0.0;
-            double cvd1m = takerBuy - takerSell;
+        // 6) rvol_tod: 일단 1.0 고정
+        double rvolTod = 1.0;
 
-            // cvd_15m: 최근 15분(현재 포함) 합
-            LocalDateTime aFrom = minuteStartUtc.minusMinutes(14);
-            LocalDateTime aTo = minuteEndExclusive;
-            List<FAggTrade1m> a15 = sourceMapper.getAggTradeRange(symbol, aFrom, aTo);
+        // 7) avg_trade_size_1m
+        double avgTradeSize = (k0.getTradeCount() > 0) ? (nz(k0.getVolume()) / k0.getTradeCount()) : 0.0;
 
-            double cvd15m = 0.0;
-            for (FAggTrade1m r : a15) {
-                cvd15m += nz(r.getTakerBuyQty()) - nz(r.getTakerSellQty());
-            }
+        double takerBuy = (a0 != null) ? nz(a0.getTakerBuyQty()) : 0.0;
+        double takerSell = (a0 != null) ? nz(a0.getTakerSellQty()) : 0.0;
 
-            // vwap_gap_bps
-            double vwapGapBps = 0.0;
-            if (a0 != null && a0.getVwapPrice() != null && a0.getVwapPrice() > 0.0) {
-                double vwap = a0.getVwapPrice();
-                vwapGapBps = (closeNow - vwap) / vwap * 10000.0;
-            }
+        double buyRatio = (takerBuy + takerSell > 0.0) ? (takerBuy / (takerBuy + takerSell)) : 0.0;
+        double cvd1m = takerBuy - takerSell;
 
-            // 9) 오더북: 해당 분 마지막 스냅샷(없으면 이전)
-            FDepthSnapshot1s d = sourceMapper.getLatestDepthBefore(symbol, minuteEndExclusive);
-
-            double mid1s = (d != null) ? nz(d.getMidPrice()) : 0.0;
-            double spread1s = (d != null) ? nz(d.getSpreadBps()) : 0.0;
-            double bidSumTop20 = (d != null) ? nz(d.getDepthBidSumTop20()) : 0.0;
-            double askSumTop20 = (d != null) ? nz(d.getDepthAskSumTop20()) : 0.0;
-            double imbTop20 = (d != null) ? nz(d.getImbalanceTop20()) : 0.0;
-            double microGapBps = (d != null) ? nzNullable(d.getMicropriceGapBps()) : 0.0;
-
-            // 10) mark_spot_bps: 해당 분 마지막 mark
-            FMark1s m = sourceMapper.getLatestMarkBefore(symbol, minuteEndExclusive);
-            double markSpotBps = 0.0;
-            if (m != null && m.getMarkPrice() > 0.0 && closeNow > 0.0) {
-                markSpotBps = (m.getMarkPrice() - closeNow) / closeNow * 10000.0;
-            }
+        // vwap_gap_bps
+        double vwapGapBps = 0.0;
+        if (a0 != null && a0.getVwapPrice() != null && a0.getVwapPrice() > 0.0) {
+            double vwap = a0.getVwapPrice();
+            vwapGapBps = (closeNow - vwap) / vwap * 10000.0;
+        }
 
-            // 11) oi_chg_1m: 테이블 없으면 0 고정
-            double oiChg = 0.0;
-
-            // 12) liq_count_1m: 해당 1분간 청산 횟수
-            int liqCount = sourceMapper.countForceOrders(symbol, minuteStartUtc, minuteEndExclusive);
-
-            // ====== 최종 row 구성 ======
-            FeatureMinute out = new FeatureMinute();
-            out.setSymbol(symbol);
-            out.setTsUtc(minuteStartUtc);
-
-            // 가격 기본
-            out.setOpen1m(nz(k0.getOpen()));
-            out.setHigh1m(nz(k0.getHigh()));
-            out.setLow1m(nz(k0.getLow()));
-            out.setClose1m(closeNow);
-            out.setVolume1m(nz(k0.getVolume()));
-            out.setTradeCount1m(k0.getTradeCount());
-
-            // 수익률
-            out.setRet1mLog(ret1m);
-            out.setRet5mLog(ret5m);
-            out.setRet15mLog(ret15m);
-            out.setRangeBps1m(safeFinite(rangeBps));
-
-            // 변동성
-            out.setRv15m(safeFinite(rv15));
-            out.setRv60m(safeFinite(rv60));
-
-            // 거래량
-            out.setVolZ60m(safeFinite(volZ60));
-            out.setRvolTod(rvolTod);
-            out.setAvgTradeSize1m(safeFinite(avgTradeSize));
-            out.setVwapGapBps(safeFinite(vwapGapBps));
-
-            // 오더플로우
-            out.setTakerBuyQty1m(safeFinite(takerBuy));
-            out.setTakerSellQty1m(safeFinite(takerSell));
-            out.setBuyRatio1m(safeFinite(buyRatio));
-            out.setCvd1m(safeFinite(cvd1m));
-            out.setCvd15m(safeFinite(cvd15m));
-
-            // 오더북
-            out.setMidPrice1s(safeFinite(mid1s));
-            out.setSpreadBps1s(safeFinite(spread1s));
-            out.setDepthBidSumTop20(safeFinite(bidSumTop20));
-            out.setDepthAskSumTop20(safeFinite(askSumTop20));
-            out.setImbalanceTop20(safeFinite(imbTop20));
-            out.setMicropriceGapBps(safeFinite(microGapBps));
-
-            // 선물
-            out.setMarkSpotBps(safeFinite(markSpotBps));
-            out.setOiChg1m(safeFinite(oiChg));
-            out.setLiqCount1m(liqCount);
-
-            // upsert
-            featureMinuteMapper.upsert(out);
-
-            log.debug("[FEATURE][1m] saved: symbol={}, ts={}", symbol, minuteStartUtc);
+        double mid1s = (d != null) ? nz(d.getMidPrice()) : 0.0;
+        double spread1s = (d != null) ? nz(d.getSpreadBps()) : 0.0;
+        double bidSumTop20 = (d != null) ? nz(d.getDepthBidSumTop20()) : 0.0;
+        double askSumTop20 = (d != null) ? nz(d.getDepthAskSumTop20()) : 0.0;
+        double imbTop20 = (d != null) ? nz(d.getImbalanceTop20()) : 0.0;
+        double microGapBps = (d != null) ? nzNullable(d.getMicropriceGapBps()) : 0.0;
 
-        } catch (Exception e) {
-            // 실패해도 다음 분 계속 진행
-            log.error("[FEATURE][1m] failed: symbol={}, ts={}, err={}", symbol, minuteStartUtc, e.getMessage(), e);
+        double markSpotBps = 0.0;
+        if (m != null && m.getMarkPrice() > 0.0 && closeNow > 0.0) {
+            markSpotBps = (m.getMarkPrice() - closeNow) / closeNow * 10000.0;
         }
+
+        // 11) oi_chg_1m: 테이블 없으면 0 고정
+        double oiChg = 0.0;
+
+        // ====== 최종 row 구성 ======
+        FeatureMinute out = new FeatureMinute();
+        out.setSymbol(symbol);
+        out.setTsUtc(minuteStartUtc);
+
+        // 가격 기본
+        out.setOpen1m(nz(k0.getOpen()));
+        out.setHigh1m(nz(k0.getHigh()));
+        out.setLow1m(nz(k0.getLow()));
+        out.setClose1m(closeNow);
+        out.setVolume1m(nz(k0.getVolume()));
+        out.setTradeCount1m(k0.getTradeCount());
+
+        // 수익률
+        out.setRet1mLog(ret1m);
+        out.setRet5mLog(ret5m);
+        out.setRet15mLog(ret15m);
+        out.setRangeBps1m(safeFinite(rangeBps));
+
+        // 변동성
+        out.setRv15m(safeFinite(rv15));
+        out.setRv60m(safeFinite(rv60));
+
+        // 거래량
+        out.setVolZ60m(safeFinite(volZ60));
+        out.setRvolTod(rvolTod);
+        out.setAvgTradeSize1m(safeFinite(avgTradeSize));
+        out.setVwapGapBps(safeFinite(vwapGapBps));
+
+        // 오더플로우
+        out.setTakerBuyQty1m(safeFinite(takerBuy));
+        out.setTakerSellQty1m(safeFinite(takerSell));
+        out.setBuyRatio1m(safeFinite(buyRatio));
+        out.setCvd1m(safeFinite(cvd1m));
+        out.setCvd15m(safeFinite(cvd15m));
+
+        // 오더북
+        out.setMidPrice1s(safeFinite(mid1s));
+        out.setSpreadBps1s(safeFinite(spread1s));
+        out.setDepthBidSumTop20(safeFinite(bidSumTop20));
+        out.setDepthAskSumTop20(safeFinite(askSumTop20));
+        out.setImbalanceTop20(safeFinite(imbTop20));
+        out.setMicropriceGapBps(safeFinite(microGapBps));
+
+        // 선물
+        out.setMarkSpotBps(safeFinite(markSpotBps));
+        out.setOiChg1m(safeFinite(oiChg));
+        out.setLiqCount1m(liqCount);
+
+        return out;
     }
 
     // ======================
@@ -208,7 +311,7 @@ public class FeatureCalculationService {
      * realized vol: 최근 N분 ret1m_log 표준편차 * sqrt(N)
      * - 정확히 N개 리턴이 있어야 계산 (하나라도 누락이면 0)
      */
-    private static double realizedVol(Map<LocalDateTime, FKline1m> kMap, LocalDateTime minuteStart, int n) {
+    static double realizedVol(Map<LocalDateTime, FKline1m> kMap, LocalDateTime minuteStart, int n) {
         // 필요한 close: minuteStart - n .. minuteStart (총 n+1개)
         double[] rets = new double[n];
 
@@ -238,7 +341,7 @@ public class FeatureCalculationService {
      * - 이전 60분(현재 분 제외) volume 평균/표준편차
      * - std==0 or 데이터 부족이면 0
      */
-    private static double volumeZ60(Map<LocalDateTime, FKline1m> kMap, LocalDateTime minuteStart, double currentVol) {
+    static double volumeZ60(Map<LocalDateTime, FKline1m> kMap, LocalDateTime minuteStart, double currentVol) {
         double[] vols = new double[60];
 
         for (int i = 0; i < 60; i++) {
@@ -264,7 +367,7 @@ public class FeatureCalculationService {
         return s / x.length;
     }
 
-    private static double stdPopulation(double[] x) {
+    static double stdPopulation(double[] x) {
         if (x.length <= 1)
             return 0.0;
         double m = mean(x);
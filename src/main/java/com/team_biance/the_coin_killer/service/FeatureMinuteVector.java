@@ -0,0 +1,93 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * FeatureMinute -> 모델 입력 벡터 (모델 feature_names 순서)
+ *
+ * - 이름 -> getter 매핑은 생성 시 한 번만, fill() 은 할당 없음
+ * - FeatureMinute 에 없는 컬럼(funding_rate, ret60m_log)은 NaN -> FeatureWindowExporter 가 window / 분 집계로 채움
+ * - depth / mark / aggTrade / 청산 컬럼은 exporter 가 1분 LAG 값으로 덮어씀 (학습 data_loader 와 같게)
+ * - 이름은 python feature_engineer.BASE_FEATURES / EXTRA_FEATURES 기준
+ */
+public final class FeatureMinuteVector {
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    private final ToDoubleFunction<FeatureMinute>[] columns;
+    private final List<String> unmapped = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    public FeatureMinuteVector(String[] featureNames) {
+        this.columns = new ToDoubleFunction[featureNames.length];
+        for (int i = 0; i < featureNames.length; i++) {
+            ToDoubleFunction<FeatureMinute> f = column(featureNames[i]);
+            if (f == null) {
+                unmapped.add(featureNames[i]);
+                f = r -> Double.NaN;
+            }
+            columns[i] = f;
+        }
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * 매핑되지 않아 항상 NaN 으로 들어가는 feature 이름
+     */
+    public List<String> unmapped() {
+        return unmapped;
+    }
+
+    public void fill(FeatureMinute row, double[] out) {
+        for (int i = 0; i < columns.length; i++)
+            out[i] = columns[i].applyAsDouble(row);
+    }
+
+    private static ToDoubleFunction<FeatureMinute> column(String name) {
+        return switch (name) {
+            // Kline
+            case "open_1m" -> FeatureMinute::getOpen1m;
+            case "high_1m" -> FeatureMinute::getHigh1m;
+            case "low_1m" -> FeatureMinute::getLow1m;
+            case "close_1m" -> FeatureMinute::getClose1m;
+            case "volume_1m" -> FeatureMinute::getVolume1m;
+            case "trade_count_1m" -> FeatureMinute::getTradeCount1m;
+            case "ret1m_log" -> FeatureMinute::getRet1mLog;
+            case "ret5m_log" -> FeatureMinute::getRet5mLog;
+            case "ret15m_log" -> FeatureMinute::getRet15mLog;
+            case "range_bps_1m" -> FeatureMinute::getRangeBps1m;
+            case "rv15m" -> FeatureMinute::getRv15m;
+            case "rv60m" -> FeatureMinute::getRv60m;
+            case "vol_z_60m" -> FeatureMinute::getVolZ60m;
+            case "buy_ratio_1m" -> FeatureMinute::getBuyRatio1m;
+            case "cvd_1m" -> FeatureMinute::getCvd1m;
+            case "cvd_15m" -> FeatureMinute::getCvd15m;
+
+            // Depth
+            case "spread_bps" -> FeatureMinute::getSpreadBps1s;
+            case "imbalance_top20" -> FeatureMinute::getImbalanceTop20;
+            case "microprice_gap_bps" -> FeatureMinute::getMicropriceGapBps;
+
+            // Mark / AggTrade / ForceOrder
+            case "mark_spot_bps" -> FeatureMinute::getMarkSpotBps;
+            case "vwap_gap_bps" -> FeatureMinute::getVwapGapBps;
+            case "avg_trade_size_1m" -> FeatureMinute::getAvgTradeSize1m;
+            case "liq_count_1m" -> FeatureMinute::getLiqCount1m;
+
+            // 시간 주기성 (UTC)
+            case "hour_sin" -> r -> Math.sin(TWO_PI * r.getTsUtc().getHour() / 24.0);
+            case "hour_cos" -> r -> Math.cos(TWO_PI * r.getTsUtc().getHour() / 24.0);
+            case "dow_sin" -> r -> Math.sin(TWO_PI * (r.getTsUtc().getDayOfWeek().getValue() - 1) / 7.0);
+            case "dow_cos" -> r -> Math.cos(TWO_PI * (r.getTsUtc().getDayOfWeek().getValue() - 1) / 7.0);
+
+            default -> null;
+        };
+    }
+}
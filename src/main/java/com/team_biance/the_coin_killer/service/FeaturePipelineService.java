@@ -0,0 +1,211 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이벤트 기반 1분 feature 파이프라인 (심볼별 watermark)
+ *
+ * - 리스너가 final kline 을 받고 해당 분 aggTrade 를 봉인(flush)한 직후 onMinuteClosed() 호출
+ * - watermark(computedThrough) 다음 분부터 닫힌 분까지 빠짐없이 확인 -> 엔진으로 계산한 분은 write-behind 로 저장
+ * - 엔진으로 계산 못 한 분은 pending 에 남기고, fallback-settle-ms 뒤 별도 스레드에서 DB batch 로 계산
+ *   (DB batch 에는 아직 flush 안 된 엔진 ring row 를 덮어씀). 실제로 저장된 분만 pending 에서 빠짐
+ * - 닫힌 분의 row 는 PredictionStage 로 넘겨 전 심볼 batch 예측
+ * - 크론(FeatureScheduler)은 kline 이 안 온 분을 pending 에 넣고, pending 을 오래된 분부터 재시도
+ *
+ * watermark = 확인한 마지막 분, pending = 확인했지만 아직 저장 안 된 분 (둘 다 Watermark 락 안에서만 변경)
+ */
+@Service
+public class FeaturePipelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeaturePipelineService.class);
+
+    private final RollingFeatureEngine featureEngine;
+    private final FeatureCalculationService featureCalculationService;
+    private final WriteBehindService writeBehindService;
+    private final PredictionStage predictionStage;
+    private final PipelineMetrics metrics;
+
+    // pending 재시도 1번에 DB 경로로 계산하는 최대 분 (남은 분은 다음 재시도에서 이어서)
+    @Value("${app.feature.catch-up-max-minutes:60}")
+    private int catchUpMaxMinutes = 60;
+
+    // write-behind flush(기본 200ms) 를 기다린 뒤 DB fallback
+    @Value("${app.feature.fallback-settle-ms:1000}")
+    private long fallbackSettleMs = 1000L;
+
+    // 심볼별 pending 상한, 넘으면 가장 오래된 분부터 포기 (백필 API 로 채움)
+    @Value("${app.feature.pending-max-minutes:1440}")
+    private int pendingMaxMinutes = 1440;
+
+    private final Map<String, Watermark> watermarks = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService fallbackExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "feature-fallback");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public FeaturePipelineService(
+            RollingFeatureEngine featureEngine,
+            FeatureCalculationService featureCalculationService,
+            WriteBehindService writeBehindService,
+            PredictionStage predictionStage,
+            PipelineMetrics metrics) {
+        this.featureEngine = featureEngine;
+        this.featureCalculationService = featureCalculationService;
+        this.writeBehindService = writeBehindService;
+        this.predictionStage = predictionStage;
+        this.metrics = metrics;
+        // 엔진 초기 적재(DB 범위 조회)도 이 스레드에서 (shard 스레드를 막지 않음)
+        featureEngine.seedOn(fallbackExecutor);
+    }
+
+    /**
+     * minute 분이 닫힘 (final kline 도착 + aggTrade 봉인 완료)
+     */
+    public void onMinuteClosed(String symbol, long minuteStartMs) {
+        long minute = minuteStartMs / 60_000L;
+        Watermark wm = watermarks.computeIfAbsent(symbol, s -> new Watermark(minute - 1));
+
+        boolean missed = false;
+        FeatureMinute closedRow = null;
+        synchronized (wm) {
+            if (minute <= wm.computedThrough)
+                return;
+
+            // 직전 watermark 이후 빠진 분까지 순서대로
+            for (long t = wm.computedThrough + 1; t <= minute; t++) {
+                LocalDateTime ts = RollingFeatureEngine.minuteStart(t);
+                long t0 = System.nanoTime();
+                FeatureMinute row = featureEngine.compute(symbol, ts);
+                metrics.recordFeatureCompute(System.nanoTime() - t0);
+                if (row != null) {
+                    writeBehindService.enqueueFeature(row);
+                    if (t == minute)
+                        closedRow = row;
+                } else {
+                    wm.pending.add(t);
+                    missed = true;
+                }
+            }
+            wm.computedThrough = minute;
+            wm.lastLagMs = System.currentTimeMillis() - (minuteStartMs + 60_000L);
+            trimPending(symbol, wm);
+        }
+        metrics.recordFeatureLag(wm.lastLagMs);
+
+        if (missed)
+            fallbackExecutor.schedule(() -> retryPending(symbol, minute), fallbackSettleMs, TimeUnit.MILLISECONDS);
+        predictionStage.onFeatureReady(symbol, minuteStartMs, closedRow);
+
+        log.debug("[FEATURE][PIPE] closed: symbol={}, minute={}, lagMs={}", symbol, minute, wm.lastLagMs);
+    }
+
+    /**
+     * 크론 catch-up: throughMinute 까지 이벤트로 확인되지 않은 분을 pending 에 넣고 재시도 예약
+     * - kline 이 오지 않아 watermark 가 멈춘 경우 / 이전 fallback 에서 저장 못 한 분
+     * - 계산은 feature-fallback 스레드 (스케줄러 스레드를 막지 않음)
+     */
+    public void catchUp(String symbol, LocalDateTime throughMinuteUtc) {
+        long through = RollingFeatureEngine.epochMinute(throughMinuteUtc);
+        Watermark wm = watermarks.computeIfAbsent(symbol, s -> new Watermark(through - 1));
+
+        synchronized (wm) {
+            for (long t = wm.computedThrough + 1; t <= through; t++)
+                wm.pending.add(t);
+            wm.computedThrough = Math.max(wm.computedThrough, through);
+            trimPending(symbol, wm);
+            if (wm.pending.isEmpty())
+                return;
+        }
+        fallbackExecutor.execute(() -> retryPending(symbol, through));
+    }
+
+    /**
+     * feature-fallback 스레드: upTo 이하 pending 분을 오래된 분부터 catchUpMaxMinutes 개까지 DB 경로로 계산
+     * - 저장된 분만 pending 에서 제거 (kline 이 아직 없는 분은 다음 catch-up 에서 다시)
+     */
+    void retryPending(String symbol, long upTo) {
+        Watermark wm = watermarks.get(symbol);
+        if (wm == null)
+            return;
+
+        List<LocalDateTime> minutes = new ArrayList<>();
+        synchronized (wm) {
+            for (long t : wm.pending.headSet(upTo, true)) {
+                if (minutes.size() >= catchUpMaxMinutes)
+                    break;
+                minutes.add(RollingFeatureEngine.minuteStart(t));
+            }
+        }
+        if (minutes.isEmpty())
+            return;
+
+        List<LocalDateTime> saved = featureCalculationService.saveFeatureMinutes(symbol, minutes);
+
+        int left;
+        synchronized (wm) {
+            for (LocalDateTime ts : saved)
+                wm.pending.remove(RollingFeatureEngine.epochMinute(ts));
+            left = wm.pending.size();
+        }
+        if (saved.size() < minutes.size() || left > 0) {
+            log.info("[FEATURE][PIPE] pending: symbol={}, tried={}, saved={}, left={}",
+                    symbol, minutes.size(), saved.size(), left);
+        }
+    }
+
+    /**
+     * pending 상한 초과분은 가장 오래된 분부터 포기 (로그로 남김 -> 백필 API 대상)
+     */
+    private void trimPending(String symbol, Watermark wm) {
+        int over = wm.pending.size() - Math.max(1, pendingMaxMinutes);
+        if (over <= 0)
+            return;
+        long first = wm.pending.first();
+        long last = first;
+        for (int i = 0; i < over; i++)
+            last = wm.pending.pollFirst();
+        log.warn("[FEATURE][PIPE] pending overflow, giving up: symbol={}, from={}, through={}, minutes={} (use backfill)",
+                symbol, RollingFeatureEngine.minuteStart(first), RollingFeatureEngine.minuteStart(last), over);
+    }
+
+    /**
+     * 심볼별 마지막 계산 분 / 분 마감 대비 지연(ms)
+     */
+    public Map<String, Long> lagMsBySymbol() {
+        Map<String, Long> out = new ConcurrentHashMap<>();
+        watermarks.forEach((symbol, wm) -> out.put(symbol, wm.lastLagMs));
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fallbackExecutor.shutdown();
+    }
+
+    private static final class Watermark {
+        long computedThrough;
+        final TreeSet<Long> pending = new TreeSet<>();
+        volatile long lastLagMs;
+
+        Watermark(long computedThrough) {
+            this.computedThrough = computedThrough;
+        }
+    }
+}
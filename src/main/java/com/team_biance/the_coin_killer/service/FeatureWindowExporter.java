@@ -0,0 +1,496 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FMark1m;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분 마감 feature row -> 모델 입력 (python matrix 파일 / JVM booster 평가 공통)
+ *
+ * - python 이 f_kline_1m / depth / mark 를 다시 읽고 pandas 로 rolling 재계산하던 것을 대신함
+ * - 심볼별 최근 61분 window 를 JVM 에 유지하고, 파일에는 심볼당 마지막 분 1줄만 씀
+ * - rv15m / rv60m / vol_z_60m 은 window 로 pandas 와 같게 다시 계산 (rolling std = 표본 ddof=1,
+ *   vol_z 는 현재 분 포함 60분), ret60m_log 는 window 의 60분 전 close 로 계산
+ * - depth / mark / aggTrade / forceOrder 컬럼은 data_loader.load_features_from_raw (학습) 와 같이 1분 LAG
+ *   . spread_bps / imbalance_top20 / microprice_gap_bps : t-1 분 f_depth_1m 평균 (onDepthMinute)
+ *   . mark_spot_bps = (t-1 분 mark 평균 - t 분 close) / t 분 close * 1e4, funding_rate = t-1 분 funding 평균 (onMarkMinute)
+ *   . vwap_gap_bps = (t 분 close - t-1 분 vwap) / t-1 분 vwap * 1e4,
+ *     avg_trade_size_1m = t-1 분 (taker buy + sell qty) / trade_count (onAggMinute)
+ *   . 위 값이 없거나 NaN 인 분은 직전 분 값 carry (pandas ffill), liq_count_1m 은 t-1 분 청산 건수 (없으면 0)
+ *   FeatureMinute 의 같은 이름 컬럼(같은 분 마지막 값)은 쓰지 않음
+ * - window 가 덜 찬 심볼(기동 직후 61분, kline 누락 직후)은 파일에 넣지 않음 -> 워커가 DB 경로로 계산
+ * - 남은 NaN / inf 는 0 (학습의 fillna(0), prepare_x_for_prediction 과 같음)
+ * - window 는 app.predict.feature-export.enabled 와 무관하게 유지 (NativeModelService 가 fill() 로 사용),
+ *   enabled 는 matrix 파일 작성만 켜고 끔
+ *
+ * 파일 형식 (little-endian)
+ *   "CKFW" | int32 version | int32 rows | int32 cols | int32 namesBytes
+ *   names : UTF-8, 컬럼 cols 개 + 심볼 rows 개를 '\n' 으로 연결 (8바이트 경계까지 0 패딩)
+ *   int64[rows]       분 시작 epoch ms (UTC)
+ *   float64[rows]     close_1m
+ *   float64[rows*cols] feature (row-major)
+ *
+ * feature 는 JVM evaluator 와 같은 double 그대로 씀 (v1 의 float32 는 split threshold 근처 값이 반대 가지로 갈 수 있었음)
+ *
+ * append / export / covers 는 주로 predict-stage 스레드, on*Minute 는 shard 스레드 (Window 단위 락)
+ */
+@Component
+public class FeatureWindowExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(FeatureWindowExporter.class);
+
+    static final byte[] MAGIC = { 'C', 'K', 'F', 'W' };
+    static final int VERSION = 2;
+
+    // python feature_engineer.BASE_FEATURES + EXTRA_FEATURES 순서
+    static final String[] COLUMNS = {
+            "open_1m", "high_1m", "low_1m", "close_1m", "volume_1m", "trade_count_1m",
+            "ret1m_log", "ret5m_log", "ret15m_log", "range_bps_1m",
+            "rv15m", "rv60m", "vol_z_60m",
+            "buy_ratio_1m", "cvd_1m", "cvd_15m",
+            "spread_bps", "imbalance_top20", "microprice_gap_bps",
+            "mark_spot_bps", "funding_rate",
+            "vwap_gap_bps", "avg_trade_size_1m",
+            "liq_count_1m",
+            "ret60m_log",
+            "hour_sin", "hour_cos",
+            "dow_sin", "dow_cos",
+    };
+
+    private static final int COL_VOLUME = indexOf("volume_1m");
+    private static final int COL_RV15 = indexOf("rv15m");
+    private static final int COL_RV60 = indexOf("rv60m");
+    private static final int COL_VOL_Z = indexOf("vol_z_60m");
+    private static final int COL_RET60 = indexOf("ret60m_log");
+
+    // 1분 LAG 컬럼 (Window.lag 순서)
+    private static final int[] LAG_COLUMNS = {
+            indexOf("spread_bps"), indexOf("imbalance_top20"), indexOf("microprice_gap_bps"),
+            indexOf("mark_spot_bps"), indexOf("funding_rate"),
+            indexOf("vwap_gap_bps"), indexOf("avg_trade_size_1m"),
+            indexOf("liq_count_1m"),
+    };
+    private static final int L_SPREAD = 0;
+    private static final int L_IMBALANCE = 1;
+    private static final int L_MICROPRICE = 2;
+    private static final int L_MARK_SPOT = 3;
+    private static final int L_FUNDING = 4;
+    private static final int L_VWAP_GAP = 5;
+    private static final int L_AVG_TRADE_SIZE = 6;
+    private static final int L_LIQ = 7;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final FeatureMinuteVector vector = new FeatureMinuteVector(COLUMNS);
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public FeatureWindowExporter(
+            @Value("${app.predict.feature-export.enabled:true}") boolean enabled,
+            @Value("${app.predict.feature-export.dir:./data/features}") String dir) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 닫힌 분의 feature row 를 window 에 반영 (같은 분이 다시 오면 교체)
+     */
+    public void append(String symbol, FeatureMinute row) {
+        if (row == null || row.getTsUtc() == null)
+            return;
+        Window w = window(symbol);
+        synchronized (w) {
+            w.put(row);
+        }
+    }
+
+    /**
+     * f_depth_1m 분 집계 봉인 (다음 분 feature 의 spread / imbalance / microprice)
+     */
+    public void onDepthMinute(FDepth1m row) {
+        if (row == null || row.getTsUtc() == null)
+            return;
+        Window w = window(row.getSymbol());
+        synchronized (w) {
+            w.putDepth(RollingFeatureEngine.epochMinute(row.getTsUtc()), row);
+        }
+    }
+
+    /**
+     * f_mark_1m 분 집계 봉인 (다음 분 feature 의 mark_spot_bps / funding_rate)
+     */
+    public void onMarkMinute(FMark1m row) {
+        if (row == null || row.getTsUtc() == null)
+            return;
+        Window w = window(row.getSymbol());
+        synchronized (w) {
+            w.putMark(RollingFeatureEngine.epochMinute(row.getTsUtc()), row);
+        }
+    }
+
+    /**
+     * f_aggtrade_1m 분 집계 봉인 (다음 분 feature 의 vwap_gap_bps / avg_trade_size_1m)
+     */
+    public void onAggMinute(FAggTrade1m row) {
+        if (row == null || row.getTsUtc() == null)
+            return;
+        Window w = window(row.getSymbol());
+        synchronized (w) {
+            w.putAgg(RollingFeatureEngine.epochMinute(row.getTsUtc()), row);
+        }
+    }
+
+    private Window window(String symbol) {
+        return windows.computeIfAbsent(symbol, s -> new Window());
+    }
+
+    /**
+     * rows 의 row 가 전부 window 로 계산되는지 (append 전에 호출, window 가 이전 60분을 다 가진 심볼만)
+     * - false 면 DB 를 다시 읽는 심볼이 있음 (python 워커 DB 경로 / native 불가)
+     */
+    public boolean covers(Map<String, FeatureMinute> rows) {
+        for (Map.Entry<String, FeatureMinute> e : rows.entrySet()) {
+            FeatureMinute row = e.getValue();
+            if (row == null || row.getTsUtc() == null)
+                return false;
+            Window w = windows.get(e.getKey());
+            if (w == null)
+                return false;
+            synchronized (w) {
+                if (!w.hasHistory(RollingFeatureEngine.epochMinute(row.getTsUtc())))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * append 된 row 의 모델 입력 (COLUMNS 순서, window / LAG 컬럼 포함, NaN / inf 는 0)
+     *
+     * @return window 가 덜 찼거나 row 분이 window 의 마지막 분이 아니면 false (x 는 쓰레기)
+     */
+    public boolean fill(String symbol, FeatureMinute row, double[] x) {
+        if (row == null || row.getTsUtc() == null)
+            return false;
+        Window w = windows.get(symbol);
+        if (w == null)
+            return false;
+
+        long t = RollingFeatureEngine.epochMinute(row.getTsUtc());
+        synchronized (w) {
+            if (!w.isLatest(t) || !w.hasHistory(t))
+                return false;
+            vector.fill(row, x);
+            w.override(t, x);
+        }
+        for (int c = 0; c < x.length; c++) {
+            if (!Double.isFinite(x[c]))
+                x[c] = 0.0;
+        }
+        return true;
+    }
+
+    /**
+     * 심볼별 마지막 row 로 matrix 파일 1개 작성
+     *
+     * @param rows 심볼 -> 이번 분 row (append 된 것, null 인 심볼은 빠짐)
+     * @return 작성한 파일 (절대 경로), 쓸 row 가 없으면 null. 다 쓴 뒤 호출 측에서 삭제
+     */
+    public Path export(Map<String, FeatureMinute> rows) throws IOException {
+        if (!enabled)
+            return null;
+        Matrix m = build(rows);
+        if (m.symbols().length == 0)
+            return null;
+
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, "features-", ".bin");
+        try {
+            write(file, m);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        log.debug("[PREDICT][EXPORT] file={}, rows={}, cols={}", file.getFileName(), m.symbols().length, COLUMNS.length);
+        return file;
+    }
+
+    Matrix build(Map<String, FeatureMinute> rows) {
+        List<String> symbols = new ArrayList<>(rows.size());
+        List<Long> tsMs = new ArrayList<>(rows.size());
+        List<Double> close = new ArrayList<>(rows.size());
+        double[] values = new double[rows.size() * COLUMNS.length];
+        double[] x = new double[COLUMNS.length];
+        for (Map.Entry<String, FeatureMinute> e : rows.entrySet()) {
+            FeatureMinute row = e.getValue();
+            if (!fill(e.getKey(), row, x))
+                continue;
+            int r = symbols.size();
+            symbols.add(e.getKey());
+            tsMs.add(row.getTsUtc().toInstant(ZoneOffset.UTC).toEpochMilli());
+            close.add(row.getClose1m());
+            System.arraycopy(x, 0, values, r * COLUMNS.length, x.length);
+        }
+
+        int n = symbols.size();
+        return new Matrix(COLUMNS.clone(), symbols.toArray(new String[0]),
+                tsMs.stream().mapToLong(Long::longValue).toArray(),
+                close.stream().mapToDouble(Double::doubleValue).toArray(),
+                Arrays.copyOf(values, n * COLUMNS.length));
+    }
+
+    // =========================
+    // 파일 쓰기 / 읽기
+    // =========================
+    static void write(Path file, Matrix m) throws IOException {
+        int rows = m.symbols().length;
+        int cols = m.columns().length;
+
+        List<String> names = new ArrayList<>(cols + rows);
+        names.addAll(Arrays.asList(m.columns()));
+        names.addAll(Arrays.asList(m.symbols()));
+        byte[] nameBytes = String.join("\n", names).getBytes(StandardCharsets.UTF_8);
+
+        int header = 20 + align8(nameBytes.length);
+        ByteBuffer buf = ByteBuffer.allocate(header + rows * 16 + rows * cols * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(nameBytes.length);
+        buf.put(nameBytes);
+        buf.position(header);
+        for (long t : m.tsMs())
+            buf.putLong(t);
+        for (double c : m.close())
+            buf.putDouble(c);
+        buf.asDoubleBuffer().put(m.values());
+        buf.position(buf.capacity());
+        buf.flip();
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining())
+                ch.write(buf);
+        }
+    }
+
+    static Matrix read(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[4];
+        buf.get(magic);
+        if (!Arrays.equals(magic, MAGIC))
+            throw new IOException("not a feature matrix: " + file);
+        int version = buf.getInt();
+        if (version != VERSION)
+            throw new IOException("unsupported feature matrix version: " + version);
+        int rows = buf.getInt();
+        int cols = buf.getInt();
+        int nameLen = buf.getInt();
+
+        byte[] nameBytes = new byte[nameLen];
+        buf.get(nameBytes);
+        String[] names = new String(nameBytes, StandardCharsets.UTF_8).split("\n", -1);
+        if (names.length != cols + rows)
+            throw new IOException("name count mismatch: " + names.length + " != " + (cols + rows));
+        buf.position(20 + align8(nameLen));
+
+        long[] tsMs = new long[rows];
+        double[] close = new double[rows];
+        double[] values = new double[rows * cols];
+        for (int r = 0; r < rows; r++)
+            tsMs[r] = buf.getLong();
+        for (int r = 0; r < rows; r++)
+            close[r] = buf.getDouble();
+        buf.asDoubleBuffer().get(values);
+
+        return new Matrix(Arrays.copyOfRange(names, 0, cols), Arrays.copyOfRange(names, cols, cols + rows),
+                tsMs, close, values);
+    }
+
+    private static int align8(int n) {
+        return (n + 7) & ~7;
+    }
+
+    private static int indexOf(String column) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].equals(column))
+                return i;
+        }
+        throw new IllegalStateException(column);
+    }
+
+    // =========================
+    // 심볼별 window (pandas rolling / LAG merge + ffill 과 같은 규칙)
+    // =========================
+    private static final class Window {
+
+        private static final int CLOSES = 64;
+        private static final int MASK = CLOSES - 1;
+
+        final RollingWindow ret15 = new RollingWindow(15);
+        final RollingWindow ret60 = new RollingWindow(60);
+        final RollingWindow vol60 = new RollingWindow(60);
+        final long[] closeMin = new long[CLOSES];
+        final double[] closes = new double[CLOSES];
+        final int[] liq = new int[CLOSES];
+
+        // 분 집계 ring (index = 분 & MASK)
+        final long[] depthMin = new long[CLOSES];
+        final double[] spread = new double[CLOSES];
+        final double[] imbalance = new double[CLOSES];
+        final double[] microprice = new double[CLOSES];
+        final long[] markMin = new long[CLOSES];
+        final double[] markPrice = new double[CLOSES];
+        final double[] funding = new double[CLOSES];
+        final long[] aggMin = new long[CLOSES];
+        final double[] aggQty = new double[CLOSES];
+        final int[] aggCount = new int[CLOSES];
+        final double[] vwap = new double[CLOSES];
+
+        // lagMin 분의 LAG 컬럼 값, prevLag 는 그 직전에 계산한 분 값 (ffill 원본)
+        long lagMin = RollingWindow.NONE;
+        double[] lag = new double[LAG_COLUMNS.length];
+        double[] prevLag = new double[LAG_COLUMNS.length];
+
+        Window() {
+            Arrays.fill(closeMin, RollingWindow.NONE);
+            Arrays.fill(depthMin, RollingWindow.NONE);
+            Arrays.fill(markMin, RollingWindow.NONE);
+            Arrays.fill(aggMin, RollingWindow.NONE);
+            Arrays.fill(lag, Double.NaN);
+            Arrays.fill(prevLag, Double.NaN);
+        }
+
+        void putDepth(long t, FDepth1m row) {
+            int i = (int) (t & MASK);
+            depthMin[i] = t;
+            spread[i] = row.getSpreadBpsAvg();
+            imbalance[i] = row.getImbalanceTop20Avg();
+            microprice[i] = (row.getMicropriceGapBpsAvg() != null) ? row.getMicropriceGapBpsAvg() : Double.NaN;
+        }
+
+        void putMark(long t, FMark1m row) {
+            int i = (int) (t & MASK);
+            markMin[i] = t;
+            markPrice[i] = row.getMarkPriceAvg();
+            funding[i] = (row.getFundingRateAvg() != null) ? row.getFundingRateAvg() : Double.NaN;
+        }
+
+        void putAgg(long t, FAggTrade1m row) {
+            int i = (int) (t & MASK);
+            aggMin[i] = t;
+            aggQty[i] = row.getTakerBuyQty() + row.getTakerSellQty();
+            aggCount[i] = row.getTradeCount();
+            vwap[i] = (row.getVwapPrice() != null) ? row.getVwapPrice() : Double.NaN;
+        }
+
+        void put(FeatureMinute row) {
+            long t = RollingFeatureEngine.epochMinute(row.getTsUtc());
+            int i = (int) (t & MASK);
+            closeMin[i] = t;
+            closes[i] = row.getClose1m();
+            liq[i] = row.getLiqCount1m();
+            putLag(t, row.getClose1m());
+
+            // ret1m 은 직전 분 close 가 있을 때만 pandas 와 같은 값 (없으면 NaN 취급)
+            double prev = closeAt(t - 1);
+            boolean retValid = prev > 0.0 && row.getClose1m() > 0.0;
+            ret15.put(t, row.getRet1mLog(), retValid);
+            ret60.put(t, row.getRet1mLog(), retValid);
+            vol60.put(t, row.getVolume1m(), true);
+        }
+
+        /**
+         * t 분 LAG 컬럼 (t-1 분 집계 + t 분 close, 없으면 직전 분 값 carry)
+         * - 같은 분이 다시 오면 carry 원본(prevLag)은 그대로 두고 다시 계산, 과거 분은 무시
+         */
+        private void putLag(long t, double close) {
+            if (t < lagMin)
+                return;
+            if (t > lagMin) {
+                double[] tmp = prevLag;
+                prevLag = lag;
+                lag = tmp;
+                lagMin = t;
+            }
+
+            long p = t - 1;
+            int i = (int) (p & MASK);
+            boolean depth = depthMin[i] == p;
+            boolean mark = markMin[i] == p;
+            boolean agg = aggMin[i] == p;
+
+            lagged(L_SPREAD, depth ? spread[i] : Double.NaN);
+            lagged(L_IMBALANCE, depth ? imbalance[i] : Double.NaN);
+            lagged(L_MICROPRICE, depth ? microprice[i] : Double.NaN);
+            lagged(L_MARK_SPOT, mark ? (markPrice[i] - close) / close * 10000.0 : Double.NaN);
+            lagged(L_FUNDING, mark ? funding[i] : Double.NaN);
+            lagged(L_VWAP_GAP, (agg && vwap[i] != 0.0) ? (close - vwap[i]) / vwap[i] * 10000.0 : Double.NaN);
+            lagged(L_AVG_TRADE_SIZE, (agg && aggCount[i] != 0) ? aggQty[i] / aggCount[i] : Double.NaN);
+            lag[L_LIQ] = (closeMin[i] == p) ? liq[i] : 0.0;
+        }
+
+        private void lagged(int k, double value) {
+            lag[k] = Double.isNaN(value) ? prevLag[k] : value;
+        }
+
+        boolean isLatest(long t) {
+            return vol60.end() == t;
+        }
+
+        /**
+         * t-60 ~ t-1 분 close 가 모두 있는지 (t 분 row 를 넣으면 ret / vol window 가 꽉 참)
+         */
+        boolean hasHistory(long t) {
+            for (long m = t - 60; m < t; m++) {
+                if (closeAt(m) <= 0.0)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * t 분 vector 의 window / LAG 컬럼 덮어쓰기 (hasHistory(t) 이고 t 분 row 를 put 한 뒤)
+         */
+        void override(long t, double[] x) {
+            x[COL_RV15] = ret15.stdSample() * Math.sqrt(15);
+            x[COL_RV60] = ret60.stdSample() * Math.sqrt(60);
+            double std = vol60.stdSample();
+            x[COL_VOL_Z] = (std > 0.0) ? (x[COL_VOLUME] - vol60.mean()) / std : Double.NaN;
+            x[COL_RET60] = Math.log(closeAt(t) / closeAt(t - 60));
+            for (int k = 0; k < LAG_COLUMNS.length; k++)
+                x[LAG_COLUMNS[k]] = lag[k];
+        }
+
+        private double closeAt(long t) {
+            int i = (int) (t & MASK);
+            return (closeMin[i] == t) ? closes[i] : 0.0;
+        }
+    }
+
+    /**
+     * matrix 파일 1개 내용 (values 는 row-major rows x cols)
+     */
+    record Matrix(String[] columns, String[] symbols, long[] tsMs, double[] close, double[] values) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.binance.AggTradeEvent;
+import com.team_biance.the_coin_killer.dto.binance.KlineEvent;
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FKline1m;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 녹화된 combined stream 프레임 파일로 백필하는 source
+ * - 한 줄에 프레임 1개 ({"stream":..,"data":..}), 앞에 "수신ms\t" 가 붙어 있어도 됨
+ * - .gz 면 gzip 으로 읽음 (FrameRecorder 녹화 파일 그대로, 잘린 꼬리 허용)
+ * - final kline 만 사용, aggTrade 는 분 단위로 다시 집계
+ * - 파일은 처음 fetch 때 1번만 읽어 심볼 -> 분 index 로 만들고, 이후 gap / 심볼별 조회는 index 에서 잘라냄
+ *
+ * decoder 가 스레드 한정이라 인스턴스 하나를 여러 스레드에서 동시에 쓰지 않는다 (index 는 동기화)
+ */
+public class FrameFileHistoricalSource implements HistoricalMarketSource {
+
+    private final Path file;
+    private final BinanceStreamDecoder decoder;
+
+    // 심볼 -> 분 시작 ms -> row / bucket (index() 이후 읽기만)
+    private Map<String, TreeMap<Long, FKline1m>> klines;
+    private Map<String, TreeMap<Long, AggMinuteBucket>> aggs;
+
+    public FrameFileHistoricalSource(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.decoder = new BinanceStreamDecoder(objectMapper);
+    }
+
+    @Override
+    public String name() {
+        return "FILE:" + file.getFileName();
+    }
+
+    @Override
+    public List<FKline1m> fetchKlines(String symbol, long fromMs, long toMs) throws IOException {
+        index();
+        TreeMap<Long, FKline1m> byMinute = klines.get(symbol);
+        if (byMinute == null)
+            return List.of();
+        return new ArrayList<>(byMinute.subMap(fromMs, true, toMs, false).values());
+    }
+
+    @Override
+    public List<FAggTrade1m> fetchAggMinutes(String symbol, long fromMs, long toMs) throws IOException {
+        index();
+        TreeMap<Long, AggMinuteBucket> buckets = aggs.get(symbol);
+        if (buckets == null)
+            return List.of();
+
+        List<FAggTrade1m> out = new ArrayList<>();
+        for (AggMinuteBucket b : buckets.subMap(fromMs, true, toMs, false).values()) {
+            FAggTrade1m row = b.toRow(symbol);
+            if (row != null)
+                out.add(row);
+        }
+        return out;
+    }
+
+    /**
+     * 파일 전체를 1번 읽어 심볼별 kline / aggTrade 분 index 생성
+     * - 녹화 파일은 수신 순서라 분이 섞일 수 있어 분별 bucket 으로 모은다
+     */
+    private synchronized void index() throws IOException {
+        if (klines != null)
+            return;
+
+        Map<String, TreeMap<Long, FKline1m>> k = new HashMap<>();
+        Map<String, TreeMap<Long, AggMinuteBucket>> a = new HashMap<>();
+        scan(decoded -> {
+            if (decoded instanceof KlineEvent ke) {
+                if (ke.kline().isFinal()) {
+                    k.computeIfAbsent(ke.symbol(), s -> new TreeMap<>())
+                            .put(ke.kline().startTime(), BinanceDataPersistListener.toKlineRow(ke));
+                }
+            } else if (decoded instanceof AggTradeEvent t) {
+                long minute = BinanceDataPersistListener.floorToMinuteMs(t.tradeTime());
+                a.computeIfAbsent(t.symbol(), s -> new TreeMap<>())
+                        .computeIfAbsent(minute, AggMinuteBucket::new)
+                        .add(parseOrZero(t.price()), parseOrZero(t.quantity()), t.buyerIsMaker());
+            }
+        });
+        this.aggs = a;
+        this.klines = k;
+    }
+
+    private void scan(Consumer<Object> sink) throws IOException {
+        try (BufferedReader reader = FrameReplayer.open(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                String frame = (tab >= 0) ? line.substring(tab + 1) : line;
+                if (frame.isBlank())
+                    continue;
+                Object decoded = decoder.decode(frame);
+                if (decoded != null)
+                    sink.accept(decoded);
+            }
+        }
+    }
+
+    private static double parseOrZero(String s) {
+        if (s == null || s.isBlank())
+            return 0.0;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
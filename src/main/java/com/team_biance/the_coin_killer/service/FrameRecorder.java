@@ -0,0 +1,185 @@
+package com.team_biance.the_coin_killer.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * WebSocket 원문 프레임 녹화 (replay / 부하 테스트 / 회귀 비교용)
+ *
+ * - 한 줄에 "수신ms\t{combined stream 원문}" -> FrameFileHistoricalSource / FrameReplayer 가 그대로 읽음
+ * - UTC 시간 단위 파일: {dir}/frames-yyyyMMdd-HH-{첫 프레임 수신ms}.gz
+ *   파일을 열 때마다 새 파일 (재시작 / 쓰기 실패 후 재오픈 포함) -> 비정상 종료로 잘린 gzip 뒤에 이어 쓰지 않음,
+ *   이름순 = 녹화순
+ * - 소켓 스레드는 bounded 큐에 넣기만 함 (가득 차면 버리고 dropped 카운트), gzip 은 전용 스레드
+ * - 1초마다 sync flush -> 비정상 종료해도 직전 1초까지는 읽을 수 있음
+ */
+@Service
+public class FrameRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(FrameRecorder.class);
+
+    private static final DateTimeFormatter HOUR_PREFIX = DateTimeFormatter.ofPattern("'frames-'yyyyMMdd-HH'-'")
+            .withZone(ZoneOffset.UTC);
+    private static final long FLUSH_INTERVAL_MS = 1_000L;
+
+    private record Frame(long recvMs, String raw) {
+    }
+
+    private final boolean enabled;
+    private final Path dir;
+    private final ArrayBlockingQueue<Frame> queue;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // ---- metrics ----
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String currentFile;
+
+    // writer 스레드 전용
+    private Writer out;
+    private long currentHour = Long.MIN_VALUE;
+
+    public FrameRecorder(
+            @Value("${binance.ws.record.enabled:false}") boolean enabled,
+            @Value("${binance.ws.record.dir:./data/frames}") String dir,
+            @Value("${binance.ws.record.queue-capacity:100000}") int queueCapacity) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        if (enabled) {
+            this.writer = new Thread(this::runLoop, "frame-recorder");
+            this.writer.setDaemon(true);
+            this.writer.start();
+            log.info("[FRAME-REC] recording to {}", this.dir);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 소켓 스레드에서 호출 (대기 없음)
+     */
+    public void record(long recvMs, String raw) {
+        if (!enabled || !running || raw == null)
+            return;
+        if (!queue.offer(new Frame(recvMs, raw)))
+            dropped.incrementAndGet();
+    }
+
+    private void runLoop() {
+        long lastFlush = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                Frame f = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (f != null)
+                    write(f);
+
+                long now = System.currentTimeMillis();
+                if (out != null && now - lastFlush >= FLUSH_INTERVAL_MS) {
+                    out.flush();
+                    lastFlush = now;
+                }
+            } catch (InterruptedException e) {
+                // shutdown: 남은 프레임은 loop 조건으로 마저 씀
+                running = false;
+            } catch (IOException e) {
+                long n = failed.incrementAndGet();
+                if (n == 1 || n % 1000 == 0)
+                    log.error("[FRAME-REC] write failed: failures={}, err={}", n, e.getMessage(), e);
+                closeQuietly();
+            }
+        }
+        closeQuietly();
+    }
+
+    private void write(Frame f) throws IOException {
+        long hour = Math.floorDiv(f.recvMs(), 3_600_000L);
+        if (out == null || hour != currentHour) {
+            closeQuietly();
+            Files.createDirectories(dir);
+            String prefix = HOUR_PREFIX.format(Instant.ofEpochMilli(hour * 3_600_000L));
+            Path file = null;
+            OutputStream raw = null;
+            for (long ms = f.recvMs(); raw == null; ms++) {
+                file = dir.resolve(prefix + ms + ".gz");
+                try {
+                    raw = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                } catch (FileAlreadyExistsException e) {
+                    // 같은 ms 에 다시 연 경우 (쓰기 실패 직후) -> 다음 이름
+                }
+            }
+            out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(raw, 1 << 16, true),
+                    StandardCharsets.UTF_8), 1 << 16);
+            currentHour = hour;
+            currentFile = file.toString();
+        }
+
+        out.write(Long.toString(f.recvMs()));
+        out.write('\t');
+        out.write(f.raw());
+        out.write('\n');
+        recorded.incrementAndGet();
+    }
+
+    private void closeQuietly() {
+        if (out == null)
+            return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("[FRAME-REC] close failed: {}", e.getMessage());
+        }
+        out = null;
+        currentHour = Long.MIN_VALUE;
+    }
+
+    public RecorderStats stats() {
+        return new RecorderStats(enabled, recorded.get(), dropped.get(), failed.get(), queue.size(), currentFile);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null)
+            return;
+        running = false;
+        try {
+            writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("[FRAME-REC] stopped: recorded={}, dropped={}", recorded.get(), dropped.get());
+    }
+
+    public record RecorderStats(boolean enabled, long recorded, long dropped, long failed, int queued, String currentFile) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.team_biance.the_coin_killer.service;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 녹화 프레임 파일 재생 (FrameRecorder 포맷: "수신ms\t원문", .gz 또는 평문)
+ *
+ * - speed 1 = 녹화 당시 간격 그대로, N = N배속, 0 이하 = 대기 없이 최대 속도
+ * - 수신ms 가 없는 줄은 대기 없이 바로 넘김
+ * - 비정상 종료로 잘린 gzip 꼬리 / 깨진 gzip 데이터는 그 파일의 끝으로 취급 (다음 파일은 계속 재생)
+ *   FrameRecorder 는 기동마다 새 파일을 쓰므로 잘린 부분은 항상 그 파일의 마지막
+ *
+ * 스레드 하나에서 run() 을 호출 (stop() 만 다른 스레드에서 호출 가능)
+ */
+public final class FrameReplayer {
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(long recvMs, String raw) throws Exception;
+    }
+
+    private final List<Path> files;
+    private final double speed;
+
+    private volatile boolean stopped;
+    private volatile long frames;
+    private volatile long recordedSpanMs;
+    private volatile long behindMs;
+
+    public FrameReplayer(List<Path> files, double speed) {
+        this.files = List.copyOf(files);
+        this.speed = speed;
+    }
+
+    /**
+     * 콤마 구분 경로 -> 파일 목록 (디렉터리면 안의 frames-* 를 이름순)
+     */
+    public static List<Path> resolve(String spec) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (spec == null)
+            return out;
+        for (String s : spec.split(",")) {
+            if (s.isBlank())
+                continue;
+            Path p = Paths.get(s.trim());
+            if (Files.isDirectory(p)) {
+                List<Path> inDir = new ArrayList<>();
+                try (DirectoryStream<Path> ds = Files.newDirectoryStream(p, "frames-*")) {
+                    ds.forEach(inDir::add);
+                }
+                inDir.sort(null);
+                out.addAll(inDir);
+            } else {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return sink 에 넘긴 프레임 수
+     */
+    public long run(Sink sink) throws Exception {
+        long wallStartNanos = System.nanoTime();
+        long firstRecvMs = Long.MIN_VALUE;
+
+        for (Path file : files) {
+            try (BufferedReader reader = open(file)) {
+                String line;
+                while (!stopped && (line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    long recvMs = (tab > 0) ? parseLong(line, tab) : -1L;
+                    String frame = (tab >= 0) ? line.substring(tab + 1) : line;
+                    if (frame.isBlank())
+                        continue;
+
+                    if (recvMs > 0) {
+                        if (firstRecvMs == Long.MIN_VALUE)
+                            firstRecvMs = recvMs;
+                        recordedSpanMs = recvMs - firstRecvMs;
+                        if (speed > 0)
+                            pace(wallStartNanos, recordedSpanMs);
+                    }
+
+                    sink.accept(recvMs, frame);
+                    frames++;
+                }
+            }
+            if (stopped)
+                break;
+        }
+        return frames;
+    }
+
+    private void pace(long wallStartNanos, long spanMs) {
+        long dueNanos = wallStartNanos + (long) (TimeUnit.MILLISECONDS.toNanos(spanMs) / speed);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+            behindMs = 0;
+        } else {
+            behindMs = TimeUnit.NANOSECONDS.toMillis(-waitNanos);
+        }
+    }
+
+    /**
+     * 프레임 파일 reader (.gz 면 gzip, 잘린 gzip 꼬리는 EOF 로 처리, gzip 헤더도 못 쓴 파일은 빈 파일)
+     */
+    static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.toString().endsWith(".gz"))
+                in = new TruncatedTailTolerantStream(new GZIPInputStream(in, 1 << 16));
+        } catch (EOFException e) {
+            in.close();
+            in = InputStream.nullInputStream();
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * 녹화 중 종료된 gzip 은 trailer 가 없어 마지막 read 에서 EOFException,
+     * 예전 형식(재시작 시 같은 시간 파일에 이어 쓰기)은 잘린 member 뒤에서 ZipException
+     * -> 그 전까지 풀린 완전한 줄만 살리고 스트림 끝으로 취급 (잘린 마지막 줄은 버림)
+     * - 줄바꿈까지 풀린 바이트만 내보내고 나머지는 다음 read / 정상 EOF 까지 보관
+     */
+    private static final class TruncatedTailTolerantStream extends FilterInputStream {
+
+        private byte[] buf = new byte[1 << 16];
+        private int start;
+        private int end;
+        private int safeEnd; // buf[start, safeEnd) = '\n' 로 끝나는 완전한 줄 (정상 EOF 뒤에는 전부)
+        private boolean eof;
+
+        TruncatedTailTolerantStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return (read(one, 0, 1) < 0) ? -1 : (one[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            while (start == safeEnd) {
+                if (eof)
+                    return -1;
+                fill();
+            }
+            int n = Math.min(len, safeEnd - start);
+            System.arraycopy(buf, start, b, off, n);
+            start += n;
+            return n;
+        }
+
+        private void fill() throws IOException {
+            if (start > 0) {
+                System.arraycopy(buf, start, buf, 0, end - start);
+                end -= start;
+                safeEnd -= start;
+                start = 0;
+            }
+            if (end == buf.length)
+                buf = Arrays.copyOf(buf, buf.length * 2);
+
+            int n;
+            try {
+                n = in.read(buf, end, buf.length - end);
+            } catch (EOFException | ZipException e) {
+                end = safeEnd; // 잘린 줄 버림
+                eof = true;
+                return;
+            }
+            if (n < 0) {
+                safeEnd = end;
+                eof = true;
+                return;
+            }
+            for (int i = end + n - 1; i >= end; i--) {
+                if (buf[i] == '\n') {
+                    safeEnd = i + 1;
+                    break;
+                }
+            }
+            end += n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] tmp = new byte[(int) Math.min(Math.max(n, 1), 8192)];
+            long left = n;
+            while (left > 0) {
+                int r = read(tmp, 0, (int) Math.min(left, tmp.length));
+                if (r < 0)
+                    break;
+                left -= r;
+            }
+            return n - Math.max(left, 0);
+        }
+
+        @Override
+        public int available() {
+            return safeEnd - start;
+        }
+    }
+
+    private static long parseLong(String line, int end) {
+        try {
+            return Long.parseLong(line, 0, end, 10);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public long frames() {
+        return frames;
+    }
+
+    /**
+     * 지금까지 재생한 녹화 구간 길이 (첫 프레임 수신 시각 기준)
+     */
+    public long recordedSpanMs() {
+        return recordedSpanMs;
+    }
+
+    /**
+     * 배속 재생에서 sink 가 느려 일정보다 밀린 시간 (최대 속도면 의미 없음)
+     */
+    public long behindMs() {
+        return behindMs;
+    }
+
+    public double speed() {
+        return speed;
+    }
+}
@@ -0,0 +1,26 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FKline1m;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 백필용 과거 원천 데이터 공급자 (REST / 녹화 파일 등)
+ * - 구간은 [fromMs, toMs) 이며 분 경계로 맞춰서 호출된다
+ */
+public interface HistoricalMarketSource {
+
+    String name();
+
+    /**
+     * 완성된 1분 캔들만
+     */
+    List<FKline1m> fetchKlines(String symbol, long fromMs, long toMs) throws IOException;
+
+    /**
+     * aggTrade 를 1분 단위로 집계한 row (체결 없는 분은 없음)
+     */
+    List<FAggTrade1m> fetchAggMinutes(String symbol, long fromMs, long toMs) throws IOException;
+}
@@ -0,0 +1,255 @@
+package com.team_biance.the_coin_killer.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LightGBM text model dump (booster.save_model) 을 JVM 에서 바로 평가하는 tree ensemble
+ *
+ * - 모든 tree 의 노드를 평평한 primitive 배열 하나로 합쳐 둠 (feature / threshold / left / right / decision)
+ * - child >= 0 : 내부 노드 (전역 index), child < 0 : leaf (~child = 전역 leaf index)
+ * - numerical split 만 지원 (이 프로젝트 모델은 categorical feature 없음)
+ * - missing 처리 / 비교 규칙은 LightGBM tree.h NumericalDecision 과 동일
+ *
+ * 불변 객체라 여러 스레드에서 동시에 predict 해도 됨. predict 는 할당 없음
+ */
+public final class LightGbmModel {
+
+    private static final int DEFAULT_LEFT_MASK = 2;
+    private static final int MISSING_NONE = 0;
+    private static final int MISSING_ZERO = 1;
+    private static final int MISSING_NAN = 2;
+    private static final double ZERO_THRESHOLD = 1e-35;
+
+    private final String[] featureNames;
+    private final double sigmoid; // binary objective 가 아니면 0 (raw 그대로)
+
+    private final int[] treeRoot;      // tree 별 시작 노드 (leaf 1개짜리 tree 면 ~leafIndex)
+    private final int[] splitFeature;
+    private final double[] threshold;
+    private final byte[] decisionType;
+    private final int[] leftChild;
+    private final int[] rightChild;
+    private final double[] leafValue;
+
+    private LightGbmModel(String[] featureNames, double sigmoid, int[] treeRoot,
+            int[] splitFeature, double[] threshold, byte[] decisionType,
+            int[] leftChild, int[] rightChild, double[] leafValue) {
+        this.featureNames = featureNames;
+        this.sigmoid = sigmoid;
+        this.treeRoot = treeRoot;
+        this.splitFeature = splitFeature;
+        this.threshold = threshold;
+        this.decisionType = decisionType;
+        this.leftChild = leftChild;
+        this.rightChild = rightChild;
+        this.leafValue = leafValue;
+    }
+
+    public static LightGbmModel load(Path path) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(br);
+        }
+    }
+
+    public String[] featureNames() {
+        return featureNames.clone();
+    }
+
+    public int featureCount() {
+        return featureNames.length;
+    }
+
+    public int treeCount() {
+        return treeRoot.length;
+    }
+
+    /**
+     * raw score (tree leaf 합). x 는 featureNames 순서, 값 없음은 NaN
+     */
+    public double predictRaw(double[] x) {
+        double sum = 0.0;
+        for (int root : treeRoot) {
+            int node = root;
+            while (node >= 0)
+                node = decide(node, x[splitFeature[node]]);
+            sum += leafValue[~node];
+        }
+        return sum;
+    }
+
+    /**
+     * binary 모델이면 sigmoid 적용한 확률 (predict_proba[:, 1] 과 같음)
+     */
+    public double predictProbability(double[] x) {
+        double raw = predictRaw(x);
+        if (sigmoid <= 0.0)
+            return raw;
+        return 1.0 / (1.0 + Math.exp(-sigmoid * raw));
+    }
+
+    private int decide(int node, double fval) {
+        int dt = decisionType[node];
+        int missingType = (dt >> 2) & 3;
+
+        if (Double.isNaN(fval) && missingType != MISSING_NAN)
+            fval = 0.0;
+        if ((missingType == MISSING_ZERO && Math.abs(fval) <= ZERO_THRESHOLD)
+                || (missingType == MISSING_NAN && Double.isNaN(fval))) {
+            return ((dt & DEFAULT_LEFT_MASK) != 0) ? leftChild[node] : rightChild[node];
+        }
+        return (fval <= threshold[node]) ? leftChild[node] : rightChild[node];
+    }
+
+    // =========================
+    // text dump 파싱
+    // =========================
+    static LightGbmModel parse(Reader reader) throws IOException {
+        BufferedReader br = (reader instanceof BufferedReader b) ? b : new BufferedReader(reader);
+
+        Map<String, String> header = new HashMap<>();
+        List<Map<String, String>> trees = new ArrayList<>();
+        Map<String, String> current = header;
+
+        String line;
+        while ((line = br.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+            if (line.startsWith("end of trees"))
+                break;
+            if (line.startsWith("Tree=")) {
+                current = new HashMap<>();
+                trees.add(current);
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq > 0)
+                current.put(line.substring(0, eq), line.substring(eq + 1));
+        }
+
+        if (!"1".equals(header.getOrDefault("num_class", "1")))
+            throw new IllegalArgumentException("multiclass model is not supported");
+        if (trees.isEmpty())
+            throw new IllegalArgumentException("no trees in model");
+
+        String[] names = header.getOrDefault("feature_names", "").split(" ");
+        double sigmoid = parseSigmoid(header.getOrDefault("objective", ""));
+
+        int totalNodes = 0;
+        int totalLeaves = 0;
+        for (Map<String, String> t : trees) {
+            int leaves = Integer.parseInt(t.get("num_leaves"));
+            if (!"0".equals(t.getOrDefault("num_cat", "0")))
+                throw new IllegalArgumentException("categorical split is not supported");
+            totalLeaves += leaves;
+            totalNodes += leaves - 1;
+        }
+
+        int[] treeRoot = new int[trees.size()];
+        int[] splitFeature = new int[totalNodes];
+        double[] threshold = new double[totalNodes];
+        byte[] decisionType = new byte[totalNodes];
+        int[] left = new int[totalNodes];
+        int[] right = new int[totalNodes];
+        double[] leafValue = new double[totalLeaves];
+
+        int nodeBase = 0;
+        int leafBase = 0;
+        for (int ti = 0; ti < trees.size(); ti++) {
+            Map<String, String> t = trees.get(ti);
+            int leaves = Integer.parseInt(t.get("num_leaves"));
+            double[] lv = doubles(t.get("leaf_value"), leaves);
+            System.arraycopy(lv, 0, leafValue, leafBase, leaves);
+
+            if (leaves == 1) {
+                treeRoot[ti] = ~leafBase;
+            } else {
+                int internal = leaves - 1;
+                int[] sf = ints(t.get("split_feature"), internal);
+                double[] th = doubles(t.get("threshold"), internal);
+                int[] dt = ints(t.get("decision_type"), internal);
+                int[] lc = ints(t.get("left_child"), internal);
+                int[] rc = ints(t.get("right_child"), internal);
+
+                for (int i = 0; i < internal; i++) {
+                    if (sf[i] >= names.length)
+                        throw new IllegalArgumentException("split_feature out of range: " + sf[i]);
+                    if ((dt[i] & 1) != 0)
+                        throw new IllegalArgumentException("categorical split is not supported");
+                    splitFeature[nodeBase + i] = sf[i];
+                    threshold[nodeBase + i] = th[i];
+                    decisionType[nodeBase + i] = (byte) dt[i];
+                    left[nodeBase + i] = relocate(lc[i], nodeBase, leafBase);
+                    right[nodeBase + i] = relocate(rc[i], nodeBase, leafBase);
+                }
+                treeRoot[ti] = nodeBase;
+                nodeBase += internal;
+            }
+            leafBase += leaves;
+        }
+
+        return new LightGbmModel(names, sigmoid, treeRoot, splitFeature, threshold, decisionType,
+                left, right, leafValue);
+    }
+
+    /**
+     * tree 안의 child index -> 전역 index (leaf 는 ~leaf 유지)
+     */
+    private static int relocate(int child, int nodeBase, int leafBase) {
+        return (child >= 0) ? nodeBase + child : ~(leafBase + ~child);
+    }
+
+    private static double parseSigmoid(String objective) {
+        // "binary sigmoid:1"
+        if (!objective.startsWith("binary"))
+            return 0.0;
+        for (String tok : objective.split(" ")) {
+            if (tok.startsWith("sigmoid:"))
+                return Double.parseDouble(tok.substring("sigmoid:".length()));
+        }
+        return 1.0;
+    }
+
+    private static int[] ints(String s, int n) {
+        String[] parts = require(s, n);
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++)
+            out[i] = Integer.parseInt(parts[i]);
+        return out;
+    }
+
+    private static double[] doubles(String s, int n) {
+        String[] parts = require(s, n);
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++)
+            out[i] = parseLgbDouble(parts[i]);
+        return out;
+    }
+
+    private static String[] require(String s, int n) {
+        if (s == null)
+            throw new IllegalArgumentException("missing tree field");
+        String[] parts = s.trim().split(" ");
+        if (parts.length < n)
+            throw new IllegalArgumentException("expected " + n + " values, got " + parts.length);
+        return parts;
+    }
+
+    private static double parseLgbDouble(String s) {
+        // LightGBM 은 무한대를 "inf" / "-inf" 로 씀
+        if ("inf".equals(s) || "+inf".equals(s))
+            return Double.POSITIVE_INFINITY;
+        if ("-inf".equals(s))
+            return Double.NEGATIVE_INFINITY;
+        return Double.parseDouble(s);
+    }
+}
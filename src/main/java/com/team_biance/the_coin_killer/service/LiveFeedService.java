@@ -0,0 +1,261 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.PredictResultDto;
+import com.team_biance.the_coin_killer.dto.TableStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실시간 화면 push (GET /api/monitor/stream, SSE)
+ *
+ * - interval-ms 마다 1번만 snapshot 을 만들고 JSON 직렬화도 1번 -> 같은 문자열을 모든 구독자에게 전송
+ * - 값은 메모리에서만 읽음 (TableStatsRegistry 마지막 row / 테이블 통계, PredictionStage 마지막 예측) -> 탭 수와 무관하게 DB 조회 0
+ * - 저장 / 예측이 없어 바뀐 게 없으면 건너뛰고, heartbeat-ms 마다는 그래도 보냄 (경과 / STOPPED 갱신 + 연결 유지)
+ * - 구독자가 없으면 snapshot 도 만들지 않음
+ * - 전송 실패(탭 닫힘 등) 구독자는 바로 제거
+ *
+ * snapshot 생성은 전용 스레드 1개 (live-feed), 실제 send 는 작은 전송 풀 (live-send-N)
+ * - 구독자별로 전송은 1건만 진행, 이전 전송이 안 끝났으면 그 tick 은 건너뜀 (다음 tick 에 최신값)
+ * - 전송 1건이 send-timeout-ms 를 넘기면 느린 구독자로 보고 제거 (브라우저가 재연결)
+ */
+@Service
+public class LiveFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveFeedService.class);
+
+    static final String EVENT = "snapshot";
+
+    private final MonitorService monitorService;
+    private final PredictionStage predictionStage;
+    private final TableStatsRegistry tableStats;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.live.interval-ms:500}")
+    private long intervalMs = 500L;
+
+    @Value("${app.live.heartbeat-ms:5000}")
+    private long heartbeatMs = 5000L;
+
+    // 만료되면 브라우저 EventSource 가 자동 재연결
+    @Value("${app.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs = 1_800_000L;
+
+    @Value("${app.live.send-timeout-ms:3000}")
+    private long sendTimeoutMs = 3000L;
+
+    @Value("${app.live.send-threads:2}")
+    private int sendThreads = 2;
+
+    private static final long IDLE = Long.MIN_VALUE;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong slowDropped = new AtomicLong();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "live-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ExecutorService sendPool;
+
+    // live-feed 스레드에서만 씀
+    private long sentVersion = Long.MIN_VALUE;
+    private long sentAtMs;
+    private volatile String lastJson;
+
+    public LiveFeedService(
+            MonitorService monitorService,
+            PredictionStage predictionStage,
+            TableStatsRegistry tableStats,
+            ObjectMapper objectMapper) {
+        this.monitorService = monitorService;
+        this.predictionStage = predictionStage;
+        this.tableStats = tableStats;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger seq = new AtomicInteger();
+        sendPool = Executors.newFixedThreadPool(Math.max(1, sendThreads), r -> {
+            Thread t = new Thread(r, "live-send-" + seq.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long period = Math.max(50L, intervalMs);
+        executor.scheduleAtFixedRate(this::tickSafely, period, period, TimeUnit.MILLISECONDS);
+        log.info("[LIVE] started: intervalMs={}, heartbeatMs={}, sendThreads={}, sendTimeoutMs={}",
+                period, heartbeatMs, Math.max(1, sendThreads), sendTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (sendPool != null)
+            sendPool.shutdownNow();
+        for (Subscriber s : subscribers)
+            s.emitter.complete();
+        subscribers.clear();
+    }
+
+    /**
+     * 구독 추가, 마지막으로 보낸 snapshot 이 있으면 바로 1번 보냄
+     */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber s = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(s));
+        emitter.onTimeout(() -> subscribers.remove(s));
+        emitter.onError(e -> subscribers.remove(s));
+        subscribers.add(s);
+
+        String json = lastJson;
+        if (json != null)
+            offer(s, json, System.currentTimeMillis());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * send-timeout-ms 를 넘겨 제거한 구독자 수 (누적)
+     */
+    public long slowDroppedCount() {
+        return slowDropped.get();
+    }
+
+    // =========================
+    // push (live-feed 스레드)
+    // =========================
+    private void tickSafely() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("[LIVE] tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void tick(long nowMs) throws Exception {
+        if (subscribers.isEmpty())
+            return;
+
+        long version = version();
+        if (version == sentVersion && nowMs - sentAtMs < heartbeatMs)
+            return;
+
+        String json = objectMapper.writeValueAsString(snapshot());
+        lastJson = json;
+        sentVersion = version;
+        sentAtMs = nowMs;
+
+        for (Subscriber s : subscribers)
+            offer(s, json, nowMs);
+    }
+
+    /**
+     * 구독자 1명에게 전송 예약 (live-feed 스레드는 send 를 기다리지 않음)
+     */
+    private void offer(Subscriber s, String json, long nowMs) {
+        long since = s.sendingSinceMs.get();
+        if (since != IDLE) {
+            if (nowMs - since >= sendTimeoutMs)
+                dropSlow(s, nowMs - since);
+            return;
+        }
+        if (!s.sendingSinceMs.compareAndSet(IDLE, nowMs))
+            return;
+        try {
+            dispatch(() -> send(s, json));
+        } catch (RejectedExecutionException e) {
+            s.sendingSinceMs.set(IDLE); // 종료 중
+        }
+    }
+
+    void dispatch(Runnable task) {
+        sendPool.execute(task);
+    }
+
+    private void send(Subscriber s, String json) {
+        try {
+            s.emitter.send(SseEmitter.event().name(EVENT).data(json));
+        } catch (Exception e) {
+            // 끊긴 연결 (IOException) / 이미 완료된 emitter (IllegalStateException)
+            subscribers.remove(s);
+            log.debug("[LIVE] drop subscriber: {}", e.getMessage());
+        } finally {
+            s.sendingSinceMs.set(IDLE);
+        }
+    }
+
+    private void dropSlow(Subscriber s, long pendingMs) {
+        if (!subscribers.remove(s))
+            return;
+        long n = slowDropped.incrementAndGet();
+        log.warn("[LIVE] drop slow subscriber: sendPendingMs={}, slowDropped={}", pendingMs, n);
+        try {
+            s.emitter.complete();
+        } catch (Exception e) {
+            log.debug("[LIVE] complete slow subscriber failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 저장 row 수 합 + 예측 batch 수 (바뀌었는지만 봄)
+     */
+    long version() {
+        return tableStats.version() * 31L + predictionStage.latestVersion();
+    }
+
+    LiveSnapshot snapshot() {
+        return new LiveSnapshot(
+                monitorService.getLiveSnapshot(),
+                predictionStage.latestPredictions(),
+                monitorService.getTableStatuses());
+    }
+
+    /**
+     * 구독자 1명 (sendingSinceMs: 진행 중인 send 시작 시각, 없으면 IDLE)
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicLong sendingSinceMs = new AtomicLong(IDLE);
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * @param realtime    /api/monitor/realtime 과 같은 형식 (kline / mark / depth / feature)
+     * @param predictions 심볼별 마지막 예측
+     * @param tables      대시보드 테이블 상태 (추정 row 수 / 최신 시각)
+     */
+    public record LiveSnapshot(
+            MonitorService.RealtimeResponse realtime,
+            List<PredictResultDto> predictions,
+            List<TableStatus> tables) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.team_biance.the_coin_killer.service;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * 대량 저장용 mapper 실행 헬퍼
+ *
+ * 1) multiValues : mapper 의 upsertBatch(List) (<foreach> 다중 VALUES) 를 chunk 단위로 호출
+ * 2) jdbcBatch   : ExecutorType.BATCH 세션에서 단건 upsert 를 addBatch 로 묶어 실행
+ *                  (URL 의 rewriteBatchedStatements=true 면 드라이버가 다중 VALUES 로 재작성)
+ *
+ * chunk 크기는 max_allowed_packet 을 넘지 않도록 호출 측에서 제한한다.
+ */
+@Component
+public class MapperBatchExecutor {
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    public MapperBatchExecutor(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+    }
+
+    public enum Mode {
+        MULTI_VALUES,
+        JDBC_BATCH
+    }
+
+    /**
+     * rows 를 chunkSize 씩 잘라 multi-VALUES statement 로 저장
+     */
+    public static <T> int multiValues(List<T> rows, int chunkSize, ToIntFunction<List<T>> batchOp) {
+        if (rows == null || rows.isEmpty())
+            return 0;
+
+        int size = Math.max(1, chunkSize);
+        int affected = 0;
+        for (int from = 0; from < rows.size(); from += size) {
+            int to = Math.min(rows.size(), from + size);
+            affected += batchOp.applyAsInt(rows.subList(from, to));
+        }
+        return affected;
+    }
+
+    /**
+     * BATCH executor 로 단건 statement 를 묶어 실행 (flushEvery 마다 executeBatch)
+     */
+    public <M, T> int jdbcBatch(Class<M> mapperType, List<T> rows, int flushEvery, BiConsumer<M, T> singleOp) {
+        if (rows == null || rows.isEmpty())
+            return 0;
+
+        int every = Math.max(1, flushEvery);
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            M mapper = session.getMapper(mapperType);
+            int n = 0;
+            for (T row : rows) {
+                singleOp.accept(mapper, row);
+                if (++n % every == 0)
+                    session.flushStatements();
+            }
+            session.flushStatements();
+            session.commit();
+            return n;
+        }
+    }
+
+    /**
+     * mode 에 따라 둘 중 하나로 저장
+     */
+    public <M, T> int write(Mode mode, Class<M> mapperType, List<T> rows, int chunkSize,
+            ToIntFunction<List<T>> batchOp, BiConsumer<M, T> singleOp) {
+        if (mode == Mode.JDBC_BATCH)
+            return jdbcBatch(mapperType, rows, chunkSize, singleOp);
+        return multiValues(rows, chunkSize, batchOp);
+    }
+}
@@ -0,0 +1,103 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.listener.BinanceDataPersistListener;
+import com.team_biance.the_coin_killer.model.FMark1m;
+
+/**
+ * markPrice 1분 집계 (f_mark_1m row 1개)
+ * - 샘플 = markPrice@1s 이벤트 (f_mark_1s row 와 같은 값)
+ * - mark last / avg, index last, basis = (mark - index) / index bps 평균, funding last / avg
+ * - index / funding 이 비어 있는 샘플은 해당 값 평균에서만 제외
+ *
+ * 스레드 안전하지 않음. 심볼 shard 스레드(단일 writer) 안에서만 사용
+ */
+public final class MarkMinuteBucket implements MinuteBucket<FMark1m> {
+
+    private long minuteStartMs;
+
+    private int samples;
+    private double markSum;
+    private double markLast;
+
+    private Double indexLast;
+    private int basisSamples;
+    private double basisSum;
+
+    private Double fundingLast;
+    private int fundingSamples;
+    private double fundingSum;
+
+    private boolean touched;
+
+    public MarkMinuteBucket(long minuteStartMs) {
+        reset(minuteStartMs);
+    }
+
+    @Override
+    public long minuteStartMs() {
+        return minuteStartMs;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return samples <= 0;
+    }
+
+    public void add(double markPrice, Double indexPrice, Double fundingRate) {
+        markSum += markPrice;
+        markLast = markPrice;
+        samples++;
+
+        if (indexPrice != null && indexPrice > 0.0) {
+            indexLast = indexPrice;
+            basisSum += (markPrice - indexPrice) / indexPrice * 10000.0;
+            basisSamples++;
+        }
+
+        if (fundingRate != null) {
+            fundingLast = fundingRate;
+            fundingSum += fundingRate;
+            fundingSamples++;
+        }
+        touched = true;
+    }
+
+    @Override
+    public boolean clearTouched() {
+        boolean t = touched;
+        touched = false;
+        return t;
+    }
+
+    @Override
+    public void reset(long newMinuteStartMs) {
+        this.minuteStartMs = newMinuteStartMs;
+        this.samples = 0;
+        this.markSum = 0.0;
+        this.markLast = 0.0;
+        this.indexLast = null;
+        this.basisSamples = 0;
+        this.basisSum = 0.0;
+        this.fundingLast = null;
+        this.fundingSamples = 0;
+        this.fundingSum = 0.0;
+    }
+
+    @Override
+    public FMark1m toRow(String symbol) {
+        if (isEmpty())
+            return null;
+
+        FMark1m row = new FMark1m();
+        row.setSymbol(symbol);
+        row.setTsUtc(BinanceDataPersistListener.utcFromMs(minuteStartMs)); // 분 시작 시각
+        row.setSampleCount(samples);
+        row.setMarkPriceLast(markLast);
+        row.setMarkPriceAvg(markSum / samples);
+        row.setIndexPriceLast(indexLast);
+        row.setBasisBpsAvg(basisSamples > 0 ? basisSum / basisSamples : null);
+        row.setFundingRateLast(fundingLast);
+        row.setFundingRateAvg(fundingSamples > 0 ? fundingSum / fundingSamples : null);
+        return row;
+    }
+}
@@ -0,0 +1,27 @@
+package com.team_biance.the_coin_killer.service;
+
+/**
+ * 심볼 1개의 1분 메모리 집계 (분이 바뀌거나 봉인되면 row 1개로 write-behind)
+ *
+ * 스레드 안전하지 않음. 심볼 shard 스레드(단일 writer) 안에서만 사용
+ *
+ * @param <R> 저장 row 타입
+ */
+public interface MinuteBucket<R> {
+
+    long minuteStartMs();
+
+    boolean isEmpty();
+
+    /**
+     * @return 직전 호출 이후 샘플이 들어왔으면 true (호출하면 다시 false)
+     */
+    boolean clearTouched();
+
+    void reset(long newMinuteStartMs);
+
+    /**
+     * @return 샘플이 없으면 null
+     */
+    R toRow(String symbol);
+}
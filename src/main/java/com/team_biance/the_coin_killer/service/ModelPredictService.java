@@ -2,81 +2,424 @@ package com.team_biance.the_coin_killer.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.team_biance.the_coin_killer.dto.PredictResultDto;
 import com.team_biance.the_coin_killer.mapper.ModelPredMapper;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
 import com.team_biance.the_coin_killer.model.ModelPred60m;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ModelPredictService {
 
+    private static final Logger log = LoggerFactory.getLogger(ModelPredictService.class);
+
     private final PythonExecutorService pythonExecutor;
+    private final PythonModelServer modelServer;
+    private final NativeModelService nativeModelService;
+    private final FeatureWindowExporter featureExporter;
     private final ModelPredMapper modelPredMapper;
+    private final PipelineMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public ModelPredictService(PythonExecutorService pythonExecutor, ModelPredMapper modelPredMapper) {
+    // server: 상주 워커(model_server.py) / process: 요청마다 predict.py 실행
+    @Value("${app.python.predict-mode:server}")
+    private String predictMode;
+
+    // python: predict-mode 에 따라 python 으로 / native: JVM 안에서 booster dump 평가 (dump 없으면 python)
+    @Value("${app.model.backend:python}")
+    private String backend;
+
+    @Value("${python.script.dir:src/main/python}")
+    private String scriptDir;
+
+    // predict_batch 응답 대기 = 기본 타임아웃 + 심볼당 추가분
+    @Value("${app.python.timeout-ms:3000}")
+    private long timeoutMs;
+
+    @Value("${app.predict.batch-per-symbol-ms:500}")
+    private long batchPerSymbolMs;
+
+    // 워커 batch 실패 시 심볼별 predict.py: 동시 실행 수 / 전체 마감 (넘으면 프로세스 kill, 실패 처리)
+    @Value("${app.predict.fallback-threads:2}")
+    private int fallbackThreads;
+
+    @Value("${app.predict.fallback-deadline-ms:20000}")
+    private long fallbackDeadlineMs;
+
+    private ExecutorService fallbackPool;
+
+    public ModelPredictService(PythonExecutorService pythonExecutor, PythonModelServer modelServer,
+            NativeModelService nativeModelService, FeatureWindowExporter featureExporter,
+            ModelPredMapper modelPredMapper, PipelineMetrics metrics) {
         this.pythonExecutor = pythonExecutor;
+        this.modelServer = modelServer;
+        this.nativeModelService = nativeModelService;
+        this.featureExporter = featureExporter;
         this.modelPredMapper = modelPredMapper;
+        this.metrics = metrics;
     }
 
-    public PredictResultDto predict(String symbol) {
-        String modelRelPath = "model/lgbm_" + symbol.toLowerCase() + ".pkl";
+    @PostConstruct
+    public void start() {
+        AtomicInteger seq = new AtomicInteger();
+        fallbackPool = Executors.newFixedThreadPool(Math.max(1, fallbackThreads), r -> {
+            Thread t = new Thread(r, "predict-fallback-" + seq.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
 
-        PythonExecutorService.ExecutionResult er = pythonExecutor.execute("predict.py",
-                "--symbol", symbol,
-                "--model", modelRelPath);
+    @PreDestroy
+    public void shutdown() {
+        if (fallbackPool != null)
+            fallbackPool.shutdownNow();
+    }
 
-        PredictResultDto dto = parsePredictJson(er.stdout());
-        dto.setDurationMs(er.durationMs());
+    public PredictResultDto predict(String symbol) {
+        String modelRelPath = modelRelPath(symbol);
+
+        PredictResultDto dto = null;
+        if ("native".equalsIgnoreCase(backend) && nativeModelService.hasModel(symbol))
+            dto = nativeModelService.predict(symbol);
+        if (dto == null && "server".equalsIgnoreCase(predictMode))
+            dto = predictViaServer(symbol, modelRelPath);
+        if (dto == null)
+            dto = predictViaProcess(symbol, modelRelPath);
 
         // 성공 시 DB 저장
         if (dto.isOk()) {
             try {
-                ModelPred60m p = new ModelPred60m();
-                p.setSymbol(dto.getSymbol());
-                p.setTsUtc(dto.getTimestamp());
-                p.setCurrentClose(BigDecimal.valueOf(dto.getCurrentClose()));
-                p.setPrediction(dto.getPrediction());
-                p.setProbability(BigDecimal.valueOf(dto.getProbability()));
-                p.setModelVersion(dto.getModelVersion());
-                modelPredMapper.insertPrediction(p);
+                modelPredMapper.insertPrediction(toEntity(dto));
             } catch (Exception e) {
                 // 저장 실패해도 예측 자체는 성공이므로 ok는 유지 (요구사항: 끊기면 안됨)
                 // 화면에는 경고로 보이게 하고 싶으면 errorMessage에 보강 가능
                 dto.setErrorCode("DB_INSERT_FAILED");
                 dto.setErrorMessage("Prediction OK, but DB insert failed: " + e.getMessage());
             }
-        } else {
-            if ((dto.getErrorMessage() == null || dto.getErrorMessage().isBlank()) && er.exitCode() != 0) {
-                dto.setErrorMessage("Python process failed. exitCode=" + er.exitCode());
-            }
         }
 
         return dto;
     }
 
-    public List<ModelPred60m> recentPredictions(String symbol, int limit) {
-        return modelPredMapper.recentPredictions(symbol, limit);
+    /**
+     * 분 마감 batch 예측 (PredictionStage)
+     *
+     * - native 모델이 있는 심볼: 넘겨받은 feature row + exporter window 로 JVM 평가
+     *   (row 가 null 이면 DB 로 다시 계산, window 가 덜 찼으면 python 으로)
+     * - 나머지: python 워커에 predict_batch 요청 1번
+     *   실패 시 심볼별 프로세스 (fallback-threads 개 병렬, fallback-deadline-ms 안에 못 끝낸 심볼은 실패)
+     *   feature row 는 matrix 파일로 같이 넘김 -> 워커는 DB 를 읽지 않음
+     *   (row 가 없거나 exporter window 가 덜 찬 심볼만 DB 재계산)
+     * - 모델 파일이 하나도 없는 심볼은 건너뜀
+     * - 성공 결과는 insertPredictionBatch 1번으로 저장
+     *
+     * @param minuteUtc 방금 닫힌 분 (row 가 null 인 심볼의 native DB 재계산 대상)
+     * @param rows 심볼 -> 방금 닫힌 분의 feature row (null 허용)
+     */
+    public List<PredictResultDto> predictBatch(LocalDateTime minuteUtc, Map<String, FeatureMinute> rows) {
+        List<PredictResultDto> results = new ArrayList<>(rows.size());
+        List<String> viaPython = new ArrayList<>();
+
+        boolean nativeBackend = isNativeBackend();
+        for (Map.Entry<String, FeatureMinute> e : rows.entrySet()) {
+            String symbol = e.getKey();
+            featureExporter.append(symbol, e.getValue());
+            PredictResultDto dto = null;
+            if (nativeBackend && nativeModelService.hasModel(symbol)) {
+                dto = (e.getValue() != null)
+                        ? nativeModelService.predict(symbol, e.getValue())
+                        : nativeModelService.predictMinute(symbol, minuteUtc);
+            }
+            if (dto != null) {
+                results.add(dto);
+            } else if (Files.isRegularFile(Paths.get(scriptDir).resolve(modelRelPath(symbol)))) {
+                viaPython.add(symbol);
+            } else if (nativeBackend && nativeModelService.hasModel(symbol)) {
+                results.add(nativeModelService.notReady(symbol));
+            }
+        }
+
+        if (!viaPython.isEmpty()) {
+            Map<String, PredictResultDto> bySymbol = "server".equalsIgnoreCase(predictMode)
+                    ? predictBatchViaServer(viaPython, rows)
+                    : null;
+            List<String> viaProcess = new ArrayList<>();
+            for (String symbol : viaPython) {
+                PredictResultDto dto = (bySymbol != null) ? bySymbol.get(symbol) : null;
+                if (dto != null)
+                    results.add(dto);
+                else
+                    viaProcess.add(symbol);
+            }
+            if (!viaProcess.isEmpty())
+                results.addAll(predictViaProcessBounded(viaProcess));
+        }
+
+        List<ModelPred60m> ok = new ArrayList<>(results.size());
+        for (PredictResultDto dto : results) {
+            if (dto.isOk())
+                ok.add(toEntity(dto));
+        }
+        if (!ok.isEmpty()) {
+            try {
+                modelPredMapper.insertPredictionBatch(ok);
+            } catch (Exception e) {
+                log.error("[PREDICT][BATCH] insert failed: rows={}, err={}", ok.size(), e.getMessage(), e);
+                for (PredictResultDto dto : results) {
+                    if (dto.isOk()) {
+                        dto.setErrorCode("DB_INSERT_FAILED");
+                        dto.setErrorMessage("Prediction OK, but DB insert failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return results;
     }
 
-    private PredictResultDto parsePredictJson(String stdout) {
-        PredictResultDto dto = new PredictResultDto();
-        if (stdout == null || stdout.isBlank()) {
-            dto.setOk(false);
-            dto.setErrorCode("EMPTY_STDOUT");
-            dto.setErrorMessage("Python stdout is empty");
+    public boolean isNativeBackend() {
+        return "native".equalsIgnoreCase(backend);
+    }
+
+    /**
+     * predictBatch(rows) 가 write-behind 된 raw 테이블을 DB 에서 다시 읽는지
+     * (모든 row 가 exporter window 로 계산되면 native / matrix 파일 모두 읽지 않음)
+     * predict-stage 스레드에서 predictBatch 직전에 호출
+     */
+    public boolean readsRawTables(Map<String, FeatureMinute> rows) {
+        if (!isNativeBackend() && (!featureExporter.isEnabled() || !"server".equalsIgnoreCase(predictMode)))
+            return true;
+        return !featureExporter.covers(rows);
+    }
+
+    /**
+     * predict_batch 1번. 워커 실패 시 null (-> 심볼별 프로세스)
+     */
+    private Map<String, PredictResultDto> predictBatchViaServer(List<String> symbols, Map<String, FeatureMinute> rows) {
+        long startNs = System.nanoTime();
+        Path features = null;
+        try {
+            ObjectNode req = objectMapper.createObjectNode();
+            req.put("op", "predict_batch");
+            ArrayNode arr = req.putArray("symbols");
+            Map<String, FeatureMinute> exported = new LinkedHashMap<>();
+            for (String symbol : symbols) {
+                arr.add(symbol);
+                exported.put(symbol, rows.get(symbol));
+            }
+
+            features = exportFeatures(exported);
+            if (features != null)
+                req.put("features", features.toString());
+
+            JsonNode resp = modelServer.request(req, timeoutMs + batchPerSymbolMs * symbols.size());
+            if (!resp.path("ok").asBoolean(false)) {
+                log.warn("[PREDICT][BATCH] model server error: {}", resp.path("error"));
+                return null;
+            }
+
+            long durationMs = (System.nanoTime() - startNs) / 1_000_000L;
+            Map<String, PredictResultDto> out = new HashMap<>();
+            int i = 0;
+            for (JsonNode r : resp.path("results")) {
+                PredictResultDto dto = parsePredictJson(r);
+                // 실패 응답은 symbol 이 없을 수 있음 -> 요청 순서로 매칭
+                String symbol = (i < symbols.size()) ? symbols.get(i) : dto.getSymbol();
+                dto.setSymbol(symbol);
+                dto.setDurationMs(durationMs);
+                out.put(symbol, dto);
+                i++;
+            }
+            return out;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("[PREDICT][BATCH] model server failed, fallback to process: symbols={}, err={}",
+                    symbols.size(), e.getMessage());
+            return null;
+        } finally {
+            deleteQuietly(features);
+        }
+    }
+
+    private Path exportFeatures(Map<String, FeatureMinute> rows) {
+        if (!featureExporter.isEnabled())
+            return null;
+        try {
+            return featureExporter.export(rows);
+        } catch (Exception e) {
+            // 파일을 못 쓰면 워커가 DB 에서 재계산
+            log.warn("[PREDICT][BATCH] feature export failed, worker reads DB: err={}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.warn("[PREDICT][BATCH] feature file delete failed: file={}, err={}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 상주 워커로 예측. 워커를 못 띄웠거나 응답이 없으면 null (-> 프로세스 방식으로 재시도)
+     */
+    private PredictResultDto predictViaServer(String symbol, String modelRelPath) {
+        long startNs = System.nanoTime();
+        try {
+            ObjectNode req = objectMapper.createObjectNode();
+            req.put("op", "predict");
+            req.put("symbol", symbol);
+            req.put("model", modelRelPath);
+
+            PredictResultDto dto = parsePredictJson(modelServer.request(req));
+            dto.setDurationMs((System.nanoTime() - startNs) / 1_000_000L);
             return dto;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("[PREDICT] model server failed, fallback to process: symbol={}, err={}", symbol, e.getMessage());
+            return null;
         }
+    }
+
+    /**
+     * 심볼별 predict.py 를 fallbackPool 에서 병렬로, 전체 fallbackDeadlineMs 안에서만
+     * - 마감까지 못 끝낸 심볼은 cancel(interrupt -> 프로세스 kill) 후 PREDICT_FALLBACK_TIMEOUT
+     * - predict-stage 스레드는 최대 fallbackDeadlineMs 만 막힘 (심볼 수와 무관)
+     */
+    private List<PredictResultDto> predictViaProcessBounded(List<String> symbols) {
+        List<Callable<PredictResultDto>> tasks = new ArrayList<>(symbols.size());
+        for (String symbol : symbols)
+            tasks.add(() -> predictViaProcess(symbol, modelRelPath(symbol)));
 
+        List<Future<PredictResultDto>> futures = null;
         try {
-            JsonNode root = objectMapper.readTree(stdout);
+            futures = fallbackPool.invokeAll(tasks, fallbackDeadlineMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("[PREDICT][FALLBACK] submit failed: symbols={}, err={}", symbols.size(), e.getMessage());
+        }
+
+        List<PredictResultDto> out = new ArrayList<>(symbols.size());
+        int ok = 0;
+        int failed = 0;
+        int timedOut = 0;
+        for (int i = 0; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            Future<PredictResultDto> f = (futures != null) ? futures.get(i) : null;
+            PredictResultDto dto;
+            if (f == null || f.isCancelled()) {
+                dto = failure(symbol, "PREDICT_FALLBACK_TIMEOUT",
+                        "python fallback not finished within " + fallbackDeadlineMs + "ms");
+                timedOut++;
+            } else {
+                try {
+                    dto = f.get();
+                } catch (Exception e) {
+                    dto = failure(symbol, "PYTHON_EXEC_FAILED", "python fallback failed: " + e.getMessage());
+                }
+                if (dto.getSymbol() == null)
+                    dto.setSymbol(symbol);
+                if (dto.isOk())
+                    ok++;
+                else
+                    failed++;
+            }
+            out.add(dto);
+        }
+
+        metrics.recordPredictFallback(ok, failed, timedOut);
+        if (timedOut > 0)
+            log.warn("[PREDICT][FALLBACK] deadline exceeded: symbols={}, ok={}, failed={}, timedOut={}, deadlineMs={}",
+                    symbols.size(), ok, failed, timedOut, fallbackDeadlineMs);
+        return out;
+    }
+
+    private static PredictResultDto failure(String symbol, String code, String message) {
+        PredictResultDto dto = new PredictResultDto();
+        dto.setOk(false);
+        dto.setSymbol(symbol);
+        dto.setErrorCode(code);
+        dto.setErrorMessage(message);
+        return dto;
+    }
 
+    private PredictResultDto predictViaProcess(String symbol, String modelRelPath) {
+        PythonExecutorService.ExecutionResult er = pythonExecutor.execute("predict.py",
+                "--symbol", symbol,
+                "--model", modelRelPath);
+
+        PredictResultDto dto;
+        if (er.json() != null) {
+            dto = parsePredictJson(er.json());
+        } else {
+            dto = new PredictResultDto();
+            dto.setOk(false);
+            dto.setErrorCode(er.errorCode());
+            dto.setErrorMessage(er.errorMessage());
+        }
+        dto.setDurationMs(er.durationMs());
+
+        if (!dto.isOk() && (dto.getErrorMessage() == null || dto.getErrorMessage().isBlank()) && er.exitCode() != 0) {
+            dto.setErrorMessage("Python process failed. exitCode=" + er.exitCode());
+        }
+        return dto;
+    }
+
+    private static String modelRelPath(String symbol) {
+        return "model/lgbm_" + symbol.toLowerCase() + ".pkl";
+    }
+
+    private static ModelPred60m toEntity(PredictResultDto dto) {
+        ModelPred60m p = new ModelPred60m();
+        p.setSymbol(dto.getSymbol());
+        p.setTsUtc(dto.getTimestamp());
+        p.setCurrentClose(BigDecimal.valueOf(dto.getCurrentClose()));
+        p.setPrediction(dto.getPrediction());
+        p.setProbability(BigDecimal.valueOf(dto.getProbability()));
+        p.setModelVersion(dto.getModelVersion());
+        return p;
+    }
+
+    public List<ModelPred60m> recentPredictions(String symbol, int limit) {
+        return modelPredMapper.recentPredictions(symbol, limit);
+    }
+
+    private PredictResultDto parsePredictJson(JsonNode root) {
+        PredictResultDto dto = new PredictResultDto();
+        try {
             boolean ok = root.path("ok").asBoolean(false);
             dto.setOk(ok);
 
@@ -103,7 +446,7 @@ public class ModelPredictService {
         } catch (Exception e) {
             dto.setOk(false);
             dto.setErrorCode("JSON_PARSE_ERROR");
-            dto.setErrorMessage("Failed to parse stdout JSON: " + e.getMessage());
+            dto.setErrorMessage("Failed to parse response JSON: " + e.getMessage());
             return dto;
         }
     }
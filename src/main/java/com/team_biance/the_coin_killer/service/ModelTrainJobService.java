@@ -0,0 +1,262 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.TrainJobDto;
+import com.team_biance.the_coin_killer.dto.TrainResultDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 비동기 학습 job (POST /api/model/train)
+ *
+ * - 학습은 한 번에 1개 (단일 슬롯), 대기열은 app.train.queue-capacity 까지. 넘치면 REJECTED
+ * - 같은 심볼이 QUEUED / RUNNING 이면 새로 만들지 않고 기존 job 을 돌려줌
+ * - train.py stderr 를 줄 단위로 읽어 진행률([TRAIN][PROGRESS]) / 로그 tail 갱신
+ * - python 프로세스는 nice 로, 대기 스레드는 MIN_PRIORITY 로 -> 수집 / 저장 스레드 우선
+ */
+@Service
+public class ModelTrainJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelTrainJobService.class);
+
+    private static final Pattern PROGRESS = Pattern.compile("^\\[TRAIN]\\[PROGRESS]\\s+(\\d+)\\s*(.*)$");
+    private static final int LOG_TAIL_LINES = 50;
+
+    private final ModelTrainService modelTrainService;
+
+    @Value("${app.train.queue-capacity:4}")
+    private int queueCapacity;
+
+    // 끝난 job 을 포함해 status 로 조회 가능한 개수
+    @Value("${app.train.history-size:20}")
+    private int historySize;
+
+    private ThreadPoolExecutor executor;
+
+    // jobId -> job (오래된 것부터 정리)
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, Job> activeBySymbol = new HashMap<>();
+    private long seq;
+
+    public ModelTrainJobService(ModelTrainService modelTrainService) {
+        this.modelTrainService = modelTrainService;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "model-train");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+    }
+
+    public synchronized TrainJobDto submit(String symbol, int days) {
+        String sym = symbol.toUpperCase(Locale.ROOT);
+
+        Job existing = activeBySymbol.get(sym);
+        if (existing != null) {
+            TrainJobDto dto = snapshot(existing);
+            dto.setDeduplicated(true);
+            return dto;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString().substring(0, 8), ++seq, sym, days);
+        jobs.put(job.id, job);
+        trimHistory();
+
+        try {
+            executor.execute(() -> run(job));
+            activeBySymbol.put(sym, job);
+            log.info("[TRAIN][JOB] queued: jobId={}, symbol={}, days={}", job.id, sym, days);
+        } catch (RejectedExecutionException e) {
+            job.finish("REJECTED", null, "train queue is full (capacity=" + queueCapacity + ")");
+            log.warn("[TRAIN][JOB] rejected: symbol={}, queue full", sym);
+        }
+        return snapshot(job);
+    }
+
+    public synchronized TrainJobDto get(String jobId) {
+        Job job = jobs.get(jobId);
+        return (job == null) ? null : snapshot(job);
+    }
+
+    /**
+     * 최근 job 목록 (최신순)
+     */
+    public synchronized List<TrainJobDto> list() {
+        List<TrainJobDto> out = new ArrayList<>(jobs.size());
+        for (Job job : jobs.values())
+            out.add(snapshot(job));
+        Collections.reverse(out);
+        return out;
+    }
+
+    private void run(Job job) {
+        job.markRunning();
+        log.info("[TRAIN][JOB] started: jobId={}, symbol={}", job.id, job.symbol);
+
+        TrainResultDto result = null;
+        String error = null;
+        String state = "FAILED";
+        try {
+            result = modelTrainService.train(job.symbol, job.days, job::onLog);
+            if (!result.isOk())
+                error = result.getErrorCode() + ": " + result.getErrorMessage();
+        } catch (Exception e) {
+            error = e.getMessage();
+            log.error("[TRAIN][JOB] failed: jobId={}, err={}", job.id, e.getMessage(), e);
+        } finally {
+            if (error == null && result != null)
+                state = "DONE";
+            job.finish(state, result, error);
+            synchronized (this) {
+                activeBySymbol.remove(job.symbol, job);
+            }
+        }
+
+        log.info("[TRAIN][JOB] finished: jobId={}, state={}, elapsedMs={}", job.id, state, job.elapsedMs());
+    }
+
+    private void trimHistory() {
+        Iterator<Job> it = jobs.values().iterator();
+        while (jobs.size() > Math.max(historySize, 1) && it.hasNext()) {
+            Job j = it.next();
+            if (j.isFinished())
+                it.remove();
+            else
+                break;
+        }
+    }
+
+    private TrainJobDto snapshot(Job job) {
+        TrainJobDto dto = job.toDto();
+        if ("QUEUED".equals(dto.getState())) {
+            int ahead = 0;
+            for (Job j : jobs.values()) {
+                if (j.seq < job.seq && !j.isFinished())
+                    ahead++;
+            }
+            dto.setQueuePosition(ahead);
+        }
+        return dto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    // =========================
+    // job 1개 (상태는 job 모니터로 보호)
+    // =========================
+    private static final class Job {
+        final String id;
+        final long seq;
+        final String symbol;
+        final int days;
+        final LocalDateTime queuedAt = LocalDateTime.now(ZoneOffset.UTC);
+        final ArrayDeque<String> tail = new ArrayDeque<>(LOG_TAIL_LINES);
+
+        String state = "QUEUED";
+        int progress;
+        String stage = "queued";
+        LocalDateTime startedAt;
+        LocalDateTime finishedAt;
+        long startNs;
+        long endNs;
+        TrainResultDto result;
+        String errorMessage;
+
+        Job(String id, long seq, String symbol, int days) {
+            this.id = id;
+            this.seq = seq;
+            this.symbol = symbol;
+            this.days = days;
+        }
+
+        synchronized void markRunning() {
+            state = "RUNNING";
+            stage = "starting";
+            startedAt = LocalDateTime.now(ZoneOffset.UTC);
+            startNs = System.nanoTime();
+        }
+
+        synchronized void onLog(String line) {
+            if (tail.size() == LOG_TAIL_LINES)
+                tail.pollFirst();
+            tail.addLast(line);
+
+            Matcher m = PROGRESS.matcher(line);
+            if (m.matches()) {
+                progress = Math.min(100, Integer.parseInt(m.group(1)));
+                stage = m.group(2);
+            }
+        }
+
+        synchronized void finish(String state, TrainResultDto result, String errorMessage) {
+            this.state = state;
+            this.result = result;
+            this.errorMessage = errorMessage;
+            this.finishedAt = LocalDateTime.now(ZoneOffset.UTC);
+            this.endNs = System.nanoTime();
+            if ("DONE".equals(state)) {
+                progress = 100;
+                stage = "done";
+            }
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized long elapsedMs() {
+            if (startNs == 0L)
+                return 0L;
+            return TimeUnit.NANOSECONDS.toMillis((endNs != 0L ? endNs : System.nanoTime()) - startNs);
+        }
+
+        synchronized TrainJobDto toDto() {
+            TrainJobDto dto = new TrainJobDto();
+            dto.setJobId(id);
+            dto.setState(state);
+            dto.setSymbol(symbol);
+            dto.setDays(days);
+            dto.setProgress(progress);
+            dto.setStage(stage);
+            dto.setQueuedAtUtc(queuedAt);
+            dto.setStartedAtUtc(startedAt);
+            dto.setFinishedAtUtc(finishedAt);
+            dto.setElapsedMs(elapsedMs());
+            dto.setLogTail(new ArrayList<>(tail));
+            dto.setResult(result);
+            dto.setErrorMessage(errorMessage);
+            return dto;
+        }
+    }
+}
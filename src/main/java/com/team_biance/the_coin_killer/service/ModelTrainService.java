@@ -13,6 +13,7 @@ import java.nio.file.*;
 import java.time.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 public class ModelTrainService {
@@ -23,19 +24,32 @@ public class ModelTrainService {
     @Value("${python.script.dir:src/main/python}")
     private String scriptDir;
 
+    // 학습 프로세스 nice 값 (0 이면 그대로)
+    @Value("${app.train.niceness:10}")
+    private int niceness;
+
     public ModelTrainService(PythonExecutorService pythonExecutor) {
         this.pythonExecutor = pythonExecutor;
     }
 
     public TrainResultDto train(String symbol, int days) {
+        return train(symbol, days, null);
+    }
+
+    /**
+     * 학습 실행 (낮은 우선순위). onStderrLine 으로 train.py 로그 / 진행률 줄을 실시간 전달
+     */
+    public TrainResultDto train(String symbol, int days, Consumer<String> onStderrLine) {
         String modelRelPath = buildModelRelPath(symbol);
 
-        PythonExecutorService.ExecutionResult er = pythonExecutor.execute("train.py",
+        ProcessBuilder pb = pythonExecutor.processBuilder("train.py",
                 "--days", String.valueOf(days),
                 "--symbol", symbol,
                 "--output", modelRelPath);
+        PythonExecutorService.ExecutionResult er = pythonExecutor.execute(
+                pythonExecutor.lowPriority(pb, niceness), onStderrLine);
 
-        TrainResultDto dto = parseTrainJson(er.stdout());
+        TrainResultDto dto = parseTrainJson(er);
         dto.setDurationMs(er.durationMs());
 
         // stderr는 로그니까 필요하면 서버 로그로만 남기고, 화면에는 dto만
@@ -91,17 +105,17 @@ public class ModelTrainService {
         return "model/lgbm_" + symbol.toLowerCase() + ".pkl";
     }
 
-    private TrainResultDto parseTrainJson(String stdout) {
+    private TrainResultDto parseTrainJson(PythonExecutorService.ExecutionResult er) {
         TrainResultDto dto = new TrainResultDto();
-        if (stdout == null || stdout.isBlank()) {
+        if (er.json() == null) {
             dto.setOk(false);
-            dto.setErrorCode("EMPTY_STDOUT");
-            dto.setErrorMessage("Python stdout is empty");
+            dto.setErrorCode(er.errorCode());
+            dto.setErrorMessage(er.errorMessage());
             return dto;
         }
 
         try {
-            JsonNode root = objectMapper.readTree(stdout);
+            JsonNode root = er.json();
 
             boolean ok = root.path("ok").asBoolean(false);
             dto.setOk(ok);
@@ -15,36 +15,34 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class MonitorService {
 
     private final MonitorMapper monitorMapper;
+    private final TableStatsRegistry tableStats;
 
-    public MonitorService(MonitorMapper monitorMapper) {
+    public MonitorService(MonitorMapper monitorMapper, TableStatsRegistry tableStats) {
         this.monitorMapper = monitorMapper;
+        this.tableStats = tableStats;
     }
 
     // =========================
     // Dashboard: Table Statuses
     // =========================
+    // - TableStatsRegistry 값만 읽음 (COUNT / MAX 쿼리 없음), row 수는 추정치
     public List<TableStatus> getTableStatuses() {
         LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
 
         List<TableStatus> list = new ArrayList<>();
-        list.add(buildStatus("f_kline_1m", "1분 캔들", monitorMapper.countKline(), monitorMapper.latestKlineTime(),
-                nowUtc));
-        list.add(buildStatus("f_mark_1s", "마크가격(1초)", monitorMapper.countMark(), monitorMapper.latestMarkTime(),
-                nowUtc));
-        list.add(buildStatus("f_depth_snapshot_1s", "오더북 스냅샷(1초)", monitorMapper.countDepth(),
-                monitorMapper.latestDepthTime(), nowUtc));
-        list.add(buildStatus("f_forceorder", "강제청산", monitorMapper.countForceOrder(),
-                monitorMapper.latestForceOrderTime(), nowUtc));
-        list.add(buildStatus("f_aggtrade_1m", "체결 집계(1분)", monitorMapper.countAggTrade(),
-                monitorMapper.latestAggTradeTime(), nowUtc));
-        list.add(buildStatus("feature_minute", "피처(1분)", monitorMapper.countFeatureMinute(),
-                monitorMapper.latestFeatureMinuteTime(), nowUtc));
-
+        for (TableStatsRegistry.Table t : TableStatsRegistry.Table.values()) {
+            TableStatus st = buildStatus(t.tableName(), t.displayName(), tableStats.rows(t), tableStats.latest(t),
+                    nowUtc);
+            st.setApproximate(true);
+            list.add(st);
+        }
         return list;
     }
 
@@ -78,15 +76,36 @@ public class MonitorService {
     // =========================
     // Compare: Realtime Snapshot API
     // GET /api/monitor/realtime
+    // - 마지막으로 저장한 row 를 TableStatsRegistry 에서 읽음, 시작 직후 아직 없을 때만 DB 1회
     // =========================
     public RealtimeResponse getRealtimeSnapshot() {
         LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
 
-        FKline1m k = firstOrNull(monitorMapper.recentKlines(1));
-        FMark1s m = firstOrNull(monitorMapper.recentMarks(1));
-        FDepthSnapshot1s d = firstOrNull(monitorMapper.recentDepths(1));
-        FeatureMinute f = firstOrNull(monitorMapper.recentFeatureMinutes(1));
+        FKline1m k = lastRow(TableStatsRegistry.Table.KLINE, FKline1m.class,
+                () -> firstOrNull(monitorMapper.recentKlines(1)), FKline1m::getTsUtc);
+        FMark1s m = lastRow(TableStatsRegistry.Table.MARK, FMark1s.class,
+                () -> firstOrNull(monitorMapper.recentMarks(1)), FMark1s::getTsUtc);
+        FDepthSnapshot1s d = lastRow(TableStatsRegistry.Table.DEPTH, FDepthSnapshot1s.class,
+                () -> firstOrNull(monitorMapper.recentDepths(1)), FDepthSnapshot1s::getTsUtc);
+        FeatureMinute f = lastRow(TableStatsRegistry.Table.FEATURE_MINUTE, FeatureMinute.class,
+                () -> firstOrNull(monitorMapper.recentFeatureMinutes(1)), FeatureMinute::getTsUtc);
+
+        return toRealtime(nowUtc, k, m, d, f);
+    }
+
+    /**
+     * getRealtimeSnapshot 과 같은 값, TableStatsRegistry 만 읽음 (DB fallback 없음, LiveFeedService 용)
+     */
+    public RealtimeResponse getLiveSnapshot() {
+        return toRealtime(LocalDateTime.now(ZoneOffset.UTC),
+                tableStats.lastRow(TableStatsRegistry.Table.KLINE, FKline1m.class),
+                tableStats.lastRow(TableStatsRegistry.Table.MARK, FMark1s.class),
+                tableStats.lastRow(TableStatsRegistry.Table.DEPTH, FDepthSnapshot1s.class),
+                tableStats.lastRow(TableStatsRegistry.Table.FEATURE_MINUTE, FeatureMinute.class));
+    }
 
+    private RealtimeResponse toRealtime(LocalDateTime nowUtc, FKline1m k, FMark1s m, FDepthSnapshot1s d,
+            FeatureMinute f) {
         RealtimeResponse.Kline kDto = null;
         if (k != null) {
             kDto = new RealtimeResponse.Kline(
@@ -216,6 +235,17 @@ public class MonitorService {
         return days + "일 전";
     }
 
+    private <T> T lastRow(TableStatsRegistry.Table t, Class<T> type, Supplier<T> fallback,
+            Function<T, LocalDateTime> ts) {
+        T row = tableStats.lastRow(t, type);
+        if (row != null)
+            return row;
+        row = fallback.get();
+        if (row != null)
+            tableStats.offerLastRow(t, row, ts.apply(row));
+        return row;
+    }
+
     private static <T> T firstOrNull(List<T> list) {
         return (list == null || list.isEmpty()) ? null : list.get(0);
     }
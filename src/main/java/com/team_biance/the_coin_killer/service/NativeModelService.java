@@ -0,0 +1,222 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.dto.PredictResultDto;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM 안에서 LightGBM 모델 평가 (python 프로세스 없음)
+ *
+ * - train.py 가 pkl 옆에 남기는 booster text dump (model/lgbm_<symbol>.txt) 사용
+ * - 파일 mtime 이 바뀌면 다시 로드 (재학습 반영)
+ * - 입력은 마지막으로 닫힌 분의 FeatureMinute (엔진 우선, 없으면 DB) + FeatureWindowExporter window
+ *   (rv / vol_z 표본 std, ret60m_log, depth / mark / aggTrade / 청산 1분 LAG 컬럼은
+ *    학습 data_loader 및 python matrix 경로와 같은 값)
+ * - window 가 덜 찼거나(기동 직후 61분) 모델이 모르는 feature 를 쓰면 null -> 호출 측이 python 으로
+ * - 입력 벡터는 스레드별 버퍼 재사용 (호출마다 할당 없음)
+ */
+@Service
+public class NativeModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeModelService.class);
+
+    private final FeatureCalculationService featureCalculationService;
+    private final FeatureWindowExporter featureWindow;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${python.script.dir:src/main/python}")
+    private String scriptDir;
+
+    private final Map<String, Loaded> models = new ConcurrentHashMap<>();
+
+    // COLUMNS 순서 전체 벡터 (스레드별)
+    private final ThreadLocal<double[]> columnBuffer =
+            ThreadLocal.withInitial(() -> new double[FeatureWindowExporter.COLUMNS.length]);
+
+    public NativeModelService(FeatureCalculationService featureCalculationService, FeatureWindowExporter featureWindow) {
+        this.featureCalculationService = featureCalculationService;
+        this.featureWindow = featureWindow;
+    }
+
+    public boolean hasModel(String symbol) {
+        return Files.isRegularFile(boosterPath(symbol));
+    }
+
+    /**
+     * 마지막 닫힌 분을 계산해서 평가
+     *
+     * @return native 로 평가할 수 없으면 null (python 으로)
+     */
+    public PredictResultDto predict(String symbol) {
+        return predictMinute(symbol, LocalDateTime.now(ZoneOffset.UTC).withSecond(0).withNano(0).minusMinutes(1));
+    }
+
+    /**
+     * minuteUtc 분 row 를 엔진 -> DB(엔진 ring overlay) 순으로 계산해서 평가 (window 에도 반영)
+     * - 분 마감 batch 에서 row 가 없던 심볼: PredictionStage 가 db-settle-ms 를 기다린 뒤 호출
+     */
+    public PredictResultDto predictMinute(String symbol, LocalDateTime minuteUtc) {
+        FeatureMinute row = null;
+        try {
+            row = featureCalculationService.computeFeatureMinute(symbol, minuteUtc);
+        } catch (Exception e) {
+            log.warn("[MODEL][NATIVE] feature row failed: symbol={}, minute={}, err={}", symbol, minuteUtc, e.getMessage());
+        }
+        featureWindow.append(symbol, row);
+        return predict(symbol, row);
+    }
+
+    /**
+     * 이미 계산된 feature row 로 평가 (분 마감 파이프라인에서 DB 재조회 없이 사용, row 는 window 에 append 된 것)
+     *
+     * @return native 로 평가할 수 없으면 null (python 으로)
+     */
+    public PredictResultDto predict(String symbol, FeatureMinute row) {
+        long startNs = System.nanoTime();
+        PredictResultDto dto = new PredictResultDto();
+        dto.setSymbol(symbol);
+
+        try {
+            Loaded m = load(symbol);
+            if (m == null) {
+                dto.setOk(false);
+                dto.setErrorCode("MODEL_NOT_FOUND");
+                dto.setErrorMessage("booster dump not found: " + boosterPath(symbol));
+                return dto;
+            }
+
+            if (row == null) {
+                dto.setOk(false);
+                dto.setErrorCode("DATA_INSUFFICIENT");
+                dto.setErrorMessage("no feature row");
+                return dto;
+            }
+
+            if (m.columns == null)
+                return null;
+            double[] cols = columnBuffer.get();
+            if (!featureWindow.fill(symbol, row, cols))
+                return null;
+
+            double[] x = m.input.get();
+            for (int i = 0; i < x.length; i++)
+                x[i] = cols[m.columns[i]];
+            double proba = m.model.predictProbability(x);
+            int pred = (proba >= 0.5) ? 1 : 0;
+
+            dto.setOk(true);
+            dto.setTimestamp(row.getTsUtc());
+            dto.setCurrentClose(row.getClose1m());
+            dto.setPrediction(pred);
+            dto.setPredictionLabel(pred == 1 ? "UP" : "DOWN");
+            dto.setProbability(proba);
+            dto.setModelVersion(m.version);
+            dto.setFeaturesUsed(m.model.featureCount());
+            return dto;
+
+        } catch (Exception e) {
+            log.error("[MODEL][NATIVE] predict failed: symbol={}, err={}", symbol, e.getMessage(), e);
+            dto.setOk(false);
+            dto.setErrorCode("PREDICT_FAILED");
+            dto.setErrorMessage(e.getMessage());
+            return dto;
+        } finally {
+            dto.setDurationMs((System.nanoTime() - startNs) / 1_000_000L);
+        }
+    }
+
+    private Loaded load(String symbol) throws Exception {
+        Path path = boosterPath(symbol);
+        if (!Files.isRegularFile(path))
+            return null;
+
+        long mtime = Files.getLastModifiedTime(path).toMillis();
+        Loaded cached = models.get(symbol);
+        if (cached != null && cached.mtimeMs == mtime)
+            return cached;
+
+        LightGbmModel model = LightGbmModel.load(path);
+        List<String> unknown = new ArrayList<>();
+        int[] columns = columnIndex(model.featureNames(), unknown);
+        Loaded loaded = new Loaded(mtime, model, unknown.isEmpty() ? columns : null, readVersion(symbol, mtime),
+                ThreadLocal.withInitial(() -> new double[columns.length]));
+        models.put(symbol, loaded);
+
+        if (unknown.isEmpty()) {
+            log.info("[MODEL][NATIVE] loaded: symbol={}, trees={}, features={}",
+                    symbol, model.treeCount(), model.featureCount());
+        } else {
+            log.warn("[MODEL][NATIVE] loaded but not evaluated in JVM (unknown features -> python): symbol={}, unknown={}",
+                    symbol, unknown);
+        }
+        return loaded;
+    }
+
+    /**
+     * 모델 feature 순서 -> FeatureWindowExporter.COLUMNS index (없는 이름은 unknown 에 모음)
+     */
+    static int[] columnIndex(String[] featureNames, List<String> unknown) {
+        List<String> cols = Arrays.asList(FeatureWindowExporter.COLUMNS);
+        int[] out = new int[featureNames.length];
+        for (int i = 0; i < featureNames.length; i++) {
+            out[i] = cols.indexOf(featureNames[i]);
+            if (out[i] < 0)
+                unknown.add(featureNames[i]);
+        }
+        return out;
+    }
+
+    /**
+     * native 로 평가 못 했고 python 모델도 없는 심볼의 실패 응답
+     */
+    public PredictResultDto notReady(String symbol) {
+        PredictResultDto dto = new PredictResultDto();
+        dto.setSymbol(symbol);
+        dto.setOk(false);
+        dto.setErrorCode("DATA_INSUFFICIENT");
+        dto.setErrorMessage("feature window not ready (needs 61 closed minutes) and no python model");
+        return dto;
+    }
+
+    private String readVersion(String symbol, long mtime) {
+        // train.py 가 쓰는 lgbm_<symbol>_meta.json 의 model_version
+        Path meta = Paths.get(scriptDir).resolve("model/lgbm_" + symbol.toLowerCase() + "_meta.json").normalize();
+        try {
+            if (Files.exists(meta)) {
+                JsonNode n = objectMapper.readTree(Files.readString(meta));
+                if (n.hasNonNull("model_version"))
+                    return n.get("model_version").asText() + "-jvm";
+            }
+        } catch (Exception ignored) {
+        }
+        return "lgbm_" + symbol.toLowerCase() + "_" + mtime + "-jvm";
+    }
+
+    private Path boosterPath(String symbol) {
+        // python scriptDir 기준 상대경로 (pkl 과 같은 위치)
+        return Paths.get(scriptDir).resolve("model/lgbm_" + symbol.toLowerCase() + ".txt").normalize();
+    }
+
+    /**
+     * @param columns 모델 feature -> COLUMNS index, 모르는 feature 가 있으면 null
+     * @param input 모델 feature 순서 입력 버퍼 (스레드별)
+     */
+    private record Loaded(long mtimeMs, LightGbmModel model, int[] columns, String version, ThreadLocal<double[]> input) {
+    }
+}
@@ -0,0 +1,258 @@
+package com.team_biance.the_coin_killer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 수집 -> 저장 -> feature -> 예측 파이프라인 Micrometer 지표 (/actuator/prometheus)
+ *
+ * - 태그는 stream 종류 / 테이블 단위만 (심볼 태그 없음 -> 심볼 수와 무관한 cardinality)
+ * - 타이머는 percentile histogram 발행 -> Prometheus 에서 histogram_quantile 로 p50/p99
+ * - 핫 패스(메시지당)는 미리 만든 meter 배열을 stream ordinal 로 바로 씀 (registry 조회 없음)
+ *
+ * 지표 이름
+ *   coin.ws.messages{stream}            수신 프레임 수
+ *   coin.ws.decode{stream}              프레임 디코딩 시간
+ *   coin.ws.exchange.lag{stream}        이벤트 시각(E) -> 수신까지 (live 만)
+ *   coin.ws.reconnects{connection}      재연결 예약 횟수
+ *   coin.listener.latency{stream,table} 이벤트 1건 리스너 처리 시간
+ *   coin.db.flush{table}                write-behind batch upsert 시간
+ *   coin.db.rows{table,result}          upsert row 수 (ok / failed = 재시도 끝에 버리거나 거부된 row)
+ *   coin.writebehind.queued{table}      write-behind 대기 row (gauge)
+ *   coin.shard.queued{shard}            shard 대기 작업 (gauge)
+ *   coin.persist.late{rollup}           분 집계가 봉인된 뒤 도착해 버린 샘플 (AGG / DEPTH1M / MARK1M)
+ *   coin.feature.compute                분 feature row 1개 계산 시간
+ *   coin.feature.lag                    분 마감 -> feature 계산 완료
+ *   coin.predict.latency                분 batch 예측 (모델) 시간
+ *   coin.predict.lag                    분 마감 -> 예측 저장 완료
+ *   coin.predict.fallback{result}       워커 batch 실패 후 심볼별 프로세스 예측 수 (ok / failed / timeout)
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * combined stream 종류 (stream 이름 suffix 기준) / 저장 테이블
+     */
+    public enum Stream {
+        DEPTH("depth20", "f_depth_snapshot_1s"),
+        AGG_TRADE("aggTrade", "f_aggtrade_1m"),
+        MARK_PRICE("markPrice", "f_mark_1s"),
+        KLINE("kline_1m", "f_kline_1m"),
+        FORCE_ORDER("forceOrder", "f_forceorder"),
+        OTHER("other", "none");
+
+        final String tag;
+        final String table;
+
+        Stream(String tag, String table) {
+            this.tag = tag;
+            this.table = table;
+        }
+
+        public static Stream of(String stream) {
+            if (stream == null)
+                return OTHER;
+            if (stream.endsWith(BinanceStreamDecoder.SUFFIX_DEPTH20))
+                return DEPTH;
+            if (stream.endsWith(BinanceStreamDecoder.SUFFIX_AGG_TRADE))
+                return AGG_TRADE;
+            if (stream.endsWith(BinanceStreamDecoder.SUFFIX_MARK_PRICE))
+                return MARK_PRICE;
+            if (stream.endsWith(BinanceStreamDecoder.SUFFIX_KLINE_1M))
+                return KLINE;
+            if (stream.endsWith(BinanceStreamDecoder.SUFFIX_FORCE_ORDER))
+                return FORCE_ORDER;
+            return OTHER;
+        }
+    }
+
+    /**
+     * write-behind flush 결과 (writer 스레드에서 호출)
+     */
+    public interface FlushObserver {
+        // flush 시도 1회 (재시도 / 분할 시도 포함)
+        void onFlush(int rows, long nanos, boolean ok);
+
+        // 저장을 포기한 row (재시도 한도 초과 / 영구 오류 row)
+        void onFailedRows(int rows);
+    }
+
+    private final MeterRegistry registry;
+
+    private final Counter[] messages;
+    private final Timer[] decode;
+    private final Timer[] exchangeLag;
+    private final Timer[] listener;
+
+    private final Timer featureCompute;
+    private final Timer featureLag;
+    private final Timer predictLatency;
+    private final Timer predictLag;
+    private final Counter fallbackOk;
+    private final Counter fallbackFailed;
+    private final Counter fallbackTimeout;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Stream[] streams = Stream.values();
+        messages = new Counter[streams.length];
+        decode = new Timer[streams.length];
+        exchangeLag = new Timer[streams.length];
+        listener = new Timer[streams.length];
+        for (Stream s : streams) {
+            int i = s.ordinal();
+            messages[i] = Counter.builder("coin.ws.messages")
+                    .description("combined stream frames received")
+                    .tag("stream", s.tag)
+                    .register(registry);
+            decode[i] = timer("coin.ws.decode", "frame decode time", Duration.ofMillis(10))
+                    .tag("stream", s.tag)
+                    .register(registry);
+            exchangeLag[i] = timer("coin.ws.exchange.lag", "exchange event time to local receive", Duration.ofSeconds(10))
+                    .tag("stream", s.tag)
+                    .register(registry);
+            listener[i] = timer("coin.listener.latency", "event listener handling time per message", Duration.ofMillis(100))
+                    .tag("stream", s.tag)
+                    .tag("table", s.table)
+                    .register(registry);
+        }
+
+        featureCompute = timer("coin.feature.compute", "one feature row computation", Duration.ofMillis(100))
+                .register(registry);
+        featureLag = timer("coin.feature.lag", "minute close to features computed", Duration.ofSeconds(30))
+                .register(registry);
+        predictLatency = timer("coin.predict.latency", "per-minute batch prediction time", Duration.ofSeconds(30))
+                .register(registry);
+        predictLag = timer("coin.predict.lag", "minute close to predictions saved", Duration.ofSeconds(30))
+                .register(registry);
+        fallbackOk = fallbackCounter("ok");
+        fallbackFailed = fallbackCounter("failed");
+        fallbackTimeout = fallbackCounter("timeout");
+    }
+
+    private Counter fallbackCounter(String result) {
+        return Counter.builder("coin.predict.fallback")
+                .description("per-symbol process predictions after the batch worker failed")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Timer.Builder timer(String name, String description, Duration max) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(max);
+    }
+
+    // =========================
+    // WebSocket (shard 스레드)
+    // =========================
+    public void onMessage(Stream s) {
+        messages[s.ordinal()].increment();
+    }
+
+    public void recordDecode(Stream s, long nanos) {
+        decode[s.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordExchangeLag(Stream s, long eventTimeMs, long receivedMs) {
+        if (eventTimeMs <= 0)
+            return;
+        // 시계 오차로 음수면 0 으로
+        exchangeLag[s.ordinal()].record(Math.max(0L, receivedMs - eventTimeMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordListener(Stream s, long nanos) {
+        listener[s.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void onReconnect(int connection) {
+        // 드문 이벤트라 매번 registry 조회 (같은 태그면 같은 counter)
+        Counter.builder("coin.ws.reconnects")
+                .description("websocket reconnects scheduled")
+                .tag("connection", Integer.toString(connection))
+                .register(registry)
+                .increment();
+    }
+
+    // =========================
+    // DB
+    // =========================
+    public FlushObserver dbFlush(String table) {
+        Timer flush = timer("coin.db.flush", "write-behind batch upsert time", Duration.ofSeconds(10))
+                .tag("table", table)
+                .register(registry);
+        Counter ok = rowsCounter(table, "ok");
+        Counter failed = rowsCounter(table, "failed");
+        return new FlushObserver() {
+            @Override
+            public void onFlush(int rows, long nanos, boolean success) {
+                flush.record(nanos, TimeUnit.NANOSECONDS);
+                if (success)
+                    ok.increment(rows);
+            }
+
+            @Override
+            public void onFailedRows(int rows) {
+                failed.increment(rows);
+            }
+        };
+    }
+
+    private Counter rowsCounter(String table, String result) {
+        return Counter.builder("coin.db.rows")
+                .description("rows upserted")
+                .tag("table", table)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public <T> void queueGauge(String name, String tagKey, String tagValue, T obj, ToDoubleFunction<T> depth) {
+        Gauge.builder(name, obj, depth)
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+
+    public void lateSamples(String rollup, AtomicLong count) {
+        FunctionCounter.builder("coin.persist.late", count, AtomicLong::get)
+                .description("samples dropped after their minute was sealed")
+                .tag("rollup", rollup)
+                .register(registry);
+    }
+
+    // =========================
+    // Feature / 예측
+    // =========================
+    public void recordFeatureCompute(long nanos) {
+        featureCompute.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFeatureLag(long lagMs) {
+        featureLag.record(Math.max(0L, lagMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPredict(long modelMs) {
+        predictLatency.record(Math.max(0L, modelMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPredictLag(long lagMs) {
+        predictLag.record(Math.max(0L, lagMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPredictFallback(int ok, int failed, int timedOut) {
+        fallbackOk.increment(ok);
+        fallbackFailed.increment(failed);
+        fallbackTimeout.increment(timedOut);
+    }
+}
@@ -0,0 +1,257 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.config.BinanceSymbols;
+import com.team_biance.the_coin_killer.dto.PredictResultDto;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 분 마감 예측 단계 (feature 계산 직후)
+ *
+ * - FeaturePipelineService 가 심볼별로 닫힌 분의 feature row 를 넘김
+ * - 같은 분의 모든 심볼이 모이거나 max-wait 가 지나면 predictBatch 1번 (모델 호출 1번 + insert 1번)
+ * - batch 가 나간 뒤 도착한 심볼은 분마다 late batch 1개로 모아서 (max-wait 뒤 1번), 그 뒤에 온 심볼은 버림
+ * - python backend 가 raw 테이블을 DB 에서 다시 읽어야 하는 batch 만 write-behind flush 를 db-settle-ms 만큼 기다린 뒤 호출
+ *   (feature row 가 모두 있고 exporter window 가 찼으면 matrix 파일로 넘어가므로 대기 없음)
+ * - 심볼별 지연 = 예측 저장 완료 시각 - 그 예측이 쓴 분의 마감(kline close) 시각 (결과마다)
+ *
+ * 예측은 전용 스레드 1개에서만 실행 (shard 스레드를 막지 않음, 분끼리 순서 유지)
+ */
+@Service
+public class PredictionStage {
+
+    private static final Logger log = LoggerFactory.getLogger(PredictionStage.class);
+
+    // 이미 batch 로 나간 분은 최근 이 분 수만큼 기억 (늦게 온 심볼 판별)
+    private static final int DISPATCHED_KEEP_MINUTES = 60;
+
+    private final ModelPredictService modelPredictService;
+    private final BinanceSymbols binanceSymbols;
+    private final PipelineMetrics metrics;
+
+    @Value("${app.predict.auto.enabled:true}")
+    private boolean enabled;
+
+    // 첫 심볼 도착 후 나머지 심볼을 기다리는 최대 시간
+    @Value("${app.predict.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${app.predict.db-settle-ms:300}")
+    private long dbSettleMs;
+
+    // epochMinute -> 모인 심볼 (row 는 null 가능)
+    private final Map<Long, Pending> pending = new HashMap<>();
+
+    // epochMinute -> batch 로 나간 심볼 / late batch 여부, pending 락 안에서만 변경
+    private final TreeMap<Long, Sent> dispatched = new TreeMap<>();
+    private final AtomicLong lateDropped = new AtomicLong();
+
+    private final Map<String, Lag> lags = new ConcurrentHashMap<>();
+
+    // 심볼별 마지막 성공 예측 (LiveFeedService 가 push), batch 마다 version 증가
+    private final Map<String, PredictResultDto> latest = new ConcurrentHashMap<>();
+    private final AtomicLong latestVersion = new AtomicLong();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "predict-stage");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PredictionStage(ModelPredictService modelPredictService, BinanceSymbols binanceSymbols,
+            PipelineMetrics metrics) {
+        this.modelPredictService = modelPredictService;
+        this.binanceSymbols = binanceSymbols;
+        this.metrics = metrics;
+    }
+
+    /**
+     * symbol 의 minute 분 feature 계산 완료 (row 가 null 이면 DB fallback 으로 계산 중)
+     */
+    public void onFeatureReady(String symbol, long minuteStartMs, FeatureMinute row) {
+        if (!enabled)
+            return;
+
+        long minute = minuteStartMs / 60_000L;
+        Pending p;
+        synchronized (pending) {
+            Sent sent = dispatched.get(minute);
+            if (sent != null && (sent.lateSent || sent.symbols.contains(symbol))) {
+                lateDropped.incrementAndGet();
+                log.warn("[PREDICT][STAGE] late symbol dropped (minute already predicted): symbol={}, minute={}",
+                        symbol, minute);
+                return;
+            }
+
+            // 본 batch 가 이미 나갔으면 late batch 로 모음 (max-wait 뒤 1번, 남은 심볼이 다 차면 바로)
+            p = pending.computeIfAbsent(minute, m -> new Pending(sent != null));
+            p.rows.put(symbol, row);
+            int expected = binanceSymbols.symbols().size() - (sent != null ? sent.symbols.size() : 0);
+            if (p.rows.size() < expected) {
+                if (p.timeout == null)
+                    p.timeout = executor.schedule(() -> dispatch(minute), maxWaitMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            pending.remove(minute);
+            markDispatched(minute, p);
+        }
+
+        if (p.timeout != null)
+            p.timeout.cancel(false);
+        executor.execute(() -> settleThenRun(minute, p.rows));
+    }
+
+    /**
+     * 심볼별 마지막 예측 지연 (분 마감 -> 예측 저장, ms)
+     */
+    public Map<String, Lag> lagBySymbol() {
+        return new LinkedHashMap<>(lags);
+    }
+
+    /**
+     * 심볼별 마지막 예측 (binance.symbols 순서, 아직 없는 심볼은 빠짐)
+     */
+    public List<PredictResultDto> latestPredictions() {
+        List<PredictResultDto> list = new ArrayList<>(latest.size());
+        for (String symbol : binanceSymbols.symbols()) {
+            PredictResultDto dto = latest.get(symbol);
+            if (dto != null)
+                list.add(dto);
+        }
+        return list;
+    }
+
+    public long latestVersion() {
+        return latestVersion.get();
+    }
+
+    /**
+     * 늦게 와서 버린 심볼 수 (late batch 까지 나간 뒤 도착)
+     */
+    public long lateDroppedCount() {
+        return lateDropped.get();
+    }
+
+    private void dispatch(long minute) {
+        Pending p;
+        synchronized (pending) {
+            p = pending.remove(minute);
+            if (p == null)
+                return;
+            markDispatched(minute, p);
+        }
+
+        log.debug("[PREDICT][STAGE] max-wait expired: minute={}, symbols={}/{}, late={}",
+                minute, p.rows.size(), binanceSymbols.symbols().size(), p.late);
+        settleThenRun(minute, p.rows);
+    }
+
+    /**
+     * pending 락 안에서: minute 의 batch 가 나감을 기록, 오래된 분은 정리
+     */
+    private void markDispatched(long minute, Pending p) {
+        Sent sent = dispatched.computeIfAbsent(minute, m -> new Sent());
+        sent.symbols.addAll(p.rows.keySet());
+        sent.lateSent |= p.late;
+        while (dispatched.firstKey() < minute - DISPATCHED_KEEP_MINUTES)
+            dispatched.pollFirstEntry();
+    }
+
+    /**
+     * predict-stage 스레드: DB 를 다시 읽는 batch 만 db-settle-ms 뒤 실행
+     * (exporter window 는 이 스레드에서만 바뀌므로 판단도 여기서)
+     */
+    private void settleThenRun(long minute, Map<String, FeatureMinute> rows) {
+        long settle = settleMs(rows);
+        if (settle > 0)
+            executor.schedule(() -> run(minute, rows), settle, TimeUnit.MILLISECONDS);
+        else
+            run(minute, rows);
+    }
+
+    private void run(long minute, Map<String, FeatureMinute> rows) {
+        try {
+            long t0 = System.nanoTime();
+            List<PredictResultDto> results = modelPredictService.predictBatch(RollingFeatureEngine.minuteStart(minute), rows);
+            long batchMs = (System.nanoTime() - t0) / 1_000_000L;
+            long savedMs = System.currentTimeMillis();
+            metrics.recordPredict(batchMs);
+
+            int ok = 0;
+            long maxLagMs = 0L;
+            for (PredictResultDto dto : results) {
+                if (dto.isOk() && dto.getErrorCode() == null) {
+                    // 결과마다 실제로 예측한 분 기준 (python DB 경로는 이전 분일 수 있음)
+                    long predicted = (dto.getTimestamp() != null)
+                            ? RollingFeatureEngine.epochMinute(dto.getTimestamp())
+                            : minute;
+                    long lagMs = savedMs - (predicted + 1) * 60_000L;
+                    metrics.recordPredictLag(lagMs);
+                    lags.put(dto.getSymbol(), new Lag(RollingFeatureEngine.minuteStart(predicted).toString(),
+                            lagMs, dto.getDurationMs(), rows.size()));
+                    latest.put(dto.getSymbol(), dto);
+                    maxLagMs = Math.max(maxLagMs, lagMs);
+                    ok++;
+                }
+            }
+            if (ok > 0)
+                latestVersion.incrementAndGet();
+
+            log.debug("[PREDICT][STAGE] minute={}, symbols={}, ok={}, maxLagMs={}", minute, rows.size(), ok, maxLagMs);
+        } catch (Exception e) {
+            log.error("[PREDICT][STAGE] batch failed: minute={}, err={}", minute, e.getMessage(), e);
+        }
+    }
+
+    private long settleMs(Map<String, FeatureMinute> rows) {
+        return modelPredictService.readsRawTables(rows) ? dbSettleMs : 0L;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Pending {
+        final Map<String, FeatureMinute> rows = new LinkedHashMap<>();
+        final boolean late;
+        ScheduledFuture<?> timeout;
+
+        Pending(boolean late) {
+            this.late = late;
+        }
+    }
+
+    private static final class Sent {
+        final Set<String> symbols = new HashSet<>();
+        boolean lateSent;
+    }
+
+    /**
+     * @param minuteUtc  예측한 분 (UTC)
+     * @param lagMs      분 마감 -> 예측 저장 완료
+     * @param modelMs    모델 호출 시간
+     * @param batchSize  같은 batch 의 심볼 수
+     */
+    public record Lag(String minuteUtc, long lagMs, long modelMs, int batchSize) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.team_biance.the_coin_killer.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
@@ -10,12 +13,22 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class PythonExecutorService {
 
+    private static final int STDERR_LINE_MAX_CHARS = 4000;
+    private static final long PUMP_DRAIN_SECONDS = 5;
+
+    // nice 로 우선순위를 낮출 수 있는 환경인지 (Linux / macOS)
+    private static final boolean NICE_AVAILABLE = !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows")
+            && (new File("/usr/bin/nice").canExecute() || new File("/bin/nice").canExecute());
+
     @Value("${python.executable:python3}")
     private String pythonExecutable;
 
@@ -25,15 +38,119 @@ public class PythonExecutorService {
     @Value("${python.timeout.seconds:300}")
     private long timeoutSeconds;
 
+    // stderr 보관 줄 수 (나머지는 onStderrLine 으로만 흘려보냄)
+    @Value("${app.python.stderr-tail-lines:200}")
+    private int stderrTailLines;
+
     private final Environment env;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    // stdout / stderr pump 공유 풀 (idle 스레드 재사용, 60초 유휴 시 정리)
+    private final ExecutorService pumpPool = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "py-pump-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
 
     public PythonExecutorService(Environment env) {
         this.env = env;
     }
 
     public ExecutionResult execute(String scriptName, String... args) {
+        return execute(processBuilder(scriptName, args), null);
+    }
+
+    /**
+     * 준비된 ProcessBuilder 실행
+     * - stdout 은 문자열로 모으지 않고 스트림째 JSON 파싱 (json() 이 null 이면 errorCode 참고)
+     * - stderr 는 줄마다 onStderrLine 호출 (null 가능) + 마지막 stderr-tail-lines 줄만 보관
+     * - stdout / stderr 읽기는 공유 pump 풀에서 (호출마다 스레드 풀 생성 없음)
+     */
+    public ExecutionResult execute(ProcessBuilder pb, Consumer<String> onStderrLine) {
         long startNs = System.nanoTime();
+        AtomicLong firstByteNs = new AtomicLong();
+        LineRing stderr = new LineRing(stderrTailLines, STDERR_LINE_MAX_CHARS);
+
+        int exitCode = -1;
+        long spawnNs = 0L;
+        JsonNode json = null;
+        String errorCode = null;
+        String errorMessage = null;
+
+        Process p = null;
+        try {
+            p = pb.start();
+            spawnNs = System.nanoTime();
 
+            Process proc = p;
+            Future<JsonNode> outFuture = pumpPool.submit(() -> readJson(proc.getInputStream(), firstByteNs));
+            Future<?> errFuture = pumpPool.submit(() -> {
+                drainLines(proc.getErrorStream(), stderr, onStderrLine);
+                return null;
+            });
+
+            if (!p.waitFor(timeoutSeconds, TimeUnit.SECONDS))
+                throw new TimeoutException("Python process timed out after " + timeoutSeconds + " seconds");
+            exitCode = p.exitValue();
+
+            waitQuietly(errFuture);
+            try {
+                json = outFuture.get(PUMP_DRAIN_SECONDS, TimeUnit.SECONDS);
+                if (json == null) {
+                    errorCode = "EMPTY_STDOUT";
+                    errorMessage = (exitCode == 0) ? "Python stdout is empty"
+                            : "Python stdout is empty. exitCode=" + exitCode;
+                }
+            } catch (ExecutionException e) {
+                errorCode = "JSON_PARSE_ERROR";
+                errorMessage = "Failed to parse stdout JSON: " + e.getCause().getMessage();
+            }
+
+        } catch (TimeoutException e) {
+            errorCode = "PYTHON_TIMEOUT";
+            errorMessage = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errorCode = "PYTHON_EXEC_FAILED";
+            errorMessage = "interrupted";
+        } catch (Exception e) {
+            errorCode = "PYTHON_EXEC_FAILED";
+            errorMessage = "PythonExecutorService exception: " + e.getMessage();
+        } finally {
+            if (p != null && p.isAlive())
+                p.destroyForcibly();
+        }
+
+        long endNs = System.nanoTime();
+        ExecutionResult er = new ExecutionResult(exitCode, json, errorCode, errorMessage, stderr.joined(),
+                spawnNs == 0L ? -1L : TimeUnit.NANOSECONDS.toMillis(spawnNs - startNs),
+                firstByteNs.get() == 0L ? -1L : TimeUnit.NANOSECONDS.toMillis(firstByteNs.get() - startNs),
+                TimeUnit.NANOSECONDS.toMillis(endNs - startNs));
+        statsFor(scriptOf(pb)).record(er);
+        return er;
+    }
+
+    /**
+     * 스크립트별 실행 지표 (spawn / stdout 첫 바이트 / 전체 시간)
+     */
+    public List<ExecStats> stats() {
+        List<ExecStats> out = new ArrayList<>(stats.size());
+        stats.forEach((script, st) -> out.add(st.snapshot(script)));
+        out.sort(Comparator.comparing(ExecStats::script));
+        return out;
+    }
+
+    /**
+     * scriptDir 에서 python 스크립트를 실행할 ProcessBuilder (DB 환경변수 / 인코딩 설정 포함)
+     * - 상주 워커(PythonModelServer)도 같은 설정으로 띄운다
+     */
+    public ProcessBuilder processBuilder(String scriptName, String... args) {
         List<String> command = new ArrayList<>();
         command.add(pythonExecutable);
         command.add(scriptName);
@@ -51,66 +168,248 @@ public class PythonExecutorService {
         // 로그/인코딩 관련
         pbEnv.putIfAbsent("PYTHONUNBUFFERED", "1");
         pbEnv.putIfAbsent("PYTHONIOENCODING", "utf-8");
+        return pb;
+    }
 
-        String stdout;
-        String stderr;
-        int exitCode = -1;
-
-        ExecutorService pool = Executors.newFixedThreadPool(2);
-        try {
-            Process p = pb.start();
-
-            Future<String> outFuture = pool.submit(() -> readAll(p.getInputStream()));
-            Future<String> errFuture = pool.submit(() -> readAll(p.getErrorStream()));
-
-            boolean finished = p.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-            if (!finished) {
-                p.destroyForcibly();
-                throw new TimeoutException("Python process timed out after " + timeoutSeconds + " seconds");
-            }
-            exitCode = p.exitValue();
-
-            stdout = getFuture(outFuture, 5);
-            stderr = getFuture(errFuture, 5);
-
-        } catch (Exception e) {
-            stdout = "";
-            stderr = "PythonExecutorService exception: " + e.getMessage();
-        } finally {
-            pool.shutdownNow();
-        }
-
-        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
-        return new ExecutionResult(exitCode, stdout, stderr, durationMs);
+    /**
+     * 낮은 OS 우선순위로 실행 (nice -n). 실시간 수집/저장 스레드와 CPU 경쟁 시 양보
+     * - nice 가 없는 환경(Windows 등)이면 그대로 반환
+     */
+    public ProcessBuilder lowPriority(ProcessBuilder pb, int niceness) {
+        if (niceness <= 0 || !NICE_AVAILABLE)
+            return pb;
+        List<String> command = new ArrayList<>(pb.command().size() + 3);
+        command.add("nice");
+        command.add("-n");
+        command.add(String.valueOf(Math.min(niceness, 19)));
+        command.addAll(pb.command());
+        return pb.command(command);
     }
 
+    /**
+     * @param json          stdout JSON (없거나 파싱 실패면 null)
+     * @param errorCode     실행 / 파싱 실패 코드 (정상이면 null)
+     * @param stderr        stderr 마지막 줄들
+     * @param spawnMs       프로세스 시작까지 (-1: 시작 실패)
+     * @param firstByteMs   stdout 첫 바이트까지 (-1: 출력 없음)
+     * @param durationMs    전체
+     */
     public record ExecutionResult(
             int exitCode,
-            String stdout,
+            JsonNode json,
+            String errorCode,
+            String errorMessage,
             String stderr,
+            long spawnMs,
+            long firstByteMs,
             long durationMs) {
     }
 
+    public record ExecStats(
+            String script,
+            long calls,
+            long failures,
+            long lastSpawnMs,
+            long lastFirstByteMs,
+            long lastDurationMs,
+            double avgDurationMs,
+            long maxDurationMs) {
+    }
+
     // ---------------------------
     // 내부 유틸
     // ---------------------------
 
-    private static String readAll(InputStream is) throws IOException {
+    /**
+     * stdout 에서 JSON 객체 1개 읽기
+     * - '{' 로 시작하는 줄 앞의 출력(라이브러리 경고 등 "[LightGBM] [Warning] ..." 포함)은 건너뜀
+     * - JSON 뒤에 남은 출력은 무시
+     *
+     * @return 출력이 비었으면 null
+     * @throws IOException 출력은 있는데 JSON 객체가 없거나 깨진 경우
+     */
+    JsonNode readJson(InputStream is, AtomicLong firstByteNs) throws IOException {
+        try {
+            InputStream in = new BufferedInputStream(new FirstByteInputStream(is, firstByteNs));
+            if (!skipToJsonObject(in))
+                return null;
+            JsonNode root = objectMapper.readTree(in);
+            return (root == null || root.isMissingNode()) ? null : root;
+        } finally {
+            // 파싱 실패 / 뒤에 남은 출력도 끝까지 읽어야 프로세스가 pipe 에서 막히지 않음
+            try (is) {
+                is.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 줄 맨 앞(앞 공백 제외)의 '{' 직전까지 건너뜀
+     *
+     * @return '{' 를 찾았으면 true, 공백뿐인 출력이면 false
+     */
+    private static boolean skipToJsonObject(InputStream in) throws IOException {
+        boolean lineStart = true;
+        boolean noise = false;
+        while (true) {
+            in.mark(1);
+            int b = in.read();
+            if (b < 0) {
+                if (noise)
+                    throw new IOException("no JSON object in stdout");
+                return false;
+            }
+            if (b == '\n') {
+                lineStart = true;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                // 줄 앞 공백은 lineStart 유지
+            } else if (lineStart && b == '{') {
+                in.reset();
+                return true;
+            } else {
+                lineStart = false;
+                noise = true;
+            }
+        }
+    }
+
+    private static void drainLines(InputStream is, LineRing ring, Consumer<String> onLine) throws IOException {
         try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            StringBuilder sb = new StringBuilder();
             String line;
             while ((line = br.readLine()) != null) {
-                sb.append(line).append('\n');
+                ring.add(line);
+                if (onLine != null)
+                    onLine.accept(line);
             }
-            return sb.toString().trim();
         }
     }
 
-    private static String getFuture(Future<String> f, int seconds) {
+    private static void waitQuietly(Future<?> f) {
         try {
-            return f.get(seconds, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            return "";
+            f.get(PUMP_DRAIN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ignored) {
+        }
+    }
+
+    private static String scriptOf(ProcessBuilder pb) {
+        for (String arg : pb.command()) {
+            if (arg.endsWith(".py"))
+                return arg;
+        }
+        return pb.command().isEmpty() ? "?" : pb.command().get(0);
+    }
+
+    private Stats statsFor(String script) {
+        return stats.computeIfAbsent(script, s -> new Stats());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pumpPool.shutdownNow();
+    }
+
+    /**
+     * stdout 첫 바이트 시각 기록 (close 는 무시: 파서가 닫아도 남은 출력을 비울 수 있게)
+     */
+    private static final class FirstByteInputStream extends FilterInputStream {
+        private final AtomicLong firstByteNs;
+
+        FirstByteInputStream(InputStream in, AtomicLong firstByteNs) {
+            super(in);
+            this.firstByteNs = firstByteNs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                mark();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0)
+                mark();
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void mark() {
+            if (firstByteNs.get() == 0L)
+                firstByteNs.compareAndSet(0L, System.nanoTime());
+        }
+    }
+
+    /**
+     * 마지막 N 줄만 보관하는 stderr 버퍼 (긴 학습 로그도 메모리 상한 고정)
+     */
+    static final class LineRing {
+        private final String[] lines;
+        private final int maxChars;
+        private int next;
+        private int size;
+        private long dropped;
+
+        LineRing(int capacity, int maxChars) {
+            this.lines = new String[Math.max(1, capacity)];
+            this.maxChars = maxChars;
+        }
+
+        synchronized void add(String line) {
+            if (line.length() > maxChars)
+                line = line.substring(0, maxChars) + "...";
+            if (size == lines.length)
+                dropped++;
+            else
+                size++;
+            lines[next] = line;
+            next = (next + 1) % lines.length;
+        }
+
+        synchronized String joined() {
+            StringBuilder sb = new StringBuilder();
+            if (dropped > 0)
+                sb.append("... (").append(dropped).append(" earlier lines dropped)\n");
+            int start = (next - size + lines.length) % lines.length;
+            for (int i = 0; i < size; i++)
+                sb.append(lines[(start + i) % lines.length]).append('\n');
+            return sb.toString().trim();
+        }
+    }
+
+    private static final class Stats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalDurationMs = new AtomicLong();
+        private final AtomicLong maxDurationMs = new AtomicLong();
+        private volatile ExecutionResult last;
+
+        void record(ExecutionResult er) {
+            calls.incrementAndGet();
+            if (er.errorCode() != null || er.exitCode() != 0)
+                failures.incrementAndGet();
+            totalDurationMs.addAndGet(er.durationMs());
+            maxDurationMs.accumulateAndGet(er.durationMs(), Math::max);
+            last = er;
+        }
+
+        ExecStats snapshot(String script) {
+            long n = calls.get();
+            ExecutionResult l = last;
+            return new ExecStats(script, n, failures.get(),
+                    l == null ? -1L : l.spawnMs(),
+                    l == null ? -1L : l.firstByteMs(),
+                    l == null ? -1L : l.durationMs(),
+                    n == 0 ? 0.0 : (double) totalDurationMs.get() / n,
+                    maxDurationMs.get());
         }
     }
 
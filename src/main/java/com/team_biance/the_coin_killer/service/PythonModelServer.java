@@ -0,0 +1,288 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상주 python 예측 워커 풀 (model_server.py)
+ *
+ * - 워커 N개(app.python.workers)를 첫 요청 때 띄워 두고 재사용 -> import / 모델 로드는 워커당 1번
+ * - stdin/stdout 한 줄 = JSON 1개, 요청마다 id 를 붙이고 같은 id 응답만 받음
+ * - 타임아웃 / 프로세스 종료 시 해당 워커는 버리고 다음 요청 때 새로 띄움
+ */
+@Service
+public class PythonModelServer {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonModelServer.class);
+
+    private static final String SCRIPT = "model_server.py";
+
+    private final PythonExecutorService pythonExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final int workers;
+
+    // 요청 1건 응답 대기 (모델 첫 로드가 끼는 요청은 startup 타임아웃 사용)
+    private final long timeoutMs;
+    private final long startupTimeoutMs;
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final List<Worker> all = new ArrayList<>();
+    // all 에 들어가기 전 띄우는 중인 워커 수 (spawn 은 락 밖에서, 자리만 락 안에서 예약)
+    private int starting;
+    private final AtomicLong seq = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public PythonModelServer(
+            PythonExecutorService pythonExecutor,
+            ObjectMapper objectMapper,
+            @Value("${app.python.workers:2}") int workers,
+            @Value("${app.python.timeout-ms:3000}") long timeoutMs,
+            @Value("${app.python.startup-timeout-ms:60000}") long startupTimeoutMs) {
+        this.pythonExecutor = pythonExecutor;
+        this.objectMapper = objectMapper;
+        this.workers = Math.max(1, workers);
+        this.timeoutMs = timeoutMs;
+        this.startupTimeoutMs = startupTimeoutMs;
+    }
+
+    /**
+     * 요청 1건 (id 는 여기서 채움)
+     *
+     * @return 워커 응답 JSON (ok=false 응답도 그대로 반환)
+     * @throws IOException 워커를 띄우지 못했거나 응답 전에 죽은 경우
+     * @throws TimeoutException 응답 대기 초과 (해당 워커는 폐기)
+     */
+    public JsonNode request(ObjectNode req) throws IOException, TimeoutException, InterruptedException {
+        return request(req, timeoutMs);
+    }
+
+    /**
+     * 응답 대기 시간을 직접 지정 (predict_batch 처럼 심볼 수에 비례하는 요청)
+     */
+    public JsonNode request(ObjectNode req, long waitMs) throws IOException, TimeoutException, InterruptedException {
+        Worker w = borrow();
+        boolean healthy = false;
+        try {
+            long id = seq.incrementAndGet();
+            req.put("id", id);
+
+            JsonNode resp = w.call(id, objectMapper.writeValueAsString(req),
+                    w.warm ? waitMs : Math.max(waitMs, startupTimeoutMs));
+            w.warm = true;
+            healthy = true;
+            return resp;
+        } finally {
+            if (healthy && !closed) {
+                idle.offer(w);
+            } else {
+                discard(w);
+            }
+        }
+    }
+
+    public int liveWorkers() {
+        synchronized (all) {
+            return all.size();
+        }
+    }
+
+    private Worker borrow() throws IOException, InterruptedException, TimeoutException {
+        if (closed)
+            throw new IOException("model server is shut down");
+
+        Worker w = idle.poll();
+        if (w != null && w.process.isAlive())
+            return w;
+        if (w != null)
+            discard(w);
+
+        // 풀이 덜 찼으면 자리만 예약하고 락 밖에서 띄움 (startup 동안 다른 요청의 반납 / discard 를 막지 않음)
+        boolean reserved = false;
+        synchronized (all) {
+            if (all.size() + starting < workers) {
+                starting++;
+                reserved = true;
+            }
+        }
+        if (reserved) {
+            Worker fresh = null;
+            try {
+                fresh = spawn();
+            } finally {
+                synchronized (all) {
+                    starting--;
+                    if (fresh != null && !closed)
+                        all.add(fresh);
+                }
+            }
+            if (closed) {
+                fresh.destroy();
+                throw new IOException("model server is shut down");
+            }
+            return fresh;
+        }
+
+        w = idle.poll(startupTimeoutMs, TimeUnit.MILLISECONDS);
+        if (w == null)
+            throw new TimeoutException("no idle python worker within " + startupTimeoutMs + "ms");
+        return w;
+    }
+
+    private Worker spawn() throws IOException, InterruptedException, TimeoutException {
+        long startNs = System.nanoTime();
+        Process p = pythonExecutor.processBuilder(SCRIPT).start();
+        Worker w = null;
+        try {
+            w = new Worker(p);
+
+            // 준비 완료 줄 (import 끝) 대기
+            JsonNode ready = w.awaitLine(startupTimeoutMs);
+            if (!"ready".equals(ready.path("op").asText()))
+                throw new IOException("unexpected first line from python worker: " + ready);
+        } catch (Exception e) {
+            // 대기 초과 / JSON 아닌 첫 줄 / 인터럽트 -> 프로세스를 남기지 않음
+            try {
+                if (w != null)
+                    w.destroy();
+            } catch (RuntimeException destroyFailed) {
+                e.addSuppressed(destroyFailed);
+            } finally {
+                if (p.isAlive())
+                    p.destroyForcibly();
+            }
+            log.warn("[PY-SERVER] worker start failed: pid={}, err={}", p.pid(), e.toString());
+            throw e;
+        }
+
+        log.info("[PY-SERVER] worker started: pid={}, spawnMs={}",
+                p.pid(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs));
+        return w;
+    }
+
+    private void discard(Worker w) {
+        synchronized (all) {
+            all.remove(w);
+        }
+        w.destroy();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        List<Worker> copy;
+        synchronized (all) {
+            copy = new ArrayList<>(all);
+            all.clear();
+        }
+        idle.clear();
+        for (Worker w : copy)
+            w.destroy();
+    }
+
+    // =========================
+    // 워커 1개 (프로세스 + stdout/stderr 읽기 스레드)
+    // =========================
+    private final class Worker {
+        final Process process;
+        final BufferedWriter stdin;
+        final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        volatile boolean warm;
+
+        Worker(Process process) {
+            this.process = process;
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+            long pid = process.pid();
+            daemon("py-server-out-" + pid, () -> {
+                try (BufferedReader br = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null)
+                        lines.offer(line);
+                } catch (IOException ignore) {
+                    // 프로세스 종료
+                }
+            });
+            daemon("py-server-err-" + pid, () -> {
+                try (BufferedReader br = new BufferedReader(
+                        new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = br.readLine()) != null)
+                        log.debug("[PY-SERVER][{}] {}", pid, line);
+                } catch (IOException ignore) {
+                    // 프로세스 종료
+                }
+            });
+        }
+
+        JsonNode call(long id, String json, long waitMs) throws IOException, TimeoutException, InterruptedException {
+            stdin.write(json);
+            stdin.write('\n');
+            stdin.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+            while (true) {
+                long leftMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                JsonNode resp = awaitLine(Math.max(0, leftMs));
+                if (resp.path("id").asLong(-1) == id)
+                    return resp;
+                // 이전 요청의 늦은 응답 등은 버림
+            }
+        }
+
+        JsonNode awaitLine(long waitMs) throws IOException, TimeoutException, InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+            while (true) {
+                String line = lines.poll(50, TimeUnit.MILLISECONDS);
+                if (line != null)
+                    return objectMapper.readTree(line);
+                if (!process.isAlive() && lines.isEmpty())
+                    throw new IOException("python worker exited: pid=" + process.pid() + ", exit=" + process.exitValue());
+                if (System.nanoTime() >= deadline)
+                    throw new TimeoutException("python worker timed out after " + waitMs + "ms: pid=" + process.pid());
+            }
+        }
+
+        void destroy() {
+            try {
+                stdin.close(); // stdin EOF -> 정상 종료
+            } catch (IOException ignore) {
+            }
+            try {
+                if (!process.waitFor(1, TimeUnit.SECONDS))
+                    process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void daemon(String name, Runnable r) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        t.start();
+    }
+}
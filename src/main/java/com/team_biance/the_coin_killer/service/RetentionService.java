@@ -0,0 +1,407 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.PartitionInfo;
+import com.team_biance.the_coin_killer.mapper.RetentionMapper;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * f_depth_snapshot_1s / f_mark_1s 보관 주기 (하루 1회)
+ *
+ * 1) 일별 RANGE COLUMNS(ts_utc) 파티션을 오늘 ~ partitions-ahead-days 만큼 미리 생성 (pmax 분할)
+ * 2) hot-days 보다 오래된 날짜는
+ *    - f_depth_1m / f_mark_1m 에 분 rollup (리스너가 놓친 분만 INSERT IGNORE)
+ *    - 원본(BLOB 포함)을 archive-dir/<table>/<table>-yyyyMMdd.tsv.gz 로 내보냄 (이미 있으면 건너뜀)
+ *    - 파티션 DROP, 파티션이 없는 테이블이면 심볼별 delete-batch 단위 DELETE (PK(symbol, ts_utc) range)
+ * 3) archive 가 실패한 날짜가 있으면 그 파티션 / 날짜는 지우지 않음 (다음 실행에서 재시도)
+ *
+ * 크론은 전용 스레드로 넘기고 바로 반환 (기본 스케줄러 1스레드를 잡고 있으면 분 봉인 / feature 크론이 밀림)
+ *
+ * 날짜 경계는 모두 UTC (ts_utc 기준)
+ */
+@Service
+public class RetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionService.class);
+
+    static final String DEPTH_TABLE = "f_depth_snapshot_1s";
+    static final String MARK_TABLE = "f_mark_1s";
+    static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] DEPTH_HEADER = {
+            "symbol", "ts_utc",
+            "best_bid", "best_ask", "mid_price", "spread_bps",
+            "depth_bid_sum_top20", "depth_ask_sum_top20", "imbalance_top20",
+            "microprice", "microprice_gap_bps",
+            "compress_algo", "bids", "asks",
+    };
+
+    private static final String[] MARK_HEADER = {
+            "symbol", "ts_utc", "mark_price", "index_price", "funding_rate", "next_funding_utc",
+    };
+
+    private final RetentionMapper retentionMapper;
+    private final TableStatsRegistry tableStats;
+
+    private final boolean enabled;
+    private final int hotDays;
+    private final int aheadDays;
+    private final boolean archive;
+    private final Path archiveDir;
+    private final int deleteBatch;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "retention");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile LocalDateTime lastRunUtc;
+    private volatile List<TableRun> lastRun = List.of();
+
+    public RetentionService(
+            RetentionMapper retentionMapper,
+            TableStatsRegistry tableStats,
+            @Value("${app.retention.enabled:false}") boolean enabled,
+            @Value("${app.retention.hot-days:7}") int hotDays,
+            @Value("${app.retention.partitions-ahead-days:3}") int aheadDays,
+            @Value("${app.retention.archive:true}") boolean archive,
+            @Value("${app.retention.archive-dir:./data/archive}") String archiveDir,
+            @Value("${app.retention.delete-batch:5000}") int deleteBatch) {
+        this.retentionMapper = retentionMapper;
+        this.tableStats = tableStats;
+        this.enabled = enabled;
+        this.hotDays = Math.max(1, hotDays);
+        this.aheadDays = Math.max(0, aheadDays);
+        this.archive = archive;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+        this.deleteBatch = Math.max(100, deleteBatch);
+    }
+
+    @Scheduled(cron = "${app.retention.cron:0 20 0 * * *}", zone = "UTC")
+    public void runDaily() {
+        if (!enabled)
+            return;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        jobExecutor.execute(() -> run(today));
+    }
+
+    /**
+     * @param today UTC 기준 오늘 (today - hotDays 이전 날짜가 대상)
+     * @return 테이블별 결과, 이미 실행 중이면 빈 목록
+     */
+    public List<TableRun> run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("[RETENTION] already running, skip");
+            return List.of();
+        }
+        try {
+            List<TableRun> runs = new ArrayList<>(2);
+            for (String table : List.of(DEPTH_TABLE, MARK_TABLE)) {
+                TableRun r = new TableRun(table);
+                try {
+                    runTable(r, today);
+                } catch (Exception e) {
+                    r.error = e.getMessage();
+                    log.error("[RETENTION] failed: table={}, err={}", table, e.getMessage(), e);
+                }
+                runs.add(r);
+                log.info("[RETENTION] table={}, partitioned={}, added={}, days={}, rolledUp={}, archived={}, dropped={}, deleted={}",
+                        table, r.partitioned, r.partitionsAdded, r.days, r.rowsRolledUp, r.rowsArchived,
+                        r.partitionsDropped, r.rowsDeleted);
+            }
+            lastRunUtc = LocalDateTime.now(ZoneOffset.UTC);
+            lastRun = List.copyOf(runs);
+            return runs;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("hotDays", hotDays);
+        m.put("archive", archive);
+        m.put("archiveDir", archiveDir.toString());
+        m.put("running", running.get());
+        m.put("lastRunUtc", lastRunUtc);
+        m.put("tables", lastRun);
+        return m;
+    }
+
+    // =========================
+    // 테이블 1개
+    // =========================
+    private void runTable(TableRun r, LocalDate today) throws IOException {
+        String table = r.table;
+        LocalDateTime cutoff = today.minusDays(hotDays).atStartOfDay();
+
+        List<PartitionInfo> partitions = retentionMapper.listPartitions(table);
+        r.partitioned = partitions.stream().anyMatch(p -> MAX_PARTITION.equals(p.getPartitionName()));
+        if (!partitions.isEmpty() && !r.partitioned)
+            log.warn("[RETENTION] {} partitioned without {}, fallback to DELETE", table, MAX_PARTITION);
+
+        if (r.partitioned) {
+            addPartitionsAhead(r, partitions, today);
+            dropExpiredPartitions(r, partitions, cutoff);
+        } else {
+            deleteExpiredDays(r, cutoff);
+        }
+    }
+
+    /**
+     * 마지막 일별 파티션 경계 다음 날부터 today + aheadDays 까지
+     */
+    private void addPartitionsAhead(TableRun r, List<PartitionInfo> partitions, LocalDate today) {
+        LocalDateTime last = null;
+        for (PartitionInfo p : partitions) {
+            LocalDateTime bound = parseBound(p.getPartitionDescription());
+            if (bound != null && (last == null || bound.isAfter(last)))
+                last = bound;
+        }
+
+        for (LocalDate d = today; !d.isAfter(today.plusDays(aheadDays)); d = d.plusDays(1)) {
+            LocalDateTime lessThan = d.plusDays(1).atStartOfDay();
+            if (last != null && !lessThan.isAfter(last))
+                continue;
+            retentionMapper.addPartition(r.table, partitionName(d), BOUND.format(lessThan), MAX_PARTITION);
+            last = lessThan;
+            r.partitionsAdded++;
+        }
+    }
+
+    /**
+     * 상한이 cutoff 이하인 파티션: 포함된 날짜를 모두 rollup / archive 한 뒤 DROP
+     */
+    private void dropExpiredPartitions(TableRun r, List<PartitionInfo> partitions, LocalDateTime cutoff) throws IOException {
+        LocalDateTime lower = null;
+        for (PartitionInfo p : partitions) {
+            LocalDateTime upper = parseBound(p.getPartitionDescription());
+            if (upper == null || upper.isAfter(cutoff))
+                break;
+
+            LocalDateTime from = lower;
+            if (from == null) {
+                // 첫 파티션은 하한이 없음 -> 실제 최솟값부터
+                LocalDateTime oldest = retentionMapper.oldestTime(r.table);
+                from = (oldest == null || !oldest.isBefore(upper)) ? upper : oldest.toLocalDate().atStartOfDay();
+            }
+
+            boolean ok = true;
+            for (LocalDateTime day = from; day.isBefore(upper); day = day.plusDays(1))
+                ok &= processDay(r, day.toLocalDate());
+
+            if (!ok) {
+                log.warn("[RETENTION] keep partition: table={}, partition={} (archive failed)", r.table, p.getPartitionName());
+                return;
+            }
+            retentionMapper.dropPartition(r.table, p.getPartitionName());
+            tableStats.onDeleted(TableStatsRegistry.Table.of(r.table), p.getTableRows());
+            r.partitionsDropped++;
+            lower = upper;
+        }
+    }
+
+    /**
+     * 파티션 없는 테이블: 가장 오래된 날부터 cutoff 전날까지 하루씩 처리 후 심볼별 chunk DELETE
+     */
+    private void deleteExpiredDays(TableRun r, LocalDateTime cutoff) throws IOException {
+        LocalDateTime oldest = retentionMapper.oldestTime(r.table);
+        if (oldest == null)
+            return;
+        List<String> symbols = retentionMapper.listSymbols(r.table);
+
+        for (LocalDate day = oldest.toLocalDate(); day.atStartOfDay().isBefore(cutoff); day = day.plusDays(1)) {
+            if (!processDay(r, day)) {
+                log.warn("[RETENTION] stop delete: table={}, day={} (archive failed)", r.table, day);
+                return;
+            }
+            LocalDateTime before = day.plusDays(1).atStartOfDay();
+            for (String symbol : symbols) {
+                int n;
+                do {
+                    n = retentionMapper.deleteBefore(r.table, symbol, before, deleteBatch);
+                    tableStats.onDeleted(TableStatsRegistry.Table.of(r.table), n);
+                    r.rowsDeleted += n;
+                } while (n >= deleteBatch);
+            }
+        }
+    }
+
+    // =========================
+    // 하루치 rollup + archive
+    // =========================
+
+    /**
+     * @return 지워도 되면 true (archive 성공 / 이미 있음 / archive 꺼짐)
+     */
+    private boolean processDay(TableRun r, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        r.days++;
+
+        // 1시간 단위로 잘라서 INSERT .. SELECT 한 번의 잠금 / undo 를 작게
+        boolean depth = DEPTH_TABLE.equals(r.table);
+        for (LocalDateTime h = from; h.isBefore(to); h = h.plusHours(1)) {
+            int n = depth
+                    ? retentionMapper.rollupDepth(h, h.plusHours(1))
+                    : retentionMapper.rollupMark(h, h.plusHours(1));
+            tableStats.onInserted(depth ? TableStatsRegistry.Table.DEPTH_MINUTE : TableStatsRegistry.Table.MARK_MINUTE, n);
+            r.rowsRolledUp += n;
+        }
+
+        if (!archive)
+            return true;
+        Path file = archiveFile(r.table, day);
+        if (Files.exists(file))
+            return true;
+
+        try (DayArchiveWriter w = DEPTH_TABLE.equals(r.table)
+                ? new DayArchiveWriter(file, DEPTH_HEADER)
+                : new DayArchiveWriter(file, MARK_HEADER)) {
+            if (DEPTH_TABLE.equals(r.table)) {
+                retentionMapper.streamDepth(from, to, ctx -> writeDepth(w, ctx.getResultObject()));
+            } else {
+                retentionMapper.streamMark(from, to, ctx -> writeMark(w, ctx.getResultObject()));
+            }
+            w.commit();
+            r.rowsArchived += w.rows();
+            log.info("[RETENTION][ARCHIVE] file={}, rows={}", file.getFileName(), w.rows());
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.error("[RETENTION][ARCHIVE] failed: file={}, err={}", file, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static void writeDepth(DayArchiveWriter w, FDepthSnapshot1s s) {
+        try {
+            w.row(s.getSymbol(), s.getTsUtc(),
+                    s.getBestBid(), s.getBestAsk(), s.getMidPrice(), s.getSpreadBps(),
+                    s.getDepthBidSumTop20(), s.getDepthAskSumTop20(), s.getImbalanceTop20(),
+                    s.getMicroprice(), s.getMicropriceGapBps(),
+                    s.getCompressAlgo(), s.getBidsGzip(), s.getAsksGzip());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeMark(DayArchiveWriter w, FMark1s m) {
+        try {
+            w.row(m.getSymbol(), m.getTsUtc(), m.getMarkPrice(), m.getIndexPrice(), m.getFundingRate(),
+                    m.getNextFundingUtc());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    Path archiveFile(String table, LocalDate day) {
+        return archiveDir.resolve(table).resolve(table + "-" + DAY.format(day) + ".tsv.gz");
+    }
+
+    static String partitionName(LocalDate day) {
+        return "p" + DAY.format(day);
+    }
+
+    /**
+     * PARTITION_DESCRIPTION ('2026-10-19 00:00:00' / MAXVALUE) -> 상한, MAXVALUE 면 null
+     */
+    static LocalDateTime parseBound(String description) {
+        if (description == null)
+            return null;
+        String s = description.replace("'", "").trim();
+        if (s.isEmpty() || "MAXVALUE".equalsIgnoreCase(s))
+            return null;
+        if (s.length() > 19)
+            s = s.substring(0, 19);
+        return LocalDateTime.parse(s, BOUND);
+    }
+
+    /**
+     * 테이블 1개 실행 결과 (/api/monitor/retention)
+     */
+    public static final class TableRun {
+        private final String table;
+        private boolean partitioned;
+        private int partitionsAdded;
+        private int days;
+        private long rowsRolledUp;
+        private long rowsArchived;
+        private int partitionsDropped;
+        private long rowsDeleted;
+        private String error;
+
+        TableRun(String table) {
+            this.table = table;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public boolean isPartitioned() {
+            return partitioned;
+        }
+
+        public int getPartitionsAdded() {
+            return partitionsAdded;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public long getRowsRolledUp() {
+            return rowsRolledUp;
+        }
+
+        public long getRowsArchived() {
+            return rowsArchived;
+        }
+
+        public int getPartitionsDropped() {
+            return partitionsDropped;
+        }
+
+        public long getRowsDeleted() {
+            return rowsDeleted;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.FeatureSourceBatch;
+import com.team_biance.the_coin_killer.mapper.FeatureSourceMapper;
+import com.team_biance.the_coin_killer.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 스트림 이벤트로 바로 갱신되는 심볼별 1분 feature 엔진
+ *
+ * - 심볼마다 최근 RING 분의 kline / aggTrade / depth / mark / 청산 건수를 분 단위 ring 에 보관
+ * - kline 이 들어올 때 ret1m 을 rolling window(15, 60) 에, volume 을 rolling window(60) 에 넣고
+ *   rv15m / rv60m / vol_z_60m 을 O(1) 로 계산해 해당 분 칸에 저장
+ * - cvd_15m 도 rolling window(15) 합으로 유지
+ * - compute() 는 DB 조회 없이 FeatureCalculationService.buildRow() 로 row 를 만든다
+ *
+ * 의미(semantics)는 DB 경로(calculateFromDb)와 같다.
+ * ring 으로 답할 수 없는 분(기동 직후, 너무 오래된 분, ring 안에 depth/mark 가 없는 경우)은 null -> DB fallback.
+ *
+ * 심볼 하나의 갱신은 같은 shard 스레드에서 오지만, compute() 는 스케줄러 스레드에서 오므로 심볼 상태 단위로 동기화.
+ * 초기 적재(DB 범위 조회)는 seedExecutor 에서 락 밖으로 실행하고, 끝날 때까지 compute() 는 null (-> pending / DB fallback).
+ */
+@Component
+public class RollingFeatureEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingFeatureEngine.class);
+
+    // 60분 window + 여유. 2의 거듭제곱
+    static final int RING = 128;
+    private static final int MASK = RING - 1;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final FeatureSourceMapper sourceMapper;
+    private final Map<String, SymbolState> states = new ConcurrentHashMap<>();
+
+    // FeaturePipelineService 가 feature-fallback 스레드로 교체 (단독 사용 / 테스트는 호출 스레드에서 바로)
+    private volatile Executor seedExecutor = Runnable::run;
+
+    public RollingFeatureEngine(FeatureSourceMapper sourceMapper) {
+        this.sourceMapper = sourceMapper;
+    }
+
+    void seedOn(Executor executor) {
+        this.seedExecutor = executor;
+    }
+
+    // =========================
+    // 입력 (리스너에서 호출)
+    // =========================
+    public void onKline(FKline1m row) {
+        SymbolState st = state(row.getSymbol());
+        boolean seed;
+        synchronized (st) {
+            seed = !st.seeded;
+            if (seed) {
+                st.seeded = true;
+                st.seeding = true;
+            }
+            st.putKline(row);
+        }
+        if (seed)
+            requestSeed(st, epochMinute(row.getTsUtc()));
+    }
+
+    public void onAggMinute(FAggTrade1m row) {
+        SymbolState st = state(row.getSymbol());
+        synchronized (st) {
+            st.putAgg(row, false);
+        }
+    }
+
+    public void onDepth(FDepthSnapshot1s row) {
+        SymbolState st = state(row.getSymbol());
+        synchronized (st) {
+            int i = st.slot(epochMinute(row.getTsUtc()));
+            st.dMin[i] = epochMinute(row.getTsUtc());
+            st.dRows[i] = row;
+        }
+    }
+
+    public void onMark(FMark1s row) {
+        SymbolState st = state(row.getSymbol());
+        synchronized (st) {
+            int i = st.slot(epochMinute(row.getTsUtc()));
+            st.mMin[i] = epochMinute(row.getTsUtc());
+            st.mRows[i] = row;
+        }
+    }
+
+    public void onForceOrder(FForceOrder row) {
+        SymbolState st = state(row.getSymbol());
+        synchronized (st) {
+            long t = epochMinute(row.getEventUtc());
+            int i = st.slot(t);
+            if (st.lMin[i] != t) {
+                st.lMin[i] = t;
+                st.liq[i] = 0;
+            }
+            st.liq[i]++;
+        }
+    }
+
+    // =========================
+    // 계산
+    // =========================
+
+    /**
+     * @return 해당 분 feature row, ring 으로 정확히 계산할 수 없으면 null
+     */
+    public FeatureMinute compute(String symbol, LocalDateTime minuteStartUtc) {
+        SymbolState st = states.get(symbol);
+        if (st == null)
+            return null;
+
+        long t = epochMinute(minuteStartUtc);
+        synchronized (st) {
+            int i = st.slot(t);
+            if (st.kMin[i] != t)
+                return null;
+
+            // 초기 적재 중 / 기동 도중 일부만 관측된 분 / rolling window 가 아직 채워지지 않은 분
+            if (st.seeding || t < st.liveSinceMinute || t < st.reliableFromMinute)
+                return null;
+
+            FDepthSnapshot1s d = st.latestDepthAtOrBefore(t);
+            FMark1s m = st.latestMarkAtOrBefore(t);
+            if (d == null || m == null)
+                return null; // ring 밖의 더 오래된 스냅샷은 DB 에서
+
+            FKline1m k0 = st.kRows[i];
+            FAggTrade1m a0 = (st.aMin[i] == t) ? st.aRows[i] : null;
+            int liqCount = (st.lMin[i] == t) ? st.liq[i] : 0;
+
+            return FeatureCalculationService.buildRow(symbol, minuteStartUtc, k0,
+                    st.closeAt(t - 1), st.closeAt(t - 5), st.closeAt(t - 15),
+                    st.rv15At[i], st.rv60At[i], st.volZAt[i],
+                    a0, st.cvd15(t), d, m, liqCount);
+        }
+    }
+
+    /**
+     * DB 에서 읽은 batch 에 ring 의 row 를 덮어씀 (DB fallback 경로용)
+     * - write-behind 로 아직 flush 되지 않은 최근 분의 kline / aggTrade / depth / mark / 청산도 보이도록
+     * - 범위: batch.from - 60분 .. batch.to (ring 안에 있는 분만)
+     */
+    public void overlay(String symbol, FeatureSourceBatch batch) {
+        SymbolState st = states.get(symbol);
+        if (st == null)
+            return;
+
+        long to = epochMinute(batch.getTo());
+        long from = Math.max(epochMinute(batch.getFrom()) - 60, to - RING);
+        synchronized (st) {
+            for (long t = from; t < to; t++) {
+                int i = st.slot(t);
+                if (st.kMin[i] == t)
+                    batch.putKline(st.kRows[i]);
+                if (st.aMin[i] == t)
+                    batch.putAgg(st.aRows[i]);
+                if (st.dMin[i] == t)
+                    batch.putDepth(st.dRows[i]);
+                if (st.mMin[i] == t)
+                    batch.putMark(st.mRows[i]);
+                if (st.lMin[i] == t)
+                    batch.putForceCount(minuteStart(t), st.liq[i]);
+            }
+        }
+    }
+
+    /**
+     * 해당 분 kline 이 엔진에 들어와 있는지
+     */
+    public boolean hasKline(String symbol, LocalDateTime minuteStartUtc) {
+        SymbolState st = states.get(symbol);
+        if (st == null)
+            return false;
+        long t = epochMinute(minuteStartUtc);
+        synchronized (st) {
+            return st.kMin[st.slot(t)] == t;
+        }
+    }
+
+    // =========================
+    // 초기 적재 (심볼당 1회)
+    // - 재기동 직후에도 rolling window 가 바로 차도록 직전 RING 분의 kline/aggTrade 를 읽는다
+    // - DB 조회는 seedExecutor 에서 심볼 락 없이, ring 반영만 락 안에서
+    // =========================
+    private void requestSeed(SymbolState st, long firstMinute) {
+        try {
+            seedExecutor.execute(() -> seed(st, firstMinute));
+        } catch (Exception e) {
+            // executor 종료 등: 적재 없이 스트림으로만 채움
+            log.warn("[FEATURE][ENGINE] seed not scheduled: symbol={}, err={}", st.symbol, e.getMessage());
+            synchronized (st) {
+                st.seeding = false;
+            }
+        }
+    }
+
+    private void seed(SymbolState st, long firstMinute) {
+        List<FKline1m> klines = List.of();
+        List<FAggTrade1m> aggs = List.of();
+        try {
+            LocalDateTime from = minuteStart(firstMinute - RING + 1);
+            LocalDateTime to = minuteStart(firstMinute);
+
+            klines = sourceMapper.getKlineRange(st.symbol, from, to);
+            aggs = sourceMapper.getAggTradeRange(st.symbol, from, to);
+
+            log.info("[FEATURE][ENGINE] seeded: symbol={}, klines={}, aggs={}", st.symbol, klines.size(), aggs.size());
+        } catch (Exception e) {
+            // 실패해도 스트림으로 채워지면 60분 뒤부터 엔진 경로 사용
+            log.error("[FEATURE][ENGINE] seed failed: symbol={}, err={}", st.symbol, e.getMessage(), e);
+        } finally {
+            synchronized (st) {
+                st.applySeed(klines, aggs);
+                st.seeding = false;
+            }
+        }
+    }
+
+    private SymbolState state(String symbol) {
+        return states.computeIfAbsent(symbol, s -> new SymbolState(s, System.currentTimeMillis()));
+    }
+
+    static long epochMinute(LocalDateTime utc) {
+        return utc.toEpochSecond(ZoneOffset.UTC) / 60L;
+    }
+
+    static LocalDateTime minuteStart(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    // =========================
+    // 심볼별 상태
+    // =========================
+    private static final class SymbolState {
+
+        final String symbol;
+
+        // 이 분부터는 depth/mark/청산/aggTrade 가 처음부터 관측됨
+        final long liveSinceMinute;
+        // 이 분부터는 rolling window 가 온전히 채워져 있음
+        long reliableFromMinute;
+        boolean seeded;
+        // seed 요청 후 ring 반영 전 (이 동안 compute() 는 null)
+        boolean seeding;
+
+        final long[] kMin = emptyMinutes();
+        final FKline1m[] kRows = new FKline1m[RING];
+        final double[] rv15At = new double[RING];
+        final double[] rv60At = new double[RING];
+        final double[] volZAt = new double[RING];
+        long lastKlineMinute = EMPTY;
+
+        final long[] aMin = emptyMinutes();
+        final FAggTrade1m[] aRows = new FAggTrade1m[RING];
+
+        final long[] dMin = emptyMinutes();
+        final FDepthSnapshot1s[] dRows = new FDepthSnapshot1s[RING];
+
+        final long[] mMin = emptyMinutes();
+        final FMark1s[] mRows = new FMark1s[RING];
+
+        final long[] lMin = emptyMinutes();
+        final int[] liq = new int[RING];
+
+        final RollingWindow ret15 = new RollingWindow(15);
+        final RollingWindow ret60 = new RollingWindow(60);
+        final RollingWindow vol60 = new RollingWindow(60);
+        final RollingWindow cvd15 = new RollingWindow(15);
+
+        SymbolState(String symbol, long createdMs) {
+            this.symbol = symbol;
+            this.liveSinceMinute = createdMs / 60_000L + 1;
+            this.reliableFromMinute = Long.MAX_VALUE;
+        }
+
+        int slot(long minute) {
+            return (int) (minute & MASK);
+        }
+
+        double closeAt(long minute) {
+            int i = slot(minute);
+            return (kMin[i] == minute) ? kRows[i].getClose() : 0.0;
+        }
+
+        void putKline(FKline1m row) {
+            long t = epochMinute(row.getTsUtc());
+            if (lastKlineMinute != EMPTY && t <= lastKlineMinute - RING)
+                return; // ring 밖
+
+            int i = slot(t);
+            kMin[i] = t;
+            kRows[i] = row;
+
+            if (lastKlineMinute == EMPTY) {
+                lastKlineMinute = t;
+                reliableFromMinute = t + 61;
+                advance(t);
+            } else if (t > lastKlineMinute) {
+                lastKlineMinute = t;
+                advance(t);
+            } else {
+                // 늦게 도착한(과거) 캔들: ring 전체를 다시 흘려 window 재구성
+                rebuild();
+            }
+        }
+
+        /**
+         * 초기 적재 반영. 적재 중 스트림으로 이미 들어온 분은 유지하고, 빈 칸만 채운 뒤 window 를 한 번 재구성
+         * - reliableFromMinute 는 적재한 첫 분 + 61 (동기 적재 때와 같음)
+         */
+        void applySeed(List<FKline1m> klines, List<FAggTrade1m> aggs) {
+            for (FAggTrade1m a : aggs)
+                putAgg(a, true);
+
+            long first = EMPTY;
+            for (FKline1m k : klines) {
+                long t = epochMinute(k.getTsUtc());
+                int i = slot(t);
+                if (kMin[i] == t || (lastKlineMinute != EMPTY && t <= lastKlineMinute - RING))
+                    continue;
+                kMin[i] = t;
+                kRows[i] = k;
+                if (first == EMPTY || t < first)
+                    first = t;
+                if (lastKlineMinute == EMPTY || t > lastKlineMinute)
+                    lastKlineMinute = t;
+            }
+            if (first == EMPTY)
+                return;
+
+            reliableFromMinute = first + 61;
+            rebuild();
+        }
+
+        /**
+         * kline t 반영: ret1m 을 넣고 rv 계산, volZ 는 t 이전 60분 window 로 계산 후 volume 을 넣는다
+         */
+        private void advance(long t) {
+            int i = slot(t);
+
+            double cPrev = closeAt(t - 1);
+            double cNow = kRows[i].getClose();
+            boolean retValid = cPrev > 0.0 && cNow > 0.0;
+            double ret = retValid ? Math.log(cNow / cPrev) : 0.0;
+
+            ret15.put(t, ret, retValid);
+            ret60.put(t, ret, retValid);
+
+            // realized vol: 최근 N개 ret1m 이 모두 있어야 계산 (하나라도 누락이면 0)
+            rv15At[i] = ret15.isFullAt(t) ? ret15.stdPopulation() * Math.sqrt(15) : 0.0;
+            rv60At[i] = ret60.isFullAt(t) ? ret60.stdPopulation() * Math.sqrt(60) : 0.0;
+
+            // vol_z_60m: 이전 60분(현재 분 제외) 이 모두 있어야 계산
+            double volZ = 0.0;
+            if (vol60.isFullAt(t - 1)) {
+                double std = vol60.stdPopulation();
+                if (std > 0.0)
+                    volZ = (kRows[i].getVolume() - vol60.mean()) / std;
+            }
+            volZAt[i] = volZ;
+
+            vol60.put(t, kRows[i].getVolume(), true);
+        }
+
+        private void rebuild() {
+            ret15.reset();
+            ret60.reset();
+            vol60.reset();
+
+            long from = lastKlineMinute - RING + 1;
+            for (long t = from; t <= lastKlineMinute; t++) {
+                if (kMin[slot(t)] == t)
+                    advance(t);
+            }
+            // 앞쪽 61분은 window 가 덜 찬 상태로 다시 계산됨
+            reliableFromMinute = Math.max(reliableFromMinute, from + 61);
+        }
+
+        void putAgg(FAggTrade1m row, boolean fromSeed) {
+            long t = epochMinute(row.getTsUtc());
+            int i = slot(t);
+            // 초기 적재가 이미 스트림으로 들어온 분을 덮어쓰지 않도록
+            if (fromSeed && aMin[i] == t)
+                return;
+            // 기동 직후 중간부터 집계된 분은 DB 값(이전 프로세스가 저장한 전체 분)을 유지
+            if (!fromSeed && t < liveSinceMinute && aMin[i] == t)
+                return;
+
+            aMin[i] = t;
+            aRows[i] = row;
+            cvd15.put(t, row.getTakerBuyQty() - row.getTakerSellQty(), true);
+        }
+
+        /**
+         * 최근 15분(현재 포함) cvd 합. window 가 이미 t 이후로 넘어갔으면 ring 에서 직접 합산
+         */
+        double cvd15(long t) {
+            if (cvd15.end() == t)
+                return cvd15.sum();
+
+            double sum = 0.0;
+            for (long x = t - 14; x <= t; x++) {
+                int i = slot(x);
+                if (aMin[i] == x)
+                    sum += aRows[i].getTakerBuyQty() - aRows[i].getTakerSellQty();
+            }
+            return sum;
+        }
+
+        FDepthSnapshot1s latestDepthAtOrBefore(long t) {
+            for (long x = t; x > t - RING; x--) {
+                int i = slot(x);
+                if (dMin[i] == x)
+                    return dRows[i];
+            }
+            return null;
+        }
+
+        FMark1s latestMarkAtOrBefore(long t) {
+            for (long x = t; x > t - RING; x--) {
+                int i = slot(x);
+                if (mMin[i] == x)
+                    return mRows[i];
+            }
+            return null;
+        }
+
+        private static long[] emptyMinutes() {
+            long[] a = new long[RING];
+            Arrays.fill(a, EMPTY);
+            return a;
+        }
+    }
+}
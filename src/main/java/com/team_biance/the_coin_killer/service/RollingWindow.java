@@ -0,0 +1,168 @@
+package com.team_biance.the_coin_killer.service;
+
+import java.util.Arrays;
+
+/**
+ * 분(minute) 인덱스 기반 고정 길이 rolling window
+ * - 값 추가/교체/만료가 O(1) 이고 sum / sumSq / 유효 개수를 유지한다.
+ * - 중간에 빠진 분은 invalid 로 채워진다 (isFullAt() == false)
+ * - 합은 shift(K) 기준으로 누적해서 큰 값(volume 등)의 분산 계산 시 상쇄 오차를 줄이고,
+ *   RECOMPUTE_EVERY 번마다 전체를 다시 더해 부동소수 누적 오차(drift)를 제거한다.
+ */
+final class RollingWindow {
+
+    static final long NONE = Long.MIN_VALUE;
+    private static final int RECOMPUTE_EVERY = 1024;
+
+    private final int size;
+    private final double[] values;
+    private final boolean[] valid;
+
+    private long end = NONE; // window 의 마지막 분 (포함)
+    private int validCount;
+    private double shift;
+    private double sum;   // sum(x - shift)
+    private double sumSq; // sum((x - shift)^2)
+    private int putsSinceRecompute;
+
+    RollingWindow(int size) {
+        this.size = size;
+        this.values = new double[size];
+        this.valid = new boolean[size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long end() {
+        return end;
+    }
+
+    void reset() {
+        end = NONE;
+        validCount = 0;
+        shift = 0.0;
+        sum = 0.0;
+        sumSq = 0.0;
+        putsSinceRecompute = 0;
+        Arrays.fill(valid, false);
+    }
+
+    /**
+     * minute 의 값을 넣는다
+     * - minute > end : window 를 minute 까지 전진 (건너뛴 분은 invalid)
+     * - window 안의 과거 분 : 해당 칸만 교체
+     * - window 보다 오래된 분 : 무시
+     */
+    void put(long minute, double value, boolean isValid) {
+        if (end == NONE || minute - end >= size) {
+            reset();
+            end = minute - 1;
+            shift = isValid ? value : 0.0;
+        }
+
+        if (minute <= end) {
+            if (minute <= end - size)
+                return;
+            replace(slot(minute), value, isValid);
+            return;
+        }
+
+        while (end < minute - 1) {
+            end++;
+            replace(slot(end), 0.0, false);
+        }
+        end = minute;
+        replace(slot(minute), value, isValid);
+
+        if (++putsSinceRecompute >= RECOMPUTE_EVERY)
+            recompute();
+    }
+
+    /**
+     * end 분이 정확히 minute 이고 window 의 모든 칸이 유효한지
+     */
+    boolean isFullAt(long minute) {
+        return end == minute && validCount == size;
+    }
+
+    double sum() {
+        return sum + shift * validCount;
+    }
+
+    double mean() {
+        return (validCount == 0) ? 0.0 : shift + sum / validCount;
+    }
+
+    /**
+     * 모집단 표준편차 (ddof=0)
+     */
+    double stdPopulation() {
+        if (validCount <= 1)
+            return 0.0;
+        double m = sum / validCount;
+        double var = sumSq / validCount - m * m;
+        return (var > 0.0) ? Math.sqrt(var) : 0.0;
+    }
+
+    /**
+     * 표본 표준편차 (ddof=1)
+     */
+    double stdSample() {
+        if (validCount <= 1)
+            return 0.0;
+        double m = sum / validCount;
+        double var = (sumSq - validCount * m * m) / (validCount - 1);
+        return (var > 0.0) ? Math.sqrt(var) : 0.0;
+    }
+
+    private void replace(int idx, double value, boolean isValid) {
+        if (valid[idx]) {
+            double d = values[idx] - shift;
+            sum -= d;
+            sumSq -= d * d;
+            validCount--;
+        }
+        values[idx] = value;
+        valid[idx] = isValid;
+        if (isValid) {
+            double d = value - shift;
+            sum += d;
+            sumSq += d * d;
+            validCount++;
+        }
+    }
+
+    private void recompute() {
+        putsSinceRecompute = 0;
+
+        double newShift = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (valid[i]) {
+                newShift = values[i];
+                break;
+            }
+        }
+
+        double s = 0.0;
+        double s2 = 0.0;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (!valid[i])
+                continue;
+            double d = values[i] - newShift;
+            s += d;
+            s2 += d * d;
+            n++;
+        }
+        shift = newShift;
+        sum = s;
+        sumSq = s2;
+        validCount = n;
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) size);
+    }
+}
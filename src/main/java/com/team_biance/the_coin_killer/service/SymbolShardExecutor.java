@@ -0,0 +1,153 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.config.BinanceSymbols;
+import com.team_biance.the_coin_killer.service.WriteBehindQueue.Backpressure;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 심볼 -> 고정 shard(단일 스레드) 실행기
+ * - 같은 심볼의 작업은 항상 같은 스레드에서 순서대로 실행된다 (심볼별 순서 보장)
+ * - 서로 다른 심볼은 shard 수만큼 병렬 처리
+ *
+ * 심볼 배정은 설정 목록(binance.symbols) 순서대로 round-robin 으로 고정 (hash 보다 균등하게 퍼짐)
+ * 목록에 없는 심볼(replay 등)은 처음 본 순서대로 이어서 배정
+ *
+ * shard 큐는 bounded (binance.shard.queue-capacity), 가득 차면 write-behind 큐와 같은 정책
+ * - BLOCK: 소켓 스레드가 대기 -> 소켓 읽기가 멈춰 TCP 로 backpressure
+ * - DROP_OLDEST: 가장 오래된 작업을 버리고 넣음
+ */
+@Component
+public class SymbolShardExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolShardExecutor.class);
+
+    private final ThreadPoolExecutor[] shards;
+    private final Backpressure backpressure;
+    private final Map<String, Integer> assignment = new ConcurrentHashMap<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SymbolShardExecutor(
+            @Value("${binance.shards:0}") int shardCount,
+            @Value("${binance.shard.queue-capacity:10000}") int queueCapacity,
+            @Value("${binance.shard.backpressure:BLOCK}") Backpressure backpressure,
+            BinanceSymbols symbols,
+            PipelineMetrics metrics) {
+        int n = (shardCount > 0) ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.backpressure = backpressure;
+        this.shards = new ThreadPoolExecutor[n];
+        RejectedExecutionHandler whenFull = this::onQueueFull;
+        for (int i = 0; i < n; i++) {
+            String name = "symbol-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    whenFull);
+            metrics.queueGauge("coin.shard.queued", "shard", Integer.toString(i), shards[i], s -> s.getQueue().size());
+        }
+        metrics.queueGauge("coin.shard.dropped", "policy", backpressure.name(), dropped, AtomicLong::get);
+
+        // 설정 심볼은 목록 순서로 미리 배정
+        for (String symbol : symbols.symbols())
+            shardOf(symbol);
+
+        log.info("[SHARD] {} symbol shards, queueCapacity={}, backpressure={}", n, queueCapacity, backpressure);
+    }
+
+    public void execute(String symbol, Runnable task) {
+        shards[shardOf(symbol)].execute(task);
+    }
+
+    public int shardOf(String symbol) {
+        Integer shard = assignment.get(symbol);
+        if (shard != null)
+            return shard;
+        // computeIfAbsent 는 키별로 1번만 실행, 카운터는 원자적 -> 동시에 처음 본 심볼도 서로 다른 shard
+        return assignment.computeIfAbsent(symbol, s -> Math.floorMod(nextShard.getAndIncrement(), shards.length));
+    }
+
+    /**
+     * shard 큐가 가득 찼을 때 (ThreadPoolExecutor 의 reject 시점)
+     */
+    private void onQueueFull(Runnable task, ThreadPoolExecutor shard) {
+        if (shard.isShutdown()) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if (backpressure == Backpressure.BLOCK) {
+            try {
+                shard.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+
+        while (!shard.getQueue().offer(task)) {
+            if (shard.getQueue().poll() != null && dropped.incrementAndGet() % 1000 == 1)
+                log.warn("[SHARD] queue full, dropping oldest task (dropped={})", dropped.get());
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * shard 별 대기 작업 수
+     */
+    public List<Integer> queueDepths() {
+        List<Integer> out = new ArrayList<>(shards.length);
+        for (ThreadPoolExecutor s : shards)
+            out.add(s.getQueue().size());
+        return out;
+    }
+
+    public int maxQueueDepth() {
+        int max = 0;
+        for (ThreadPoolExecutor s : shards)
+            max = Math.max(max, s.getQueue().size());
+        return max;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService s : shards)
+            s.shutdown();
+        for (ExecutorService s : shards) {
+            try {
+                if (!s.awaitTermination(3, TimeUnit.SECONDS))
+                    s.shutdownNow();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                s.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.TableStatus;
+import com.team_biance.the_coin_killer.mapper.MonitorMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 모니터 화면용 테이블 통계 (row 수 / 최신 시각 / 마지막 row), DB 조회 없이 O(1) 로 읽음
+ *
+ * - row 수 = information_schema.TABLES.TABLE_ROWS 추정치(시작 시 1회) + 이후 저장 - retention 삭제
+ *   (upsert 가 기존 row 를 덮어써도 +1 -> 근사값)
+ * - 최신 시각 = 저장한 row 의 ts_utc 최댓값. 시작 직후 아직 저장이 없는 테이블만 MAX(ts_utc) 1회로 채움
+ * - row 수 / 최신 시각은 write-behind writer 의 flush 성공 시에만 갱신 (writer 가 멈추면 최신 시각도 멈춤)
+ * - lastRow 는 큐에 넣을 때 갱신 (화면의 마지막 값 표시용, 저장 여부와 무관)
+ * - 쓰기는 WriteBehindService (리스너 / feature 파이프라인 / writer 스레드), 읽기는 웹 스레드
+ */
+@Component
+public class TableStatsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TableStatsRegistry.class);
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * 대시보드 표시 순서
+     */
+    public enum Table {
+        KLINE("f_kline_1m", "1분 캔들"),
+        MARK("f_mark_1s", "마크가격(1초)"),
+        DEPTH("f_depth_snapshot_1s", "오더북 스냅샷(1초)"),
+        FORCE_ORDER("f_forceorder", "강제청산"),
+        AGG_TRADE("f_aggtrade_1m", "체결 집계(1분)"),
+        DEPTH_MINUTE("f_depth_1m", "오더북 집계(1분)"),
+        MARK_MINUTE("f_mark_1m", "마크가격 집계(1분)"),
+        FEATURE_MINUTE("feature_minute", "피처(1분)");
+
+        private final String tableName;
+        private final String displayName;
+
+        Table(String tableName, String displayName) {
+            this.tableName = tableName;
+            this.displayName = displayName;
+        }
+
+        public String tableName() {
+            return tableName;
+        }
+
+        public String displayName() {
+            return displayName;
+        }
+
+        public static Table of(String tableName) {
+            for (Table t : values()) {
+                if (t.tableName.equalsIgnoreCase(tableName))
+                    return t;
+            }
+            return null;
+        }
+    }
+
+    private static final class Stats {
+        volatile long seedRows = -1;
+        final LongAdder written = new LongAdder();
+        final LongAdder deleted = new LongAdder();
+        final AtomicLong latestMs = new AtomicLong(NONE);
+        volatile Object lastRow;
+    }
+
+    private final MonitorMapper monitorMapper;
+    private final Stats[] stats = new Stats[Table.values().length];
+
+    public TableStatsRegistry(MonitorMapper monitorMapper) {
+        this.monitorMapper = monitorMapper;
+        for (int i = 0; i < stats.length; i++)
+            stats[i] = new Stats();
+    }
+
+    // =========================
+    // 쓰기
+    // =========================
+    /**
+     * 큐에 들어간 row (아직 저장 전) -> lastRow 만
+     */
+    public void onEnqueued(Table t, Object row) {
+        stats[t.ordinal()].lastRow = row;
+    }
+
+    /**
+     * writer 가 저장을 마친 batch
+     *
+     * @param latestTs batch 안 ts_utc 최댓값 (없으면 null)
+     */
+    public void onFlushed(Table t, int rows, LocalDateTime latestTs) {
+        Stats s = stats[t.ordinal()];
+        if (rows > 0)
+            s.written.add(rows);
+        observeLatest(s, latestTs);
+    }
+
+    /**
+     * row 객체 없이 들어간 row 수 (retention 의 INSERT .. SELECT rollup)
+     */
+    public void onInserted(Table t, long rows) {
+        if (rows > 0)
+            stats[t.ordinal()].written.add(rows);
+    }
+
+    public void onDeleted(Table t, long rows) {
+        if (rows > 0)
+            stats[t.ordinal()].deleted.add(rows);
+    }
+
+    private static void observeLatest(Stats s, LocalDateTime ts) {
+        if (ts == null)
+            return;
+        long ms = ts.toInstant(ZoneOffset.UTC).toEpochMilli();
+        s.latestMs.accumulateAndGet(ms, Math::max);
+    }
+
+    // =========================
+    // 읽기
+    // =========================
+    public long rows(Table t) {
+        Stats s = stats[t.ordinal()];
+        return Math.max(0L, Math.max(0L, s.seedRows) + s.written.sum() - s.deleted.sum());
+    }
+
+    public LocalDateTime latest(Table t) {
+        long ms = stats[t.ordinal()].latestMs.get();
+        return (ms == NONE) ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(ms), ZoneOffset.UTC);
+    }
+
+    /**
+     * 마지막으로 큐에 넣은 row (심볼 무관), 아직 없으면 null
+     */
+    public <T> T lastRow(Table t, Class<T> type) {
+        Object row = stats[t.ordinal()].lastRow;
+        return type.isInstance(row) ? type.cast(row) : null;
+    }
+
+    /**
+     * DB 에서 읽은 row 로 lastRow 만 채움 (시작 직후 아직 저장이 없을 때)
+     */
+    public void offerLastRow(Table t, Object row, LocalDateTime ts) {
+        if (row == null)
+            return;
+        Stats s = stats[t.ordinal()];
+        if (s.lastRow == null)
+            s.lastRow = row;
+        observeLatest(s, ts);
+    }
+
+    /**
+     * 전체 저장 row 수 합 (바뀌었는지 확인용, 값 자체는 의미 없음)
+     */
+    public long version() {
+        long v = 0L;
+        for (Stats s : stats)
+            v += s.written.sum();
+        return v;
+    }
+
+    public boolean isSeeded(Table t) {
+        return stats[t.ordinal()].seedRows >= 0;
+    }
+
+    // =========================
+    // 시작 시 1회 seed (백그라운드)
+    // =========================
+    @PostConstruct
+    public void start() {
+        Thread t = new Thread(this::seed, "table-stats-seed");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void seed() {
+        try {
+            for (TableStatus e : monitorMapper.tableRowEstimates()) {
+                Table t = Table.of(e.getTableName());
+                if (t != null)
+                    stats[t.ordinal()].seedRows = e.getTotalCount();
+            }
+        } catch (Exception e) {
+            log.warn("[TABLE-STATS] row estimate failed: {}", e.getMessage());
+        }
+
+        // 이미 저장이 들어온 테이블은 MAX 조회 생략 (1초 테이블은 보통 여기서 빠짐)
+        for (Table t : Table.values()) {
+            Stats s = stats[t.ordinal()];
+            if (s.latestMs.get() != NONE)
+                continue;
+            try {
+                observeLatest(s, latestQuery(t).get());
+            } catch (Exception e) {
+                log.warn("[TABLE-STATS] latest time failed: table={}, err={}", t.tableName, e.getMessage());
+            }
+        }
+        log.info("[TABLE-STATS] seeded: kline={}, mark={}, depth={}, feature={}",
+                rows(Table.KLINE), rows(Table.MARK), rows(Table.DEPTH), rows(Table.FEATURE_MINUTE));
+    }
+
+    private Supplier<LocalDateTime> latestQuery(Table t) {
+        return switch (t) {
+            case KLINE -> monitorMapper::latestKlineTime;
+            case MARK -> monitorMapper::latestMarkTime;
+            case DEPTH -> monitorMapper::latestDepthTime;
+            case FORCE_ORDER -> monitorMapper::latestForceOrderTime;
+            case AGG_TRADE -> monitorMapper::latestAggTradeTime;
+            case DEPTH_MINUTE -> monitorMapper::latestDepthMinuteTime;
+            case MARK_MINUTE -> monitorMapper::latestMarkMinuteTime;
+            case FEATURE_MINUTE -> monitorMapper::latestFeatureMinuteTime;
+        };
+    }
+}
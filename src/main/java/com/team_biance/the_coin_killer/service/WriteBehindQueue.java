@@ -0,0 +1,393 @@
+package com.team_biance.the_coin_killer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 테이블 1개용 write-behind 큐
+ * - bounded 큐 + 전용 writer 스레드 1개
+ * - batchSize 만큼 모이거나, 첫 row 이후 flushInterval 이 지나면 flusher(List) 호출
+ * - 큐가 가득 찼을 때: BLOCK(생산자 대기) / DROP_OLDEST(가장 오래된 row 버림)
+ * - flush 실패 시 오류 종류로 나눔
+ *   - 일시적 오류 (연결 끊김 / deadlock / lock wait / timeout): BLOCK 은 같은 batch 를 backoff 로
+ *     MAX_RETRIES 번까지 재시도 (그동안 큐가 차면 생산자 대기), DROP_OLDEST 는 batch 를 버림.
+ *     종료 중에는 SHUTDOWN_RETRIES 번까지만
+ *   - 그 외 (제약 위반 / 값 잘림 / SQL 문법 등 다시 해도 같은 결과): batch 를 반으로 나눠 다시 저장,
+ *     1 row 까지 좁혀도 실패하면 그 row 만 버림 (rejectedRows, 로그에 row 식별자)
+ *   -> 잘못된 row 1개가 writer 를 막아 BLOCK 큐 -> shard -> 소켓 수집까지 멈추는 일이 없음
+ * - flush 성공한 batch 는 RowListener.onFlushed 로 넘김 (writer 스레드, 저장된 row 만)
+ *
+ * 생산자는 WebSocket/리스너 스레드이므로 offer()는 DB 왕복을 절대 기다리지 않는다 (BLOCK 제외).
+ */
+public class WriteBehindQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    static final long RETRY_BASE_MS = 200L;
+    static final long RETRY_MAX_MS = 10_000L;
+    // 200ms 부터 2배, 최대 10초 -> 약 5분
+    static final int MAX_RETRIES = 34;
+    static final int SHUTDOWN_RETRIES = 3;
+
+    public enum Backpressure {
+        BLOCK,
+        DROP_OLDEST
+    }
+
+    /**
+     * writer 스레드 콜백
+     */
+    @FunctionalInterface
+    public interface RowListener<T> {
+        // 저장에 성공한 batch
+        void onFlushed(List<T> rows);
+
+        // 버린 row 로그용 식별자
+        default String describe(T row) {
+            return String.valueOf(row);
+        }
+    }
+
+    private final String name;
+    private final ArrayBlockingQueue<T> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Backpressure backpressure;
+    private final Consumer<List<T>> flusher;
+    private final PipelineMetrics.FlushObserver flushObserver;
+    private final RowListener<T> listener;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // ---- metrics ----
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long maxFlushNanos;
+    private volatile long lastFlushNanos;
+    private volatile int lastBatchSize;
+
+    public WriteBehindQueue(String name,
+            int capacity,
+            int batchSize,
+            long flushIntervalMs,
+            Backpressure backpressure,
+            Consumer<List<T>> flusher) {
+        this(name, capacity, batchSize, flushIntervalMs, backpressure, flusher, null);
+    }
+
+    public WriteBehindQueue(String name,
+            int capacity,
+            int batchSize,
+            long flushIntervalMs,
+            Backpressure backpressure,
+            Consumer<List<T>> flusher,
+            PipelineMetrics.FlushObserver flushObserver) {
+        this(name, capacity, batchSize, flushIntervalMs, backpressure, flusher, flushObserver, null);
+    }
+
+    public WriteBehindQueue(String name,
+            int capacity,
+            int batchSize,
+            long flushIntervalMs,
+            Backpressure backpressure,
+            Consumer<List<T>> flusher,
+            PipelineMetrics.FlushObserver flushObserver,
+            RowListener<T> listener) {
+        this.name = name;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.backpressure = backpressure;
+        this.flusher = flusher;
+        this.flushObserver = flushObserver;
+        this.listener = listener;
+
+        this.writer = new Thread(this::runLoop, "write-behind-" + name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void offer(T row) {
+        if (row == null)
+            return;
+
+        if (backpressure == Backpressure.BLOCK) {
+            try {
+                queue.put(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                return;
+            }
+        } else {
+            while (!queue.offer(row)) {
+                if (queue.poll() != null)
+                    dropped.incrementAndGet();
+            }
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * writer 종료: 남은 row를 모두 flush 한 뒤 리턴 (최대 timeoutMs 대기)
+     */
+    public void close(long timeoutMs) {
+        running = false;
+        try {
+            writer.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("[WRITE-BEHIND][{}] writer did not stop in {}ms, pending={}", name, timeoutMs, queue.size());
+        }
+    }
+
+    private void runLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                T first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+                collect(batch);
+                flushOrRetry(batch);
+            } catch (InterruptedException e) {
+                if (!running)
+                    break;
+            } catch (Throwable t) {
+                log.error("[WRITE-BEHIND][{}] writer loop error: {}", name, t.getMessage(), t);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남은 row 전부 flush
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            flushOrRetry(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * batchSize 까지 채우되, 첫 row 이후 flushInterval 을 넘기지 않는다
+     */
+    private void collect(List<T> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize)
+                return;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+
+            T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    /**
+     * 일시적 오류: BLOCK 은 같은 batch 재시도 (RETRY_BASE_MS 부터 2배씩, 최대 RETRY_MAX_MS, MAX_RETRIES 번),
+     * DROP_OLDEST 는 1번 실패하면 버림
+     * 그 외 오류: 반으로 나눠 각각 다시 (좋은 row 는 저장, 나쁜 row 만 버림)
+     */
+    private void flushOrRetry(List<T> batch) {
+        if (batch.isEmpty())
+            return;
+
+        long backoffMs = RETRY_BASE_MS;
+        int attempt = 0;
+        Exception error;
+        while ((error = flush(batch)) != null) {
+            if (!isTransient(error)) {
+                split(batch, error);
+                return;
+            }
+
+            attempt++;
+            boolean giveUp = backpressure == Backpressure.DROP_OLDEST
+                    || attempt > (running ? MAX_RETRIES : SHUTDOWN_RETRIES);
+            if (giveUp) {
+                fail(batch.size());
+                log.error("[WRITE-BEHIND][{}] batch dropped: rows={}, attempts={}, err={}",
+                        name, batch.size(), attempt, error.getMessage(), error);
+                return;
+            }
+
+            retries.incrementAndGet();
+            log.warn("[WRITE-BEHIND][{}] retry in {}ms: rows={}, attempt={}, pending={}, err={}",
+                    name, backoffMs, batch.size(), attempt, queue.size(), error.getMessage());
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                // close() 는 interrupt 하지 않음, 그래도 오면 종료 중 재시도 규칙으로 넘어감
+                running = false;
+            }
+            backoffMs = Math.min(backoffMs * 2, RETRY_MAX_MS);
+        }
+    }
+
+    /**
+     * 다시 해도 실패할 오류 -> 반씩 나눠 저장, 1 row 면 버림
+     */
+    private void split(List<T> batch, Exception error) {
+        if (batch.size() == 1) {
+            T row = batch.get(0);
+            rejectedRows.incrementAndGet();
+            fail(1);
+            log.error("[WRITE-BEHIND][{}] row rejected: row={}, err={}", name,
+                    (listener != null) ? listener.describe(row) : row, error.getMessage());
+            return;
+        }
+        log.debug("[WRITE-BEHIND][{}] split batch: rows={}, err={}", name, batch.size(), error.getMessage());
+        int mid = batch.size() / 2;
+        flushOrRetry(batch.subList(0, mid));
+        flushOrRetry(batch.subList(mid, batch.size()));
+    }
+
+    private void fail(int rows) {
+        failedRows.addAndGet(rows);
+        if (flushObserver != null)
+            flushObserver.onFailedRows(rows);
+    }
+
+    /**
+     * 다시 하면 성공할 수 있는 오류인지 (cause 를 따라가며 확인)
+     * - Spring: Transient / Recoverable / 연결 실패 (CannotGetJdbcConnection 포함)
+     * - JDBC: SQLTransient / SQLRecoverable / 연결 오류, SQLState 08(연결) / 40(deadlock, rollback),
+     *   MySQL 1205 (lock wait timeout)
+     * DataIntegrityViolation / BadSqlGrammar / 값 잘림 등은 false
+     */
+    static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = (t.getCause() == t) ? null : t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof SQLNonTransientConnectionException)
+                return true;
+            if (t instanceof SQLException sql) {
+                String state = sql.getSQLState();
+                if (state != null && (state.startsWith("08") || state.startsWith("40")))
+                    return true;
+                if (sql.getErrorCode() == 1205)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 실패하면 그 오류, 성공하면 null
+     */
+    private Exception flush(List<T> batch) {
+        int n = batch.size();
+        long t0 = System.nanoTime();
+        Exception error = null;
+        try {
+            flusher.accept(batch);
+            flushedRows.addAndGet(n);
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            flushCount.incrementAndGet();
+            totalFlushNanos.addAndGet(elapsed);
+            lastFlushNanos = elapsed;
+            lastBatchSize = n;
+            if (elapsed > maxFlushNanos)
+                maxFlushNanos = elapsed;
+            if (flushObserver != null)
+                flushObserver.onFlush(n, elapsed, error == null);
+        }
+        if (error == null && listener != null) {
+            try {
+                listener.onFlushed(batch);
+            } catch (Exception e) {
+                log.warn("[WRITE-BEHIND][{}] onFlushed failed: {}", name, e.getMessage());
+            }
+        }
+        return error;
+    }
+
+    // =========================
+    // Metrics
+    // =========================
+    public String name() {
+        return name;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public Stats stats() {
+        long flushes = flushCount.get();
+        double avgFlushMs = (flushes == 0) ? 0.0 : totalFlushNanos.get() / (double) flushes / 1_000_000.0;
+        return new Stats(
+                name,
+                backpressure.name(),
+                queue.size(),
+                capacity,
+                enqueued.get(),
+                dropped.get(),
+                flushedRows.get(),
+                failedRows.get(),
+                rejectedRows.get(),
+                retries.get(),
+                flushes,
+                lastBatchSize,
+                lastFlushNanos / 1_000_000.0,
+                avgFlushMs,
+                maxFlushNanos / 1_000_000.0);
+    }
+
+    public record Stats(
+            String name,
+            String backpressure,
+            int queueDepth,
+            int capacity,
+            long enqueued,
+            long dropped,
+            long flushedRows,
+            long failedRows,
+            long rejectedRows,
+            long retries,
+            long flushCount,
+            int lastBatchSize,
+            double lastFlushMs,
+            double avgFlushMs,
+            double maxFlushMs) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.mapper.AggTradeMapper;
+import com.team_biance.the_coin_killer.mapper.DepthMinuteMapper;
+import com.team_biance.the_coin_killer.mapper.DepthSnapshotMapper;
+import com.team_biance.the_coin_killer.mapper.FeatureMinuteMapper;
+import com.team_biance.the_coin_killer.mapper.ForceOrderMapper;
+import com.team_biance.the_coin_killer.mapper.KlineMapper;
+import com.team_biance.the_coin_killer.mapper.MarkMinuteMapper;
+import com.team_biance.the_coin_killer.mapper.MarkPriceMapper;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FForceOrder;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FMark1m;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import com.team_biance.the_coin_killer.service.TableStatsRegistry.Table;
+import com.team_biance.the_coin_killer.service.WriteBehindQueue.Backpressure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 리스너 -> DB 사이의 write-behind 단계
+ * - WebSocket 스레드에서는 큐에 넣기만 하고, 테이블별 writer 스레드가 multi-row upsert 로 저장한다.
+ * - kline/force/agg/feature/분 rollup 은 유실 불가 -> BLOCK, mark/depth 는 최신값이 중요 -> DROP_OLDEST
+ * - 영구 오류 row 는 queue 가 batch 를 나눠 그 row 만 버리고 로그에 테이블(심볼, 시각) 으로 남김
+ * - TableStatsRegistry: 넣을 때는 lastRow 만, row 수 / 최신 시각은 flush 성공한 batch 로 갱신
+ */
+@Service
+public class WriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindService.class);
+
+    @Value("${app.persist.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.persist.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.persist.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.persist.batch-mode:MULTI_VALUES}")
+    private MapperBatchExecutor.Mode batchMode;
+
+    @Value("${app.persist.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.persist.backpressure.kline:BLOCK}")
+    private Backpressure klineBackpressure;
+
+    @Value("${app.persist.backpressure.mark:DROP_OLDEST}")
+    private Backpressure markBackpressure;
+
+    @Value("${app.persist.backpressure.force:BLOCK}")
+    private Backpressure forceBackpressure;
+
+    @Value("${app.persist.backpressure.depth:DROP_OLDEST}")
+    private Backpressure depthBackpressure;
+
+    @Value("${app.persist.backpressure.feature:BLOCK}")
+    private Backpressure featureBackpressure;
+
+    @Value("${app.persist.backpressure.agg:BLOCK}")
+    private Backpressure aggBackpressure;
+
+    // f_depth_1m / f_mark_1m (분당 심볼 1 row)
+    @Value("${app.persist.backpressure.rollup:BLOCK}")
+    private Backpressure rollupBackpressure;
+
+    private final KlineMapper klineMapper;
+    private final MarkPriceMapper markPriceMapper;
+    private final ForceOrderMapper forceOrderMapper;
+    private final DepthSnapshotMapper depthSnapshotMapper;
+    private final FeatureMinuteMapper featureMinuteMapper;
+    private final AggTradeMapper aggTradeMapper;
+    private final DepthMinuteMapper depthMinuteMapper;
+    private final MarkMinuteMapper markMinuteMapper;
+    private final MapperBatchExecutor batchExecutor;
+    private final PipelineMetrics metrics;
+    private final TableStatsRegistry tableStats;
+
+    private WriteBehindQueue<FKline1m> klineQueue;
+    private WriteBehindQueue<FMark1s> markQueue;
+    private WriteBehindQueue<FForceOrder> forceQueue;
+    private WriteBehindQueue<FDepthSnapshot1s> depthQueue;
+    private WriteBehindQueue<FeatureMinute> featureQueue;
+    private WriteBehindQueue<FAggTrade1m> aggQueue;
+    private WriteBehindQueue<FDepth1m> depthMinuteQueue;
+    private WriteBehindQueue<FMark1m> markMinuteQueue;
+
+    public WriteBehindService(
+            KlineMapper klineMapper,
+            MarkPriceMapper markPriceMapper,
+            ForceOrderMapper forceOrderMapper,
+            DepthSnapshotMapper depthSnapshotMapper,
+            FeatureMinuteMapper featureMinuteMapper,
+            AggTradeMapper aggTradeMapper,
+            DepthMinuteMapper depthMinuteMapper,
+            MarkMinuteMapper markMinuteMapper,
+            MapperBatchExecutor batchExecutor,
+            PipelineMetrics metrics,
+            TableStatsRegistry tableStats) {
+        this.klineMapper = klineMapper;
+        this.markPriceMapper = markPriceMapper;
+        this.forceOrderMapper = forceOrderMapper;
+        this.depthSnapshotMapper = depthSnapshotMapper;
+        this.featureMinuteMapper = featureMinuteMapper;
+        this.aggTradeMapper = aggTradeMapper;
+        this.depthMinuteMapper = depthMinuteMapper;
+        this.markMinuteMapper = markMinuteMapper;
+        this.batchExecutor = batchExecutor;
+        this.metrics = metrics;
+        this.tableStats = tableStats;
+    }
+
+    @PostConstruct
+    public void start() {
+        klineQueue = queue("kline", Table.KLINE, FKline1m::getSymbol, FKline1m::getTsUtc, klineBackpressure,
+                rows -> batchExecutor.write(batchMode, KlineMapper.class, rows, batchSize,
+                        klineMapper::upsertBatch, KlineMapper::upsert));
+        markQueue = queue("mark", Table.MARK, FMark1s::getSymbol, FMark1s::getTsUtc, markBackpressure,
+                rows -> batchExecutor.write(batchMode, MarkPriceMapper.class, rows, batchSize,
+                        markPriceMapper::upsertBatch, MarkPriceMapper::upsert));
+        forceQueue = queue("force", Table.FORCE_ORDER, FForceOrder::getSymbol, FForceOrder::getEventUtc, forceBackpressure,
+                rows -> batchExecutor.write(batchMode, ForceOrderMapper.class, rows, batchSize,
+                        forceOrderMapper::insertBatch, ForceOrderMapper::insert));
+        depthQueue = queue("depth", Table.DEPTH, FDepthSnapshot1s::getSymbol, FDepthSnapshot1s::getTsUtc, depthBackpressure,
+                rows -> batchExecutor.write(batchMode, DepthSnapshotMapper.class, rows, batchSize,
+                        depthSnapshotMapper::upsertBatch, DepthSnapshotMapper::upsert));
+        featureQueue = queue("feature", Table.FEATURE_MINUTE, FeatureMinute::getSymbol, FeatureMinute::getTsUtc, featureBackpressure,
+                rows -> batchExecutor.write(batchMode, FeatureMinuteMapper.class, rows, batchSize,
+                        featureMinuteMapper::upsertBatch, FeatureMinuteMapper::upsert));
+        aggQueue = queue("agg", Table.AGG_TRADE, FAggTrade1m::getSymbol, FAggTrade1m::getTsUtc, aggBackpressure,
+                rows -> batchExecutor.write(batchMode, AggTradeMapper.class, rows, batchSize,
+                        aggTradeMapper::upsertBatch, AggTradeMapper::upsert));
+        depthMinuteQueue = queue("depth1m", Table.DEPTH_MINUTE, FDepth1m::getSymbol, FDepth1m::getTsUtc, rollupBackpressure,
+                rows -> batchExecutor.write(batchMode, DepthMinuteMapper.class, rows, batchSize,
+                        depthMinuteMapper::upsertBatch, DepthMinuteMapper::upsert));
+        markMinuteQueue = queue("mark1m", Table.MARK_MINUTE, FMark1m::getSymbol, FMark1m::getTsUtc, rollupBackpressure,
+                rows -> batchExecutor.write(batchMode, MarkMinuteMapper.class, rows, batchSize,
+                        markMinuteMapper::upsertBatch, MarkMinuteMapper::upsert));
+
+        log.info("[WRITE-BEHIND] started: mode={}, batchSize={}, flushIntervalMs={}, capacity={}",
+                batchMode, batchSize, flushIntervalMs, queueCapacity);
+    }
+
+    private <T> WriteBehindQueue<T> queue(String name, Table table, Function<T, String> symbolOf,
+            Function<T, LocalDateTime> tsOf, Backpressure backpressure, Consumer<List<T>> flusher) {
+        WriteBehindQueue.RowListener<T> listener = new WriteBehindQueue.RowListener<>() {
+            @Override
+            public void onFlushed(List<T> rows) {
+                WriteBehindService.this.onFlushed(table, tsOf, rows);
+            }
+
+            @Override
+            public String describe(T row) {
+                return table.tableName() + "(" + symbolOf.apply(row) + ", " + tsOf.apply(row) + ")";
+            }
+        };
+        WriteBehindQueue<T> q = new WriteBehindQueue<>(name, queueCapacity, batchSize, flushIntervalMs,
+                backpressure, flusher, metrics.dbFlush(table.tableName()), listener);
+        metrics.queueGauge("coin.writebehind.queued", "table", table.tableName(), q, WriteBehindQueue::queueDepth);
+        return q;
+    }
+
+    /**
+     * writer 스레드: 저장된 batch 만큼 row 수 / 최신 시각 반영
+     */
+    private <T> void onFlushed(Table table, Function<T, LocalDateTime> tsOf, List<T> rows) {
+        LocalDateTime latest = null;
+        for (T row : rows) {
+            LocalDateTime ts = tsOf.apply(row);
+            if (ts != null && (latest == null || ts.isAfter(latest)))
+                latest = ts;
+        }
+        tableStats.onFlushed(table, rows.size(), latest);
+    }
+
+    public void enqueueKline(FKline1m row) {
+        tableStats.onEnqueued(Table.KLINE, row);
+        klineQueue.offer(row);
+    }
+
+    public void enqueueMark(FMark1s row) {
+        tableStats.onEnqueued(Table.MARK, row);
+        markQueue.offer(row);
+    }
+
+    public void enqueueForceOrder(FForceOrder row) {
+        tableStats.onEnqueued(Table.FORCE_ORDER, row);
+        forceQueue.offer(row);
+    }
+
+    public void enqueueDepth(FDepthSnapshot1s row) {
+        tableStats.onEnqueued(Table.DEPTH, row);
+        depthQueue.offer(row);
+    }
+
+    public void enqueueFeature(FeatureMinute row) {
+        tableStats.onEnqueued(Table.FEATURE_MINUTE, row);
+        featureQueue.offer(row);
+    }
+
+    public void enqueueAggMinute(FAggTrade1m row) {
+        tableStats.onEnqueued(Table.AGG_TRADE, row);
+        aggQueue.offer(row);
+    }
+
+    public void enqueueDepthMinute(FDepth1m row) {
+        tableStats.onEnqueued(Table.DEPTH_MINUTE, row);
+        depthMinuteQueue.offer(row);
+    }
+
+    public void enqueueMarkMinute(FMark1m row) {
+        tableStats.onEnqueued(Table.MARK_MINUTE, row);
+        markMinuteQueue.offer(row);
+    }
+
+    public List<WriteBehindQueue.Stats> stats() {
+        return List.of(klineQueue.stats(), markQueue.stats(), forceQueue.stats(), depthQueue.stats(),
+                aggQueue.stats(), depthMinuteQueue.stats(), markMinuteQueue.stats(), featureQueue.stats());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 남은 row 는 writer 가 모두 flush 하고 종료
+        for (WriteBehindQueue<?> q : List.of(klineQueue, markQueue, forceQueue, depthQueue, aggQueue,
+                depthMinuteQueue, markMinuteQueue, featureQueue)) {
+            q.close(shutdownTimeoutMs);
+        }
+        log.info("[WRITE-BEHIND] stopped: {}", stats());
+    }
+}
@@ -52,6 +52,93 @@ def _ensure_numeric(df: pd.DataFrame, cols: list) -> pd.DataFrame:
     return df
 
 
+# ========================================
+# Depth / Mark 분 집계 (f_depth_1m / f_mark_1m 우선)
+# - Java 리스너가 분 봉인 시 저장하는 rollup 을 읽고 (분당 1 row),
+#   rollup 이 없는 앞쪽 구간만 1초 raw 테이블을 GROUP BY (rollup 도입 이전 데이터)
+# - 반환 ts_minute 는 분 시작 (LAG 적용 전)
+# ========================================
+def _first_rollup_minute(conn, table: str, symbol: str, start_ts, end_ts):
+    sql = f"SELECT MIN(ts_utc) FROM {table} WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s"
+    try:
+        with conn.cursor() as cur:
+            cur.execute(sql, (symbol, start_ts, end_ts))
+            row = cur.fetchone()
+    except pymysql.err.ProgrammingError as e:
+        # rollup 테이블이 아직 없으면 raw 만 사용
+        log(f"[DataLoader] {table} unavailable, using raw: {e}")
+        return None
+    return row[0] if row else None
+
+
+def _load_minutes(conn, symbol: str, start_ts, end_ts, table: str, sql_rollup: str, sql_raw: str,
+                  cols: list) -> pd.DataFrame:
+    first = _first_rollup_minute(conn, table, symbol, start_ts, end_ts)
+    raw_end = first if first is not None else end_ts
+
+    parts = []
+    if raw_end > start_ts:
+        parts.append(pd.read_sql(sql_raw, conn, params=(symbol, start_ts, raw_end)))
+    if first is not None:
+        parts.append(pd.read_sql(sql_rollup, conn, params=(symbol, first, end_ts)))
+    parts = [p for p in parts if not p.empty]
+    if not parts:
+        return pd.DataFrame(columns=["ts_minute"] + cols)
+
+    df = pd.concat(parts, ignore_index=True)
+    df["ts_minute"] = pd.to_datetime(df["ts_minute"], utc=True, errors="coerce")
+    return _ensure_numeric(df, cols)
+
+
+def load_depth_minutes(conn, symbol: str, start_ts, end_ts) -> pd.DataFrame:
+    """분별 spread_bps / imbalance_top20 / microprice_gap_bps / mid_price 평균"""
+    sql_rollup = """
+        SELECT ts_utc AS ts_minute,
+               spread_bps_avg AS spread_bps, imbalance_top20_avg AS imbalance_top20,
+               microprice_gap_bps_avg AS microprice_gap_bps, mid_price_avg AS mid_price
+        FROM f_depth_1m
+        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
+        ORDER BY ts_utc
+    """
+    sql_raw = """
+        SELECT
+            DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
+            AVG(spread_bps) AS spread_bps,
+            AVG(imbalance_top20) AS imbalance_top20,
+            AVG(microprice_gap_bps) AS microprice_gap_bps,
+            AVG(mid_price) AS mid_price
+        FROM f_depth_snapshot_1s
+        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
+        GROUP BY ts_minute
+        ORDER BY ts_minute
+    """
+    return _load_minutes(conn, symbol, start_ts, end_ts, "f_depth_1m", sql_rollup, sql_raw,
+                         ["spread_bps", "imbalance_top20", "microprice_gap_bps", "mid_price"])
+
+
+def load_mark_minutes(conn, symbol: str, start_ts, end_ts) -> pd.DataFrame:
+    """분별 mark_price_avg / funding_rate 평균"""
+    sql_rollup = """
+        SELECT ts_utc AS ts_minute,
+               mark_price_avg, funding_rate_avg AS funding_rate
+        FROM f_mark_1m
+        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
+        ORDER BY ts_utc
+    """
+    sql_raw = """
+        SELECT
+            DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
+            AVG(mark_price) AS mark_price_avg,
+            AVG(funding_rate) AS funding_rate
+        FROM f_mark_1s
+        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
+        GROUP BY ts_minute
+        ORDER BY ts_minute
+    """
+    return _load_minutes(conn, symbol, start_ts, end_ts, "f_mark_1m", sql_rollup, sql_raw,
+                         ["mark_price_avg", "funding_rate"])
+
+
 def load_features_from_raw(
     symbol: str = "BTCUSDT",
     days: int = 7,
@@ -136,28 +223,9 @@ def load_features_from_raw(
     # ========================================
     # 3. Depth 데이터 (★ LAG: t-1 시점 사용)
     # ========================================
-    sql_depth = """
-        SELECT 
-            DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
-            AVG(spread_bps) AS spread_bps,
-            AVG(imbalance_top20) AS imbalance_top20,
-            AVG(microprice_gap_bps) AS microprice_gap_bps,
-            AVG(mid_price) AS mid_price
-        FROM f_depth_snapshot_1s
-        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
-        GROUP BY ts_minute
-        ORDER BY ts_minute
-    """
-    df_depth = pd.read_sql(sql_depth, conn, params=(
-        symbol, 
-        start_ts_utc.replace(tzinfo=None), 
-        end_ts_utc.replace(tzinfo=None)
-    ))
+    df_depth = load_depth_minutes(conn, symbol, start_ts_utc.replace(tzinfo=None), end_ts_utc.replace(tzinfo=None))
     
     if not df_depth.empty:
-        df_depth["ts_minute"] = pd.to_datetime(df_depth["ts_minute"], utc=True, errors="coerce")
-        df_depth = _ensure_numeric(df_depth, ["spread_bps", "imbalance_top20", "microprice_gap_bps", "mid_price"])
-        
         # ★ LAG 적용: 1분 뒤로 shift하여 "이전 분" 데이터로 만듦
         df_depth["ts_minute_next"] = df_depth["ts_minute"] + pd.Timedelta(minutes=1)
         df_depth = df_depth.drop(columns=["ts_minute"]).rename(columns={"ts_minute_next": "ts_minute"})
@@ -176,26 +244,9 @@ def load_features_from_raw(
     # ========================================
     # 4. Mark 데이터 (★ LAG: t-1 시점 사용)
     # ========================================
-    sql_mark = """
-        SELECT 
-            DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
-            AVG(mark_price) AS mark_price_avg,
-            AVG(funding_rate) AS funding_rate
-        FROM f_mark_1s
-        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
-        GROUP BY ts_minute
-        ORDER BY ts_minute
-    """
-    df_mark = pd.read_sql(sql_mark, conn, params=(
-        symbol, 
-        start_ts_utc.replace(tzinfo=None), 
-        end_ts_utc.replace(tzinfo=None)
-    ))
+    df_mark = load_mark_minutes(conn, symbol, start_ts_utc.replace(tzinfo=None), end_ts_utc.replace(tzinfo=None))
     
     if not df_mark.empty:
-        df_mark["ts_minute"] = pd.to_datetime(df_mark["ts_minute"], utc=True, errors="coerce")
-        df_mark = _ensure_numeric(df_mark, ["mark_price_avg", "funding_rate"])
-        
         # ★ LAG 적용
         df_mark["ts_minute_next"] = df_mark["ts_minute"] + pd.Timedelta(minutes=1)
         df_mark = df_mark.drop(columns=["ts_minute"]).rename(columns={"ts_minute_next": "ts_minute"})
@@ -355,18 +406,9 @@ def load_latest_for_prediction(symbol: str = "BTCUSDT", minutes: int = 180) -> p
     df["ts_minute"] = df["ts_utc"].dt.floor("min")
     
     # Depth (LAG 적용)
-    sql_depth = """
-        SELECT DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
-               AVG(spread_bps) AS spread_bps, AVG(imbalance_top20) AS imbalance_top20,
-               AVG(microprice_gap_bps) AS microprice_gap_bps
-        FROM f_depth_snapshot_1s
-        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
-        GROUP BY ts_minute
-    """
-    df_depth = pd.read_sql(sql_depth, conn, params=(symbol, start_ts.replace(tzinfo=None), end_ts.replace(tzinfo=None)))
+    df_depth = load_depth_minutes(conn, symbol, start_ts.replace(tzinfo=None), end_ts.replace(tzinfo=None))
     if not df_depth.empty:
-        df_depth["ts_minute"] = pd.to_datetime(df_depth["ts_minute"], utc=True, errors="coerce")
-        df_depth = _ensure_numeric(df_depth, ["spread_bps", "imbalance_top20", "microprice_gap_bps"])
+        df_depth = df_depth.drop(columns=["mid_price"])
         df_depth["ts_minute"] = df_depth["ts_minute"] + pd.Timedelta(minutes=1)  # LAG
         df = df.merge(df_depth, on="ts_minute", how="left")
     else:
@@ -375,17 +417,9 @@ def load_latest_for_prediction(symbol: str = "BTCUSDT", minutes: int = 180) -> p
         df["microprice_gap_bps"] = 0.0
     
     # Mark (LAG 적용)
-    sql_mark = """
-        SELECT DATE_FORMAT(ts_utc, '%%Y-%%m-%%d %%H:%%i:00') AS ts_minute,
-               AVG(funding_rate) AS funding_rate
-        FROM f_mark_1s
-        WHERE symbol = %s AND ts_utc >= %s AND ts_utc < %s
-        GROUP BY ts_minute
-    """
-    df_mark = pd.read_sql(sql_mark, conn, params=(symbol, start_ts.replace(tzinfo=None), end_ts.replace(tzinfo=None)))
+    df_mark = load_mark_minutes(conn, symbol, start_ts.replace(tzinfo=None), end_ts.replace(tzinfo=None))
     if not df_mark.empty:
-        df_mark["ts_minute"] = pd.to_datetime(df_mark["ts_minute"], utc=True, errors="coerce")
-        df_mark = _ensure_numeric(df_mark, ["funding_rate"])
+        df_mark = df_mark[["ts_minute", "funding_rate"]].copy()
         df_mark["ts_minute"] = df_mark["ts_minute"] + pd.Timedelta(minutes=1)  # LAG
         df = df.merge(df_mark, on="ts_minute", how="left")
     else:
@@ -459,3 +493,43 @@ def load_latest_close(symbol: str) -> Optional[tuple[datetime, float]]:
     
     ts = pd.to_datetime(row["ts_utc"], utc=True)
     return ts.to_pydatetime(), float(row["close_"])
+
+
+# ========================================
+# Java 가 넘기는 feature matrix 파일 (DB 조회 없음)
+# ========================================
+_MATRIX_MAGIC = b"CKFW"
+_MATRIX_VERSION = 2
+
+
+def load_feature_matrix(path: str) -> dict:
+    """
+    FeatureWindowExporter 가 쓴 matrix 파일 읽기 (little-endian)
+
+      "CKFW" | int32 version | int32 rows | int32 cols | int32 names_bytes
+      names (컬럼 cols 개 + 심볼 rows 개, '\\n' 구분, 8바이트 정렬)
+      int64[rows] ts_ms | float64[rows] close | float64[rows*cols] X
+
+    X 는 JVM 이 쓰는 double 그대로 (v1 의 float32 는 split threshold 근처 값이 반대 가지로 갈 수 있었음)
+
+    반환: {"columns": [...], "symbols": [...], "ts_ms": ndarray, "close": ndarray, "X": ndarray(rows, cols)}
+    """
+    with open(path, "rb") as f:
+        buf = f.read()
+
+    if buf[:4] != _MATRIX_MAGIC:
+        raise ValueError(f"not a feature matrix: {path}")
+    version, rows, cols, name_len = np.frombuffer(buf, dtype="<i4", count=4, offset=4)
+    if version != _MATRIX_VERSION:
+        raise ValueError(f"unsupported feature matrix version: {version}")
+    rows, cols, name_len = int(rows), int(cols), int(name_len)
+
+    names = buf[20:20 + name_len].decode("utf-8").split("\n")
+    off = 20 + ((name_len + 7) & ~7)
+    ts_ms = np.frombuffer(buf, dtype="<i8", count=rows, offset=off)
+    off += rows * 8
+    close = np.frombuffer(buf, dtype="<f8", count=rows, offset=off)
+    off += rows * 8
+    X = np.frombuffer(buf, dtype="<f8", count=rows * cols, offset=off).reshape(rows, cols)
+
+    return {"columns": names[:cols], "symbols": names[cols:cols + rows], "ts_ms": ts_ms, "close": close, "X": X}
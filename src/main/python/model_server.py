@@ -0,0 +1,156 @@
+"""
+model_server.py - 상주 예측 워커 (Java PythonModelServer 가 N개 띄워서 사용)
+
+프로토콜: stdin/stdout 한 줄 = JSON 1개 (NDJSON)
+  요청  {"id": 1, "op": "predict", "symbol": "BTCUSDT", "model": "model/lgbm_btcusdt.pkl"}
+        {"id": 2, "op": "predict_batch", "symbols": ["BTCUSDT", "ETHUSDT"]}
+        {"id": 2, "op": "predict_batch", "symbols": [...], "features": "/abs/path/features-123.bin"}
+        {"id": 3, "op": "ping"}
+  응답  predict.py stdout 과 같은 JSON + "id", "server_ms", "cached"
+        predict_batch 는 {"ok": true, "results": [심볼별 predict 응답, ...]}
+
+- 모델 pack 은 경로별로 메모리에 유지, 파일 mtime 이 바뀌면 다시 로드 (재학습 반영)
+- 최신 kline 분이 그대로면 직전 예측 결과를 재사용 (같은 분 안의 반복 요청은 DB 조회 1번)
+- predict_batch 에 "features" 가 있으면 Java 가 계산한 feature matrix 로 예측 (DB 조회 없음),
+  matrix 에 없는 심볼만 DB 경로
+- 로그는 전부 stderr, stdout 에는 응답 줄만
+"""
+from __future__ import annotations
+
+import json
+import os
+import sys
+import time
+
+from data_loader import load_feature_matrix, load_latest_close
+from predict import PredictError, load_model_pack, run_prediction, run_prediction_from_matrix
+from utils import log, utc_now_iso, exception_to_detail
+
+# 응답 전용 stdout (라이브러리가 print 해도 프로토콜이 깨지지 않게 sys.stdout 은 stderr 로 돌림)
+_OUT = sys.stdout
+sys.stdout = sys.stderr
+
+# model_path -> (mtime, pack)
+_models: dict[str, tuple[float, dict]] = {}
+
+# (symbol, model_path) -> (model_mtime, latest_kline_ts, result)
+_last_results: dict[tuple[str, str], tuple[float, object, dict]] = {}
+
+
+def _get_model(model_path: str) -> tuple[float, dict]:
+    if not os.path.exists(model_path):
+        raise PredictError("MODEL_NOT_FOUND", f"model file not found: {model_path}", extra={"model": model_path})
+
+    mtime = os.path.getmtime(model_path)
+    cached = _models.get(model_path)
+    if cached is not None and cached[0] == mtime:
+        return cached
+
+    pack = load_model_pack(model_path)
+    _models[model_path] = (mtime, pack)
+    log(f"[MODEL-SERVER] loaded model: path={model_path}, version={pack.get('model_version', 'unknown')}")
+    return mtime, pack
+
+
+def _predict(req: dict) -> dict:
+    symbol = req.get("symbol") or "BTCUSDT"
+    model_path = req.get("model") or f"model/lgbm_{symbol.lower()}.pkl"
+
+    mtime, pack = _get_model(model_path)
+
+    latest = load_latest_close(symbol)
+    latest_ts = latest[0] if latest else None
+
+    key = (symbol, model_path)
+    prev = _last_results.get(key)
+    if prev is not None and latest_ts is not None and prev[0] == mtime and prev[1] == latest_ts:
+        return dict(prev[2], cached=True)
+
+    result = run_prediction(symbol, pack)
+    _last_results[key] = (mtime, latest_ts, result)
+    return dict(result, cached=False)
+
+
+def _predict_from_matrix(symbol: str, matrix: dict, row: int) -> dict:
+    _, pack = _get_model(f"model/lgbm_{symbol.lower()}.pkl")
+    return dict(run_prediction_from_matrix(symbol, pack, matrix, row), cached=False)
+
+
+def _predict_or_error(req: dict, matrix: dict | None = None) -> dict:
+    try:
+        symbol = req.get("symbol") or "BTCUSDT"
+        if matrix is not None and symbol in matrix["symbols"]:
+            return _predict_from_matrix(symbol, matrix, matrix["symbols"].index(symbol))
+        return _predict(req)
+    except PredictError as e:
+        out = {"ok": False, "error": {"code": e.code, "message": e.message, "detail": None},
+               "timestamp": utc_now_iso()}
+        out.update(e.extra)
+        return out
+
+
+def _handle(line: str) -> dict:
+    req = json.loads(line)
+    op = req.get("op", "predict")
+
+    if op == "ping":
+        return {"ok": True, "op": "ping", "pid": os.getpid(), "models": len(_models)}
+
+    if op == "predict":
+        return _predict_or_error(req)
+
+    if op == "predict_batch":
+        # 심볼마다 독립적으로 성공/실패 (한 심볼 실패가 나머지를 막지 않음)
+        matrix = None
+        if req.get("features"):
+            try:
+                matrix = load_feature_matrix(req["features"])
+            except Exception as e:
+                # 파일이 깨졌으면 DB 경로로
+                log(f"[MODEL-SERVER][WARN] feature matrix unreadable, fallback to DB: {e}")
+
+        results = []
+        for symbol in req.get("symbols") or []:
+            try:
+                results.append(_predict_or_error({"symbol": symbol}, matrix))
+            except Exception as e:
+                log(f"[MODEL-SERVER][ERROR] symbol={symbol}\n" + exception_to_detail(e))
+                results.append({"ok": False, "symbol": symbol,
+                                "error": {"code": "PREDICT_FAILED", "message": str(e), "detail": None}})
+        return {"ok": True, "op": "predict_batch", "results": results}
+
+    return {"ok": False, "error": {"code": "UNKNOWN_OP", "message": f"unknown op: {op}", "detail": None},
+            "timestamp": utc_now_iso()}
+
+
+def main():
+    log(f"[MODEL-SERVER] ready: pid={os.getpid()}")
+    _OUT.write(json.dumps({"ok": True, "op": "ready", "pid": os.getpid()}) + "\n")
+    _OUT.flush()
+
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+
+        start = time.perf_counter()
+        req_id = None
+        try:
+            req_id = json.loads(line).get("id")
+            resp = _handle(line)
+        except Exception as e:
+            detail = exception_to_detail(e)
+            log("[MODEL-SERVER][ERROR]\n" + detail)
+            resp = {"ok": False, "error": {"code": "PREDICT_FAILED", "message": "prediction failed", "detail": detail},
+                    "timestamp": utc_now_iso()}
+
+        resp["id"] = req_id
+        resp["server_ms"] = round((time.perf_counter() - start) * 1000.0, 2)
+        _OUT.write(json.dumps(resp, ensure_ascii=False) + "\n")
+        _OUT.flush()
+
+    log("[MODEL-SERVER] stdin closed, exit")
+
+
+if __name__ == "__main__":
+    main()
@@ -18,6 +18,122 @@ from feature_engineer import prepare_x_for_prediction, get_feature_columns
 from utils import log, json_stdout, error_json, exception_to_detail
 
 
+class PredictError(Exception):
+    """error_json 으로 그대로 내보낼 예측 실패 (code / message / extra)"""
+
+    def __init__(self, code: str, message: str, extra: dict | None = None):
+        super().__init__(message)
+        self.code = code
+        self.message = message
+        self.extra = extra or {}
+
+
+def load_model_pack(model_path: str) -> dict:
+    if not os.path.exists(model_path):
+        raise PredictError("MODEL_NOT_FOUND", f"model file not found: {model_path}", extra={"model": model_path})
+    return joblib.load(model_path)
+
+
+def run_prediction(symbol: str, pack: dict) -> dict:
+    """
+    모델 pack 으로 최신 1건 예측 -> stdout JSON 과 같은 dict
+    (predict.py CLI / model_server.py 공통)
+    """
+    model = pack.get("model")
+    model_version = pack.get("model_version", "unknown")
+    use_optional = bool(pack.get("use_optional_features", False))
+    feats = pack.get("features") or get_feature_columns(use_optional)
+
+    # ★ LAG 적용된 데이터 로드
+    log(f"[PREDICT] Loading latest data with LAG applied...")
+    df = load_latest_for_prediction(symbol, minutes=180)  # 3시간 (warmup + 여유)
+
+    if df.empty or len(df) < 10:
+        raise PredictError(
+            "DATA_INSUFFICIENT",
+            f"not enough recent rows for prediction. rows={len(df)}",
+            extra={"symbol": symbol, "rows": int(len(df))}
+        )
+
+    log(f"[PREDICT] Loaded {len(df)} rows")
+
+    # 예측용 X 준비
+    X, meta = prepare_x_for_prediction(df, use_optional=use_optional)
+
+    # 결측 컬럼 확인
+    missing = [c for c in feats if c not in X.columns]
+    if missing:
+        log(f"[PREDICT] Warning: Missing columns will be filled with 0: {missing}")
+        for col in missing:
+            X[col] = 0.0
+
+    # Feature 순서 맞추기
+    X = X[feats]
+
+    # 예측
+    proba = float(model.predict_proba(X)[:, 1][0])
+    pred = int(proba >= 0.5)
+    label = "UP" if pred == 1 else "DOWN"
+
+    log(f"[PREDICT] Prediction: {label} ({proba:.4f})")
+
+    # 현재 가격
+    latest_close = load_latest_close(symbol)
+    if latest_close:
+        close_ts, current_close = latest_close
+    else:
+        close_ts = meta.get("ts_utc")
+        current_close = meta.get("close_now", 0.0)
+
+    return _result(symbol, meta.get("ts_utc"), current_close, proba, model_version, len(feats))
+
+
+def run_prediction_from_matrix(symbol: str, pack: dict, matrix: dict, row: int) -> dict:
+    """
+    Java 가 넘긴 feature matrix 의 row 로 예측 (DB 조회 없음)
+    - Java 는 61분 window 가 찬 심볼만 넘김 (rolling / ret60m_log / 1분 LAG 컬럼을 window 로 계산, load_features_from_raw 와 같은 값)
+    - 컬럼은 이름으로 맞추고, pack features 에 있는데 matrix 에 없는 컬럼 / NaN / inf 는 0
+    """
+    model = pack.get("model")
+    model_version = pack.get("model_version", "unknown")
+    feats = pack.get("features") or get_feature_columns(bool(pack.get("use_optional_features", False)))
+
+    index = {c: i for i, c in enumerate(matrix["columns"])}
+    src = matrix["X"][row]
+    x = np.array([src[index[c]] if c in index else 0.0 for c in feats], dtype=np.float64)
+    x = np.nan_to_num(x, nan=0.0, posinf=0.0, neginf=0.0)
+
+    X = pd.DataFrame([x], columns=feats)
+    proba = float(model.predict_proba(X)[:, 1][0])
+
+    ts = datetime.fromtimestamp(int(matrix["ts_ms"][row]) / 1000.0, tz=timezone.utc)
+    return _result(symbol, ts, float(matrix["close"][row]), proba, model_version, len(feats))
+
+
+def _result(symbol: str, ts, current_close: float, proba: float, model_version: str, n_feats: int) -> dict:
+    pred = int(proba >= 0.5)
+
+    # timestamp
+    if hasattr(ts, "to_pydatetime"):
+        ts = ts.to_pydatetime()
+    if ts is None:
+        ts = datetime.now(timezone.utc)
+    if getattr(ts, "tzinfo", None) is None:
+        ts = ts.replace(tzinfo=timezone.utc)
+
+    return {
+        "ok": True,
+        "symbol": symbol,
+        "timestamp": ts.replace(microsecond=0).isoformat().replace("+00:00", "Z"),
+        "current_close": float(current_close),
+        "prediction": pred,
+        "prediction_label": "UP" if pred == 1 else "DOWN",
+        "probability": proba,
+        "model_version": model_version,
+        "features_used": int(n_feats),
+    }
+
+
 def main():
     parser = argparse.ArgumentParser()
     parser.add_argument("--symbol", type=str, default="BTCUSDT")
@@ -25,81 +141,14 @@ def main():
     args = parser.parse_args()
 
     try:
-        if not os.path.exists(args.model):
-            error_json("MODEL_NOT_FOUND", f"model file not found: {args.model}", extra={"model": args.model})
-            return
-
-        pack = joblib.load(args.model)
-        model = pack.get("model")
-        model_version = pack.get("model_version", "unknown")
-        use_optional = bool(pack.get("use_optional_features", False))
-        feats = pack.get("features") or get_feature_columns(use_optional)
-
-        log(f"[PREDICT] Loaded model: {model_version}")
-        log(f"[PREDICT] Features: {len(feats)}")
-
-        # ★ LAG 적용된 데이터 로드
-        log(f"[PREDICT] Loading latest data with LAG applied...")
-        df = load_latest_for_prediction(args.symbol, minutes=180)  # 3시간 (warmup + 여유)
-        
-        if df.empty or len(df) < 10:
-            error_json(
-                "DATA_INSUFFICIENT",
-                f"not enough recent rows for prediction. rows={len(df)}",
-                extra={"symbol": args.symbol, "rows": int(len(df))}
-            )
-            return
-
-        log(f"[PREDICT] Loaded {len(df)} rows")
-
-        # 예측용 X 준비
-        X, meta = prepare_x_for_prediction(df, use_optional=use_optional)
-        
-        # 결측 컬럼 확인
-        missing = [c for c in feats if c not in X.columns]
-        if missing:
-            log(f"[PREDICT] Warning: Missing columns will be filled with 0: {missing}")
-            for col in missing:
-                X[col] = 0.0
-        
-        # Feature 순서 맞추기
-        X = X[feats]
-
-        # 예측
-        proba = float(model.predict_proba(X)[:, 1][0])
-        pred = int(proba >= 0.5)
-        label = "UP" if pred == 1 else "DOWN"
-
-        log(f"[PREDICT] Prediction: {label} ({proba:.4f})")
-
-        # 현재 가격
-        latest_close = load_latest_close(args.symbol)
-        if latest_close:
-            close_ts, current_close = latest_close
-        else:
-            close_ts = meta.get("ts_utc")
-            current_close = meta.get("close_now", 0.0)
-
-        # timestamp
-        ts = meta.get("ts_utc")
-        if hasattr(ts, "to_pydatetime"):
-            ts = ts.to_pydatetime()
-        if ts is None:
-            ts = datetime.now(timezone.utc)
-        if getattr(ts, "tzinfo", None) is None:
-            ts = ts.replace(tzinfo=timezone.utc)
-
-        json_stdout({
-            "ok": True,
-            "symbol": args.symbol,
-            "timestamp": ts.replace(microsecond=0).isoformat().replace("+00:00", "Z"),
-            "current_close": float(current_close),
-            "prediction": pred,
-            "prediction_label": label,
-            "probability": proba,
-            "model_version": model_version,
-            "features_used": int(len(feats)),
-        })
+        pack = load_model_pack(args.model)
+
+        log(f"[PREDICT] Loaded model: {pack.get('model_version', 'unknown')}")
+
+        json_stdout(run_prediction(args.symbol, pack))
+
+    except PredictError as e:
+        error_json(e.code, e.message, extra=e.extra)
 
     except Exception as e:
         detail = exception_to_detail(e)
@@ -28,6 +28,21 @@ def mda(y_true: np.ndarray, y_pred: np.ndarray) -> float:
     return float((y_true == y_pred).mean())
 
 
+def progress(pct: int, stage: str) -> None:
+    """진행률 (stderr). Java ModelTrainJobService 가 [TRAIN][PROGRESS] 줄을 읽어 job 상태에 반영"""
+    log(f"[TRAIN][PROGRESS] {int(pct)} {stage}")
+
+
+def progress_callback(start_pct: int, end_pct: int, every: int = 25):
+    """LightGBM iteration 진행률 콜백 (early stopping 전 n_estimators 기준)"""
+    def _callback(env):
+        it = env.iteration + 1
+        total = max(env.end_iteration - env.begin_iteration, 1)
+        if it % every == 0 or it == total:
+            progress(start_pct + (end_pct - start_pct) * it // total, f"iteration {it}/{total}")
+    return _callback
+
+
 def main():
     parser = argparse.ArgumentParser()
     parser.add_argument("--days", type=int, default=7)
@@ -41,6 +56,7 @@ def main():
 
     try:
         # ★ Raw 테이블에서 LAG 적용된 데이터 로드
+        progress(5, "loading data")
         log(f"[TRAIN] Loading data from raw tables (LAG applied)...")
         df = load_features_from_raw(symbol=args.symbol, days=args.days)
         
@@ -54,6 +70,7 @@ def main():
             )
             return
 
+        progress(20, f"preparing {len(df)} rows")
         X, y, meta = prepare_xy_for_training(df, horizon_minutes=args.horizon, use_optional=args.use_optional_features)
 
         if len(X) < args.min_rows:
@@ -106,16 +123,18 @@ def main():
 
         model = lgb.LGBMClassifier(**params)
 
+        progress(30, "training")
         log(f"[TRAIN] Starting training with {X_train.shape[1]} features...")
         model.fit(
             X_train,
             y_train,
             eval_set=[(X_test, y_test)],
             eval_metric=["binary_logloss", "auc"],
-            callbacks=[lgb.early_stopping(stopping_rounds=30, verbose=False)],
+            callbacks=[lgb.early_stopping(stopping_rounds=30, verbose=False), progress_callback(30, 85)],
         )
 
         # 평가
+        progress(85, "evaluating")
         proba = model.predict_proba(X_test)[:, 1]
         pred = (proba >= 0.5).astype(int)
 
@@ -139,6 +158,7 @@ def main():
         log(f"[TRAIN] Predictions: UP={pred_up}, DOWN={pred_down}")
 
         # 저장 폴더 생성
+        progress(90, "saving model")
         out_path = args.output
         os.makedirs(os.path.dirname(out_path), exist_ok=True)
 
@@ -164,6 +184,17 @@ def main():
             }
         }
         joblib.dump(pack, out_path)
+
+        # ★ JVM 추론용 LightGBM text dump (+ parity 확인용 test 샘플: feature + python proba)
+        booster_path = out_path.replace(".pkl", ".txt")
+        best_iter = pack["best_iteration"] or None
+        model.booster_.save_model(booster_path, num_iteration=best_iter)
+
+        parity_path = out_path.replace(".pkl", "_parity.csv")
+        parity = X_test.tail(200).copy()
+        parity["proba"] = model.predict_proba(parity)[:, 1]
+        parity.to_csv(parity_path, index=False, float_format="%.17g")
+        log(f"[TRAIN] Booster dump: {booster_path}, parity rows: {len(parity)}")
         
         # 메타 정보도 JSON으로 저장
         meta_path = out_path.replace(".pkl", "_meta.json")
@@ -182,6 +213,7 @@ def main():
             json.dump(convert(meta_info), f, indent=2)
 
         # stdout: JSON 결과
+        progress(100, "done")
         json_stdout({
             "ok": True,
             "symbol": args.symbol,
@@ -194,6 +226,7 @@ def main():
             "use_class_weight": bool(args.use_class_weight),
             "horizon_minutes": args.horizon,
             "model_path": out_path,
+            "booster_path": booster_path,
             "model_version": model_version,
             "metrics": {
                 "accuracy": acc,
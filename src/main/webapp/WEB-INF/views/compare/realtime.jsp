@@ -40,9 +40,9 @@
     <div class="d-flex align-items-center justify-content-between mb-3">
         <div>
             <h4 class="mb-1">TradingView vs Our Binance Data</h4>
-            <div class="muted small">왼쪽: TradingView (BINANCE:BTCUSDT.P) · 오른쪽: DB 최신값(5초마다 갱신)</div>
+            <div class="muted small">왼쪽: TradingView (BINANCE:BTCUSDT.P) · 오른쪽: 수집 최신값(서버 push)</div>
         </div>
-        <span class="badge badge-soft mono">/api/monitor/realtime</span>
+        <span class="badge badge-soft mono">/api/monitor/stream</span>
     </div>
 
     <div class="row g-3">
@@ -86,8 +86,8 @@
                             <div class="mono fw-bold" id="apiTimestamp">-</div>
                         </div>
                         <div class="text-end">
-                            <div class="muted small">갱신 주기</div>
-                            <div class="mono fw-bold">5s</div>
+                            <div class="muted small">연결</div>
+                            <div class="mono fw-bold" id="streamState">연결 중</div>
                         </div>
                     </div>
                 </div>
@@ -123,7 +123,7 @@
                 </div>
 
                 <!-- Feature -->
-                <div class="panel-card rounded-3 p-3">
+                <div class="panel-card rounded-3 p-3 mb-3">
                     <div class="fw-bold mb-2">Feature 일부</div>
                     <div class="kv"><div class="k">ret1m_log</div><div class="v mono" id="fRet1m">-</div></div>
                     <div class="kv"><div class="k">rv15m</div><div class="v mono" id="fRv15m">-</div></div>
@@ -131,12 +131,19 @@
                     <div class="kv"><div class="k">buy_ratio_1m</div><div class="v mono" id="fBuyRatio">-</div></div>
                 </div>
 
+                <!-- Prediction -->
+                <div class="panel-card rounded-3 p-3">
+                    <div class="fw-bold mb-2">최근 예측 (60분)</div>
+                    <div id="predList"><div class="muted small">-</div></div>
+                </div>
+
             </div>
         </div>
     </div>
 </div>
 
 <script>
+    const STREAM_URL = "/api/monitor/stream";
     const API_URL = "/api/monitor/realtime";
 
     function fmtPrice(v) {
@@ -187,66 +194,101 @@
         if (el) el.textContent = text;
     }
 
+    function render(data) {
+        setText("apiTimestamp", data.timestamp ?? "-");
+
+        // kline
+        if (data.kline) {
+            setText("klineTs", data.kline.tsUtc ?? "-");
+            setText("kOpen", fmtPrice(data.kline.open));
+            setText("kHigh", fmtPrice(data.kline.high));
+            setText("kLow", fmtPrice(data.kline.low));
+            setText("kClose", fmtPrice(data.kline.close));
+            setText("kVol", fmtVol(data.kline.volume));
+            setText("kTrades", fmtInt(data.kline.tradeCount));
+        } else {
+            setText("klineTs", "-");
+            ["kOpen","kHigh","kLow","kClose","kVol","kTrades"].forEach(x => setText(x, "-"));
+        }
+
+        // mark
+        if (data.mark) {
+            setText("mMark", fmtPrice(data.mark.markPrice));
+            setText("mIndex", fmtPrice(data.mark.indexPrice));
+            setText("mFunding", fmtRate(data.mark.fundingRate));
+        } else {
+            ["mMark","mIndex","mFunding"].forEach(x => setText(x, "-"));
+        }
+
+        // depth
+        if (data.depth) {
+            setText("dMid", fmtPrice(data.depth.midPrice));
+            setText("dSpread", fmtRate(data.depth.spreadBps));
+            setText("dImb", fmtRate(data.depth.imbalance));
+        } else {
+            ["dMid","dSpread","dImb"].forEach(x => setText(x, "-"));
+        }
+
+        // feature
+        if (data.feature) {
+            setText("fRet1m", fmtSmall(data.feature.ret1mLog));
+            setText("fRv15m", fmtRate(data.feature.rv15m));
+            setText("fCvd15m", fmtRate(data.feature.cvd15m));
+            setText("fBuyRatio", fmtRate(data.feature.buyRatio1m));
+        } else {
+            ["fRet1m","fRv15m","fCvd15m","fBuyRatio"].forEach(x => setText(x, "-"));
+        }
+
+        flashPanel();
+    }
+
+    function renderPredictions(list) {
+        const box = document.getElementById("predList");
+        box.replaceChildren();
+        if (!list || list.length === 0) {
+            box.innerHTML = '<div class="muted small">-</div>';
+            return;
+        }
+        list.forEach(p => {
+            const row = document.createElement("div");
+            row.className = "kv";
+            const k = document.createElement("div");
+            k.className = "k mono";
+            k.textContent = p.symbol + " · " + (p.timestamp ?? "-");
+            const v = document.createElement("div");
+            v.className = "v mono";
+            v.textContent = (p.predictionLabel ?? p.prediction) + " (" + fmtRate(p.probability) + ")";
+            row.append(k, v);
+            box.appendChild(row);
+        });
+    }
+
     async function refresh() {
         try {
             const res = await fetch(API_URL, { cache: "no-store" });
             if (!res.ok) throw new Error("HTTP " + res.status);
-            const data = await res.json();
-
-            setText("apiTimestamp", data.timestamp ?? "-");
-
-            // kline
-            if (data.kline) {
-                setText("klineTs", data.kline.tsUtc ?? "-");
-                setText("kOpen", fmtPrice(data.kline.open));
-                setText("kHigh", fmtPrice(data.kline.high));
-                setText("kLow", fmtPrice(data.kline.low));
-                setText("kClose", fmtPrice(data.kline.close));
-                setText("kVol", fmtVol(data.kline.volume));
-                setText("kTrades", fmtInt(data.kline.tradeCount));
-            } else {
-                setText("klineTs", "-");
-                ["kOpen","kHigh","kLow","kClose","kVol","kTrades"].forEach(x => setText(x, "-"));
-            }
-
-            // mark
-            if (data.mark) {
-                setText("mMark", fmtPrice(data.mark.markPrice));
-                setText("mIndex", fmtPrice(data.mark.indexPrice));
-                setText("mFunding", fmtRate(data.mark.fundingRate));
-            } else {
-                ["mMark","mIndex","mFunding"].forEach(x => setText(x, "-"));
-            }
-
-            // depth
-            if (data.depth) {
-                setText("dMid", fmtPrice(data.depth.midPrice));
-                setText("dSpread", fmtRate(data.depth.spreadBps));
-                setText("dImb", fmtRate(data.depth.imbalance));
-            } else {
-                ["dMid","dSpread","dImb"].forEach(x => setText(x, "-"));
-            }
-
-            // feature
-            if (data.feature) {
-                setText("fRet1m", fmtSmall(data.feature.ret1mLog));
-                setText("fRv15m", fmtRate(data.feature.rv15m));
-                setText("fCvd15m", fmtRate(data.feature.cvd15m));
-                setText("fBuyRatio", fmtRate(data.feature.buyRatio1m));
-            } else {
-                ["fRet1m","fRv15m","fCvd15m","fBuyRatio"].forEach(x => setText(x, "-"));
-            }
-
-            flashPanel();
+            render(await res.json());
         } catch (e) {
             // API 실패해도 화면은 유지 (깜빡임 없이)
             console.error("[realtime refresh] failed:", e);
         }
     }
 
-    // 즉시 1회 + 5초마다
-    refresh();
-    setInterval(refresh, 5000);
+    // 서버 push (SSE). 끊기면 EventSource 가 알아서 재연결, 미지원 브라우저만 5초 polling
+    if (window.EventSource) {
+        const es = new EventSource(STREAM_URL);
+        es.onopen = () => setText("streamState", "live");
+        es.onerror = () => setText("streamState", "재연결 중");
+        es.addEventListener("snapshot", ev => {
+            const snap = JSON.parse(ev.data);
+            render(snap.realtime);
+            renderPredictions(snap.predictions);
+        });
+    } else {
+        setText("streamState", "5s polling");
+        refresh();
+        setInterval(refresh, 5000);
+    }
 </script>
 
 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.3/dist/js/bootstrap.bundle.min.js"></script>
@@ -170,6 +170,59 @@
         flash(card);
     }
 
+    function renderTrainResult(box, data) {
+        if (data.ok) {
+            const acc = (data.metrics?.accuracy ?? 0).toFixed(4);
+            const prec = (data.metrics?.precision ?? 0).toFixed(4);
+            const rec = (data.metrics?.recall ?? 0).toFixed(4);
+            const f1 = (data.metrics?.f1 ?? 0).toFixed(4);
+            const mda = (data.metrics?.mda ?? 0).toFixed(4);
+            const dur = (data.durationMs/1000).toFixed(2);
+
+            box.innerHTML =
+              '<div class="cardx rounded-3 p-3 ok">' +
+                '<div class="fw-bold mb-2">학습 성공 ✅</div>' +
+                '<div class="mono small">modelVersion: ' + data.modelVersion + '</div>' +
+                '<div class="mono small">modelPath: ' + data.modelPath + '</div>' +
+                '<hr/>' +
+                '<div class="row g-2">' +
+                  '<div class="col-6 mono">Accuracy</div><div class="col-6 text-end mono">' + acc + '</div>' +
+                  '<div class="col-6 mono">Precision</div><div class="col-6 text-end mono">' + prec + '</div>' +
+                  '<div class="col-6 mono">Recall</div><div class="col-6 text-end mono">' + rec + '</div>' +
+                  '<div class="col-6 mono">F1</div><div class="col-6 text-end mono">' + f1 + '</div>' +
+                  '<div class="col-6 mono">MDA</div><div class="col-6 text-end mono">' + mda + '</div>' +
+                  '<div class="col-6 mono">Duration</div><div class="col-6 text-end mono">' + dur + 's</div>' +
+                '</div>' +
+              '</div>';
+        } else {
+            box.innerHTML =
+              '<div class="cardx rounded-3 p-3 bad">' +
+                '<div class="fw-bold mb-2">학습 실패 ❌</div>' +
+                '<div class="mono small">code: ' + (data.errorCode ?? "-") + '</div>' +
+                '<div class="mono small">message: ' + (data.errorMessage ?? "-") + '</div>' +
+              '</div>';
+        }
+        flash(box);
+    }
+
+    function renderTrainJob(box, job) {
+        const pos = job.state === "QUEUED" ? ' (대기 ' + job.queuePosition + ')' : '';
+        const dedup = job.deduplicated ? ' · 이미 진행 중인 job' : '';
+        const tail = (job.logTail ?? []).slice(-5).join("\n");
+        box.innerHTML =
+          '<div class="cardx rounded-3 p-3 warn">' +
+            '<div class="fw-bold mb-2">학습 ' + job.state + pos + dedup + '</div>' +
+            '<div class="mono small mb-2">jobId: ' + job.jobId + ' · ' + (job.stage ?? "-") + '</div>' +
+            '<div class="progress mb-2" style="height:8px">' +
+              '<div class="progress-bar" style="width:' + job.progress + '%"></div>' +
+            '</div>' +
+            '<pre class="mono small muted mb-0" style="white-space:pre-wrap"></pre>' +
+          '</div>';
+        box.querySelector("pre").textContent = tail;
+    }
+
+    const sleep = ms => new Promise(r => setTimeout(r, ms));
+
     async function runTrain() {
         const symbol = document.getElementById("trainSymbol").value;
         const days = document.getElementById("trainDays").value;
@@ -179,47 +232,28 @@
         box.innerHTML = "";
 
         try {
+            // job 등록 (바로 반환) -> 끝날 때까지 상태 polling
             const body = new URLSearchParams({symbol, days});
             const res = await fetch("/api/model/train", {
                 method: "POST",
                 headers: {"Content-Type":"application/x-www-form-urlencoded"},
                 body
             });
-            const data = await res.json();
+            let job = await res.json();
+
+            while (job.state === "QUEUED" || job.state === "RUNNING") {
+                renderTrainJob(box, job);
+                await sleep(1000);
+                const r = await fetch("/api/model/train/jobs/" + encodeURIComponent(job.jobId), {cache:"no-store"});
+                if (!r.ok) throw new Error("job status HTTP " + r.status);
+                job = await r.json();
+            }
 
-            if (data.ok) {
-                const acc = (data.metrics?.accuracy ?? 0).toFixed(4);
-                const prec = (data.metrics?.precision ?? 0).toFixed(4);
-                const rec = (data.metrics?.recall ?? 0).toFixed(4);
-                const f1 = (data.metrics?.f1 ?? 0).toFixed(4);
-                const mda = (data.metrics?.mda ?? 0).toFixed(4);
-                const dur = (data.durationMs/1000).toFixed(2);
-                
-                box.innerHTML = 
-                  '<div class="cardx rounded-3 p-3 ok">' +
-                    '<div class="fw-bold mb-2">학습 성공 ✅</div>' +
-                    '<div class="mono small">modelVersion: ' + data.modelVersion + '</div>' +
-                    '<div class="mono small">modelPath: ' + data.modelPath + '</div>' +
-                    '<hr/>' +
-                    '<div class="row g-2">' +
-                      '<div class="col-6 mono">Accuracy</div><div class="col-6 text-end mono">' + acc + '</div>' +
-                      '<div class="col-6 mono">Precision</div><div class="col-6 text-end mono">' + prec + '</div>' +
-                      '<div class="col-6 mono">Recall</div><div class="col-6 text-end mono">' + rec + '</div>' +
-                      '<div class="col-6 mono">F1</div><div class="col-6 text-end mono">' + f1 + '</div>' +
-                      '<div class="col-6 mono">MDA</div><div class="col-6 text-end mono">' + mda + '</div>' +
-                      '<div class="col-6 mono">Duration</div><div class="col-6 text-end mono">' + dur + 's</div>' +
-                    '</div>' +
-                  '</div>';
+            if (job.result) {
+                renderTrainResult(box, job.result);
             } else {
-                box.innerHTML = 
-                  '<div class="cardx rounded-3 p-3 bad">' +
-                    '<div class="fw-bold mb-2">학습 실패 ❌</div>' +
-                    '<div class="mono small">code: ' + (data.errorCode ?? "-") + '</div>' +
-                    '<div class="mono small">message: ' + (data.errorMessage ?? "-") + '</div>' +
-                  '</div>';
+                renderTrainResult(box, {ok: false, errorCode: job.state, errorMessage: job.errorMessage});
             }
-
-            flash(box);
             await loadStatus();
 
         } catch (e) {
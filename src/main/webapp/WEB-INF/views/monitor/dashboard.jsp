@@ -25,13 +25,6 @@
         .mono { font-family: ui-monospace, SFMono-Regular, Menlo, Monaco, Consolas, "Liberation Mono", "Courier New", monospace; }
         .small-muted { font-size: .85rem; color: #6c757d; }
     </style>
-
-    <script>
-        // 30초마다 전체 새로고침
-        setInterval(function () {
-            location.reload();
-        }, 30000);
-    </script>
 </head>
 
 <body class="bg-light">
@@ -40,7 +33,7 @@
     <div class="d-flex align-items-center justify-content-between mb-3">
         <div>
             <h3 class="mb-1">Binance 데이터 수집 모니터링</h3>
-            <div class="small-muted">30초마다 자동 새로고침 · 최근 ${limit}건 미리보기</div>
+            <div class="small-muted">상태 카드는 서버 push 로 갱신 · 최근 ${limit}건 미리보기는 페이지 로드 시점 <span class="mono" id="streamState"></span></div>
         </div>
         <div class="text-end">
             <a class="btn btn-outline-secondary btn-sm" href="/monitor/dashboard?limit=5">최근 5건</a>
@@ -65,15 +58,15 @@
                 </c:when>
             </c:choose>
 
-            <div class="col-12 col-md-6 col-xl-4">
-                <div class="card ${borderClass} border-2 shadow-sm h-100">
+            <div class="col-12 col-md-6 col-xl-4" data-table="${st.tableName}">
+                <div class="card js-card ${borderClass} border-2 shadow-sm h-100">
                     <div class="card-body">
                         <div class="d-flex justify-content-between align-items-start">
                             <div>
                                 <div class="small-muted mono">${st.tableName}</div>
                                 <h5 class="mb-1">${st.displayName}</h5>
                             </div>
-                            <span class="status-pill ${pillClass}">
+                            <span class="status-pill js-pill ${pillClass}">
                                 ${st.status}
                             </span>
                         </div>
@@ -83,11 +76,11 @@
                         <div class="row">
                             <div class="col-6">
                                 <div class="small-muted">총 레코드</div>
-                                <div class="fw-bold mono">${st.totalCount}</div>
+                                <div class="fw-bold mono js-count"><c:if test="${st.approximate}">~</c:if>${st.totalCount}</div>
                             </div>
                             <div class="col-6">
                                 <div class="small-muted">최신 시각(UTC)</div>
-                                <div class="fw-bold mono">
+                                <div class="fw-bold mono js-latest">
                                     <c:choose>
                                         <c:when test="${st.latestTime != null}">
                                             ${st.latestTime}
@@ -102,7 +95,7 @@
 
                         <div class="mt-3">
                             <div class="small-muted">경과</div>
-                            <div class="fw-bold">${st.timeAgo}</div>
+                            <div class="fw-bold js-ago">${st.timeAgo}</div>
                         </div>
                     </div>
                 </div>
@@ -340,6 +333,45 @@
 
 </div>
 
+<script>
+    // 상태 카드만 서버 push 로 갱신 (/api/monitor/stream, 페이지 새로고침 없음)
+    const STATUS_CLASSES = {
+        NORMAL: ["border-success", "pill-green"],
+        DELAYED: ["border-warning", "pill-yellow"],
+        STOPPED: ["border-danger", "pill-red"]
+    };
+
+    function applyStatus(st) {
+        const col = document.querySelector('[data-table="' + st.tableName + '"]');
+        if (!col) return;
+        const cls = STATUS_CLASSES[st.status] || STATUS_CLASSES.STOPPED;
+
+        const card = col.querySelector(".js-card");
+        card.classList.remove("border-success", "border-warning", "border-danger");
+        card.classList.add(cls[0]);
+
+        const pill = col.querySelector(".js-pill");
+        pill.classList.remove("pill-green", "pill-yellow", "pill-red");
+        pill.classList.add(cls[1]);
+        pill.textContent = st.status;
+
+        col.querySelector(".js-count").textContent = (st.approximate ? "~" : "") + st.totalCount;
+        col.querySelector(".js-latest").textContent = st.latestTime ?? "-";
+        col.querySelector(".js-ago").textContent = st.timeAgo ?? "-";
+    }
+
+    if (window.EventSource) {
+        const state = document.getElementById("streamState");
+        const es = new EventSource("/api/monitor/stream");
+        es.onopen = () => state.textContent = "· live";
+        es.onerror = () => state.textContent = "· 재연결 중";
+        es.addEventListener("snapshot", ev => {
+            const snap = JSON.parse(ev.data);
+            (snap.tables || []).forEach(applyStatus);
+        });
+    }
+</script>
+
 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.3/dist/js/bootstrap.bundle.min.js"></script>
 </body>
 </html>
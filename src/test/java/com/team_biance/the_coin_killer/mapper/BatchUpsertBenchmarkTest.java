@@ -0,0 +1,233 @@
+package com.team_biance.the_coin_killer.mapper;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FMark1m;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * upsertBatch 가 있는 mapper 전부: 단건 upsert vs 다중 VALUES upsertBatch vs JDBC batch(rewriteBatchedStatements) 처리량 비교
+ * - MySQL 8 컨테이너 + 실제 mapper XML 로 측정 (Spring context 없이 MyBatis 만 구성)
+ * - batch 1 / 100 / 1000 rows/sec 표를 [BENCH] 로그로 남김
+ * - batch 100 / 1000 두 방식 모두 단건 upsert 대비 MIN_SPEEDUP 배 이상인지 확인
+ * - Docker 가 없으면 skip, 기본 test task 에서는 제외 (@Tag("benchmark"))
+ *
+ * 실행: ./gradlew benchmarkTest -i
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class BatchUpsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchUpsertBenchmarkTest.class);
+
+    private static final int TOTAL_ROWS = 10_000;
+    private static final int[] BATCH_SIZES = { 100, 1000 };
+    private static final double MIN_SPEEDUP = 3.0;
+
+    /** 측정 대상 (table, mapper, row 타입) */
+    private record Target(String table, Class<?> mapper, Class<?> model) {
+        String statement(String id) {
+            return mapper.getName() + "." + id;
+        }
+    }
+
+    private static final List<Target> TARGETS = List.of(
+            new Target("f_kline_1m", KlineMapper.class, FKline1m.class),
+            new Target("f_mark_1s", MarkPriceMapper.class, FMark1s.class),
+            new Target("f_mark_1m", MarkMinuteMapper.class, FMark1m.class),
+            new Target("f_depth_snapshot_1s", DepthSnapshotMapper.class, FDepthSnapshot1s.class),
+            new Target("f_depth_1m", DepthMinuteMapper.class, FDepth1m.class),
+            new Target("f_aggtrade_1m", AggTradeMapper.class, FAggTrade1m.class),
+            new Target("feature_minute", FeatureMinuteMapper.class, FeatureMinute.class));
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withInitScript("bench/schema.sql");
+
+    private static PooledDataSource dataSource;
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        String url = MYSQL.getJdbcUrl() + "?rewriteBatchedStatements=true&useSSL=false&allowPublicKeyRetrieval=true";
+        dataSource = new PooledDataSource(MYSQL.getDriverClassName(), url, MYSQL.getUsername(), MYSQL.getPassword());
+
+        Configuration cfg = new Configuration(new Environment("bench", new JdbcTransactionFactory(), dataSource));
+        cfg.setMapUnderscoreToCamelCase(true);
+
+        for (Target t : TARGETS) {
+            String resource = "mappers/" + t.mapper().getSimpleName() + ".xml";
+            try (InputStream in = Resources.getResourceAsStream(resource)) {
+                new XMLMapperBuilder(in, cfg, resource, cfg.getSqlFragments()).parse();
+            }
+        }
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(cfg);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource != null)
+            dataSource.forceCloseAll();
+    }
+
+    @Test
+    void compareBatchStrategies() throws Exception {
+        StringBuilder report = new StringBuilder("\n[BENCH] upsert rows/sec, rows=" + TOTAL_ROWS + "\n");
+        report.append(String.format("%-20s %-12s %8s %14s%n", "table", "mode", "batch", "rows/sec"));
+        List<String> failures = new ArrayList<>();
+
+        for (Target t : TARGETS) {
+            // JIT / 커넥션 풀 워밍업
+            runMultiValues(t, rows(t, 2_000), 100);
+            runJdbcBatch(t, rows(t, 2_000), 100);
+
+            // 단건 upsert 는 느려서 1/10 만 측정 (rows/sec 라 비교에는 영향 없음)
+            double single = runMultiValues(t, rows(t, TOTAL_ROWS / 10), 1);
+            report.append(String.format("%-20s %-12s %8d %14.0f%n", t.table(), "SINGLE", 1, single));
+
+            for (int batch : BATCH_SIZES) {
+                double mv = runMultiValues(t, rows(t, TOTAL_ROWS), batch);
+                report.append(String.format("%-20s %-12s %8d %14.0f%n", t.table(), "MULTI_VALUES", batch, mv));
+                double jb = runJdbcBatch(t, rows(t, TOTAL_ROWS), batch);
+                report.append(String.format("%-20s %-12s %8d %14.0f%n", t.table(), "JDBC_BATCH", batch, jb));
+
+                // batch 100 이상이면 왕복 수가 1/100 이하 -> 단건보다 최소 MIN_SPEEDUP 배는 빨라야 함
+                if (mv < single * MIN_SPEEDUP)
+                    failures.add(String.format("%s MULTI_VALUES batch=%d %.0f vs single %.0f", t.table(), batch, mv, single));
+                if (jb < single * MIN_SPEEDUP)
+                    failures.add(String.format("%s JDBC_BATCH batch=%d %.0f vs single %.0f", t.table(), batch, jb, single));
+            }
+        }
+
+        log.info(report.toString());
+        assertTrue(failures.isEmpty(), "batch not " + MIN_SPEEDUP + "x faster than single-row: " + failures);
+    }
+
+    /**
+     * @return rows/sec
+     */
+    private double runMultiValues(Target t, List<Object> rows, int batch) throws Exception {
+        truncate(t);
+        long t0 = System.nanoTime();
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.SIMPLE, false)) {
+            for (int from = 0; from < rows.size(); from += batch) {
+                List<Object> chunk = rows.subList(from, Math.min(rows.size(), from + batch));
+                if (batch == 1)
+                    session.insert(t.statement("upsert"), chunk.get(0));
+                else
+                    session.insert(t.statement("upsertBatch"), Map.of("rows", chunk));
+                session.commit();
+            }
+        }
+        double sec = (System.nanoTime() - t0) / 1e9;
+        assertEquals(rows.size(), countRows(t));
+        return rows.size() / sec;
+    }
+
+    private double runJdbcBatch(Target t, List<Object> rows, int batch) throws Exception {
+        truncate(t);
+        long t0 = System.nanoTime();
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            int n = 0;
+            for (Object row : rows) {
+                session.insert(t.statement("upsert"), row);
+                if (++n % batch == 0) {
+                    session.flushStatements();
+                    session.commit();
+                }
+            }
+            session.flushStatements();
+            session.commit();
+        }
+        double sec = (System.nanoTime() - t0) / 1e9;
+        assertEquals(rows.size(), countRows(t));
+        return rows.size() / sec;
+    }
+
+    /**
+     * setter 로 채운 row n 개 (symbol 고정, tsUtc 1분씩 증가 -> PK 중복 없음)
+     * - 숫자 컬럼은 i 에서 파생한 값, byte[] 는 실제 gzip depth 크기 정도의 payload
+     */
+    private static List<Object> rows(Target t, int n) throws Exception {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        byte[] payload = new byte[400];
+        for (int i = 0; i < payload.length; i++)
+            payload[i] = (byte) (i * 31);
+
+        List<Object> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Object r = t.model().getDeclaredConstructor().newInstance();
+            int col = 0;
+            for (Method m : t.model().getMethods()) {
+                if (!m.getName().startsWith("set") || m.getParameterCount() != 1)
+                    continue;
+                Class<?> type = m.getParameterTypes()[0];
+                col++;
+                if (m.getName().equals("setSymbol"))
+                    m.invoke(r, "BTCUSDT");
+                else if (m.getName().equals("setTsUtc"))
+                    m.invoke(r, base.plusMinutes(i));
+                else if (type == LocalDateTime.class)
+                    m.invoke(r, base.plusHours(8));
+                else if (type == double.class || type == Double.class)
+                    m.invoke(r, 40_000.0 + (i % 500) + col * 0.25);
+                else if (type == int.class || type == Integer.class)
+                    m.invoke(r, 1000 + (i + col) % 91);
+                else if (type == byte[].class)
+                    m.invoke(r, (Object) payload);
+            }
+            out.add(r);
+        }
+        return out;
+    }
+
+    private static void truncate(Target t) throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("TRUNCATE TABLE " + t.table());
+        }
+    }
+
+    private static int countRows(Target t) throws Exception {
+        try (Connection c = dataSource.getConnection();
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + t.table())) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
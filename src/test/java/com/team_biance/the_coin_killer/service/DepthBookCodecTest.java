@@ -0,0 +1,126 @@
+package com.team_biance.the_coin_killer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DepthBookCodec 검증
+ *
+ * 1) BIN1 / BIN1DFL / GZIP round-trip 이 원래 double 과 비트 단위로 같은지
+ * 2) 표현 불가 값은 IllegalArgumentException (리스너가 GZIP 으로 대체)
+ * 3) BIN1 이 기존 GZIP(JSON) 경로보다 작게 저장되는지 (encode 속도는 jmh DepthRowBenchmark)
+ * 4) level 수가 음수 / MAX_LEVELS 초과인 깨진 blob 은 배열을 잡기 전에 IOException
+ */
+class DepthBookCodecTest {
+
+    private static final String[] ALGOS = { DepthBookCodec.GZIP, DepthBookCodec.BIN1, DepthBookCodec.BIN1_DEFLATE };
+
+    @Test
+    void roundTripIsExactForAllCodecs() throws Exception {
+        Random rnd = new Random(7);
+        for (String algo : ALGOS) {
+            DepthBookCodec codec = new DepthBookCodec(algo);
+            for (int k = 0; k < 200; k++) {
+                Book b = randomBook(rnd, 20, k % 2 == 0 ? 0.1 : 0.01, k % 3 == 0 ? 0.001 : 1.0);
+
+                byte[] blob = codec.encode(b.prices, b.qtys, b.n);
+                DepthBookCodec.Levels levels = DepthBookCodec.decode(blob, algo);
+
+                assertEquals(b.n, levels.size());
+                assertArrayEquals(b.prices, levels.prices(), 0.0);
+                assertArrayEquals(b.qtys, levels.qtys(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void handlesEmptySideAndIrregularGaps() throws Exception {
+        DepthBookCodec codec = new DepthBookCodec(DepthBookCodec.BIN1);
+
+        DepthBookCodec.Levels empty = DepthBookCodec.decode(codec.encode(new double[0], new double[0], 0), "bin1");
+        assertEquals(0, empty.size());
+
+        // 간격이 들쭉날쭉 / 가격이 오르내려도 (zigzag delta) 손실 없음
+        double[] prices = { 0.5, 0.0001, 123.45, 123.4, 99999.99 };
+        double[] qtys = { 0.0, 1.5, 250000.0, 0.00000001, 3.0 };
+        DepthBookCodec.Levels l = DepthBookCodec.decode(codec.encode(prices, qtys, prices.length), DepthBookCodec.BIN1);
+        assertArrayEquals(prices, l.prices(), 0.0);
+        assertArrayEquals(qtys, l.qtys(), 0.0);
+    }
+
+    @Test
+    void rejectsValuesWithoutShortDecimalForm() {
+        DepthBookCodec codec = new DepthBookCodec(DepthBookCodec.BIN1);
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(new double[] { 1.0 / 3.0 }, new double[] { 1.0 }, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DepthBookCodec("LZ4"));
+    }
+
+    @Test
+    void rejectsCorruptLevelCountBeforeAllocating() {
+        // version 1, scale 0 / 0, level 수 varint 뒤에 tick 1
+        byte[] tooMany = { 1, 0, 0, (byte) 0xE9, 0x07, 1 }; // 1001
+        byte[] huge = { 1, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1 }; // 2^32 - 1
+        byte[] negative = { 1, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01, 1 }; // -1
+        for (byte[] blob : new byte[][] { tooMany, huge, negative }) {
+            IOException e = assertThrows(IOException.class, () -> DepthBookCodec.decode(blob, DepthBookCodec.BIN1));
+            assertTrue(e.getMessage().contains("levels"), e.getMessage());
+        }
+    }
+
+    @Test
+    void binIsSmallerThanGzipJson() throws Exception {
+        final int books = 2_000;
+        Random rnd = new Random(42);
+        Book[] bids = new Book[books];
+        Book[] asks = new Book[books];
+        for (int i = 0; i < books; i++) {
+            bids[i] = randomBook(rnd, 20, 0.1, 0.001);
+            asks[i] = randomBook(rnd, 20, 0.1, 0.001);
+        }
+
+        long gzipBytes = encodedBytes(new DepthBookCodec(DepthBookCodec.GZIP), bids, asks);
+        long binBytes = encodedBytes(new DepthBookCodec(DepthBookCodec.BIN1), bids, asks);
+        assertTrue(binBytes < gzipBytes, "BIN1 should be smaller than GZIP json");
+    }
+
+    private static long encodedBytes(DepthBookCodec codec, Book[] bids, Book[] asks) throws IOException {
+        long bytes = 0;
+        for (int i = 0; i < bids.length; i++)
+            bytes += codec.encode(bids[i].prices, bids[i].qtys, bids[i].n).length
+                    + codec.encode(asks[i].prices, asks[i].qtys, asks[i].n).length;
+        return bytes;
+    }
+
+    private record Book(double[] prices, double[] qtys, int n) {
+    }
+
+    /**
+     * 실제 depth20 과 비슷한 모양: 최우선 호가 근처는 tick 1~2 간격, 수량은 lot 배수
+     */
+    private static Book randomBook(Random rnd, int n, double tick, double lot) {
+        double[] prices = new double[n];
+        double[] qtys = new double[n];
+        long ticks = 600_000 + rnd.nextInt(100_000);
+        for (int i = 0; i < n; i++) {
+            ticks -= 1 + (rnd.nextInt(4) == 0 ? rnd.nextInt(5) : 0);
+            prices[i] = Double.parseDouble(decimal(ticks, tick));
+            qtys[i] = Double.parseDouble(decimal(1 + rnd.nextInt(50_000), lot));
+        }
+        return new Book(prices, qtys, n);
+    }
+
+    private static String decimal(long units, double step) {
+        // 스트림 원문처럼 10진 문자열 -> double
+        return BigDecimal.valueOf(units).multiply(BigDecimal.valueOf(step)).toPlainString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.binance.OrderBookSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DepthSegmentWriter -> DepthCaptureReader 왕복
+ *
+ * 1) segment roll (작은 segment) / 날짜 경계를 넘어도 구간 replay 가 정확한지
+ * 2) 재시작 시 마지막 segment 에 이어 쓰는지, 거꾸로 온 시각은 직전 시각으로 맞추고 건수를 셈
+ */
+class DepthCaptureReaderTest {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final int LEVELS = 5;
+
+    @Test
+    void replaysRangeAcrossSegmentsAndDays() throws Exception {
+        Path root = Files.createTempDirectory("depth-capture");
+        try {
+            // record 10개짜리 segment, 자정 전후 100ms 간격 50건
+            long segBytes = DepthSegment.HEADER_BYTES + 10L * DepthSegment.recordSize(LEVELS);
+            long start = 20_000 * DAY_MS - 2_500;
+            try (DepthSegmentWriter w = new DepthSegmentWriter(root, "BTCUSDT", LEVELS, segBytes)) {
+                for (int i = 0; i < 50; i++)
+                    w.append(start + i * 100L, book(i));
+                assertEquals(50, w.records());
+                assertTrue(w.segmentsOpened() >= 6);
+            }
+
+            List<Long> ts = new ArrayList<>();
+            List<Double> bids = new ArrayList<>();
+            long n = DepthCaptureReader.replay(root, "BTCUSDT", start + 1_050, start + 3_050, (t, b) -> {
+                ts.add(t);
+                bids.add(b.bidPrice(0));
+                assertEquals(3, b.bidCount());
+                assertEquals(2, b.askCount());
+                return true;
+            });
+
+            assertEquals(20, n);
+            for (int k = 0; k < 20; k++) {
+                int i = 11 + k;
+                assertEquals(start + i * 100L, (long) ts.get(k));
+                assertEquals(100.0 + i, (double) bids.get(k), 0.0);
+            }
+
+            // visitor 가 false 면 중단
+            assertEquals(1, DepthCaptureReader.replay(root, "BTCUSDT", start, start + 5_000, (t, b) -> false));
+            // 없는 심볼
+            assertEquals(0, DepthCaptureReader.replay(root, "ETHUSDT", start, start + 5_000, (t, b) -> true));
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    void resumesLastSegmentAfterRestart() throws Exception {
+        Path root = Files.createTempDirectory("depth-capture");
+        try {
+            long segBytes = 1 << 20;
+            long start = 20_000 * DAY_MS + 1_000;
+            try (DepthSegmentWriter w = new DepthSegmentWriter(root, "BTCUSDT", LEVELS, segBytes)) {
+                for (int i = 0; i < 5; i++)
+                    w.append(start + i * 100L, book(i));
+            }
+            try (DepthSegmentWriter w = new DepthSegmentWriter(root, "BTCUSDT", LEVELS, segBytes)) {
+                // 시각이 거꾸로 와도 segment 안 단조 증가 유지
+                assertEquals(100L, w.append(start + 300, book(5)));
+                assertEquals(0L, w.append(start + 600, book(6)));
+                assertEquals(1L, w.clamped());
+                assertTrue(w.currentSegment().endsWith("seg-000001.dbk"));
+            }
+
+            List<Long> ts = new ArrayList<>();
+            DepthCaptureReader.replay(root, "BTCUSDT", start, start + 1_000, (t, b) -> ts.add(t));
+            assertEquals(List.of(start, start + 100, start + 200, start + 300, start + 400, start + 400, start + 600), ts);
+        } finally {
+            delete(root);
+        }
+    }
+
+    private static OrderBookSnapshot book(int i) {
+        OrderBookSnapshot b = new OrderBookSnapshot(LEVELS);
+        for (int k = 0; k < 3; k++)
+            b.addBid(100.0 + i - k * 0.1, 1.0 + k);
+        for (int k = 0; k < 2; k++)
+            b.addAsk(100.1 + i + k * 0.1, 2.0 + k);
+        return b;
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> s = Files.walk(root)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
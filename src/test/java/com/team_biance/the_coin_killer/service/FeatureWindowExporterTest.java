@@ -0,0 +1,340 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FMark1m;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FeatureWindowExporter
+ *
+ * 1) 파일 write -> read 왕복 (컬럼/심볼/시각/close/값)
+ * 2) window 가 찬 뒤 rv15m / rv60m / vol_z_60m / ret60m_log 가 pandas rolling (ddof=1, 현재 분 포함) 과 같은지
+ * 3) window 가 덜 찼거나 중간 분이 빠진 심볼은 파일에서 빠지고 covers() == false (워커 DB 경로)
+ * 4) funding_rate = 직전 분 f_mark_1m funding 평균, 없으면 그 이전 값 carry
+ * 5) LAG 컬럼 / rolling 컬럼이 data_loader.load_features_from_raw 결과와 같은지
+ *    (resources/features 의 raw CSV -> make_expected.py 로 만든 expected_features.csv)
+ * 6) matrix 파일 값 == fill() 값 (float32 변환 없음 -> JVM / python 이 같은 split 가지로 감)
+ */
+class FeatureWindowExporterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 18, 0, 0);
+
+    @Test
+    void matrixFileRoundTrip() throws Exception {
+        Path dir = Files.createTempDirectory("features");
+        try {
+            FeatureWindowExporter exporter = new FeatureWindowExporter(true, dir.toString());
+            warmUp(exporter, "BTCUSDT", 67000.0);
+            warmUp(exporter, "ETHUSDT", 2500.0);
+            Map<String, FeatureMinute> rows = new LinkedHashMap<>();
+            rows.put("BTCUSDT", row("BTCUSDT", T0, 67000.0, 0.0, 120.0));
+            rows.put("ETHUSDT", row("ETHUSDT", T0, 2500.0, 0.0, 900.0));
+            rows.put("SOLUSDT", null);
+            rows.forEach(exporter::append);
+
+            Path file = exporter.export(rows);
+            FeatureWindowExporter.Matrix m = FeatureWindowExporter.read(file);
+
+            assertArrayEquals(FeatureWindowExporter.COLUMNS, m.columns());
+            assertArrayEquals(new String[] { "BTCUSDT", "ETHUSDT" }, m.symbols());
+            long ms = T0.toInstant(ZoneOffset.UTC).toEpochMilli();
+            assertArrayEquals(new long[] { ms, ms }, m.tsMs());
+            assertEquals(2500.0, m.close()[1], 0.0);
+
+            int cols = m.columns().length;
+            assertEquals(2 * cols, m.values().length);
+            assertEquals(67000.0, m.values()[col("close_1m")], 0.0);
+            assertEquals(900.0, m.values()[cols + col("volume_1m")], 0.0);
+            assertEquals(0.0, m.values()[col("funding_rate")], 0.0); // 학습과 같이 NaN -> 0
+        } finally {
+            try (var s = Files.list(dir)) {
+                s.forEach(p -> p.toFile().delete());
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    void windowColumnsMatchPandasRolling() {
+        FeatureWindowExporter exporter = new FeatureWindowExporter(true, "build/tmp/features");
+
+        int n = 61;
+        double[] close = new double[n];
+        double[] ret = new double[n];
+        double[] vol = new double[n];
+        FeatureMinute last = null;
+        for (int i = 0; i < n; i++) {
+            close[i] = 67000.0 * (1.0 + 0.001 * Math.sin(i * 0.7));
+            ret[i] = (i == 0) ? 0.0 : Math.log(close[i] / close[i - 1]);
+            vol[i] = 100.0 + (i * 37 % 23);
+            last = row("BTCUSDT", T0.plusMinutes(i), close[i], ret[i], vol[i]);
+            exporter.append("BTCUSDT", last);
+        }
+
+        FeatureWindowExporter.Matrix m = exporter.build(Map.of("BTCUSDT", last));
+        double[] x = m.values();
+
+        assertEquals(sampleStd(ret, n - 15, n) * Math.sqrt(15), x[col("rv15m")], 1e-6);
+        assertEquals(sampleStd(ret, n - 60, n) * Math.sqrt(60), x[col("rv60m")], 1e-6);
+        double mean = mean(vol, n - 60, n);
+        assertEquals((vol[n - 1] - mean) / sampleStd(vol, n - 60, n), x[col("vol_z_60m")], 1e-5);
+        assertEquals(Math.log(close[n - 1] / close[0]), x[col("ret60m_log")], 1e-7);
+    }
+
+    @Test
+    void partialWindowGoesToDbPath() {
+        FeatureWindowExporter exporter = new FeatureWindowExporter(true, "build/tmp/features");
+        warmUp(exporter, "BTCUSDT", 67000.0);
+
+        // ETH: 기동 직후 30분만 있음
+        for (int i = 30; i > 0; i--)
+            exporter.append("ETHUSDT", row("ETHUSDT", T0.minusMinutes(i), 2500.0, 0.0, 900.0));
+        FeatureMinute btc = row("BTCUSDT", T0, 67000.0, 0.0, 100.0);
+        FeatureMinute eth = row("ETHUSDT", T0, 2500.0, 0.0, 900.0);
+
+        Map<String, FeatureMinute> rows = new LinkedHashMap<>();
+        rows.put("BTCUSDT", btc);
+        assertTrue(exporter.covers(rows));
+        rows.put("ETHUSDT", eth);
+        assertFalse(exporter.covers(rows));
+
+        rows.forEach(exporter::append);
+        assertArrayEquals(new String[] { "BTCUSDT" }, exporter.build(rows).symbols());
+
+        // BTC: 중간 1분 kline 누락 -> 60분 동안 다시 DB 경로
+        FeatureWindowExporter gap = new FeatureWindowExporter(true, "build/tmp/features");
+        for (int i = 70; i > 0; i--) {
+            if (i != 20)
+                gap.append("BTCUSDT", row("BTCUSDT", T0.minusMinutes(i), 67000.0, 0.0, 100.0));
+        }
+        assertFalse(gap.covers(Map.of("BTCUSDT", btc)));
+    }
+
+    @Test
+    void fundingIsLaggedAndCarried() {
+        FeatureWindowExporter exporter = new FeatureWindowExporter(true, "build/tmp/features");
+        warmUp(exporter, "BTCUSDT", 67000.0);
+        exporter.onMarkMinute(mark("BTCUSDT", T0.minusMinutes(5), 0.0001));
+        exporter.onMarkMinute(mark("BTCUSDT", T0.minusMinutes(1), 0.0002));
+        exporter.onMarkMinute(mark("BTCUSDT", T0, 0.0003)); // 같은 분 값은 다음 분 feature
+        exporter.onMarkMinute(mark("BTCUSDT", T0.plusMinutes(1), null));
+
+        FeatureMinute r0 = row("BTCUSDT", T0, 67000.0, 0.0, 100.0);
+        exporter.append("BTCUSDT", r0);
+        assertEquals(0.0002, exporter.build(Map.of("BTCUSDT", r0)).values()[col("funding_rate")], 0.0);
+
+        // funding 샘플 없는 분 -> 직전 값 carry
+        FeatureMinute r2 = row("BTCUSDT", T0.plusMinutes(1), 67000.0, 0.0, 100.0);
+        FeatureMinute r3 = row("BTCUSDT", T0.plusMinutes(2), 67000.0, 0.0, 100.0);
+        exporter.append("BTCUSDT", r2);
+        exporter.append("BTCUSDT", r3);
+        assertEquals(0.0003, exporter.build(Map.of("BTCUSDT", r3)).values()[col("funding_rate")], 0.0);
+    }
+
+    @Test
+    void lagColumnsMatchDataLoader() throws Exception {
+        List<String[]> kline = csv("kline.csv");
+        Map<String, String[]> depth = byTs(csv("depth_1m.csv"));
+        Map<String, String[]> mark = byTs(csv("mark_1m.csv"));
+        Map<String, String[]> agg = byTs(csv("aggtrade_1m.csv"));
+        Map<String, String[]> force = byTs(csv("forceorder_1m.csv"));
+        List<String[]> expected = csv("expected_features.csv");
+        String[] header = expectedHeader();
+
+        FeatureWindowExporter exporter = new FeatureWindowExporter(true, "build/tmp/features");
+        Map<String, double[]> actual = new HashMap<>();
+        double prevClose = Double.NaN;
+        for (String[] k : kline) {
+            String ts = k[0];
+            LocalDateTime t = LocalDateTime.parse(ts, TS);
+            // 분 마감 순서: 같은 분 집계 봉인 -> feature row
+            if (depth.containsKey(ts))
+                exporter.onDepthMinute(depth(t, depth.get(ts)));
+            if (mark.containsKey(ts))
+                exporter.onMarkMinute(mark(t, mark.get(ts)));
+            if (agg.containsKey(ts))
+                exporter.onAggMinute(agg(t, agg.get(ts)));
+
+            double close = Double.parseDouble(k[4]);
+            FeatureMinute r = row("BTCUSDT", t, close, Double.isNaN(prevClose) ? 0.0 : Math.log(close / prevClose),
+                    Double.parseDouble(k[5]));
+            r.setLiqCount1m(force.containsKey(ts) ? Integer.parseInt(force.get(ts)[1]) : 0);
+            prevClose = close;
+            exporter.append("BTCUSDT", r);
+
+            double[] x = new double[FeatureWindowExporter.COLUMNS.length];
+            if (exporter.fill("BTCUSDT", r, x))
+                actual.put(ts, x);
+        }
+
+        assertEquals(14, expected.size());
+        for (String[] e : expected) {
+            double[] x = actual.get(e[0]);
+            assertTrue(x != null, "no row for " + e[0]);
+            for (int c = 1; c < header.length; c++) {
+                double want = Double.parseDouble(e[c]);
+                assertEquals(want, x[col(header[c])], 1e-9 * Math.max(1.0, Math.abs(want)), e[0] + " " + header[c]);
+            }
+        }
+    }
+
+    @Test
+    void matrixKeepsFilledDoubles() throws Exception {
+        Path dir = Files.createTempDirectory("features");
+        try {
+            FeatureWindowExporter exporter = new FeatureWindowExporter(true, dir.toString());
+            warmUp(exporter, "BTCUSDT", 67000.0);
+            FeatureMinute r = row("BTCUSDT", T0, 67000.123456789, 1.0e-9 / 3.0, 100.000000001);
+            exporter.append("BTCUSDT", r);
+
+            double[] x = new double[FeatureWindowExporter.COLUMNS.length];
+            assertTrue(exporter.fill("BTCUSDT", r, x));
+            FeatureWindowExporter.Matrix m = FeatureWindowExporter.read(exporter.export(Map.of("BTCUSDT", r)));
+            assertArrayEquals(x, m.values(), 0.0);
+        } finally {
+            try (var s = Files.list(dir)) {
+                s.forEach(p -> p.toFile().delete());
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    void disabledExportsNothing() throws Exception {
+        FeatureWindowExporter exporter = new FeatureWindowExporter(false, "build/tmp/features");
+        FeatureMinute r = row("BTCUSDT", T0, 67000.0, 0.0, 100.0);
+        exporter.append("BTCUSDT", r);
+        assertNull(exporter.export(Map.of("BTCUSDT", r)));
+    }
+
+    /**
+     * T0 직전 60분 row (window 가 T0 분을 받을 준비 완료)
+     */
+    private static void warmUp(FeatureWindowExporter exporter, String symbol, double close) {
+        for (int i = 60; i > 0; i--)
+            exporter.append(symbol, row(symbol, T0.minusMinutes(i), close * (1.0 + 0.0001 * (i % 7)), 0.0, 100.0 + i));
+    }
+
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static List<String[]> csv(String name) throws Exception {
+        try (InputStream in = FeatureWindowExporterTest.class.getClassLoader().getResourceAsStream("features/" + name)) {
+            assertTrue(in != null, "missing test resource features/" + name);
+            List<String[]> rows = new ArrayList<>();
+            for (String line : new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().skip(1).toList())
+                rows.add(line.split(",", -1));
+            return rows;
+        }
+    }
+
+    private static String[] expectedHeader() throws Exception {
+        try (InputStream in = FeatureWindowExporterTest.class.getClassLoader().getResourceAsStream("features/expected_features.csv")) {
+            assertTrue(in != null, "missing test resource features/expected_features.csv");
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).readLine().split(",");
+        }
+    }
+
+    private static Map<String, String[]> byTs(List<String[]> rows) {
+        Map<String, String[]> out = new HashMap<>();
+        for (String[] r : rows)
+            out.put(r[0], r);
+        return out;
+    }
+
+    private static Double nullable(String v) {
+        return v.isEmpty() ? null : Double.valueOf(v);
+    }
+
+    private static FDepth1m depth(LocalDateTime ts, String[] c) {
+        FDepth1m d = new FDepth1m();
+        d.setSymbol("BTCUSDT");
+        d.setTsUtc(ts);
+        d.setSpreadBpsAvg(Double.parseDouble(c[1]));
+        d.setImbalanceTop20Avg(Double.parseDouble(c[2]));
+        d.setMicropriceGapBpsAvg(nullable(c[3]));
+        d.setMidPriceAvg(Double.parseDouble(c[4]));
+        return d;
+    }
+
+    private static FMark1m mark(LocalDateTime ts, String[] c) {
+        FMark1m m = mark("BTCUSDT", ts, nullable(c[2]));
+        m.setMarkPriceAvg(Double.parseDouble(c[1]));
+        return m;
+    }
+
+    private static FAggTrade1m agg(LocalDateTime ts, String[] c) {
+        FAggTrade1m a = new FAggTrade1m();
+        a.setSymbol("BTCUSDT");
+        a.setTsUtc(ts);
+        a.setTakerBuyQty(Double.parseDouble(c[1]));
+        a.setTakerSellQty(Double.parseDouble(c[2]));
+        a.setTradeCount(Integer.parseInt(c[3]));
+        a.setVwapPrice(Double.parseDouble(c[4]));
+        return a;
+    }
+
+    private static FMark1m mark(String symbol, LocalDateTime ts, Double fundingAvg) {
+        FMark1m m = new FMark1m();
+        m.setSymbol(symbol);
+        m.setTsUtc(ts);
+        m.setFundingRateAvg(fundingAvg);
+        return m;
+    }
+
+    private static FeatureMinute row(String symbol, LocalDateTime ts, double close, double ret, double volume) {
+        FeatureMinute r = new FeatureMinute();
+        r.setSymbol(symbol);
+        r.setTsUtc(ts);
+        r.setClose1m(close);
+        r.setRet1mLog(ret);
+        r.setVolume1m(volume);
+        return r;
+    }
+
+    private static int col(String name) {
+        String[] cols = FeatureWindowExporter.COLUMNS;
+        for (int i = 0; i < cols.length; i++) {
+            if (cols[i].equals(name))
+                return i;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static double mean(double[] a, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++)
+            s += a[i];
+        return s / (to - from);
+    }
+
+    private static double sampleStd(double[] a, int from, int to) {
+        double m = mean(a, from, to);
+        double s = 0.0;
+        for (int i = from; i < to; i++)
+            s += (a[i] - m) * (a[i] - m);
+        return Math.sqrt(s / (to - from - 1));
+    }
+}
@@ -0,0 +1,80 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * FrameFileHistoricalSource
+ *
+ * 1) 파일은 처음 fetch 때 1번만 읽음 (이후 파일이 없어져도 다른 gap / 다른 심볼 조회 가능)
+ * 2) 심볼 / [from, to) 로 잘라서 돌려줌, 미완성 kline 은 제외
+ * 3) 분이 섞여 들어온 aggTrade 도 분별로 집계
+ */
+class FrameFileHistoricalSourceTest {
+
+    private static final long M0 = 29_000_000L * 60_000L;
+
+    @Test
+    void scansFileOnceAndRoutesBySymbol() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        Path file = dir.resolve("frames-test");
+        try {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                lines.add(M0 + "\t" + kline("BTCUSDT", M0 + i * 60_000L, true));
+                lines.add(M0 + "\t" + kline("ETHUSDT", M0 + i * 60_000L, true));
+            }
+            lines.add(M0 + "\t" + kline("BTCUSDT", M0 + 3 * 60_000L, false));
+            // 2분째 체결이 1분째 체결보다 먼저 녹화됨
+            lines.add(M0 + "\t" + aggTrade("BTCUSDT", M0 + 60_500L, "2", false));
+            lines.add(M0 + "\t" + aggTrade("BTCUSDT", M0 + 1_000L, "1", true));
+            lines.add(M0 + "\t" + aggTrade("BTCUSDT", M0 + 61_000L, "3", true));
+            Files.write(file, lines, StandardCharsets.UTF_8);
+
+            FrameFileHistoricalSource src = new FrameFileHistoricalSource(file, new ObjectMapper());
+
+            List<FKline1m> first = src.fetchKlines("BTCUSDT", M0, M0 + 60_000L);
+            assertEquals(1, first.size());
+
+            Files.delete(file);
+
+            // 마지막 닫힌 분(2) 까지 포함, 미완성(3) 은 제외
+            assertEquals(2, src.fetchKlines("BTCUSDT", M0 + 60_000L, M0 + 4 * 60_000L).size());
+            assertEquals(3, src.fetchKlines("ETHUSDT", M0, M0 + 4 * 60_000L).size());
+            assertEquals(0, src.fetchKlines("SOLUSDT", M0, M0 + 4 * 60_000L).size());
+
+            List<FAggTrade1m> aggs = src.fetchAggMinutes("BTCUSDT", M0, M0 + 2 * 60_000L);
+            assertEquals(2, aggs.size());
+            assertEquals(1.0, aggs.get(0).getTakerSellQty(), 1e-12);
+            assertEquals(3.0, aggs.get(1).getTakerSellQty(), 1e-12);
+            assertEquals(2.0, aggs.get(1).getTakerBuyQty(), 1e-12);
+            assertEquals(0, src.fetchAggMinutes("ETHUSDT", M0, M0 + 2 * 60_000L).size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static String kline(String symbol, long startMs, boolean isFinal) {
+        return "{\"stream\":\"" + symbol.toLowerCase() + "@kline_1m\",\"data\":{\"e\":\"kline\",\"E\":" + startMs
+                + ",\"s\":\"" + symbol + "\",\"k\":{\"t\":" + startMs + ",\"T\":" + (startMs + 59_999L)
+                + ",\"s\":\"" + symbol + "\",\"i\":\"1m\",\"o\":\"100\",\"c\":\"101\",\"h\":\"102\",\"l\":\"99\""
+                + ",\"v\":\"10\",\"n\":5,\"x\":" + isFinal + ",\"q\":\"1000\",\"V\":\"4\",\"Q\":\"400\"}}}";
+    }
+
+    private static String aggTrade(String symbol, long tradeMs, String qty, boolean buyerIsMaker) {
+        return "{\"stream\":\"" + symbol.toLowerCase() + "@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":" + tradeMs
+                + ",\"s\":\"" + symbol + "\",\"a\":1,\"p\":\"100\",\"q\":\"" + qty + "\",\"f\":1,\"l\":1,\"T\":"
+                + tradeMs + ",\"m\":" + buyerIsMaker + ",\"M\":true}}";
+    }
+}
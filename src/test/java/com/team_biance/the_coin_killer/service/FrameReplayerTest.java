@@ -0,0 +1,216 @@
+package com.team_biance.the_coin_killer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FrameRecorder -> FrameReplayer 왕복
+ *
+ * 1) 시간 경계로 파일이 나뉘어도 녹화 순서 / 원문(유니코드, 탭, escape) / 수신ms 그대로 재생되는지
+ * 2) 배속 재생이 녹화 간격 / speed 만큼 걸리는지
+ * 3) 잘린 gzip 꼬리는 파일 끝으로 취급, 잘린 마지막 줄은 버림
+ * 4) 비정상 종료 후 재시작: 같은 시간이라도 새 파일에 쓰고 (잘린 파일은 그대로) 두 파일 모두 재생
+ * 5) 예전 형식(잘린 member 뒤에 이어 쓴 파일)의 깨진 gzip 은 그 파일만 끝내고 다음 파일은 계속 재생
+ *    (깨진 지점과 같은 inflate 호출에서 풀린 줄은 잃을 수 있음, 깨진 줄이 sink 로 가지는 않음)
+ */
+class FrameReplayerTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Test
+    void recordedFramesReplayInOrderAcrossHourFiles() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        try {
+            FrameRecorder rec = new FrameRecorder(true, dir.toString(), 1_000);
+            long base = 490_000 * HOUR_MS - 1_000;
+            List<String> sent = new ArrayList<>();
+            List<Long> sentMs = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String raw = frame(i);
+                rec.record(base + i * 100L, raw);
+                sent.add(raw);
+                sentMs.add(base + i * 100L);
+            }
+            rec.shutdown();
+            assertEquals(20, rec.stats().recorded());
+
+            List<Path> files = FrameReplayer.resolve(dir.toString());
+            assertEquals(2, files.size());
+
+            List<String> got = new ArrayList<>();
+            List<Long> recv = new ArrayList<>();
+            long n = new FrameReplayer(files, 0).run((recvMs, raw) -> {
+                recv.add(recvMs);
+                got.add(raw);
+            });
+
+            assertEquals(20, n);
+            assertEquals(sent, got);
+            assertEquals(sentMs, recv);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void pacesBySpeed() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        try {
+            Path file = dir.resolve("frames-test.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                for (int i = 0; i <= 10; i++)
+                    out.write((1_000L + i * 100L + "\t{\"i\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+            }
+
+            // 녹화 1초 -> 10배속이면 약 100ms
+            FrameReplayer r = new FrameReplayer(List.of(file), 10);
+            long t0 = System.nanoTime();
+            assertEquals(11, r.run((recvMs, raw) -> {
+            }));
+            long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+            assertEquals(1_000, r.recordedSpanMs());
+            assertTrue(ms >= 90 && ms < 900, "elapsed " + ms + "ms");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void truncatedGzipEndsCleanly() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        try {
+            Path file = dir.resolve("frames-cut.gz");
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            GZIPOutputStream out = new GZIPOutputStream(buf, 512, true);
+            for (int i = 0; i < 100; i++)
+                out.write((1_000L + i + "\t{\"i\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            // sync flush 까지만, gzip trailer 없이 끊긴 파일 (녹화 중 비정상 종료)
+            Files.write(file, buf.toByteArray());
+
+            long n = new FrameReplayer(List.of(file), 0).run((recvMs, raw) -> {
+            });
+            assertEquals(100, n);
+
+            // 줄 중간까지 flush 된 뒤 끊김 -> 잘린 줄은 재생하지 않음
+            out.write("1100\t{\"i\":100, \"pad\":\"".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Files.write(file, buf.toByteArray());
+            List<String> got = new ArrayList<>();
+            assertEquals(100, new FrameReplayer(List.of(file), 0).run((recvMs, raw) -> got.add(raw)));
+            assertEquals("{\"i\":99}", got.get(99));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void restartAfterCrashWritesNewFileInSameHour() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        try {
+            long base = 490_000 * HOUR_MS + 60_000;
+            List<String> sent = new ArrayList<>();
+            List<Long> sentMs = new ArrayList<>();
+
+            FrameRecorder first = new FrameRecorder(true, dir.toString(), 1_000);
+            for (int i = 0; i < 10; i++) {
+                first.record(base + i, frame(i));
+                sent.add(frame(i));
+                sentMs.add(base + i);
+            }
+            first.shutdown();
+
+            // 비정상 종료 흉내: gzip trailer(8바이트) 없이 끝난 파일
+            List<Path> afterCrash = FrameReplayer.resolve(dir.toString());
+            assertEquals(1, afterCrash.size());
+            Path crashed = afterCrash.get(0);
+            byte[] whole = Files.readAllBytes(crashed);
+            Files.write(crashed, Arrays.copyOf(whole, whole.length - 8));
+            long crashedSize = Files.size(crashed);
+
+            FrameRecorder second = new FrameRecorder(true, dir.toString(), 1_000);
+            for (int i = 10; i < 20; i++) {
+                second.record(base + 5_000 + i, frame(i));
+                sent.add(frame(i));
+                sentMs.add(base + 5_000 + i);
+            }
+            second.shutdown();
+
+            List<Path> files = FrameReplayer.resolve(dir.toString());
+            assertEquals(2, files.size());
+            assertEquals(crashed, files.get(0));
+            assertEquals(crashedSize, Files.size(crashed));
+
+            List<String> got = new ArrayList<>();
+            List<Long> recv = new ArrayList<>();
+            assertEquals(20, new FrameReplayer(files, 0).run((recvMs, raw) -> {
+                recv.add(recvMs);
+                got.add(raw);
+            }));
+            assertEquals(sent, got);
+            assertEquals(sentMs, recv);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void corruptLegacyFileDoesNotStopReplay() throws Exception {
+        Path dir = Files.createTempDirectory("frames");
+        try {
+            // 예전 형식: 잘린 member (trailer 없음) 뒤에 재시작한 member 를 이어 씀
+            ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+            GZIPOutputStream cut = new GZIPOutputStream(legacy, 512, true);
+            for (int i = 0; i < 5; i++)
+                cut.write((1_000L + i + "\t" + frame(i) + "\n").getBytes(StandardCharsets.UTF_8));
+            cut.flush();
+            try (GZIPOutputStream next = new GZIPOutputStream(legacy)) {
+                next.write((2_000L + "\t" + frame(99) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            Path a = dir.resolve("frames-a.gz");
+            Files.write(a, legacy.toByteArray());
+
+            Path b = dir.resolve("frames-b.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(b))) {
+                for (int i = 5; i < 10; i++)
+                    out.write((3_000L + i + "\t" + frame(i) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+
+            List<String> got = new ArrayList<>();
+            new FrameReplayer(List.of(a, b), 0).run((recvMs, raw) -> got.add(raw));
+            assertTrue(got.size() >= 5, "frames " + got.size());
+            int skipped = got.size() - 5;
+            for (int i = 0; i < got.size(); i++)
+                assertEquals(frame(i < skipped ? i : i - skipped + 5), got.get(i));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static String frame(int i) {
+        return "{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"a\":" + i
+                + ",\"note\":\"체결\\t\u00e9\\\"q\\\"\",\"tab\":\"\t\"}}";
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> s = Files.walk(root)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * LightGbmModel (JVM evaluator) 검증
+ *
+ * 1) 손으로 만든 3-tree 모델 (NaN / zero missing, default left/right, leaf 1개 tree) 기대값 비교
+ * 2) 고정 fixture (src/test/resources/lgbm/lgbm_fixture*.txt / _parity.csv): COLUMNS 29개 전부 쓰는 13-tree 모델,
+ *    6가지 decision_type, NaN / 0 입력 -> 모든 row 의 proba 비교. NativeModelService 가 모든 feature 를 매핑하는지도 확인
+ *    tiny_model_parity.csv 도 같은 방식. proba 는 lgbm/make_parity.py (LightGBM Booster.predict) 로 다시 만듦
+ * 3) train.py 가 남긴 booster dump + parity csv (test 구간 feature + python predict_proba) 가 있으면
+ *    모든 row 를 python 결과와 비교 (없으면 skip)
+ *    위치: -Dlgbm.parity.dir=... (기본 src/main/python/model)
+ */
+class LightGbmModelParityTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    void tinyModelMatchesHandComputedScores() throws Exception {
+        LightGbmModel model = loadResource("lgbm/tiny_model.txt");
+
+        assertEquals(3, model.treeCount());
+        assertEquals(3, model.featureCount());
+
+        // tree0: f0<=0.5 ? (f1 NaN->right, f1<=1.5 ? 0.1 : 0.3) : -0.2
+        // tree1: f2 zero/NaN -> left(-0.05), f2<=1e-35 ? -0.05 : 0.15
+        // tree2: 0.02
+        assertRaw(model, 0.27, 0.2, 1.0, 1.0);
+        assertRaw(model, -0.23, 0.9, Double.NaN, -1.0);
+        assertRaw(model, 0.27, 0.2, Double.NaN, 0.0);      // NaN missing -> default right, zero -> default left
+        assertRaw(model, 0.47, Double.NaN, 2.0, 5.0);      // missing none: NaN 은 0 으로 비교
+
+        double p = model.predictProbability(new double[] { 0.2, 1.0, 1.0 });
+        assertEquals(1.0 / (1.0 + Math.exp(-0.27)), p, EPS);
+    }
+
+    @Test
+    void featureMinuteVectorFollowsModelFeatureOrder() throws Exception {
+        LightGbmModel model = loadResource("lgbm/tiny_model.txt");
+        FeatureMinuteVector vector = new FeatureMinuteVector(
+                new String[] { "cvd_1m", "close_1m", "funding_rate" });
+
+        FeatureMinute row = new FeatureMinute();
+        row.setTsUtc(LocalDateTime.of(2026, 1, 5, 12, 0));
+        row.setClose1m(0.2);
+        row.setCvd1m(-3.0);
+
+        double[] x = new double[vector.size()];
+        vector.fill(row, x);
+
+        assertEquals(-3.0, x[0], EPS);
+        assertEquals(0.2, x[1], EPS);
+        assertTrue(Double.isNaN(x[2]));
+        assertEquals(List.of("funding_rate"), vector.unmapped());
+
+        // 모델 순서 벡터로 평가
+        FeatureMinuteVector inModelOrder = new FeatureMinuteVector(model.featureNames());
+        double[] y = new double[inModelOrder.size()];
+        inModelOrder.fill(row, y);
+        assertEquals(0.1 - 0.05 + 0.02, model.predictRaw(y), EPS);
+    }
+
+    @Test
+    void matchesCommittedParityFixture() throws Exception {
+        LightGbmModel model = loadResource("lgbm/lgbm_fixture.txt");
+        assertEquals(13, model.treeCount());
+
+        List<String> unknown = new ArrayList<>();
+        NativeModelService.columnIndex(model.featureNames(), unknown);
+        assertEquals(List.of(), unknown);
+
+        List<String> lines = resourceLines("lgbm/lgbm_fixture_parity.csv");
+        assertEquals(49, lines.size());
+        double maxDiff = maxDiff(model, lines);
+        assertTrue(maxDiff < 1e-12, "lgbm_fixture max |java - lightgbm| = " + maxDiff);
+    }
+
+    @Test
+    void tinyModelMatchesCommittedParityFixture() throws Exception {
+        LightGbmModel model = loadResource("lgbm/tiny_model.txt");
+        List<String> lines = resourceLines("lgbm/tiny_model_parity.csv");
+        assertEquals(5, lines.size());
+        double maxDiff = maxDiff(model, lines);
+        assertTrue(maxDiff < 1e-12, "tiny_model max |java - lightgbm| = " + maxDiff);
+    }
+
+    @Test
+    void matchesPythonPredictProbaOnRecordedRows() throws Exception {
+        Path dir = Paths.get(System.getProperty("lgbm.parity.dir", "src/main/python/model"));
+        List<Path> csvs = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "lgbm_*_parity.csv")) {
+                ds.forEach(csvs::add);
+            }
+        }
+        assumeTrue(!csvs.isEmpty(), "no parity fixtures under " + dir.toAbsolutePath());
+
+        for (Path csv : csvs) {
+            Path booster = Paths.get(csv.toString().replace("_parity.csv", ".txt"));
+            assumeTrue(Files.exists(booster), "booster dump missing for " + csv);
+            LightGbmModel model = LightGbmModel.load(booster);
+
+            double maxDiff = maxDiff(model, Files.readAllLines(csv, StandardCharsets.UTF_8));
+            assertTrue(maxDiff < 1e-7, csv.getFileName() + " max |java - python| = " + maxDiff);
+        }
+    }
+
+    /**
+     * parity csv (header = feature 이름 + proba, 빈 칸 = NaN) 의 모든 row 에 대해 max |java - proba|
+     */
+    private static double maxDiff(LightGbmModel model, List<String> lines) {
+        String[] header = lines.get(0).split(",");
+
+        // csv 컬럼 -> 모델 feature index
+        String[] names = model.featureNames();
+        int[] col = new int[names.length];
+        for (int i = 0; i < names.length; i++)
+            col[i] = indexOf(header, names[i]);
+        int probaCol = indexOf(header, "proba");
+        assertTrue(probaCol >= 0, "proba column missing");
+
+        double[] x = new double[names.length];
+        double maxDiff = 0.0;
+        for (int r = 1; r < lines.size(); r++) {
+            String[] cells = lines.get(r).split(",", -1);
+            for (int i = 0; i < names.length; i++)
+                x[i] = (col[i] < 0 || cells[col[i]].isEmpty()) ? Double.NaN : Double.parseDouble(cells[col[i]]);
+
+            double expected = Double.parseDouble(cells[probaCol]);
+            double actual = model.predictProbability(x);
+            maxDiff = Math.max(maxDiff, Math.abs(expected - actual));
+        }
+        return maxDiff;
+    }
+
+    private static void assertRaw(LightGbmModel model, double expected, double... x) {
+        assertEquals(expected, model.predictRaw(x), EPS);
+    }
+
+    private static int indexOf(String[] header, String name) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].trim().equals(name))
+                return i;
+        }
+        return -1;
+    }
+
+    private static List<String> resourceLines(String name) throws Exception {
+        try (InputStream in = LightGbmModelParityTest.class.getClassLoader().getResourceAsStream(name)) {
+            assertTrue(in != null, "missing test resource " + name);
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().toList();
+        }
+    }
+
+    private static LightGbmModel loadResource(String name) throws Exception {
+        try (InputStream in = LightGbmModelParityTest.class.getClassLoader().getResourceAsStream(name)) {
+            assertTrue(in != null, "missing test resource " + name);
+            return LightGbmModel.parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LiveFeedService (snapshot / version 은 고정값으로 대체)
+ *
+ * 1) 구독자가 없으면 snapshot 을 만들지 않음
+ * 2) 한 tick 에 snapshot 1번 -> 모든 구독자에게 같은 내용 전송
+ * 3) version 이 같으면 heartbeat-ms 전까지 건너뜀, 바뀌면 바로 전송
+ * 4) 전송 실패한 구독자는 제거
+ * 5) send 가 끝나지 않은 구독자는 tick 을 건너뛰고, send-timeout-ms 를 넘기면 제거 (다른 구독자는 계속 받음)
+ *
+ * 전송 풀 대신 dispatch 를 바로 실행 (5 는 작업을 모아 두고 골라서 실행)
+ */
+class LiveFeedServiceTest {
+
+    @Test
+    void sharesOneSnapshotAndThrottlesByVersion() throws Exception {
+        FixedFeed feed = new FixedFeed();
+
+        feed.tick(0L);
+        assertEquals(0, feed.snapshots);
+
+        CountingEmitter a = new CountingEmitter(false);
+        CountingEmitter b = new CountingEmitter(false);
+        feed.register(a);
+        feed.register(b);
+
+        feed.tick(1_000L);
+        assertEquals(1, feed.snapshots);
+        assertEquals(1, a.sent);
+        assertEquals(1, b.sent);
+
+        // 변화 없음 -> heartbeat(5초) 전까지 안 보냄
+        feed.tick(1_500L);
+        feed.tick(5_900L);
+        assertEquals(1, feed.snapshots);
+
+        feed.tick(6_000L);
+        assertEquals(2, feed.snapshots);
+        assertEquals(2, a.sent);
+
+        feed.version = 2L;
+        feed.tick(6_500L);
+        assertEquals(3, feed.snapshots);
+        assertEquals(3, b.sent);
+    }
+
+    @Test
+    void dropsBrokenSubscriber() throws Exception {
+        FixedFeed feed = new FixedFeed();
+        CountingEmitter ok = new CountingEmitter(false);
+        CountingEmitter broken = new CountingEmitter(true);
+        feed.register(ok);
+        feed.register(broken);
+        assertEquals(2, feed.subscriberCount());
+
+        feed.tick(1_000L);
+        assertEquals(1, feed.subscriberCount());
+        assertEquals(1, ok.sent);
+
+        feed.version = 2L;
+        feed.tick(1_500L);
+        assertEquals(2, ok.sent);
+        assertEquals(1, broken.sent);
+    }
+
+    @Test
+    void dropsSubscriberStuckInSend() throws Exception {
+        FixedFeed feed = new FixedFeed();
+        feed.manual = true;
+        CountingEmitter fast = new CountingEmitter(false);
+        CountingEmitter slow = new CountingEmitter(false);
+        feed.register(fast);
+        feed.register(slow);
+
+        feed.tick(1_000L);
+        assertEquals(2, feed.pending.size());
+        feed.pending.remove(0).run(); // fast 만 완료, slow 는 send 중인 채로 남음
+        assertEquals(1, fast.sent);
+
+        // slow 는 이전 send 가 안 끝나 이번 tick 건너뜀 (작업이 쌓이지 않음)
+        feed.version = 2L;
+        feed.tick(1_500L);
+        assertEquals(2, feed.pending.size());
+        feed.pending.remove(1).run();
+        assertEquals(2, fast.sent);
+        assertEquals(2, feed.subscriberCount());
+
+        // send-timeout-ms(3초) 초과 -> slow 제거, fast 는 계속 받음
+        feed.version = 3L;
+        feed.tick(4_000L);
+        assertEquals(1, feed.subscriberCount());
+        assertEquals(1, feed.slowDroppedCount());
+        assertTrue(slow.completed);
+        assertFalse(fast.completed);
+        feed.pending.remove(1).run();
+        assertEquals(3, fast.sent);
+        assertEquals(0, slow.sent);
+    }
+
+    private static final class FixedFeed extends LiveFeedService {
+        long version = 1L;
+        int snapshots;
+        boolean manual;
+        final List<Runnable> pending = new ArrayList<>();
+
+        FixedFeed() {
+            super(null, null, null, new ObjectMapper());
+        }
+
+        @Override
+        long version() {
+            return version;
+        }
+
+        @Override
+        LiveSnapshot snapshot() {
+            snapshots++;
+            return new LiveSnapshot(null, List.of(), List.of());
+        }
+
+        @Override
+        void dispatch(Runnable task) {
+            if (manual)
+                pending.add(task);
+            else
+                task.run();
+        }
+    }
+
+    private static final class CountingEmitter extends SseEmitter {
+        private final boolean fail;
+        int sent;
+        boolean completed;
+
+        CountingEmitter(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent++;
+            if (fail)
+                throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.model.FDepth1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FMark1m;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * f_depth_1m / f_mark_1m 분 집계
+ *
+ * 1) depth: 1초 샘플 avg 가 GROUP BY AVG 와 같고, microprice 없는 샘플은 gap 평균에서만 제외
+ * 2) mark: last / avg / basis / funding, index 없는 샘플은 basis 평균에서 제외
+ * 3) reset 후 빈 버킷은 row 없음
+ */
+class MinuteRollupBucketTest {
+
+    private static final long MINUTE_MS = 1_760_781_600_000L;
+
+    @Test
+    void depthMinuteAveragesOneSecondSamples() {
+        DepthMinuteBucket b = new DepthMinuteBucket(MINUTE_MS);
+        assertTrue(b.isEmpty());
+        assertNull(b.toRow("BTCUSDT"));
+
+        b.add(snapshot(1.0, 0.2, 0.5, 100.0));
+        b.add(snapshot(3.0, -0.4, null, 101.0));
+        b.add(snapshot(2.0, 0.5, 1.5, 102.0));
+
+        FDepth1m row = b.toRow("BTCUSDT");
+        assertEquals("BTCUSDT", row.getSymbol());
+        assertEquals(LocalDateTime.of(2025, 10, 18, 10, 0), row.getTsUtc());
+        assertEquals(3, row.getSampleCount());
+        assertEquals(2.0, row.getSpreadBpsAvg(), 1e-12);
+        assertEquals(1.0, row.getSpreadBpsMin(), 0.0);
+        assertEquals(3.0, row.getSpreadBpsMax(), 0.0);
+        assertEquals(0.1, row.getImbalanceTop20Avg(), 1e-12);
+        assertEquals(1.0, row.getMicropriceGapBpsAvg(), 1e-12);
+        assertEquals(101.0, row.getMidPriceAvg(), 1e-12);
+        assertEquals(102.0, row.getMidPriceLast(), 0.0);
+
+        assertTrue(b.clearTouched());
+        assertFalse(b.clearTouched());
+
+        b.reset(MINUTE_MS + 60_000L);
+        assertTrue(b.isEmpty());
+        assertNull(b.toRow("BTCUSDT"));
+    }
+
+    @Test
+    void markMinuteKeepsLastAverageAndBasis() {
+        MarkMinuteBucket b = new MarkMinuteBucket(MINUTE_MS);
+        b.add(100.0, 99.0, 0.0001);
+        b.add(102.0, null, 0.0003);
+        b.add(101.0, 100.0, null);
+
+        FMark1m row = b.toRow("ETHUSDT");
+        assertEquals(3, row.getSampleCount());
+        assertEquals(101.0, row.getMarkPriceLast(), 0.0);
+        assertEquals(101.0, row.getMarkPriceAvg(), 1e-12);
+        assertEquals(100.0, row.getIndexPriceLast(), 0.0);
+
+        double basis = ((100.0 - 99.0) / 99.0 * 10000.0 + (101.0 - 100.0) / 100.0 * 10000.0) / 2.0;
+        assertEquals(basis, row.getBasisBpsAvg(), 1e-9);
+        assertEquals(0.0003, row.getFundingRateLast(), 0.0);
+        assertEquals(0.0002, row.getFundingRateAvg(), 1e-15);
+    }
+
+    private static FDepthSnapshot1s snapshot(double spreadBps, double imbalance, Double microGapBps, double mid) {
+        FDepthSnapshot1s s = new FDepthSnapshot1s();
+        s.setSpreadBps(spreadBps);
+        s.setImbalanceTop20(imbalance);
+        s.setMicropriceGapBps(microGapBps);
+        s.setMidPrice(mid);
+        return s;
+    }
+}
@@ -0,0 +1,92 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PythonExecutorService 내부 유틸
+ *
+ * 1) LineRing: 긴 줄은 maxChars 에서 자르고, 용량을 넘으면 오래된 줄부터 버리고 버린 줄 수 표시
+ * 2) readJson: 앞쪽 라이브러리 출력 / 빈 줄 건너뛰고 JSON 객체 추출, 뒤에 남은 출력은 무시(끝까지 읽음)
+ * 3) readJson: 빈 출력 -> null, JSON 없는 출력 / 깨진 JSON -> IOException
+ */
+class PythonExecutorServiceTest {
+
+    private final PythonExecutorService executor = new PythonExecutorService(null);
+
+    @Test
+    void lineRingTruncatesAndEvicts() {
+        PythonExecutorService.LineRing ring = new PythonExecutorService.LineRing(3, 5);
+        assertEquals("", ring.joined());
+
+        ring.add("short");
+        ring.add("0123456789");
+        assertEquals("short\n01234...", ring.joined());
+
+        ring.add("c");
+        ring.add("d");
+        ring.add("e");
+        assertEquals("... (2 earlier lines dropped)\nc\nd\ne", ring.joined());
+
+        // 용량 0 이하도 1줄은 보관
+        PythonExecutorService.LineRing one = new PythonExecutorService.LineRing(0, 100);
+        one.add("a");
+        one.add("b");
+        assertEquals("... (1 earlier lines dropped)\nb", one.joined());
+    }
+
+    @Test
+    void readJsonSkipsNoiseAroundObject() throws Exception {
+        CountingStream out = stream("[LightGBM] [Warning] No further splits with positive gain\n"
+                + "loading model...\n"
+                + "\n"
+                + "  {\"ok\": true, \"probability\": 0.61, \"nested\": {\"a\": [1, 2]}}\n"
+                + "trailing log line\n");
+        AtomicLong firstByte = new AtomicLong();
+
+        JsonNode json = executor.readJson(out, firstByte);
+
+        assertTrue(json.path("ok").asBoolean());
+        assertEquals(0.61, json.path("probability").asDouble(), 1e-12);
+        assertEquals(2, json.path("nested").path("a").size());
+        assertTrue(firstByte.get() != 0L);
+        assertTrue(out.drained(), "stdout must be read to EOF");
+    }
+
+    @Test
+    void readJsonEmptyAndInvalidOutput() throws Exception {
+        assertNull(executor.readJson(stream(""), new AtomicLong()));
+        assertNull(executor.readJson(stream(" \n\r\n"), new AtomicLong()));
+
+        // '{' 가 줄 중간에만 있으면 JSON 으로 보지 않음
+        assertThrows(IOException.class, () -> executor.readJson(stream("Traceback: x = {1: 2}\n"), new AtomicLong()));
+        assertThrows(IOException.class, () -> executor.readJson(stream("{\"ok\": tru"), new AtomicLong()));
+    }
+
+    private static CountingStream stream(String s) {
+        return new CountingStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 끝까지 읽혔는지 확인용
+     */
+    private static final class CountingStream extends ByteArrayInputStream {
+        CountingStream(byte[] buf) {
+            super(buf);
+        }
+
+        boolean drained() {
+            return available() == 0;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * PythonModelServer (stub 워커 스크립트로 프로토콜 / 재시작 검증, model_server.py 와 같은 NDJSON)
+ *
+ * 1) ready 줄 이후 요청마다 id 를 붙이고 같은 id 응답만 받음, 워커는 재사용
+ * 2) 워커가 응답 전에 죽으면 IOException + 폐기, 다음 요청은 새 워커
+ * 3) 응답 대기 초과 -> TimeoutException + 폐기, 다음 요청은 새 워커
+ * 4) 동시에 들어온 요청은 워커 상한(app.python.workers)까지 병렬로 띄움 (spawn 이 서로를 막지 않음)
+ * 5) 기동 중 첫 줄이 JSON 이 아니거나 ready 가 시간 안에 안 오면 예외 + 프로세스 종료 (stdin 을 안 읽는 워커 포함)
+ */
+class PythonModelServerTest {
+
+    // op=crash -> 즉시 종료, op=sleep -> ms 만큼 대기 후 응답, 그 외 echo (pid 포함)
+    // STUB_MODE=garbage -> JSON 아닌 첫 줄, silent -> ready 없음 (둘 다 stdin 을 읽지 않고 60초 대기)
+    private static final String STUB = String.join("\n",
+            "import json, os, sys, time",
+            "if os.environ.get('STUB_PID_FILE'):",
+            "    with open(os.environ['STUB_PID_FILE'], 'w') as f:",
+            "        f.write(str(os.getpid()))",
+            "mode = os.environ.get('STUB_MODE', '')",
+            "if mode == 'garbage':",
+            "    print('Traceback (most recent call last): not json', flush=True)",
+            "if mode in ('garbage', 'silent'):",
+            "    time.sleep(60)",
+            "time.sleep(float(os.environ.get('STUB_STARTUP_S', '0')))",
+            "print(json.dumps({'ok': True, 'op': 'ready', 'pid': os.getpid()}), flush=True)",
+            "for line in sys.stdin:",
+            "    req = json.loads(line)",
+            "    if req.get('op') == 'crash':",
+            "        sys.exit(3)",
+            "    if req.get('op') == 'sleep':",
+            "        time.sleep(req['ms'] / 1000.0)",
+            "    print(json.dumps({'id': req['id'] - 1000, 'stale': True}), flush=True)",
+            "    print(json.dumps({'id': req['id'], 'ok': True, 'pid': os.getpid()}), flush=True)",
+            "");
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    @Test
+    void reusesWorkerAndRestartsAfterCrashOrTimeout() throws Exception {
+        assumeTrue(python3Available(), "python3 not on PATH");
+        Path dir = Files.createTempDirectory("py-server");
+        Path script = writeStub(dir);
+        PythonModelServer server = new PythonModelServer(stubExecutor(script, 0), om, 1, 2000, 10_000);
+        try {
+            JsonNode a = server.request(op("ping"));
+            JsonNode b = server.request(op("ping"));
+            assertTrue(a.path("ok").asBoolean());
+            assertEquals(a.path("id").asLong() + 1, b.path("id").asLong());
+            assertEquals(a.path("pid").asLong(), b.path("pid").asLong());
+            assertEquals(1, server.liveWorkers());
+
+            assertThrows(IOException.class, () -> server.request(op("crash")));
+            assertEquals(0, server.liveWorkers());
+            JsonNode c = server.request(op("ping"));
+            assertNotEquals(a.path("pid").asLong(), c.path("pid").asLong());
+
+            ObjectNode slow = op("sleep");
+            slow.put("ms", 1500);
+            assertThrows(TimeoutException.class, () -> server.request(slow, 200));
+            assertEquals(0, server.liveWorkers());
+            JsonNode d = server.request(op("ping"));
+            assertNotEquals(c.path("pid").asLong(), d.path("pid").asLong());
+        } finally {
+            server.shutdown();
+            deleteDir(dir);
+        }
+    }
+
+    @Test
+    void spawnsWorkersConcurrentlyUpToLimit() throws Exception {
+        assumeTrue(python3Available(), "python3 not on PATH");
+        Path dir = Files.createTempDirectory("py-server");
+        Path script = writeStub(dir);
+        // 워커 기동 0.8초: spawn 이 락 안에 있으면 두 번째 요청은 첫 spawn 이 끝날 때까지 대기
+        PythonModelServer server = new PythonModelServer(stubExecutor(script, 800), om, 2, 2000, 10_000);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            long start = System.nanoTime();
+            List<Future<JsonNode>> calls = List.of(
+                    pool.submit(() -> {
+                        go.await();
+                        return server.request(op("ping"));
+                    }),
+                    pool.submit(() -> {
+                        go.await();
+                        return server.request(op("ping"));
+                    }));
+            go.countDown();
+
+            Set<Long> pids = new HashSet<>();
+            for (Future<JsonNode> f : calls)
+                pids.add(f.get(10, TimeUnit.SECONDS).path("pid").asLong());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(2, pids.size());
+            assertEquals(2, server.liveWorkers());
+            assertTrue(elapsedMs < 1600, "workers spawned serially: " + elapsedMs + "ms");
+
+            // 상한 도달 -> 세 번째 요청은 반납된 워커 재사용
+            assertTrue(pids.contains(server.request(op("ping")).path("pid").asLong()));
+            assertEquals(2, server.liveWorkers());
+        } finally {
+            pool.shutdownNow();
+            server.shutdown();
+            deleteDir(dir);
+        }
+    }
+
+    @Test
+    void failedStartupLeavesNoProcess() throws Exception {
+        assumeTrue(python3Available(), "python3 not on PATH");
+        Path dir = Files.createTempDirectory("py-server");
+        Path script = writeStub(dir);
+        try {
+            Path garbagePid = dir.resolve("garbage.pid");
+            PythonModelServer garbage = new PythonModelServer(
+                    stubExecutor(script, 0, "garbage", garbagePid), om, 1, 2000, 10_000);
+            assertThrows(IOException.class, () -> garbage.request(op("ping")));
+            assertEquals(0, garbage.liveWorkers());
+            assertExited(garbagePid);
+
+            Path silentPid = dir.resolve("silent.pid");
+            PythonModelServer silent = new PythonModelServer(
+                    stubExecutor(script, 0, "silent", silentPid), om, 1, 2000, 500);
+            assertThrows(TimeoutException.class, () -> silent.request(op("ping")));
+            assertEquals(0, silent.liveWorkers());
+            assertExited(silentPid);
+        } finally {
+            deleteDir(dir);
+        }
+    }
+
+    private static void assertExited(Path pidFile) throws Exception {
+        long pid = Long.parseLong(Files.readString(pidFile).trim());
+        Optional<ProcessHandle> h = ProcessHandle.of(pid);
+        if (h.isPresent())
+            h.get().onExit().get(5, TimeUnit.SECONDS);
+        assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false), "worker still alive: pid=" + pid);
+    }
+
+    private ObjectNode op(String name) {
+        ObjectNode req = om.createObjectNode();
+        req.put("op", name);
+        return req;
+    }
+
+    private static Path writeStub(Path dir) throws IOException {
+        Path script = dir.resolve("stub_server.py");
+        Files.write(script, STUB.getBytes(StandardCharsets.UTF_8));
+        return script;
+    }
+
+    /**
+     * model_server.py 대신 stub 을 띄우는 executor (DB 환경변수 없음)
+     */
+    private static PythonExecutorService stubExecutor(Path script, long startupMs) {
+        return stubExecutor(script, startupMs, "", null);
+    }
+
+    private static PythonExecutorService stubExecutor(Path script, long startupMs, String mode, Path pidFile) {
+        return new PythonExecutorService(null) {
+            @Override
+            public ProcessBuilder processBuilder(String scriptName, String... args) {
+                ProcessBuilder pb = new ProcessBuilder("python3", script.toString());
+                pb.environment().put("STUB_STARTUP_S", String.valueOf(startupMs / 1000.0));
+                pb.environment().put("STUB_MODE", mode);
+                if (pidFile != null)
+                    pb.environment().put("STUB_PID_FILE", pidFile.toString());
+                return pb;
+            }
+        };
+    }
+
+    private static boolean python3Available() {
+        try {
+            Process p = new ProcessBuilder("python3", "--version").redirectErrorStream(true).start();
+            return p.waitFor(5, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void deleteDir(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator)
+                Files.deleteIfExists(f);
+        }
+        Files.deleteIfExists(dir);
+    }
+}
@@ -0,0 +1,272 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.PartitionInfo;
+import com.team_biance.the_coin_killer.mapper.RetentionMapper;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RetentionService (mapper 는 호출 기록만 하는 fake)
+ *
+ * 1) 파티션 테이블: 경계 다음 날부터 today + ahead 까지 추가, 만료 파티션은 rollup + archive 후 DROP
+ * 2) 파티션 없는 테이블: 만료 날짜마다 rollup + archive 후 심볼별 chunk DELETE (batch 가 찰 때까지 반복)
+ * 3) archive 가 실패하면 DROP / DELETE 안 함, tmp 파일도 남지 않음
+ */
+class RetentionServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void partitionedTableAddsAheadAndDropsExpired() throws Exception {
+        Path dir = Files.createTempDirectory("archive");
+        try {
+            FakeMapper mapper = new FakeMapper();
+            // 10/09, 10/10 (만료, cutoff = 10/11), 10/18 (오늘), pmax
+            mapper.partitions = List.of(
+                    partition("p20261009", "'2026-10-10 00:00:00'"),
+                    partition("p20261010", "'2026-10-11 00:00:00'"),
+                    partition("p20261018", "'2026-10-19 00:00:00'"),
+                    partition("pmax", "MAXVALUE"));
+            mapper.oldest = LocalDateTime.of(2026, 10, 9, 3, 15);
+
+            RetentionService svc = new RetentionService(mapper, new TableStatsRegistry(null), true, 7, 2, true, dir.toString(), 1000);
+            RetentionService.TableRun depth = svc.run(TODAY).get(0);
+
+            assertTrue(depth.isPartitioned());
+            assertEquals(List.of("p20261019<2026-10-20 00:00:00", "p20261020<2026-10-21 00:00:00"),
+                    mapper.added.stream().filter(a -> a.startsWith(RetentionService.DEPTH_TABLE + ":"))
+                            .map(a -> a.substring(a.indexOf(':') + 1)).collect(Collectors.toList()));
+            assertEquals(List.of(RetentionService.DEPTH_TABLE + ":p20261009", RetentionService.DEPTH_TABLE + ":p20261010"),
+                    mapper.dropped.subList(0, 2));
+            assertEquals(2, depth.getDays());
+            assertEquals(48, mapper.depthRollups);
+            assertEquals(0, mapper.deleted);
+
+            Path file = svc.archiveFile(RetentionService.DEPTH_TABLE, LocalDate.of(2026, 10, 9));
+            List<String> lines = readGz(file);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).startsWith("symbol\tts_utc\tbest_bid"));
+            String[] cols = lines.get(1).split("\t", -1);
+            assertEquals("BTCUSDT", cols[0]);
+            assertEquals("2026-10-09T00:00", cols[1]);
+            assertEquals(DayArchiveWriter.NULL, cols[9]);
+            assertEquals("AQID", cols[12]);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    void plainTableDeletesExpiredDaysInChunks() throws Exception {
+        Path dir = Files.createTempDirectory("archive");
+        try {
+            FakeMapper mapper = new FakeMapper();
+            mapper.oldest = LocalDateTime.of(2026, 10, 10, 23, 59);
+            mapper.deleteRemaining.put("BTCUSDT", 2500L);
+            mapper.deleteRemaining.put("ETHUSDT", 300L);
+
+            RetentionService svc = new RetentionService(mapper, new TableStatsRegistry(null), true, 7, 2, true, dir.toString(), 1000);
+            List<RetentionService.TableRun> runs = svc.run(TODAY);
+            RetentionService.TableRun mark = runs.get(1);
+
+            assertFalse(mark.isPartitioned());
+            assertTrue(mapper.added.isEmpty());
+            assertEquals(1, mark.getDays());
+            assertEquals(24, mapper.markRollups);
+            assertEquals(1, mark.getRowsArchived());
+            assertEquals(2800, mapper.deleted);
+            assertEquals(2800, runs.get(0).getRowsDeleted());
+            // 심볼마다 PK range: batch 가 덜 차면 다음 심볼로
+            assertEquals(List.of(
+                    RetentionService.DEPTH_TABLE + ":BTCUSDT:1000",
+                    RetentionService.DEPTH_TABLE + ":BTCUSDT:1000",
+                    RetentionService.DEPTH_TABLE + ":BTCUSDT:500",
+                    RetentionService.DEPTH_TABLE + ":ETHUSDT:300",
+                    RetentionService.MARK_TABLE + ":BTCUSDT:0",
+                    RetentionService.MARK_TABLE + ":ETHUSDT:0"), mapper.deletes);
+            assertTrue(Files.exists(svc.archiveFile(RetentionService.MARK_TABLE, LocalDate.of(2026, 10, 10))));
+            assertNull(mark.getError());
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    void failedArchiveKeepsRows() throws Exception {
+        Path dir = Files.createTempDirectory("archive");
+        try {
+            FakeMapper mapper = new FakeMapper();
+            mapper.oldest = LocalDateTime.of(2026, 10, 10, 0, 0);
+            mapper.deleteRemaining.put("BTCUSDT", 10L);
+            mapper.failStream = true;
+
+            RetentionService svc = new RetentionService(mapper, new TableStatsRegistry(null), true, 7, 2, true, dir.toString(), 1000);
+            svc.run(TODAY);
+
+            assertEquals(0, mapper.deleted);
+            Path file = svc.archiveFile(RetentionService.DEPTH_TABLE, LocalDate.of(2026, 10, 10));
+            assertFalse(Files.exists(file));
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    void parsesPartitionBounds() {
+        assertEquals(LocalDateTime.of(2026, 10, 19, 0, 0), RetentionService.parseBound("'2026-10-19 00:00:00'"));
+        assertNull(RetentionService.parseBound("MAXVALUE"));
+        assertEquals("p20261018", RetentionService.partitionName(TODAY));
+    }
+
+    // =========================
+    // fake
+    // =========================
+    private static final class FakeMapper implements RetentionMapper {
+        List<PartitionInfo> partitions = List.of();
+        LocalDateTime oldest;
+        final Map<String, Long> deleteRemaining = new LinkedHashMap<>();
+        boolean failStream;
+
+        final List<String> added = new ArrayList<>();
+        final List<String> dropped = new ArrayList<>();
+        int depthRollups;
+        int markRollups;
+        long deleted;
+        final List<String> deletes = new ArrayList<>();
+
+        @Override
+        public List<PartitionInfo> listPartitions(String table) {
+            return partitions;
+        }
+
+        @Override
+        public void addPartition(String table, String name, String lessThan, String maxName) {
+            added.add(table + ":" + name + "<" + lessThan);
+        }
+
+        @Override
+        public void dropPartition(String table, String name) {
+            dropped.add(table + ":" + name);
+        }
+
+        @Override
+        public LocalDateTime oldestTime(String table) {
+            return oldest;
+        }
+
+        @Override
+        public List<String> listSymbols(String table) {
+            return new ArrayList<>(deleteRemaining.keySet());
+        }
+
+        @Override
+        public int deleteBefore(String table, String symbol, LocalDateTime before, int limit) {
+            int n = (int) Math.min(limit, deleteRemaining.get(symbol));
+            deleteRemaining.merge(symbol, (long) -n, Long::sum);
+            deleted += n;
+            deletes.add(table + ":" + symbol + ":" + n);
+            return n;
+        }
+
+        @Override
+        public int rollupDepth(LocalDateTime from, LocalDateTime to) {
+            depthRollups++;
+            return 1;
+        }
+
+        @Override
+        public int rollupMark(LocalDateTime from, LocalDateTime to) {
+            markRollups++;
+            return 1;
+        }
+
+        @Override
+        public void streamDepth(LocalDateTime from, LocalDateTime to, ResultHandler<FDepthSnapshot1s> handler) {
+            if (failStream)
+                throw new UncheckedIOException(new IOException("disk full"));
+            FDepthSnapshot1s s = new FDepthSnapshot1s();
+            s.setSymbol("BTCUSDT");
+            s.setTsUtc(from);
+            s.setBidsGzip(new byte[] { 1, 2, 3 });
+            s.setAsksGzip(new byte[] { 4 });
+            handler.handleResult(new Ctx<>(s));
+        }
+
+        @Override
+        public void streamMark(LocalDateTime from, LocalDateTime to, ResultHandler<FMark1s> handler) {
+            if (failStream)
+                throw new UncheckedIOException(new IOException("disk full"));
+            FMark1s m = new FMark1s();
+            m.setSymbol("BTCUSDT");
+            m.setTsUtc(from);
+            m.setMarkPrice(67000.0);
+            handler.handleResult(new Ctx<>(m));
+        }
+    }
+
+    private record Ctx<T>(T value) implements ResultContext<T> {
+        @Override
+        public T getResultObject() {
+            return value;
+        }
+
+        @Override
+        public int getResultCount() {
+            return 1;
+        }
+
+        @Override
+        public boolean isStopped() {
+            return false;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static PartitionInfo partition(String name, String description) {
+        PartitionInfo p = new PartitionInfo();
+        p.setPartitionName(name);
+        p.setPartitionDescription(description);
+        return p;
+    }
+
+    private static List<String> readGz(Path file) throws IOException {
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return r.lines().collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (var s = Files.walk(dir)) {
+            s.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.MinuteCount;
+import com.team_biance.the_coin_killer.mapper.FeatureSourceMapper;
+import com.team_biance.the_coin_killer.model.FAggTrade1m;
+import com.team_biance.the_coin_killer.model.FDepthSnapshot1s;
+import com.team_biance.the_coin_killer.model.FForceOrder;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import com.team_biance.the_coin_killer.model.FeatureMinute;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RollingFeatureEngine(스트림 경로) vs FeatureCalculationService.calculateFromDb(DB 경로) 같은 입력 -> 같은 feature_minute
+ *
+ * - 150분짜리 고정 입력: 분마다 kline / aggTrade / depth 2개 / mark 2개, 일부 분은 청산
+ * - 90분째 kline 누락 (rv / vol_z 가 양쪽 모두 0 으로 떨어지는 구간 포함), 40분째 depth 없음 (이전 분 carry)
+ * - DB 경로는 같은 row 를 SQL 과 같은 의미로 잘라 주는 fake mapper 로 loadBatch
+ */
+class RollingFeatureParityTest {
+
+    private static final String SYMBOL = "BTCUSDT";
+    private static final int MINUTES = 150;
+    private static final int KLINE_GAP = 90;
+    private static final int DEPTH_GAP = 40;
+
+    @Test
+    void engineMatchesDbPathOnFixedInput() throws Exception {
+        // 엔진은 생성 이후 분부터만 답함 -> 입력을 현재 시각 이후 분으로
+        long m0 = System.currentTimeMillis() / 60_000L + 2;
+        Data data = generate(m0);
+
+        RollingFeatureEngine engine = new RollingFeatureEngine(data);
+        for (int i = 0; i < MINUTES; i++)
+            feed(engine, data, RollingFeatureEngine.minuteStart(m0 + i));
+
+        // DB 경로 (엔진 overlay 없이 순수 DB 의미)
+        FeatureCalculationService db = new FeatureCalculationService(data, null, new RollingFeatureEngine(data));
+
+        int compared = 0;
+        for (int i = 61; i < MINUTES; i++) {
+            LocalDateTime ts = RollingFeatureEngine.minuteStart(m0 + i);
+            FeatureMinute fromDb = db.calculateFromDb(SYMBOL, ts);
+            FeatureMinute fromEngine = engine.compute(SYMBOL, ts);
+            if (i == KLINE_GAP) {
+                assertNull(fromDb);
+                assertNull(fromEngine);
+                continue;
+            }
+            assertNotNull(fromDb, "db " + ts);
+            assertNotNull(fromEngine, "engine " + ts);
+            assertSameFeatures(fromDb, fromEngine, ts);
+            compared++;
+        }
+        assertEquals(MINUTES - 61 - 1, compared);
+    }
+
+    /**
+     * 초기 적재는 seedExecutor 에서 실행되고, ring 에 반영되기 전까지 compute() 는 null
+     * - DB 에 직전 100분이 있고 스트림은 그 다음 분부터: 적재가 끝나면 첫 스트림 분부터 DB 경로와 같은 값
+     */
+    @Test
+    void seedRunsOnSeedExecutorAndHoldsComputeUntilApplied() throws Exception {
+        int history = 100;
+        long m0 = System.currentTimeMillis() / 60_000L + 2;
+        Data data = generate(m0 - history);
+
+        RollingFeatureEngine engine = new RollingFeatureEngine(data);
+        List<Runnable> seeds = new ArrayList<>();
+        engine.seedOn(seeds::add);
+
+        for (int i = 0; i < 5; i++)
+            feed(engine, data, RollingFeatureEngine.minuteStart(m0 + i));
+        LocalDateTime ts = RollingFeatureEngine.minuteStart(m0 + 3);
+
+        // kline 을 받은 shard 스레드에서는 DB 를 읽지 않고 적재만 넘김
+        assertEquals(1, seeds.size());
+        assertNull(engine.compute(SYMBOL, ts));
+
+        seeds.get(0).run();
+
+        FeatureCalculationService db = new FeatureCalculationService(data, null, new RollingFeatureEngine(data));
+        FeatureMinute fromEngine = engine.compute(SYMBOL, ts);
+        assertNotNull(fromEngine);
+        assertSameFeatures(db.calculateFromDb(SYMBOL, ts), fromEngine, ts);
+    }
+
+    private static void feed(RollingFeatureEngine engine, Data data, LocalDateTime ts) {
+        for (FDepthSnapshot1s d : data.depths)
+            if (minuteOf(d.getTsUtc()).equals(ts))
+                engine.onDepth(d);
+        for (FMark1s m : data.marks)
+            if (minuteOf(m.getTsUtc()).equals(ts))
+                engine.onMark(m);
+        for (FForceOrder f : data.forces)
+            if (minuteOf(f.getEventUtc()).equals(ts))
+                engine.onForceOrder(f);
+        for (FAggTrade1m a : data.aggs)
+            if (a.getTsUtc().equals(ts))
+                engine.onAggMinute(a);
+        for (FKline1m k : data.klines)
+            if (k.getTsUtc().equals(ts))
+                engine.onKline(k);
+    }
+
+    private static void assertSameFeatures(FeatureMinute expected, FeatureMinute actual, LocalDateTime ts)
+            throws Exception {
+        for (Method g : FeatureMinute.class.getMethods()) {
+            if (!g.getName().startsWith("get") || g.getParameterCount() != 0 || g.getDeclaringClass() == Object.class)
+                continue;
+            Object e = g.invoke(expected);
+            Object a = g.invoke(actual);
+            if (e instanceof Double ed && a instanceof Double ad) {
+                double tol = 1e-9 * Math.max(1.0, Math.abs(ed));
+                assertTrue(Math.abs(ed - ad) <= tol, g.getName() + " at " + ts + ": db=" + ed + ", engine=" + ad);
+            } else {
+                assertEquals(e, a, g.getName() + " at " + ts);
+            }
+        }
+    }
+
+    // =========================
+    // 고정 입력
+    // =========================
+    private static Data generate(long m0) {
+        Data d = new Data();
+        double px = 60_000.0;
+        for (int i = 0; i < MINUTES; i++) {
+            LocalDateTime ts = RollingFeatureEngine.minuteStart(m0 + i);
+            // 결정적인 가격 / 거래량 변화
+            double drift = Math.sin(i * 0.37) * 40.0 + ((i * 7) % 11 - 5) * 3.0;
+            double close = px + drift;
+
+            if (i != KLINE_GAP) {
+                FKline1m k = new FKline1m();
+                k.setSymbol(SYMBOL);
+                k.setTsUtc(ts);
+                k.setOpen(px);
+                k.setHigh(Math.max(px, close) + 5.0);
+                k.setLow(Math.min(px, close) - 5.0);
+                k.setClose(close);
+                k.setVolume(100.0 + (i * 13) % 47 + i * 0.5);
+                k.setTradeCount(500 + (i * 31) % 97);
+                d.klines.add(k);
+            }
+            px = close;
+
+            if (i % 9 != 4) {
+                FAggTrade1m a = new FAggTrade1m();
+                a.setSymbol(SYMBOL);
+                a.setTsUtc(ts);
+                a.setTakerBuyQty(20.0 + (i * 17) % 23);
+                a.setTakerSellQty(18.0 + (i * 11) % 29);
+                a.setTradeCount(300 + i);
+                a.setVwapPrice(close - 1.5);
+                d.aggs.add(a);
+            }
+
+            if (i != DEPTH_GAP) {
+                for (int s : new int[] { 10, 50 }) {
+                    FDepthSnapshot1s ds = new FDepthSnapshot1s();
+                    ds.setSymbol(SYMBOL);
+                    ds.setTsUtc(ts.plusSeconds(s));
+                    ds.setMidPrice(close + s * 0.01);
+                    ds.setSpreadBps(0.5 + s * 0.001);
+                    ds.setDepthBidSumTop20(150.0 + i + s);
+                    ds.setDepthAskSumTop20(140.0 + i - s * 0.1);
+                    ds.setImbalanceTop20(0.01 * ((i + s) % 7 - 3));
+                    ds.setMicropriceGapBps((i % 5 == 0) ? null : 0.1 * (i % 3));
+                    d.depths.add(ds);
+                }
+            }
+
+            for (int s : new int[] { 0, 30 }) {
+                FMark1s m = new FMark1s();
+                m.setSymbol(SYMBOL);
+                m.setTsUtc(ts.plusSeconds(s));
+                m.setMarkPrice(close + 2.0 + s * 0.01);
+                d.marks.add(m);
+            }
+
+            for (int n = 0; n < (i % 13 == 0 ? 3 : (i % 5 == 0 ? 1 : 0)); n++) {
+                FForceOrder f = new FForceOrder();
+                f.setSymbol(SYMBOL);
+                f.setEventUtc(ts.plusSeconds(5 + n));
+                d.forces.add(f);
+            }
+        }
+        return d;
+    }
+
+    private static LocalDateTime minuteOf(LocalDateTime ts) {
+        return ts.withSecond(0).withNano(0);
+    }
+
+    /**
+     * mapper XML 과 같은 의미로 잘라 주는 in-memory 원천 (kline / agg 는 [from, to), depth / mark 는 분별 마지막)
+     */
+    private static final class Data implements FeatureSourceMapper {
+        final List<FKline1m> klines = new ArrayList<>();
+        final List<FAggTrade1m> aggs = new ArrayList<>();
+        final List<FDepthSnapshot1s> depths = new ArrayList<>();
+        final List<FMark1s> marks = new ArrayList<>();
+        final List<FForceOrder> forces = new ArrayList<>();
+
+        @Override
+        public List<FKline1m> getKlineRange(String symbol, LocalDateTime from, LocalDateTime to) {
+            return range(klines, FKline1m::getTsUtc, from, to);
+        }
+
+        @Override
+        public List<FAggTrade1m> getAggTradeRange(String symbol, LocalDateTime from, LocalDateTime to) {
+            return range(aggs, FAggTrade1m::getTsUtc, from, to);
+        }
+
+        @Override
+        public FDepthSnapshot1s getLatestDepthBefore(String symbol, LocalDateTime beforeTs) {
+            return latestBefore(depths, FDepthSnapshot1s::getTsUtc, beforeTs);
+        }
+
+        @Override
+        public FMark1s getLatestMarkBefore(String symbol, LocalDateTime beforeTs) {
+            return latestBefore(marks, FMark1s::getTsUtc, beforeTs);
+        }
+
+        @Override
+        public List<FDepthSnapshot1s> getDepthLastPerMinute(String symbol, LocalDateTime from, LocalDateTime to) {
+            return lastPerMinute(depths, FDepthSnapshot1s::getTsUtc, from, to);
+        }
+
+        @Override
+        public List<FMark1s> getMarkLastPerMinute(String symbol, LocalDateTime from, LocalDateTime to) {
+            return lastPerMinute(marks, FMark1s::getTsUtc, from, to);
+        }
+
+        @Override
+        public List<MinuteCount> countForceOrdersPerMinute(String symbol, LocalDateTime from, LocalDateTime to) {
+            Map<LocalDateTime, Integer> counts = new TreeMap<>();
+            for (FForceOrder f : range(forces, FForceOrder::getEventUtc, from, to))
+                counts.merge(minuteOf(f.getEventUtc()), 1, Integer::sum);
+            List<MinuteCount> out = new ArrayList<>();
+            counts.forEach((ts, n) -> {
+                MinuteCount c = new MinuteCount();
+                c.setTsUtc(ts);
+                c.setCount(n);
+                out.add(c);
+            });
+            return out;
+        }
+
+        @Override
+        public List<LocalDateTime> getKlineMinutes(String symbol, LocalDateTime from, LocalDateTime to) {
+            return List.of();
+        }
+
+        @Override
+        public List<LocalDateTime> getAggTradeMinutes(String symbol, LocalDateTime from, LocalDateTime to) {
+            return List.of();
+        }
+
+        @Override
+        public List<LocalDateTime> getFeatureMinutes(String symbol, LocalDateTime from, LocalDateTime to) {
+            return List.of();
+        }
+
+        private static <T> List<T> range(List<T> rows, Function<T, LocalDateTime> ts, LocalDateTime from,
+                LocalDateTime to) {
+            List<T> out = new ArrayList<>();
+            for (T r : rows) {
+                LocalDateTime t = ts.apply(r);
+                if (!t.isBefore(from) && t.isBefore(to))
+                    out.add(r);
+            }
+            return out;
+        }
+
+        private static <T> T latestBefore(List<T> rows, Function<T, LocalDateTime> ts, LocalDateTime before) {
+            T best = null;
+            for (T r : rows) {
+                if (ts.apply(r).isBefore(before) && (best == null || ts.apply(r).isAfter(ts.apply(best))))
+                    best = r;
+            }
+            return best;
+        }
+
+        private static <T> List<T> lastPerMinute(List<T> rows, Function<T, LocalDateTime> ts, LocalDateTime from,
+                LocalDateTime to) {
+            Map<LocalDateTime, T> last = new TreeMap<>();
+            for (T r : range(rows, ts, from, to))
+                last.merge(minuteOf(ts.apply(r)), r, (a, b) -> ts.apply(b).isAfter(ts.apply(a)) ? b : a);
+            return new ArrayList<>(last.values());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.dto.TableStatus;
+import com.team_biance.the_coin_killer.mapper.MonitorMapper;
+import com.team_biance.the_coin_killer.model.FKline1m;
+import com.team_biance.the_coin_killer.model.FMark1s;
+import com.team_biance.the_coin_killer.service.TableStatsRegistry.Table;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TableStatsRegistry
+ *
+ * 1) row 수 = information_schema 추정치 + 저장 - 삭제, 최신 시각은 최댓값 유지 (늦게 온 row 로 뒤로 안 감)
+ * 2) seed 는 이미 저장이 들어온 테이블의 MAX(ts_utc) 를 조회하지 않음
+ * 3) lastRow 는 마지막으로 큐에 넣은 row, DB fallback row 는 그 row 를 덮지 않음
+ * 4) 큐에만 들어가고 저장 안 된 row 는 row 수 / 최신 시각에 반영 안 됨
+ */
+class TableStatsRegistryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Test
+    void countsSeedWritesAndDeletes() {
+        AtomicInteger latestQueries = new AtomicInteger();
+        TableStatsRegistry stats = new TableStatsRegistry(fakeMapper(latestQueries));
+
+        stats.onFlushed(Table.KLINE, 1, T0.plusMinutes(1));
+        stats.onFlushed(Table.KLINE, 1, T0);
+        stats.seed();
+
+        assertTrue(stats.isSeeded(Table.KLINE));
+        assertFalse(stats.isSeeded(Table.FORCE_ORDER));
+        assertEquals(1002, stats.rows(Table.KLINE));
+        assertEquals(T0.plusMinutes(1), stats.latest(Table.KLINE));
+
+        // kline 은 이미 저장이 있어 MAX 조회 생략 -> 나머지 7개 테이블만
+        assertEquals(Table.values().length - 1, latestQueries.get());
+        assertEquals(T0.minusHours(1), stats.latest(Table.MARK));
+
+        stats.onDeleted(Table.MARK, 300);
+        stats.onInserted(Table.MARK_MINUTE, 5);
+        assertEquals(200, stats.rows(Table.MARK));
+        assertEquals(5, stats.rows(Table.MARK_MINUTE));
+
+        stats.onDeleted(Table.MARK, 1000);
+        assertEquals(0, stats.rows(Table.MARK));
+    }
+
+    @Test
+    void lastRowPrefersQueuedRow() {
+        TableStatsRegistry stats = new TableStatsRegistry(null);
+        assertNull(stats.lastRow(Table.MARK, FMark1s.class));
+        assertNull(stats.latest(Table.MARK));
+
+        FMark1s fromDb = new FMark1s();
+        fromDb.setTsUtc(T0);
+        stats.offerLastRow(Table.MARK, fromDb, fromDb.getTsUtc());
+        assertSame(fromDb, stats.lastRow(Table.MARK, FMark1s.class));
+        assertEquals(T0, stats.latest(Table.MARK));
+
+        FMark1s live = new FMark1s();
+        live.setTsUtc(T0.plusSeconds(1));
+        stats.onEnqueued(Table.MARK, live);
+        stats.offerLastRow(Table.MARK, fromDb, fromDb.getTsUtc());
+        assertSame(live, stats.lastRow(Table.MARK, FMark1s.class));
+        assertNull(stats.lastRow(Table.MARK, FKline1m.class));
+    }
+
+    @Test
+    void enqueuedRowsDoNotCountUntilFlushed() {
+        TableStatsRegistry stats = new TableStatsRegistry(null);
+        FKline1m queued = kline(T0.plusMinutes(5));
+        stats.onFlushed(Table.KLINE, 3, T0);
+
+        // writer 가 멈춘 상태: 큐에만 들어감
+        stats.onEnqueued(Table.KLINE, queued);
+        assertSame(queued, stats.lastRow(Table.KLINE, FKline1m.class));
+        assertEquals(3, stats.rows(Table.KLINE));
+        assertEquals(T0, stats.latest(Table.KLINE));
+
+        stats.onFlushed(Table.KLINE, 1, queued.getTsUtc());
+        assertEquals(4, stats.rows(Table.KLINE));
+        assertEquals(T0.plusMinutes(5), stats.latest(Table.KLINE));
+    }
+
+    private static MonitorMapper fakeMapper(AtomicInteger latestQueries) {
+        return (MonitorMapper) Proxy.newProxyInstance(MonitorMapper.class.getClassLoader(),
+                new Class<?>[] { MonitorMapper.class }, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("tableRowEstimates"))
+                        return List.of(estimate("f_kline_1m", 1000), estimate("f_mark_1s", 500));
+                    if (name.startsWith("latest")) {
+                        latestQueries.incrementAndGet();
+                        return name.equals("latestMarkTime") ? T0.minusHours(1) : null;
+                    }
+                    throw new UnsupportedOperationException(name);
+                });
+    }
+
+    private static TableStatus estimate(String table, long rows) {
+        TableStatus s = new TableStatus();
+        s.setTableName(table);
+        s.setTotalCount(rows);
+        return s;
+    }
+
+    private static FKline1m kline(LocalDateTime ts) {
+        FKline1m k = new FKline1m();
+        k.setTsUtc(ts);
+        return k;
+    }
+}
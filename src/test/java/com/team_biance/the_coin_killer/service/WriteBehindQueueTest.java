@@ -0,0 +1,107 @@
+package com.team_biance.the_coin_killer.service;
+
+import com.team_biance.the_coin_killer.service.WriteBehindQueue.Backpressure;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WriteBehindQueue flush 실패 처리
+ *
+ * 1) BLOCK: 일시적 DB 오류(연결 끊김)면 같은 batch 를 재시도해서 결국 전부 저장 (유실 0)
+ * 2) DROP_OLDEST: 일시적 오류로 실패한 batch 는 재시도 없이 버림
+ * 3) onFlushed 는 저장에 성공한 batch 만 받음
+ * 4) 영구 오류(제약 위반 / 값 잘림): 재시도 없이 batch 를 나눠 나쁜 row 만 버리고 나머지는 순서대로 저장
+ * 5) 오류 분류: cause 를 따라가며 연결 / deadlock / lock wait 만 일시적
+ */
+class WriteBehindQueueTest {
+
+    @Test
+    void blockQueueRetriesFailedBatchUntilSaved() {
+        List<Integer> saved = new ArrayList<>();
+        List<Integer> committed = new ArrayList<>();
+        AtomicInteger failures = new AtomicInteger(2);
+        WriteBehindQueue<Integer> q = new WriteBehindQueue<>("test-block", 100, 10, 5, Backpressure.BLOCK, rows -> {
+            if (failures.getAndDecrement() > 0)
+                throw new IllegalStateException(new SQLTransientConnectionException("Communications link failure", "08S01"));
+            saved.addAll(rows);
+        }, null, committed::addAll);
+
+        for (int i = 0; i < 5; i++)
+            q.offer(i);
+        q.close(5_000);
+
+        WriteBehindQueue.Stats s = q.stats();
+        assertEquals(List.of(0, 1, 2, 3, 4), saved);
+        assertEquals(saved, committed);
+        assertEquals(5, s.flushedRows());
+        assertEquals(0, s.failedRows());
+        assertEquals(2, s.retries());
+    }
+
+    @Test
+    void dropOldestQueueDropsFailedBatch() {
+        List<Integer> committed = new ArrayList<>();
+        WriteBehindQueue<Integer> q = new WriteBehindQueue<>("test-drop", 100, 10, 5, Backpressure.DROP_OLDEST, rows -> {
+            throw new IllegalStateException(new SQLTransactionRollbackException("Deadlock found", "40001", 1213));
+        }, null, committed::addAll);
+
+        for (int i = 0; i < 3; i++)
+            q.offer(i);
+        q.close(5_000);
+
+        WriteBehindQueue.Stats s = q.stats();
+        assertEquals(0, s.flushedRows());
+        assertEquals(3, s.failedRows());
+        assertEquals(0, s.rejectedRows());
+        assertEquals(0, s.retries());
+        assertEquals(List.of(), committed);
+    }
+
+    @Test
+    void permanentErrorRejectsOnlyBadRows() {
+        List<Integer> saved = new ArrayList<>();
+        List<Integer> committed = new ArrayList<>();
+        WriteBehindQueue<Integer> q = new WriteBehindQueue<>("test-split", 100, 10, 5, Backpressure.BLOCK, rows -> {
+            if (rows.contains(3))
+                throw new DataIntegrityViolationException("Column 'symbol' cannot be null");
+            if (rows.contains(7))
+                throw new IllegalStateException(new SQLDataException("Data truncation: Out of range value", "22003"));
+            saved.addAll(rows);
+        }, null, committed::addAll);
+
+        for (int i = 0; i < 10; i++)
+            q.offer(i);
+        q.close(5_000);
+
+        WriteBehindQueue.Stats s = q.stats();
+        assertEquals(List.of(0, 1, 2, 4, 5, 6, 8, 9), saved);
+        assertEquals(saved, committed);
+        assertEquals(8, s.flushedRows());
+        assertEquals(2, s.failedRows());
+        assertEquals(2, s.rejectedRows());
+        assertEquals(0, s.retries());
+    }
+
+    @Test
+    void classifiesTransientErrors() {
+        assertTrue(WriteBehindQueue.isTransient(
+                new RuntimeException(new SQLTransientConnectionException("Communications link failure", "08S01"))));
+        assertTrue(WriteBehindQueue.isTransient(new SQLException("Lock wait timeout exceeded", "HY000", 1205)));
+        assertTrue(WriteBehindQueue.isTransient(new SQLException("Deadlock found", "40001", 1213)));
+        assertFalse(WriteBehindQueue.isTransient(new DataIntegrityViolationException("Duplicate entry")));
+        assertFalse(WriteBehindQueue.isTransient(new SQLException("You have an error in your SQL syntax", "42000", 1064)));
+        assertFalse(WriteBehindQueue.isTransient(new NullPointerException()));
+    }
+}
@@ -0,0 +1,95 @@
+-- 배치 upsert 벤치마크용 최소 스키마 (upsertBatch 가 있는 mapper 테이블 전부)
+CREATE TABLE IF NOT EXISTS f_kline_1m (
+    symbol        VARCHAR(20)  NOT NULL,
+    ts_utc        DATETIME(3)  NOT NULL,
+    open_         DOUBLE       NOT NULL,
+    high_         DOUBLE       NOT NULL,
+    low_          DOUBLE       NOT NULL,
+    close_        DOUBLE       NOT NULL,
+    volume_       DOUBLE       NOT NULL,
+    trade_count   INT          NOT NULL,
+    quote_volume  DOUBLE       NULL,
+    taker_buy_vol DOUBLE       NULL,
+    taker_buy_qv  DOUBLE       NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS f_mark_1s (
+    symbol           VARCHAR(20)  NOT NULL,
+    ts_utc           DATETIME(3)  NOT NULL,
+    mark_price       DOUBLE       NOT NULL,
+    index_price      DOUBLE       NULL,
+    funding_rate     DOUBLE       NULL,
+    next_funding_utc DATETIME(3)  NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS f_mark_1m (
+    symbol            VARCHAR(20)  NOT NULL,
+    ts_utc            DATETIME(3)  NOT NULL,
+    sample_count      INT          NOT NULL,
+    mark_price_last   DOUBLE       NOT NULL,
+    mark_price_avg    DOUBLE       NOT NULL,
+    index_price_last  DOUBLE       NULL,
+    basis_bps_avg     DOUBLE       NULL,
+    funding_rate_last DOUBLE       NULL,
+    funding_rate_avg  DOUBLE       NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS f_depth_snapshot_1s (
+    symbol              VARCHAR(20)  NOT NULL,
+    ts_utc              DATETIME(3)  NOT NULL,
+    best_bid            DOUBLE       NOT NULL,
+    best_ask            DOUBLE       NOT NULL,
+    mid_price           DOUBLE       NOT NULL,
+    spread_bps          DOUBLE       NOT NULL,
+    depth_bid_sum_top20 DOUBLE       NOT NULL,
+    depth_ask_sum_top20 DOUBLE       NOT NULL,
+    imbalance_top20     DOUBLE       NOT NULL,
+    microprice          DOUBLE       NULL,
+    microprice_gap_bps  DOUBLE       NULL,
+    bids_gzip           BLOB         NULL,
+    asks_gzip           BLOB         NULL,
+    compress_algo       VARCHAR(16)  NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS f_depth_1m (
+    symbol                 VARCHAR(20)  NOT NULL,
+    ts_utc                 DATETIME(3)  NOT NULL,
+    sample_count           INT          NOT NULL,
+    spread_bps_avg         DOUBLE       NOT NULL,
+    spread_bps_min         DOUBLE       NOT NULL,
+    spread_bps_max         DOUBLE       NOT NULL,
+    imbalance_top20_avg    DOUBLE       NOT NULL,
+    microprice_gap_bps_avg DOUBLE       NULL,
+    mid_price_avg          DOUBLE       NOT NULL,
+    mid_price_last         DOUBLE       NOT NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS f_aggtrade_1m (
+    symbol         VARCHAR(20)  NOT NULL,
+    ts_utc         DATETIME(3)  NOT NULL,
+    taker_buy_qty  DOUBLE       NOT NULL,
+    taker_sell_qty DOUBLE       NOT NULL,
+    trade_count    INT          NOT NULL,
+    vwap_price     DOUBLE       NULL,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS feature_minute (
+    symbol              VARCHAR(20)  NOT NULL,
+    ts_utc              DATETIME(3)  NOT NULL,
+    open_1m             DOUBLE, high_1m DOUBLE, low_1m DOUBLE, close_1m DOUBLE,
+    volume_1m           DOUBLE, trade_count_1m INT,
+    ret1m_log           DOUBLE, ret5m_log DOUBLE, ret15m_log DOUBLE, range_bps_1m DOUBLE,
+    rv15m               DOUBLE, rv60m DOUBLE,
+    vol_z_60m           DOUBLE, rvol_tod DOUBLE, avg_trade_size_1m DOUBLE, vwap_gap_bps DOUBLE,
+    taker_buy_qty_1m    DOUBLE, taker_sell_qty_1m DOUBLE, buy_ratio_1m DOUBLE, cvd_1m DOUBLE, cvd_15m DOUBLE,
+    mid_price_1s        DOUBLE, spread_bps_1s DOUBLE,
+    depth_bid_sum_top20 DOUBLE, depth_ask_sum_top20 DOUBLE, imbalance_top20 DOUBLE, microprice_gap_bps DOUBLE,
+    mark_spot_bps       DOUBLE, oi_chg_1m DOUBLE, liq_count_1m INT,
+    PRIMARY KEY (symbol, ts_utc)
+) ENGINE = InnoDB;
@@ -0,0 +1,104 @@
+"""
+expected_features.csv 생성 (FeatureWindowExporterTest.lagColumnsMatchDataLoader 기대값)
+
+- 같은 폴더의 kline / depth_1m / mark_1m / aggtrade_1m / forceorder_1m CSV 를 DB 대신 넘기고
+  data_loader.load_features_from_raw (학습 경로) 를 그대로 실행
+- warmup 61분을 뺀 row 의 LAG / rolling 컬럼만 저장
+
+실행 (프로젝트 루트, requirements 설치된 환경):
+  python src/test/resources/features/make_expected.py
+"""
+from __future__ import annotations
+
+import os
+import sys
+from datetime import datetime, timezone
+
+import pandas as pd
+
+HERE = os.path.dirname(os.path.abspath(__file__))
+sys.path.insert(0, os.path.join(HERE, "..", "..", "..", "main", "python"))
+
+import data_loader  # noqa: E402
+
+SYMBOL = "BTCUSDT"
+COLUMNS = [
+    "spread_bps", "imbalance_top20", "microprice_gap_bps",
+    "mark_spot_bps", "funding_rate",
+    "vwap_gap_bps", "avg_trade_size_1m",
+    "liq_count_1m",
+    "rv15m", "rv60m", "vol_z_60m",
+]
+
+
+def _csv(name: str) -> pd.DataFrame:
+    return pd.read_csv(os.path.join(HERE, name), parse_dates=["ts_utc"])
+
+
+class _NoConn:
+    def close(self):
+        pass
+
+
+def _read_sql(sql, conn, params=None):
+    if "f_kline_1m" in sql:
+        k = _csv("kline.csv")
+        return pd.DataFrame({
+            "symbol": SYMBOL,
+            "ts_utc": k["ts_utc"],
+            "open_1m": k["open_"], "high_1m": k["high_"], "low_1m": k["low_"], "close_1m": k["close_"],
+            "volume_1m": k["volume_"], "trade_count_1m": k["trade_count"],
+            "taker_buy_vol": k["taker_buy_vol"], "taker_sell_vol": k["volume_"] - k["taker_buy_vol"],
+        })
+    if "f_aggtrade_1m" in sql:
+        a = _csv("aggtrade_1m.csv")
+        return pd.DataFrame({
+            "ts_minute": a["ts_utc"],
+            "taker_buy_qty": a["taker_buy_qty"], "taker_sell_qty": a["taker_sell_qty"],
+            "agg_trade_count": a["trade_count"], "vwap_price": a["vwap_price"],
+        })
+    if "f_forceorder" in sql:
+        f = _csv("forceorder_1m.csv")
+        return pd.DataFrame({
+            "ts_minute": f["ts_utc"].dt.strftime("%Y-%m-%d %H:%M:00"),
+            "liq_count_1m": f["liq_count"],
+        })
+    raise ValueError(f"unexpected sql: {sql}")
+
+
+def _depth_minutes(conn, symbol, start_ts, end_ts):
+    d = _csv("depth_1m.csv")
+    return pd.DataFrame({
+        "ts_minute": pd.to_datetime(d["ts_utc"], utc=True),
+        "spread_bps": d["spread_bps_avg"], "imbalance_top20": d["imbalance_top20_avg"],
+        "microprice_gap_bps": d["microprice_gap_bps_avg"], "mid_price": d["mid_price_avg"],
+    })
+
+
+def _mark_minutes(conn, symbol, start_ts, end_ts):
+    m = _csv("mark_1m.csv")
+    return pd.DataFrame({
+        "ts_minute": pd.to_datetime(m["ts_utc"], utc=True),
+        "mark_price_avg": m["mark_price_avg"], "funding_rate": m["funding_rate_avg"],
+    })
+
+
+def main():
+    data_loader._connect = lambda: _NoConn()
+    data_loader.load_depth_minutes = _depth_minutes
+    data_loader.load_mark_minutes = _mark_minutes
+    pd.read_sql = _read_sql
+
+    last = _csv("kline.csv")["ts_utc"].max().to_pydatetime()
+    end = last.replace(tzinfo=timezone.utc) + pd.Timedelta(minutes=1)
+    df = data_loader.load_features_from_raw(symbol=SYMBOL, days=1, end_ts_utc=end)
+
+    out = pd.DataFrame({"ts_utc": df["ts_utc"].dt.strftime("%Y-%m-%d %H:%M:%S")})
+    for c in COLUMNS:
+        out[c] = df[c].astype(float)
+    out.to_csv(os.path.join(HERE, "expected_features.csv"), index=False, float_format="%.17g")
+    print(f"wrote {len(out)} rows at {datetime.now(timezone.utc):%Y-%m-%d %H:%M:%S}Z")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,79 @@
+"""
+<model>_parity.csv 의 proba 컬럼을 LightGBM Booster.predict 로 다시 계산
+(LightGbmModelParityTest.matchesCommittedParityFixture 기대값)
+
+- 같은 폴더의 <model>.txt 마다 <model>_parity.csv 가 있으면 처리 (기본: lgbm_fixture, tiny_model)
+- csv 의 feature 컬럼(빈 칸 = NaN)은 그대로 두고 proba 만 덮어씀
+  parity csv 가 없는 모델은 --rows 로 준 입력 csv 가 있어야 만듦
+- Booster.predict(raw_score=False) = sigmoid(sum of leaf) (objective=binary)
+
+실행 (프로젝트 루트, lightgbm 설치된 환경):
+  python src/test/resources/lgbm/make_parity.py [model ...]
+"""
+from __future__ import annotations
+
+import argparse
+import csv
+import math
+import os
+
+import lightgbm as lgb
+import numpy as np
+
+HERE = os.path.dirname(os.path.abspath(__file__))
+
+
+def _read(path: str) -> tuple[list[str], list[list[str]]]:
+    with open(path, newline="", encoding="utf-8") as f:
+        rows = list(csv.reader(f))
+    return rows[0], rows[1:]
+
+
+def _cell(v: str) -> float:
+    return math.nan if v == "" else float(v)
+
+
+def regenerate(model: str, rows_csv: str | None = None) -> int:
+    booster = lgb.Booster(model_file=os.path.join(HERE, model + ".txt"))
+    names = booster.feature_name()
+
+    out_path = os.path.join(HERE, model + "_parity.csv")
+    header, rows = _read(rows_csv or out_path)
+    if "proba" not in header:
+        header = header + ["proba"]
+        rows = [r + [""] for r in rows]
+    index = {c: i for i, c in enumerate(header)}
+    missing = [n for n in names if n not in index]
+    if missing:
+        raise ValueError(f"{model}: feature columns missing from csv: {missing}")
+
+    X = np.array([[_cell(r[index[n]]) for n in names] for r in rows], dtype=np.float64)
+    proba = booster.predict(X, raw_score=False)
+
+    p = index["proba"]
+    for r, v in zip(rows, proba):
+        r[p] = repr(float(v))
+    with open(out_path, "w", newline="", encoding="utf-8") as f:
+        w = csv.writer(f, lineterminator="\n")
+        w.writerow(header)
+        w.writerows(rows)
+    return len(rows)
+
+
+def main():
+    ap = argparse.ArgumentParser()
+    ap.add_argument("models", nargs="*", default=["lgbm_fixture", "tiny_model"])
+    ap.add_argument("--rows", help="입력 feature csv (parity csv 가 아직 없는 모델 1개용)")
+    args = ap.parse_args()
+
+    print(f"lightgbm {lgb.__version__}")
+    for model in args.models:
+        rows_csv = args.rows if len(args.models) == 1 else None
+        if rows_csv is None and not os.path.exists(os.path.join(HERE, model + "_parity.csv")):
+            print(f"{model}: no parity csv, skipped (give --rows)")
+            continue
+        print(f"{model}: {regenerate(model, rows_csv)} rows")
+
+
+if __name__ == "__main__":
+    main()